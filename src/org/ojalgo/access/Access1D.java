@@ -25,6 +25,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.atomic.DoubleAdder;
 import java.util.stream.BaseStream;
+import java.util.stream.DoubleStream;
 import java.util.stream.StreamSupport;
 
 import org.ojalgo.function.ConsumerFunction;
@@ -379,6 +380,14 @@ public interface Access1D<N extends Number> extends Structure1D, Iterable<N> {
         return retVal.doubleValue();
     }
 
+    /**
+     * A primitive stream of all elements (no boxing), with a SIZED/SUBSIZED spliterator that splits on cache
+     * line boundaries.
+     */
+    default DoubleStream doubleStream(final boolean parallel) {
+        return StreamSupport.doubleStream(Spliterator1D.of(this), parallel);
+    }
+
     double doubleValue(long index);
 
     /**
@@ -22,6 +22,8 @@
 package org.ojalgo.access;
 
 import java.util.Iterator;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
 
 import org.ojalgo.function.ConsumerFunction;
 import org.ojalgo.function.aggregator.Aggregator;
@@ -522,6 +524,14 @@ public interface Access2D<N extends Number> extends Structure2D, Access1D<N> {
         return ColumnView.makeIterable(this);
     }
 
+    /**
+     * A primitive stream of the elements in one column (no boxing).
+     */
+    default DoubleStream columnStream(final long col, final boolean parallel) {
+        final long tmpRowDim = this.countRows();
+        return StreamSupport.doubleStream(Spliterator1D.of(this, col * tmpRowDim, 1L, tmpRowDim), parallel);
+    }
+
     default double doubleValue(final long index) {
         final long tmpStructure = this.countRows();
         return this.doubleValue(Structure2D.row(index, tmpStructure), Structure2D.column(index, tmpStructure));
@@ -547,6 +557,13 @@ public interface Access2D<N extends Number> extends Structure2D, Access1D<N> {
 
     N get(long row, long col);
 
+    /**
+     * A primitive stream of the elements in one row (no boxing).
+     */
+    default DoubleStream rowStream(final long row, final boolean parallel) {
+        return StreamSupport.doubleStream(Spliterator1D.of(this, row, this.countRows(), this.countColumns()), parallel);
+    }
+
     default Iterable<RowView<N>> rows() {
         return RowView.makeIterable(this);
     }
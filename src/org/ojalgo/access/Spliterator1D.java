@@ -0,0 +1,209 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.access;
+
+import java.util.Spliterator;
+import java.util.function.DoubleConsumer;
+
+/**
+ * A primitive double {@link Spliterator} over a (possibly strided) range of elements – no boxing. It is SIZED
+ * and SUBSIZED, and when the elements are contiguous it splits on index multiples of {@link #LINE} so that
+ * parallel workers don't share cache lines.
+ *
+ * @author apete
+ */
+public abstract class Spliterator1D implements Spliterator.OfDouble {
+
+    static final class AccessBased extends Spliterator1D {
+
+        private final Access1D<?> myAccess;
+
+        AccessBased(final Access1D<?> access, final long offset, final long step, final long first, final long limit) {
+            super(offset, step, first, limit);
+            myAccess = access;
+        }
+
+        @Override
+        double doubleValue(final long index) {
+            return myAccess.doubleValue(index);
+        }
+
+        @Override
+        Spliterator1D make(final long first, final long limit) {
+            return new AccessBased(myAccess, this.getOffset(), this.getStep(), first, limit);
+        }
+
+    }
+
+    static final class ArrayBased extends Spliterator1D {
+
+        private final double[] myData;
+
+        ArrayBased(final double[] data, final long offset, final long step, final long first, final long limit) {
+            super(offset, step, first, limit);
+            myData = data;
+        }
+
+        @Override
+        public void forEachRemaining(final DoubleConsumer action) {
+            final double[] tmpData = myData;
+            final int tmpStep = (int) this.getStep();
+            int tmpIndex = (int) this.index(this.getCursor());
+            for (long k = this.getCursor(), tmpLimit = this.getLimit(); k < tmpLimit; k++, tmpIndex += tmpStep) {
+                action.accept(tmpData[tmpIndex]);
+            }
+            this.setCursor(this.getLimit());
+        }
+
+        @Override
+        double doubleValue(final long index) {
+            return myData[(int) index];
+        }
+
+        @Override
+        Spliterator1D make(final long first, final long limit) {
+            return new ArrayBased(myData, this.getOffset(), this.getStep(), first, limit);
+        }
+
+    }
+
+    public static final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL
+            | Spliterator.IMMUTABLE;
+
+    /**
+     * The number of doubles in a (64 byte) cache line
+     */
+    public static final long LINE = 8L;
+
+    public static Spliterator1D of(final Access1D<?> access) {
+        return new AccessBased(access, 0L, 1L, 0L, access.count());
+    }
+
+    /**
+     * The elements access.doubleValue(offset + k * step) for k = 0...count-1
+     */
+    public static Spliterator1D of(final Access1D<?> access, final long offset, final long step, final long count) {
+        return new AccessBased(access, offset, step, 0L, count);
+    }
+
+    public static Spliterator1D of(final double[] data) {
+        return new ArrayBased(data, 0L, 1L, 0L, data.length);
+    }
+
+    /**
+     * The elements data[offset + k * step] for k = 0...count-1
+     */
+    public static Spliterator1D of(final double[] data, final int offset, final int step, final int count) {
+        return new ArrayBased(data, offset, step, 0L, count);
+    }
+
+    private long myCursor;
+    private final long myLimit;
+    private final long myOffset;
+    private final long myStep;
+
+    Spliterator1D(final long offset, final long step, final long first, final long limit) {
+
+        super();
+
+        myOffset = offset;
+        myStep = step;
+        myCursor = first;
+        myLimit = limit;
+    }
+
+    public final int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+    public final long estimateSize() {
+        return myLimit - myCursor;
+    }
+
+    @Override
+    public void forEachRemaining(final DoubleConsumer action) {
+        for (long k = myCursor; k < myLimit; k++) {
+            action.accept(this.doubleValue(this.index(k)));
+        }
+        myCursor = myLimit;
+    }
+
+    public final boolean tryAdvance(final DoubleConsumer action) {
+        if (myCursor < myLimit) {
+            action.accept(this.doubleValue(this.index(myCursor++)));
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    public final Spliterator1D trySplit() {
+
+        final long tmpRemaining = myLimit - myCursor;
+
+        if (tmpRemaining < (LINE + LINE)) {
+            return null;
+        }
+
+        long tmpSplit = myCursor + (tmpRemaining / 2L);
+
+        if (myStep == 1L) {
+            final long tmpAligned = (((myOffset + tmpSplit) / LINE) * LINE) - myOffset;
+            if (tmpAligned > myCursor) {
+                tmpSplit = tmpAligned;
+            }
+        }
+
+        final Spliterator1D retVal = this.make(myCursor, tmpSplit);
+        myCursor = tmpSplit;
+        return retVal;
+    }
+
+    final long getCursor() {
+        return myCursor;
+    }
+
+    final long getLimit() {
+        return myLimit;
+    }
+
+    final long getOffset() {
+        return myOffset;
+    }
+
+    final long getStep() {
+        return myStep;
+    }
+
+    final long index(final long position) {
+        return myOffset + (position * myStep);
+    }
+
+    final void setCursor(final long cursor) {
+        myCursor = cursor;
+    }
+
+    abstract double doubleValue(long index);
+
+    abstract Spliterator1D make(long first, long limit);
+
+}
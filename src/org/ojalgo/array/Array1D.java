@@ -41,7 +41,6 @@ import org.ojalgo.function.NullaryFunction;
 import org.ojalgo.function.UnaryFunction;
 import org.ojalgo.function.ConsumerFunction;
 import org.ojalgo.function.aggregator.Aggregator;
-import org.ojalgo.function.aggregator.AggregatorFunction;
 import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.Quaternion;
 import org.ojalgo.scalar.RationalNumber;
@@ -275,9 +274,7 @@ public final class Array1D<N extends Number> extends AbstractList<N>
     }
 
     public N aggregateRange(long first, long limit, Aggregator aggregator) {
-        AggregatorFunction<N> visitor = aggregator.getFunction(myDelegate.factory().aggregator());
-        this.visitRange(first, limit, visitor);
-        return visitor.get();
+        return myDelegate.factory().aggregator().aggregate(aggregator, first, limit, (f, l, visitor) -> this.visitRange(f, l, visitor));
     }
 
     @Override
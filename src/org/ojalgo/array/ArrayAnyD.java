@@ -165,6 +165,20 @@ public final class ArrayAnyD<N extends Number> implements AccessAnyD<N>, AccessA
         myDelegate.reset();
     }
 
+    /**
+     * @see StridedAnyD#collapse(int, Aggregator)
+     */
+    public ArrayAnyD<N> collapse(final int dimension, final Aggregator aggregator) {
+        return this.strided().collapse(dimension, aggregator);
+    }
+
+    /**
+     * @see StridedAnyD#contract(StridedAnyD, int[], int[])
+     */
+    public ArrayAnyD<N> contract(final ArrayAnyD<N> right, final int[] axes, final int[] rightAxes) {
+        return this.strided().contract(right.strided(), axes, rightAxes);
+    }
+
     public long count() {
         return myDelegate.count();
     }
@@ -340,48 +354,25 @@ public final class ArrayAnyD<N extends Number> implements AccessAnyD<N>, AccessA
         this.loop(initial, dimension, (f, l, s) -> myDelegate.modify(f, l, s, modifier));
     }
 
+    /**
+     * @see StridedAnyD#permute(int...)
+     */
+    public StridedAnyD<N> permute(final int... axes) {
+        return this.strided().permute(axes);
+    }
+
     public int rank() {
         return myStructure.length;
     }
 
     public Array1D<N> reduce(int dimension, Aggregator aggregator) {
-        final long reduceToCount = StructureAnyD.count(myStructure, dimension);
-        Array1D<N> retVal = myDelegate.factory().makeZero(reduceToCount).wrapInArray1D();
-        this.reduce(dimension, aggregator, retVal);
-        return retVal;
+        return this.strided().reduce(new int[] { dimension }, aggregator).wrapInArray1D();
     }
 
     @Override
     public Array2D<N> reduce(int rowDimension, int columnDimension, Aggregator aggregator) {
-
-        long[] structure = this.shape();
-
-        long numberOfRows = structure[rowDimension];
-        long numberOfColumns = structure[columnDimension];
-
-        AggregatorFunction<N> visitor = aggregator.getFunction(myDelegate.factory().aggregator());
-
-        final boolean primitive = myDelegate.isPrimitive();
-
-        Array2D<N> retVal = myDelegate.factory().makeZero(numberOfRows * numberOfColumns).wrapInArray2D(numberOfRows);
-
-        for (long j = 0L; j < numberOfColumns; j++) {
-            final long colInd = j;
-
-            for (long i = 0L; i < numberOfRows; i++) {
-                final long rowInd = i;
-
-                visitor.reset();
-                this.loop(reference -> (reference[rowDimension] == rowInd) && (reference[columnDimension] == colInd), index -> this.visitOne(index, visitor));
-                if (primitive) {
-                    retVal.set(rowInd, colInd, visitor.doubleValue());
-                } else {
-                    retVal.set(rowInd, colInd, visitor.get());
-                }
-            }
-        }
-
-        return retVal;
+        final long numberOfRows = this.count(rowDimension);
+        return this.strided().reduce(new int[] { rowDimension, columnDimension }, aggregator).wrapInArray2D(numberOfRows);
     }
 
     public void set(final long index, final double value) {
@@ -423,6 +414,13 @@ public final class ArrayAnyD<N extends Number> implements AccessAnyD<N>, AccessA
         return new Array1D<>(myDelegate, first.longValue(), limit.longValue(), step.longValue());
     }
 
+    /**
+     * @return A strided view of this array (no copying) that can be permuted, sliced...
+     */
+    public StridedAnyD<N> strided() {
+        return new StridedAnyD<>(myDelegate, 0L, myStructure, StridedAnyD.strides(myStructure));
+    }
+
     @Override
     public String toString() {
 
@@ -445,6 +443,13 @@ public final class ArrayAnyD<N extends Number> implements AccessAnyD<N>, AccessA
         return retVal.toString();
     }
 
+    /**
+     * @see StridedAnyD#transpose()
+     */
+    public StridedAnyD<N> transpose() {
+        return this.strided().transpose();
+    }
+
     public void visitAll(final ConsumerFunction<N> visitor) {
         myDelegate.visit(0L, this.count(), 1L, visitor);
     }
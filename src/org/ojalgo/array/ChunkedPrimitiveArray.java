@@ -0,0 +1,249 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array;
+
+import java.util.Arrays;
+
+import org.ojalgo.access.Access1D;
+import org.ojalgo.constant.PrimitiveMath;
+import org.ojalgo.function.ConsumerFunction;
+import org.ojalgo.function.aggregator.Aggregator;
+import org.ojalgo.function.aggregator.PrimitiveAggregator;
+
+/**
+ * An append-only, growable, array of primitive double values. The elements are stored in fixed size chunks
+ * (a power of 2). Growing allocates a new chunk - existing elements are never copied. Only the directory of
+ * chunk references is copied now and then.
+ * <p>
+ * Intended for high-rate ingestion: one thread appends while any number of other threads read. Readers see
+ * (at least) all elements appended before {@link #count()} was read, without any locking.
+ * <p>
+ * To use it as a series, wrap it: {@link org.ojalgo.series.primitive.PrimitiveSeries#wrap(Access1D)}. It is
+ * not a backing store for {@link LongToNumberMap} - the map's values are kept in key order, and entries are
+ * inserted and removed anywhere, which an append-only structure can't do.
+ *
+ * @author apete
+ */
+public final class ChunkedPrimitiveArray implements Access1D<Double>, Access1D.Aggregatable<Double>, Access1D.Visitable<Double> {
+
+    /**
+     * Default chunk size: 8192 elements (64kB)
+     */
+    public static final int CHUNK = 1 << 13;
+
+    public static ChunkedPrimitiveArray make() {
+        return new ChunkedPrimitiveArray(CHUNK);
+    }
+
+    /**
+     * @param chunk The chunk size (number of elements), will be rounded up to a power of 2
+     */
+    public static ChunkedPrimitiveArray make(final int chunk) {
+        return new ChunkedPrimitiveArray(chunk);
+    }
+
+    private double[][] myChunks;
+    private volatile long myCount = 0L;
+    private final int myMask;
+    private final int myShift;
+
+    ChunkedPrimitiveArray(final int chunk) {
+
+        super();
+
+        myShift = PrimitiveMath.powerOf2Larger(Math.max(1, chunk));
+        myMask = (1 << myShift) - 1;
+
+        myChunks = new double[4][];
+    }
+
+    public Double aggregateRange(final long first, final long limit, final Aggregator aggregator) {
+        return PrimitiveAggregator.getSet().aggregate(aggregator, first, limit, (f, l, visitor) -> this.visitRange(f, l, visitor));
+    }
+
+    /**
+     * Append one element
+     */
+    public void append(final double value) {
+
+        final long tmpCount = myCount;
+        final int tmpOffset = (int) (tmpCount & myMask);
+
+        this.chunk(tmpCount, tmpOffset == 0)[tmpOffset] = value;
+
+        myCount = tmpCount + 1L;
+    }
+
+    public void appendAll(final Access1D<?> values) {
+        for (long i = 0L, tmpLimit = values.count(); i < tmpLimit; i++) {
+            this.append(values.doubleValue(i));
+        }
+    }
+
+    public void appendAll(final double[] values) {
+        this.appendAll(values, 0, values.length);
+    }
+
+    /**
+     * Bulk append: the values are copied chunk by chunk, and the count is updated once.
+     */
+    public void appendAll(final double[] values, final int offset, final int length) {
+
+        long tmpCount = myCount;
+
+        int tmpCopied = 0;
+        while (tmpCopied < length) {
+            final int tmpOffset = (int) (tmpCount & myMask);
+            final int tmpLength = Math.min(length - tmpCopied, (myMask + 1) - tmpOffset);
+            System.arraycopy(values, offset + tmpCopied, this.chunk(tmpCount, tmpOffset == 0), tmpOffset, tmpLength);
+            tmpCopied += tmpLength;
+            tmpCount += tmpLength;
+        }
+
+        myCount = tmpCount;
+    }
+
+    /**
+     * The number of elements that fit in the currently allocated chunks
+     */
+    public long capacity() {
+        final double[][] tmpChunks = myChunks;
+        int tmpAllocated = 0;
+        while ((tmpAllocated < tmpChunks.length) && (tmpChunks[tmpAllocated] != null)) {
+            tmpAllocated++;
+        }
+        return (long) tmpAllocated << myShift;
+    }
+
+    public int chunkSize() {
+        return myMask + 1;
+    }
+
+    /**
+     * Bulk read the elements [first, limit) to the destination array, starting at offset.
+     */
+    public void copyRange(final long first, final long limit, final double[] destination, final int offset) {
+
+        final double[][] tmpChunks = this.chunks(limit);
+
+        long tmpIndex = first;
+        int tmpDestination = offset;
+        while (tmpIndex < limit) {
+            final int tmpOffset = (int) (tmpIndex & myMask);
+            final int tmpLength = (int) Math.min(limit - tmpIndex, (myMask + 1) - tmpOffset);
+            System.arraycopy(tmpChunks[(int) (tmpIndex >> myShift)], tmpOffset, destination, tmpDestination, tmpLength);
+            tmpIndex += tmpLength;
+            tmpDestination += tmpLength;
+        }
+    }
+
+    public long count() {
+        return myCount;
+    }
+
+    public double doubleValue(final long index) {
+        return this.chunks(index + 1L)[(int) (index >> myShift)][(int) (index & myMask)];
+    }
+
+    public Double get(final long index) {
+        return this.doubleValue(index);
+    }
+
+    /**
+     * Removes all elements. The first chunk is kept, the others are released. Must only be called by the
+     * appending thread, with no concurrent readers.
+     */
+    public void reset() {
+        myCount = 0L;
+        final double[][] tmpChunks = new double[4][];
+        tmpChunks[0] = myChunks[0];
+        myChunks = tmpChunks;
+    }
+
+    @Override
+    public void supplyTo(final double[] receiver) {
+        this.copyRange(0L, Math.min(receiver.length, myCount), receiver, 0);
+    }
+
+    @Override
+    public double[] toRawCopy1D() {
+        final long tmpCount = myCount;
+        final double[] retVal = new double[(int) tmpCount];
+        this.copyRange(0L, tmpCount, retVal, 0);
+        return retVal;
+    }
+
+    public void visitOne(final long index, final ConsumerFunction<Double> visitor) {
+        visitor.invoke(this.doubleValue(index));
+    }
+
+    @Override
+    public void visitRange(final long first, final long limit, final ConsumerFunction<Double> visitor) {
+
+        final double[][] tmpChunks = this.chunks(limit);
+
+        long tmpIndex = first;
+        while (tmpIndex < limit) {
+            final double[] tmpChunk = tmpChunks[(int) (tmpIndex >> myShift)];
+            final int tmpOffset = (int) (tmpIndex & myMask);
+            final int tmpLimit = (int) Math.min((limit - tmpIndex) + tmpOffset, myMask + 1);
+            for (int i = tmpOffset; i < tmpLimit; i++) {
+                visitor.invoke(tmpChunk[i]);
+            }
+            tmpIndex += tmpLimit - tmpOffset;
+        }
+    }
+
+    /**
+     * The chunk for the element at index. When allocate is true a new chunk is allocated (and the directory
+     * grown if necessary) before it is returned.
+     */
+    private double[] chunk(final long index, final boolean allocate) {
+
+        final int tmpChunk = (int) (index >> myShift);
+
+        if (allocate) {
+            double[][] tmpChunks = myChunks;
+            if (tmpChunk >= tmpChunks.length) {
+                tmpChunks = Arrays.copyOf(tmpChunks, tmpChunks.length * 2);
+            }
+            if (tmpChunks[tmpChunk] == null) {
+                tmpChunks[tmpChunk] = new double[myMask + 1];
+            }
+            myChunks = tmpChunks;
+        }
+
+        return myChunks[tmpChunk];
+    }
+
+    /**
+     * The chunk directory, after checking that limit is within the current count. Reading the (volatile)
+     * count before the directory guarantees that the directory covers all the elements counted.
+     */
+    private double[][] chunks(final long limit) {
+        if (limit > myCount) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        return myChunks;
+    }
+
+}
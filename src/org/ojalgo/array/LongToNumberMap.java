@@ -1,17 +1,20 @@
 package org.ojalgo.array;
 
+import java.util.AbstractMap;
 import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.SortedMap;
 
 import org.ojalgo.ProgrammingError;
 import org.ojalgo.access.Access1D;
+import org.ojalgo.access.ElementView1D;
 import org.ojalgo.access.Mutate1D;
 import org.ojalgo.array.DenseArray.Factory;
-import org.ojalgo.array.SparseArray.NonzeroView;
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.function.BinaryFunction;
 import org.ojalgo.type.context.NumberContext;
@@ -19,8 +22,16 @@ import org.ojalgo.type.context.NumberContext;
 /**
  * A {@link SortedMap} with primitive valued long keys and {@link Number} values (incl. possibly primitive
  * double values). The main benefits of using this class is its use of primitive keys and values, and how it
- * integrates with other parts of ojAlgo. As a general purpose {@link Map} implementation (usage with high
- * frequency of randomly ordered put and remove operations) it is not very efficient.
+ * integrates with other parts of ojAlgo.
+ * <p>
+ * The entries are stored in a sequence of sorted chunks (each a {@link SparseArray} of at most {@link #CHUNK}
+ * entries), somewhat like the leaves of a B-tree. A chunk is found by binary search, and inserting/removing
+ * only shifts the entries of that chunk. Chunks are split when they grow too large and merged with a
+ * neighbour when they become too small. Inserting in random order (back-filling historical data) is
+ * therefore as fast as appending.
+ * <p>
+ * {@link #subMap(long, long)}, {@link #headMap(long)} and {@link #tailMap(long)} return views (backed by
+ * this map) - nothing is copied.
  *
  * @author apete
  */
@@ -39,20 +50,248 @@ public final class LongToNumberMap<N extends Number> implements SortedMap<Long,
 
     }
 
+    /**
+     * The chunks - shared by a map and all its views.
+     */
+    static final class Chunks<N extends Number> {
+
+        private int myCount = 1;
+        private SparseArray<N>[] myData;
+        private long mySize = 0L;
+        private final DenseCapacityStrategy<N> myStrategy;
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        Chunks(final DenseCapacityStrategy<N> strategy) {
+
+            super();
+
+            myStrategy = strategy;
+
+            myData = new SparseArray[4];
+            myData[0] = new SparseArray<>(Long.MAX_VALUE, strategy);
+        }
+
+        /**
+         * Call after an entry was inserted in the chunk
+         */
+        void added(final int chunk) {
+            mySize++;
+            if (myData[chunk].getActualLength() > CHUNK) {
+                this.insert(chunk + 1, myData[chunk].split(CHUNK / 2));
+            }
+        }
+
+        /**
+         * @return The index of the chunk where the key is, or should be inserted.
+         */
+        int chunk(final long key) {
+            int retVal = 0;
+            int tmpLow = 1;
+            int tmpHigh = myCount - 1;
+            while (tmpLow <= tmpHigh) {
+                final int tmpMid = (tmpLow + tmpHigh) >>> 1;
+                if (myData[tmpMid].firstIndex() <= key) {
+                    retVal = tmpMid;
+                    tmpLow = tmpMid + 1;
+                } else {
+                    tmpHigh = tmpMid - 1;
+                }
+            }
+            return retVal;
+        }
+
+        void clear() {
+            Arrays.fill(myData, null);
+            myData[0] = new SparseArray<>(Long.MAX_VALUE, myStrategy);
+            myCount = 1;
+            mySize = 0L;
+        }
+
+        /**
+         * @return The number of entries with keys in the range [fromKey, toKey)
+         */
+        long count(final long fromKey, final long toKey) {
+            if (toKey <= fromKey) {
+                return 0L;
+            }
+            final long tmpFrom = this.locate(fromKey);
+            final long tmpTo = this.locate(toKey);
+            final int tmpFromChunk = (int) (tmpFrom >>> 32);
+            final int tmpToChunk = (int) (tmpTo >>> 32);
+            if (tmpFromChunk == tmpToChunk) {
+                return (int) tmpTo - (int) tmpFrom;
+            }
+            long retVal = myData[tmpFromChunk].getActualLength() - (int) tmpFrom;
+            for (int c = tmpFromChunk + 1; c < tmpToChunk; c++) {
+                retVal += myData[c].getActualLength();
+            }
+            return retVal + (int) tmpTo;
+        }
+
+        SparseArray<N> get(final int chunk) {
+            return myData[chunk];
+        }
+
+        /**
+         * @return The position of the first entry with a key &gt;= the given key, encoded as (chunk &lt;&lt;
+         *         32) | (internal index). When there is no such entry the position is at the end of the last
+         *         chunk.
+         */
+        long locate(final long key) {
+            int tmpChunk = this.chunk(key);
+            int tmpIndex = myData[tmpChunk].index(key);
+            if (tmpIndex < 0) {
+                tmpIndex = -(tmpIndex + 1);
+            }
+            if ((tmpIndex >= myData[tmpChunk].getActualLength()) && (tmpChunk < (myCount - 1))) {
+                tmpChunk++;
+                tmpIndex = 0;
+            }
+            return ((long) tmpChunk << 32) | tmpIndex;
+        }
+
+        /**
+         * Call after an entry was removed from the chunk
+         */
+        void removed(final int chunk) {
+
+            mySize--;
+
+            final int tmpLength = myData[chunk].getActualLength();
+
+            if (myCount > 1) {
+                if (tmpLength == 0) {
+                    this.delete(chunk);
+                } else if (tmpLength < (CHUNK / 4)) {
+                    final int tmpLeft = chunk + 1 < myCount ? chunk : chunk - 1;
+                    if ((myData[tmpLeft].getActualLength() + myData[tmpLeft + 1].getActualLength()) <= (CHUNK / 2)) {
+                        myData[tmpLeft].append(myData[tmpLeft + 1]);
+                        this.delete(tmpLeft + 1);
+                    }
+                }
+            }
+        }
+
+        int size() {
+            return myCount;
+        }
+
+        private void delete(final int chunk) {
+            System.arraycopy(myData, chunk + 1, myData, chunk, myCount - chunk - 1);
+            myData[--myCount] = null;
+        }
+
+        private void insert(final int chunk, final SparseArray<N> data) {
+            if (myCount == myData.length) {
+                myData = Arrays.copyOf(myData, myCount * 2);
+            }
+            System.arraycopy(myData, chunk, myData, chunk + 1, myCount - chunk);
+            myData[chunk] = data;
+            myCount++;
+        }
+
+    }
+
+    /**
+     * Iterates over the entries of a key range, chunk by chunk. Any change in the underlying data structure
+     * (the map) will corrupt the view.
+     */
+    public static final class EntryView<N extends Number> implements ElementView1D<N, EntryView<N>> {
+
+        private int myChunk;
+        private final Chunks<N> myChunks;
+        private long myConsumed = 0L;
+        private int myIndex;
+        private long myRemaining;
+
+        EntryView(final Chunks<N> chunks, final long fromKey, final long toKey) {
+
+            super();
+
+            myChunks = chunks;
+
+            final long tmpFrom = chunks.locate(fromKey);
+            myChunk = (int) (tmpFrom >>> 32);
+            myIndex = ((int) tmpFrom) - 1;
+            myRemaining = chunks.count(fromKey, toKey);
+        }
+
+        public double doubleValue() {
+            return myChunks.get(myChunk).doubleValueInternally(myIndex);
+        }
+
+        public long estimateSize() {
+            return myRemaining;
+        }
+
+        public N get() {
+            return myChunks.get(myChunk).getInternally(myIndex);
+        }
+
+        public boolean hasNext() {
+            return myRemaining > 0L;
+        }
+
+        public boolean hasPrevious() {
+            return myConsumed > 1L;
+        }
+
+        public long index() {
+            return myChunks.get(myChunk).indexInternally(myIndex);
+        }
+
+        public EntryView<N> next() {
+            if (++myIndex >= myChunks.get(myChunk).getActualLength()) {
+                myChunk++;
+                myIndex = 0;
+            }
+            myRemaining--;
+            myConsumed++;
+            return this;
+        }
+
+        public EntryView<N> previous() {
+            if (--myIndex < 0) {
+                myChunk--;
+                myIndex = myChunks.get(myChunk).getActualLength() - 1;
+            }
+            myRemaining++;
+            myConsumed--;
+            return this;
+        }
+
+        public EntryView<N> trySplit() {
+            return null;
+        }
+
+    }
+
+    /**
+     * The max number of entries per chunk
+     */
+    static final int CHUNK = 2048;
+
     public static <N extends Number> MapFactory<N> factory(final DenseArray.Factory<N> denseFactory) {
         return new MapFactory<>(denseFactory);
     }
 
-    private final SparseArray<N> myStorage;
+    private final Chunks<N> myChunks;
+    private final long myFrom;
     private final DenseCapacityStrategy<N> myStrategy;
+    private final long myTo;
 
-    LongToNumberMap(final DenseCapacityStrategy<N> strategy) {
+    private LongToNumberMap(final Chunks<N> chunks, final DenseCapacityStrategy<N> strategy, final long fromKey, final long toKey) {
 
         super();
 
+        myChunks = chunks;
         myStrategy = strategy;
+        myFrom = fromKey;
+        myTo = toKey;
+    }
 
-        myStorage = new SparseArray<>(Long.MAX_VALUE, strategy);
+    LongToNumberMap(final DenseCapacityStrategy<N> strategy) {
+        this(new Chunks<>(strategy), strategy, Long.MIN_VALUE, Long.MAX_VALUE);
     }
 
     /**
@@ -61,11 +300,26 @@ public final class LongToNumberMap<N extends Number> implements SortedMap<Long,
      * grow.
      */
     public long capacity() {
-        return myStorage.capacity();
+        long retVal = 0L;
+        for (int c = 0; c < myChunks.size(); c++) {
+            retVal += myChunks.get(c).capacity();
+        }
+        return retVal;
     }
 
     public void clear() {
-        myStorage.reset();
+        if (this.isView()) {
+            final long[] tmpKeys = new long[this.size()];
+            final EntryView<N> tmpView = this.entries();
+            for (int i = 0; i < tmpKeys.length; i++) {
+                tmpKeys[i] = tmpView.next().index();
+            }
+            for (int i = 0; i < tmpKeys.length; i++) {
+                this.remove(tmpKeys[i]);
+            }
+        } else {
+            myChunks.clear();
+        }
     }
 
     public Comparator<? super Long> comparator() {
@@ -73,7 +327,7 @@ public final class LongToNumberMap<N extends Number> implements SortedMap<Long,
     }
 
     public boolean containsKey(final long key) {
-        return myStorage.index(key) >= 0;
+        return this.isInRange(key) && (myChunks.get(myChunks.chunk(key)).index(key) >= 0);
     }
 
     public boolean containsKey(final Object key) {
@@ -85,7 +339,7 @@ public final class LongToNumberMap<N extends Number> implements SortedMap<Long,
     }
 
     public boolean containsValue(final double value) {
-        for (final NonzeroView<N> tmpView : myStorage.nonzeros()) {
+        for (final EntryView<N> tmpView : this.entries()) {
             // if (tmpView.doubleValue() == value) {
             if (NumberContext.compare(tmpView.doubleValue(), value) == 0) {
                 return true;
@@ -95,7 +349,7 @@ public final class LongToNumberMap<N extends Number> implements SortedMap<Long,
     }
 
     public boolean containsValue(final Object value) {
-        for (final NonzeroView<N> tmpView : myStorage.nonzeros()) {
+        for (final EntryView<N> tmpView : this.entries()) {
             if (value.equals(tmpView.get())) {
                 return true;
             }
@@ -104,16 +358,18 @@ public final class LongToNumberMap<N extends Number> implements SortedMap<Long,
     }
 
     public long count() {
-        return myStorage.getActualLength();
+        return this.size();
     }
 
     public double doubleValue(final long key) {
-        final int tmpIndex = myStorage.index(key);
-        if (tmpIndex >= 0) {
-            return myStorage.doubleValueInternally(tmpIndex);
-        } else {
-            return PrimitiveMath.NaN;
+        if (this.isInRange(key)) {
+            final SparseArray<N> tmpChunk = myChunks.get(myChunks.chunk(key));
+            final int tmpIndex = tmpChunk.index(key);
+            if (tmpIndex >= 0) {
+                return tmpChunk.doubleValueInternally(tmpIndex);
+            }
         }
+        return PrimitiveMath.NaN;
     }
 
     public Set<Map.Entry<Long, N>> entrySet() {
@@ -123,32 +379,15 @@ public final class LongToNumberMap<N extends Number> implements SortedMap<Long,
             public Iterator<Map.Entry<Long, N>> iterator() {
                 return new Iterator<Map.Entry<Long, N>>() {
 
-                    NonzeroView<N> tmpNonzeros = myStorage.nonzeros();
+                    EntryView<N> tmpEntries = LongToNumberMap.this.entries();
 
                     public boolean hasNext() {
-                        return tmpNonzeros.hasNext();
+                        return tmpEntries.hasNext();
                     }
 
                     public Map.Entry<Long, N> next() {
-
-                        tmpNonzeros.next();
-
-                        return new Map.Entry<Long, N>() {
-
-                            public Long getKey() {
-                                return tmpNonzeros.index();
-                            }
-
-                            public N getValue() {
-                                return tmpNonzeros.get();
-                            }
-
-                            public N setValue(final N value) {
-                                ProgrammingError.throwForUnsupportedOptionalOperation();
-                                return null;
-                            }
-
-                        };
+                        tmpEntries.next();
+                        return new AbstractMap.SimpleImmutableEntry<>(tmpEntries.index(), tmpEntries.get());
                     }
 
                 };
@@ -156,30 +395,40 @@ public final class LongToNumberMap<N extends Number> implements SortedMap<Long,
 
             @Override
             public int size() {
-                return myStorage.getActualLength();
+                return LongToNumberMap.this.size();
             }
         };
     }
 
     public Long firstKey() {
-        return myStorage.firstIndex();
+        final EntryView<N> tmpView = this.entries();
+        if (tmpView.hasNext()) {
+            return tmpView.next().index();
+        } else {
+            throw new NoSuchElementException();
+        }
     }
 
     public N get(final long key) {
-        final int tmpIndex = myStorage.index(key);
-        if (tmpIndex >= 0) {
-            return myStorage.getInternally(tmpIndex);
-        } else {
-            return null;
+        if (this.isInRange(key)) {
+            final SparseArray<N> tmpChunk = myChunks.get(myChunks.chunk(key));
+            final int tmpIndex = tmpChunk.index(key);
+            if (tmpIndex >= 0) {
+                return tmpChunk.getInternally(tmpIndex);
+            }
         }
+        return null;
     }
 
     public N get(final Object key) {
         return key instanceof Number ? this.get(((Number) key).longValue()) : null;
     }
 
+    /**
+     * @return A view of the entries with keys strictly less than toKey
+     */
     public LongToNumberMap<N> headMap(final long toKey) {
-        return this.subMap(myStorage.firstIndex(), toKey);
+        return this.subMap(myFrom, toKey);
     }
 
     public LongToNumberMap<N> headMap(final Long toKey) {
@@ -187,7 +436,7 @@ public final class LongToNumberMap<N extends Number> implements SortedMap<Long,
     }
 
     public boolean isEmpty() {
-        return myStorage.getActualLength() == 0;
+        return this.size() == 0;
     }
 
     public Set<Long> keySet() {
@@ -195,58 +444,114 @@ public final class LongToNumberMap<N extends Number> implements SortedMap<Long,
 
             @Override
             public Iterator<Long> iterator() {
-                return myStorage.indices().iterator();
+                return new Iterator<Long>() {
+
+                    EntryView<N> tmpEntries = LongToNumberMap.this.entries();
+
+                    public boolean hasNext() {
+                        return tmpEntries.hasNext();
+                    }
+
+                    public Long next() {
+                        return tmpEntries.next().index();
+                    }
+
+                };
             }
 
             @Override
             public int size() {
-                return myStorage.getActualLength();
+                return LongToNumberMap.this.size();
             }
 
         };
     }
 
     public Long lastKey() {
-        return myStorage.lastIndex();
+
+        final long tmpTo = myChunks.locate(myTo);
+        int tmpChunk = (int) (tmpTo >>> 32);
+        int tmpIndex = ((int) tmpTo) - 1;
+        if (tmpIndex < 0) {
+            tmpChunk--;
+            tmpIndex = tmpChunk >= 0 ? myChunks.get(tmpChunk).getActualLength() - 1 : -1;
+        }
+
+        if (tmpIndex >= 0) {
+            final long retVal = myChunks.get(tmpChunk).indexInternally(tmpIndex);
+            if (retVal >= myFrom) {
+                return retVal;
+            }
+        }
+
+        throw new NoSuchElementException();
     }
 
     public double mix(final long key, final BinaryFunction<N> mixer, final double addend) {
         ProgrammingError.throwIfNull(mixer);
-        synchronized (myStorage) {
-            final int tmpIndex = myStorage.index(key);
-            final double oldValue = tmpIndex >= 0 ? myStorage.doubleValueInternally(tmpIndex) : PrimitiveMath.NaN;
+        this.checkRange(key);
+        synchronized (myChunks) {
+            final int tmpChunk = myChunks.chunk(key);
+            final SparseArray<N> tmpStorage = myChunks.get(tmpChunk);
+            final int tmpIndex = tmpStorage.index(key);
+            final double oldValue = tmpIndex >= 0 ? tmpStorage.doubleValueInternally(tmpIndex) : PrimitiveMath.NaN;
             final double newValue = tmpIndex >= 0 ? mixer.invoke(oldValue, addend) : addend;
-            myStorage.put(key, tmpIndex, newValue);
+            tmpStorage.put(key, tmpIndex, newValue);
+            if (tmpIndex < 0) {
+                myChunks.added(tmpChunk);
+            }
             return newValue;
         }
     }
 
     public N mix(final long key, final BinaryFunction<N> mixer, final N addend) {
         ProgrammingError.throwIfNull(mixer);
-        synchronized (myStorage) {
-            final int tmpIndex = myStorage.index(key);
-            final N oldValue = tmpIndex >= 0 ? myStorage.getInternally(tmpIndex) : null;
+        this.checkRange(key);
+        synchronized (myChunks) {
+            final int tmpChunk = myChunks.chunk(key);
+            final SparseArray<N> tmpStorage = myChunks.get(tmpChunk);
+            final int tmpIndex = tmpStorage.index(key);
+            final N oldValue = tmpIndex >= 0 ? tmpStorage.getInternally(tmpIndex) : null;
             final N newValue = tmpIndex >= 0 ? mixer.invoke(oldValue, addend) : addend;
-            myStorage.put(key, tmpIndex, newValue);
+            tmpStorage.put(key, tmpIndex, newValue);
+            if (tmpIndex < 0) {
+                myChunks.added(tmpChunk);
+            }
             return newValue;
         }
     }
 
-    public NonzeroView<N> nonzeros() {
-        return myStorage.nonzeros();
+    /**
+     * All entries, in key order. Any change in the underlying data structure (this map) will corrupt the
+     * view.
+     */
+    public EntryView<N> nonzeros() {
+        return this.entries();
     }
 
     public double put(final long key, final double value) {
-        final int index = myStorage.index(key);
-        final double oldValue = index >= 0 ? myStorage.doubleValueInternally(index) : PrimitiveMath.NaN;
-        myStorage.put(key, index, value);
+        this.checkRange(key);
+        final int tmpChunk = myChunks.chunk(key);
+        final SparseArray<N> tmpStorage = myChunks.get(tmpChunk);
+        final int tmpIndex = tmpStorage.index(key);
+        final double oldValue = tmpIndex >= 0 ? tmpStorage.doubleValueInternally(tmpIndex) : PrimitiveMath.NaN;
+        tmpStorage.put(key, tmpIndex, value);
+        if (tmpIndex < 0) {
+            myChunks.added(tmpChunk);
+        }
         return oldValue;
     }
 
     public N put(final long key, final N value) {
-        final int index = myStorage.index(key);
-        final N oldValue = index >= 0 ? myStorage.getInternally(index) : null;
-        myStorage.put(key, index, value);
+        this.checkRange(key);
+        final int tmpChunk = myChunks.chunk(key);
+        final SparseArray<N> tmpStorage = myChunks.get(tmpChunk);
+        final int tmpIndex = tmpStorage.index(key);
+        final N oldValue = tmpIndex >= 0 ? tmpStorage.getInternally(tmpIndex) : null;
+        tmpStorage.put(key, tmpIndex, value);
+        if (tmpIndex < 0) {
+            myChunks.added(tmpChunk);
+        }
         return oldValue;
     }
 
@@ -255,28 +560,36 @@ public final class LongToNumberMap<N extends Number> implements SortedMap<Long,
     }
 
     public void putAll(final LongToNumberMap<N> m) {
-        if (myStorage.isPrimitive()) {
-            for (final NonzeroView<N> tmpView : m.getStorage().nonzeros()) {
-                myStorage.set(tmpView.index(), tmpView.doubleValue());
+        if (myChunks.get(0).isPrimitive()) {
+            for (final EntryView<N> tmpView : m.entries()) {
+                this.put(tmpView.index(), tmpView.doubleValue());
             }
         } else {
-            for (final NonzeroView<N> tmpView : m.getStorage().nonzeros()) {
-                myStorage.set(tmpView.index(), tmpView.get());
+            for (final EntryView<N> tmpView : m.entries()) {
+                this.put(tmpView.index(), tmpView.get());
             }
         }
     }
 
     public void putAll(final Map<? extends Long, ? extends N> m) {
         for (final java.util.Map.Entry<? extends Long, ? extends N> tmpEntry : m.entrySet()) {
-            myStorage.set(tmpEntry.getKey(), tmpEntry.getValue());
+            this.put(tmpEntry.getKey().longValue(), tmpEntry.getValue());
         }
     }
 
     public N remove(final long key) {
-        final int index = myStorage.index(key);
-        final N oldValue = index >= 0 ? myStorage.getInternally(index) : null;
-        myStorage.remove(key, index);
-        return oldValue;
+        if (this.isInRange(key)) {
+            final int tmpChunk = myChunks.chunk(key);
+            final SparseArray<N> tmpStorage = myChunks.get(tmpChunk);
+            final int tmpIndex = tmpStorage.index(key);
+            if (tmpIndex >= 0) {
+                final N oldValue = tmpStorage.getInternally(tmpIndex);
+                tmpStorage.remove(key, tmpIndex);
+                myChunks.removed(tmpChunk);
+                return oldValue;
+            }
+        }
+        return null;
     }
 
     public N remove(final Object key) {
@@ -288,31 +601,26 @@ public final class LongToNumberMap<N extends Number> implements SortedMap<Long,
     }
 
     public int size() {
-        return myStorage.getActualLength();
+        return (int) (this.isView() ? myChunks.count(myFrom, myTo) : myChunks.mySize);
     }
 
+    /**
+     * @return A view of the entries with keys in the range [fromKey, toKey) - limited to the range of this
+     *         map (if this is already a view).
+     */
     public LongToNumberMap<N> subMap(final long fromKey, final long toKey) {
-
-        final LongToNumberMap<N> retVal = new LongToNumberMap<>(myStrategy);
-
-        long tmpKey;
-        for (final NonzeroView<N> tmpView : myStorage.nonzeros()) {
-            tmpKey = tmpView.index();
-            if ((fromKey <= tmpKey) && (tmpKey < toKey)) {
-                final N tmpValue = tmpView.get();
-                retVal.put(tmpKey, tmpValue);
-            }
-        }
-
-        return retVal;
+        return new LongToNumberMap<>(myChunks, myStrategy, Math.max(fromKey, myFrom), Math.min(toKey, myTo));
     }
 
     public LongToNumberMap<N> subMap(final Long fromKey, final Long toKey) {
         return this.subMap(fromKey.longValue(), toKey.longValue());
     }
 
+    /**
+     * @return A view of the entries with keys greater than or equal to fromKey
+     */
     public LongToNumberMap<N> tailMap(final long fromKey) {
-        return this.subMap(fromKey, myStorage.lastIndex() + 1L);
+        return this.subMap(fromKey, myTo);
     }
 
     public LongToNumberMap<N> tailMap(final Long fromKey) {
@@ -322,7 +630,7 @@ public final class LongToNumberMap<N extends Number> implements SortedMap<Long,
     @Override
     public String toString() {
 
-        final NonzeroView<N> nz = myStorage.nonzeros();
+        final EntryView<N> nz = this.entries();
 
         if (!nz.hasNext()) {
             return "{}";
@@ -331,7 +639,7 @@ public final class LongToNumberMap<N extends Number> implements SortedMap<Long,
         final StringBuilder builder = new StringBuilder();
         builder.append('{');
         for (;;) {
-            final NonzeroView<N> entry = nz.next();
+            final EntryView<N> entry = nz.next();
             final long key = entry.index();
             final N value = entry.get();
             builder.append(key);
@@ -344,8 +652,26 @@ public final class LongToNumberMap<N extends Number> implements SortedMap<Long,
         }
     }
 
+    /**
+     * @return A copy of the values, in key order.
+     */
     public NumberList<N> values() {
-        return new NumberList<>(myStorage.getValues(), myStrategy, myStorage.getActualLength());
+
+        final int tmpSize = this.size();
+        final DenseArray<N> tmpValues = myStrategy.make(Math.max(1, tmpSize));
+
+        final EntryView<N> tmpView = this.entries();
+        if (tmpValues.isPrimitive()) {
+            for (int i = 0; i < tmpSize; i++) {
+                tmpValues.set(i, tmpView.next().doubleValue());
+            }
+        } else {
+            for (int i = 0; i < tmpSize; i++) {
+                tmpValues.set(i, tmpView.next().get());
+            }
+        }
+
+        return new NumberList<>(tmpValues, myStrategy, tmpSize);
     }
 
     /**
@@ -354,11 +680,62 @@ public final class LongToNumberMap<N extends Number> implements SortedMap<Long,
      * structure (this map) will corrupt this method's output.
      */
     public Access1D<N> values(final long fromKey, final long toKey) {
-        return myStorage.getValues(fromKey, toKey);
+
+        final long tmpFromKey = Math.max(fromKey, myFrom);
+        final long tmpToKey = Math.min(toKey, myTo);
+
+        final long tmpFrom = myChunks.locate(tmpFromKey);
+        final int tmpFirstChunk = (int) (tmpFrom >>> 32);
+        final int tmpCount = (int) myChunks.count(tmpFromKey, tmpToKey);
+
+        // The (global) position of the first element of each chunk, relative to the first element
+        final int tmpChunks = myChunks.size() - tmpFirstChunk;
+        final long[] tmpStarts = new long[tmpChunks];
+        tmpStarts[0] = -(int) tmpFrom;
+        for (int c = 1; c < tmpChunks; c++) {
+            tmpStarts[c] = tmpStarts[c - 1] + myChunks.get((tmpFirstChunk + c) - 1).getActualLength();
+        }
+
+        return new Access1D<N>() {
+
+            public long count() {
+                return tmpCount;
+            }
+
+            public double doubleValue(final long index) {
+                final int tmpChunk = this.chunk(index);
+                return myChunks.get(tmpFirstChunk + tmpChunk).doubleValueInternally((int) (index - tmpStarts[tmpChunk]));
+            }
+
+            public N get(final long index) {
+                final int tmpChunk = this.chunk(index);
+                return myChunks.get(tmpFirstChunk + tmpChunk).getInternally((int) (index - tmpStarts[tmpChunk]));
+            }
+
+            private int chunk(final long index) {
+                final int tmpFound = Arrays.binarySearch(tmpStarts, index);
+                return tmpFound >= 0 ? tmpFound : -(tmpFound + 2);
+            }
+
+        };
+    }
+
+    private void checkRange(final long key) {
+        if (!this.isInRange(key)) {
+            throw new IllegalArgumentException("Key out of range!");
+        }
+    }
+
+    private EntryView<N> entries() {
+        return new EntryView<>(myChunks, myFrom, myTo);
+    }
+
+    private boolean isInRange(final long key) {
+        return (myFrom <= key) && (key < myTo);
     }
 
-    SparseArray<N> getStorage() {
-        return myStorage;
+    private boolean isView() {
+        return (myFrom != Long.MIN_VALUE) || (myTo != Long.MAX_VALUE);
     }
 
 }
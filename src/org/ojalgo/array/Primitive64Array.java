@@ -31,8 +31,10 @@ import java.util.stream.StreamSupport;
 
 import org.ojalgo.access.Access1D;
 import org.ojalgo.access.Mutate1D;
+import org.ojalgo.access.Spliterator1D;
 import org.ojalgo.array.blas.AMAX;
 import org.ojalgo.array.blas.AXPY;
+import org.ojalgo.array.blas.DOT;
 import org.ojalgo.function.BinaryFunction;
 import org.ojalgo.function.BinaryFunction.FixedFirst;
 import org.ojalgo.function.BinaryFunction.FixedSecond;
@@ -369,12 +371,22 @@ public class Primitive64Array extends PrimitiveArray {
     }
 
     public void axpy(final double a, final Mutate1D y) {
-        AXPY.invoke(y, a, data);
+        if (y instanceof Primitive64Array) {
+            final double[] tmpY = ((Primitive64Array) y).data;
+            AXPY.invoke(tmpY, 0, a, data, 0, 0, Math.min(data.length, tmpY.length));
+        } else {
+            AXPY.invoke(y, a, data);
+        }
     }
 
     @Override
     public double dot(final Access1D<?> vector) {
 
+        if (vector instanceof Primitive64Array) {
+            final double[] tmpVector = ((Primitive64Array) vector).data;
+            return DOT.invoke(data, 0, tmpVector, 0, 0, Math.min(data.length, tmpVector.length));
+        }
+
         double retVal = ZERO;
 
         for (int i = 0, limit = Math.min(data.length, (int) vector.count()); i < limit; i++) {
@@ -384,6 +396,11 @@ public class Primitive64Array extends PrimitiveArray {
         return retVal;
     }
 
+    @Override
+    public DoubleStream doubleStream(final boolean parallel) {
+        return StreamSupport.doubleStream(Spliterator1D.of(data), parallel);
+    }
+
     @Override
     public boolean equals(final Object anObj) {
         if (anObj instanceof Primitive64Array) {
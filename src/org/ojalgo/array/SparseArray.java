@@ -24,11 +24,14 @@ package org.ojalgo.array;
 import java.math.MathContext;
 import java.util.Arrays;
 import java.util.function.Consumer;
+import java.util.stream.DoubleStream;
 import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
 
 import org.ojalgo.access.Access1D;
 import org.ojalgo.access.ElementView1D;
 import org.ojalgo.access.Mutate1D;
+import org.ojalgo.access.Spliterator1D;
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.function.BinaryFunction;
 import org.ojalgo.function.NullaryFunction;
@@ -140,6 +143,92 @@ public final class SparseArray<N extends Number> extends BasicArray<N> {
 
     }
 
+    /**
+     * Collects (index, value) pairs in any order, and then sorts and merges them once when the
+     * {@link SparseArray} is built. Much faster than setting the elements of a {@link SparseArray} one at the
+     * time, in random order. Values added to the same index are summed.
+     */
+    public static final class Builder<N extends Number> {
+
+        private final long myCount;
+        private final SparseFactory<N> myFactory;
+        private long[] myIndices;
+        private int mySize = 0;
+        private double[] myValues;
+
+        Builder(final SparseFactory<N> factory, final long count) {
+
+            super();
+
+            myFactory = factory;
+            myCount = count;
+
+            final int tmpInitial = Math.max(4, factory.getStrategy().initial());
+            myIndices = new long[tmpInitial];
+            myValues = new double[tmpInitial];
+        }
+
+        public Builder<N> add(final long index, final double value) {
+            if (mySize == myIndices.length) {
+                final int tmpCapacity = mySize + Math.max(4, mySize >> 1);
+                myIndices = Arrays.copyOf(myIndices, tmpCapacity);
+                myValues = Arrays.copyOf(myValues, tmpCapacity);
+            }
+            myIndices[mySize] = index;
+            myValues[mySize] = value;
+            mySize++;
+            return this;
+        }
+
+        public Builder<N> add(final long index, final Number value) {
+            return this.add(index, value.doubleValue());
+        }
+
+        public SparseArray<N> build() {
+
+            boolean tmpSorted = true;
+            for (int i = 1; tmpSorted && (i < mySize); i++) {
+                tmpSorted = myIndices[i - 1] <= myIndices[i];
+            }
+            if (!tmpSorted) {
+                SparseArray.sort(myIndices, myValues, new long[mySize], new double[mySize], 0, mySize);
+            }
+
+            int tmpUnique = 0;
+            for (int i = 0; i < mySize; i++) {
+                if ((tmpUnique > 0) && (myIndices[tmpUnique - 1] == myIndices[i])) {
+                    myValues[tmpUnique - 1] += myValues[i];
+                } else {
+                    myIndices[tmpUnique] = myIndices[i];
+                    myValues[tmpUnique] = myValues[i];
+                    tmpUnique++;
+                }
+            }
+
+            final DenseCapacityStrategy<N> tmpStrategy = myFactory.getStrategy();
+            final int tmpCapacity = Math.max(tmpUnique, tmpStrategy.initial());
+
+            final long[] tmpIndices = Arrays.copyOf(myIndices, tmpCapacity);
+            final DenseArray<N> tmpValues = tmpStrategy.make(tmpCapacity);
+            if (tmpValues instanceof Primitive64Array) {
+                System.arraycopy(myValues, 0, ((Primitive64Array) tmpValues).data, 0, tmpUnique);
+            } else {
+                for (int i = 0; i < tmpUnique; i++) {
+                    tmpValues.set(i, myValues[i]);
+                }
+            }
+
+            mySize = 0;
+
+            return new SparseArray<>(myCount, tmpStrategy, tmpIndices, tmpValues, tmpUnique);
+        }
+
+        public long count() {
+            return myCount;
+        }
+
+    }
+
     public static final class SparseFactory<N extends Number> extends StrategyBuilder<N, SparseArray<N>, SparseFactory<N>> {
 
         SparseFactory(final DenseArray.Factory<N> denseFactory) {
@@ -160,6 +249,14 @@ public final class SparseArray<N extends Number> extends BasicArray<N> {
             return new SparseArray<>(count, this.getStrategy().limit(count));
         }
 
+        /**
+         * @param count The total number of elements (zeros and nonzeros) of the array to build
+         * @return A builder that accepts (index, value) pairs in any order
+         */
+        public Builder<N> builder(final long count) {
+            return new Builder<>(this, count);
+        }
+
     }
 
     static final NumberContext MATH_CONTEXT = NumberContext.getMath(MathContext.DECIMAL64);
@@ -172,6 +269,57 @@ public final class SparseArray<N extends Number> extends BasicArray<N> {
         return new SparseFactory<>(denseFactory, count);
     }
 
+    /**
+     * Stable merge sort of the [first, limit) range of the primary (key) array, with the secondary array
+     * reordered correspondingly.
+     */
+    static void sort(final long[] primary, final double[] secondary, final long[] primaryWork, final double[] secondaryWork, final int first,
+            final int limit) {
+
+        final int tmpCount = limit - first;
+
+        if (tmpCount <= 16) {
+            for (int i = first + 1; i < limit; i++) {
+                final long tmpKey = primary[i];
+                final double tmpValue = secondary[i];
+                int j = i - 1;
+                while ((j >= first) && (primary[j] > tmpKey)) {
+                    primary[j + 1] = primary[j];
+                    secondary[j + 1] = secondary[j];
+                    j--;
+                }
+                primary[j + 1] = tmpKey;
+                secondary[j + 1] = tmpValue;
+            }
+            return;
+        }
+
+        final int tmpMiddle = first + (tmpCount / 2);
+        SparseArray.sort(primary, secondary, primaryWork, secondaryWork, first, tmpMiddle);
+        SparseArray.sort(primary, secondary, primaryWork, secondaryWork, tmpMiddle, limit);
+
+        if (primary[tmpMiddle - 1] <= primary[tmpMiddle]) {
+            return;
+        }
+
+        System.arraycopy(primary, first, primaryWork, first, tmpCount);
+        System.arraycopy(secondary, first, secondaryWork, first, tmpCount);
+
+        int tmpLeft = first;
+        int tmpRight = tmpMiddle;
+        for (int i = first; i < limit; i++) {
+            if ((tmpRight >= limit) || ((tmpLeft < tmpMiddle) && (primaryWork[tmpLeft] <= primaryWork[tmpRight]))) {
+                primary[i] = primaryWork[tmpLeft];
+                secondary[i] = secondaryWork[tmpLeft];
+                tmpLeft++;
+            } else {
+                primary[i] = primaryWork[tmpRight];
+                secondary[i] = secondaryWork[tmpRight];
+                tmpRight++;
+            }
+        }
+    }
+
     /**
      * The actual number of nonzwero elements
      */
@@ -200,6 +348,23 @@ public final class SparseArray<N extends Number> extends BasicArray<N> {
         myZeroValue = myZeroNumber.doubleValue();
     }
 
+    private SparseArray(final long count, final DenseCapacityStrategy<N> strategy, final long[] indices, final DenseArray<N> values, final int actualLength) {
+
+        super(strategy.getDenseFactory());
+
+        myCount = count;
+
+        myStrategy = strategy;
+
+        myIndices = indices;
+        myValues = values;
+        myActualLength = actualLength;
+
+        myZeroScalar = strategy.scalar().zero();
+        myZeroNumber = myZeroScalar.get();
+        myZeroValue = myZeroNumber.doubleValue();
+    }
+
     public void add(final long index, final double addend) {
         final int tmpIndex = this.index(index);
         if (tmpIndex >= 0) {
@@ -219,8 +384,12 @@ public final class SparseArray<N extends Number> extends BasicArray<N> {
     }
 
     public void axpy(final double a, final Mutate1D y) {
-        for (int n = 0; n < myActualLength; n++) {
-            y.add(myIndices[n], a * myValues.doubleValue(n));
+        if ((y instanceof SparseArray) && ((SparseArray<?>) y).isPrimitive()) {
+            ((SparseArray<?>) y).merge(a, this);
+        } else {
+            for (int n = 0; n < myActualLength; n++) {
+                y.add(myIndices[n], a * myValues.doubleValue(n));
+            }
         }
     }
 
@@ -241,8 +410,33 @@ public final class SparseArray<N extends Number> extends BasicArray<N> {
 
         double retVal = PrimitiveMath.ZERO;
 
-        for (int n = 0; n < myActualLength; n++) {
-            retVal += myValues.doubleValue(n) * vector.doubleValue(myIndices[n]);
+        if (vector instanceof SparseArray) {
+
+            final SparseArray<?> tmpOther = (SparseArray<?>) vector;
+
+            final long[] tmpIndices = tmpOther.myIndices;
+            final int tmpLength = tmpOther.myActualLength;
+
+            int n = 0, o = 0;
+            while ((n < myActualLength) && (o < tmpLength)) {
+                final long tmpThisIndex = myIndices[n];
+                final long tmpOtherIndex = tmpIndices[o];
+                if (tmpThisIndex < tmpOtherIndex) {
+                    n++;
+                } else if (tmpThisIndex > tmpOtherIndex) {
+                    o++;
+                } else {
+                    retVal += myValues.doubleValue(n) * tmpOther.myValues.doubleValue(o);
+                    n++;
+                    o++;
+                }
+            }
+
+        } else {
+
+            for (int n = 0; n < myActualLength; n++) {
+                retVal += myValues.doubleValue(n) * vector.doubleValue(myIndices[n]);
+            }
         }
 
         return retVal;
@@ -394,6 +588,18 @@ public final class SparseArray<N extends Number> extends BasicArray<N> {
         this.set(index, modifier.invoke(this.get(index)));
     }
 
+    /**
+     * A primitive stream of the (stored) nonzero values, in index order, without creating any element
+     * views or boxing.
+     */
+    public DoubleStream nonzeroStream(final boolean parallel) {
+        if (myValues instanceof Primitive64Array) {
+            return StreamSupport.doubleStream(Spliterator1D.of(((Primitive64Array) myValues).data, 0, 1, myActualLength), parallel);
+        } else {
+            return StreamSupport.doubleStream(Spliterator1D.of(myValues, 0L, 1L, myActualLength), parallel);
+        }
+    }
+
     public NonzeroView<N> nonzeros() {
         return new NonzeroView<>(myIndices, myValues, myActualLength);
     }
@@ -452,45 +658,10 @@ public final class SparseArray<N extends Number> extends BasicArray<N> {
 
         } else if (shouldStoreZero || (NumberContext.compare(value, PrimitiveMath.ZERO) != 0)) {
             // Not existing value, insert new
-            final int tmpInsInd = -(internalIndex + 1);
-
-            if ((myActualLength + 1) <= myIndices.length) {
-                // No need to grow the backing arrays
-
-                for (int i = myActualLength; i > tmpInsInd; i--) {
-                    myIndices[i] = myIndices[i - 1];
-                    myValues.set(i, myValues.doubleValue(i - 1));
-                }
-                myIndices[tmpInsInd] = externalIndex;
-                myValues.set(tmpInsInd, value);
 
-                myActualLength++;
+            final int tmpInsInd = this.insert(-(internalIndex + 1), externalIndex);
 
-            } else {
-                // Needs to grow the backing arrays
-
-                final int tmpCapacity = myStrategy.grow(myIndices.length);
-                final long[] tmpIndices = new long[tmpCapacity];
-                final DenseArray<N> tmpValues = myStrategy.make(tmpCapacity);
-
-                for (int i = 0; i < tmpInsInd; i++) {
-                    tmpIndices[i] = myIndices[i];
-                    tmpValues.set(i, myValues.doubleValue(i));
-                }
-                tmpIndices[tmpInsInd] = externalIndex;
-                tmpValues.set(tmpInsInd, value);
-                for (int i = tmpInsInd; i < myIndices.length; i++) {
-                    tmpIndices[i + 1] = myIndices[i];
-                    tmpValues.set(i + 1, myValues.doubleValue(i));
-                }
-                for (int i = myIndices.length + 1; i < tmpIndices.length; i++) {
-                    tmpIndices[i] = Long.MAX_VALUE;
-                }
-
-                myIndices = tmpIndices;
-                myValues = tmpValues;
-                myActualLength++;
-            }
+            myValues.set(tmpInsInd, value);
         }
     }
 
@@ -506,44 +677,166 @@ public final class SparseArray<N extends Number> extends BasicArray<N> {
 
         } else if (shouldStoreZero || !value.equals(myZeroNumber)) {
             // Not existing value, insert new
-            final int tmpInsInd = -(internalIndex + 1);
 
-            if ((myActualLength + 1) <= myIndices.length) {
-                // No need to grow the backing arrays
+            final int tmpInsInd = this.insert(-(internalIndex + 1), externalIndex);
+
+            myValues.set(tmpInsInd, value);
+        }
+    }
+
+    /**
+     * Makes sure the backing arrays can hold (at least) the required number of nonzeros. Grows geometrically
+     * so that appending (with increasing indices) is amortized O(1).
+     */
+    private void ensureCapacity(final int required) {
+
+        final int tmpCurrent = myIndices.length;
+
+        if (required > tmpCurrent) {
+
+            final long tmpLimit = Math.min(myCount, DenseArray.MAX_ARRAY_SIZE);
+            final long tmpGrown = Math.max(myStrategy.grow((long) tmpCurrent), tmpCurrent + (tmpCurrent >> 1));
+            final int tmpCapacity = (int) Math.max(required, Math.min(tmpGrown, tmpLimit));
+
+            final long[] tmpIndices = Arrays.copyOf(myIndices, tmpCapacity);
+            final DenseArray<N> tmpValues = myStrategy.make(tmpCapacity);
+
+            this.move(myValues, 0, tmpValues, 0, myActualLength);
+
+            myIndices = tmpIndices;
+            myValues = tmpValues;
+        }
+    }
+
+    /**
+     * Opens a slot at the internal index, shifting everything after it one step.
+     *
+     * @return The internal index (now associated with the external index)
+     */
+    private int insert(final int internalIndex, final long externalIndex) {
+
+        this.ensureCapacity(myActualLength + 1);
+
+        final int tmpToShift = myActualLength - internalIndex;
+        if (tmpToShift > 0) {
+            System.arraycopy(myIndices, internalIndex, myIndices, internalIndex + 1, tmpToShift);
+            this.move(myValues, internalIndex, myValues, internalIndex + 1, tmpToShift);
+        }
+
+        myIndices[internalIndex] = externalIndex;
+        myActualLength++;
+
+        return internalIndex;
+    }
+
+    /**
+     * y = a * x + y (with this being y) merging the sorted nonzeros of both arrays in one pass.
+     */
+    private void merge(final double a, final SparseArray<?> x) {
+
+        final int tmpLengthX = x.myActualLength;
+        final int tmpLengthY = myActualLength;
+
+        if ((a == PrimitiveMath.ZERO) || (tmpLengthX == 0)) {
+            return;
+        }
+
+        final long[] tmpIndicesX = x.myIndices;
+
+        int tmpNew = 0;
+        for (int ix = 0, iy = 0; ix < tmpLengthX; ix++) {
+            final long tmpIndex = tmpIndicesX[ix];
+            while ((iy < tmpLengthY) && (myIndices[iy] < tmpIndex)) {
+                iy++;
+            }
+            if ((iy >= tmpLengthY) || (myIndices[iy] != tmpIndex)) {
+                tmpNew++;
+            }
+        }
 
-                for (int i = myActualLength; i > tmpInsInd; i--) {
-                    myIndices[i] = myIndices[i - 1];
-                    myValues.set(i, myValues.get(i - 1));
+        this.ensureCapacity(tmpLengthY + tmpNew);
+
+        final long[] tmpIndicesY = myIndices;
+        final DenseArray<?> tmpValuesX = x.myValues;
+        final DenseArray<N> tmpValuesY = myValues;
+
+        // Merge from the back, in place
+
+        int ix = tmpLengthX - 1;
+        int iy = tmpLengthY - 1;
+        int k = (tmpLengthY + tmpNew) - 1;
+
+        if ((tmpValuesX instanceof Primitive64Array) && (tmpValuesY instanceof Primitive64Array)) {
+
+            final double[] tmpDataX = ((Primitive64Array) tmpValuesX).data;
+            final double[] tmpDataY = ((Primitive64Array) tmpValuesY).data;
+
+            while (ix >= 0) {
+                final long tmpIndex = tmpIndicesX[ix];
+                if ((iy >= 0) && (tmpIndicesY[iy] > tmpIndex)) {
+                    tmpIndicesY[k] = tmpIndicesY[iy];
+                    tmpDataY[k] = tmpDataY[iy];
+                    iy--;
+                } else if ((iy >= 0) && (tmpIndicesY[iy] == tmpIndex)) {
+                    tmpIndicesY[k] = tmpIndex;
+                    tmpDataY[k] = tmpDataY[iy] + (a * tmpDataX[ix]);
+                    iy--;
+                    ix--;
+                } else {
+                    tmpIndicesY[k] = tmpIndex;
+                    tmpDataY[k] = a * tmpDataX[ix];
+                    ix--;
                 }
-                myIndices[tmpInsInd] = externalIndex;
-                myValues.set(tmpInsInd, value);
+                k--;
+            }
 
-                myActualLength++;
+        } else {
 
-            } else {
-                // Needs to grow the backing arrays
+            while (ix >= 0) {
+                final long tmpIndex = tmpIndicesX[ix];
+                if ((iy >= 0) && (tmpIndicesY[iy] > tmpIndex)) {
+                    tmpIndicesY[k] = tmpIndicesY[iy];
+                    tmpValuesY.set(k, tmpValuesY.doubleValue(iy));
+                    iy--;
+                } else if ((iy >= 0) && (tmpIndicesY[iy] == tmpIndex)) {
+                    tmpIndicesY[k] = tmpIndex;
+                    tmpValuesY.set(k, tmpValuesY.doubleValue(iy) + (a * tmpValuesX.doubleValue(ix)));
+                    iy--;
+                    ix--;
+                } else {
+                    tmpIndicesY[k] = tmpIndex;
+                    tmpValuesY.set(k, a * tmpValuesX.doubleValue(ix));
+                    ix--;
+                }
+                k--;
+            }
+        }
 
-                final int tmpCapacity = myStrategy.grow(myIndices.length);
-                final long[] tmpIndices = new long[tmpCapacity];
-                final DenseArray<N> tmpValues = myStrategy.make(tmpCapacity);
+        myActualLength = tmpLengthY + tmpNew;
+    }
 
-                for (int i = 0; i < tmpInsInd; i++) {
-                    tmpIndices[i] = myIndices[i];
-                    tmpValues.set(i, myValues.get(i));
+    private void move(final DenseArray<N> source, final int sourceFirst, final DenseArray<N> destination, final int destinationFirst, final int count) {
+        if ((source instanceof Primitive64Array) && (destination instanceof Primitive64Array)) {
+            System.arraycopy(((Primitive64Array) source).data, sourceFirst, ((Primitive64Array) destination).data, destinationFirst, count);
+        } else if (source.isPrimitive()) {
+            if ((source == destination) && (destinationFirst > sourceFirst)) {
+                for (int i = count - 1; i >= 0; i--) {
+                    destination.set(destinationFirst + i, source.doubleValue(sourceFirst + i));
                 }
-                tmpIndices[tmpInsInd] = externalIndex;
-                tmpValues.set(tmpInsInd, value);
-                for (int i = tmpInsInd; i < myIndices.length; i++) {
-                    tmpIndices[i + 1] = myIndices[i];
-                    tmpValues.set(i + 1, myValues.get(i));
+            } else {
+                for (int i = 0; i < count; i++) {
+                    destination.set(destinationFirst + i, source.doubleValue(sourceFirst + i));
                 }
-                for (int i = myIndices.length + 1; i < tmpIndices.length; i++) {
-                    tmpIndices[i] = Long.MAX_VALUE;
+            }
+        } else {
+            if ((source == destination) && (destinationFirst > sourceFirst)) {
+                for (int i = count - 1; i >= 0; i--) {
+                    destination.set(destinationFirst + i, source.get(sourceFirst + i));
+                }
+            } else {
+                for (int i = 0; i < count; i++) {
+                    destination.set(destinationFirst + i, source.get(sourceFirst + i));
                 }
-
-                myIndices = tmpIndices;
-                myValues = tmpValues;
-                myActualLength++;
             }
         }
     }
@@ -608,7 +901,7 @@ public final class SparseArray<N extends Number> extends BasicArray<N> {
         double tmpLargest = PrimitiveMath.ZERO;
         double tmpValue;
 
-        for (int i = 0; i < myIndices.length; i++) {
+        for (int i = 0; i < myActualLength; i++) {
             final long tmpIndex = myIndices[i];
             if ((tmpIndex >= first) && (tmpIndex < limit)) {
                 if (((tmpIndex - first) % step) == 0L) {
@@ -629,7 +922,7 @@ public final class SparseArray<N extends Number> extends BasicArray<N> {
 
         boolean retVal = true;
 
-        for (int i = 0; retVal && (i < myIndices.length); i++) {
+        for (int i = 0; retVal && (i < myActualLength); i++) {
             final long tmpIndex = myIndices[i];
             if ((tmpIndex >= first) && (tmpIndex < limit)) {
                 if (((tmpIndex - first) % step) == 0L) {
@@ -648,7 +941,7 @@ public final class SparseArray<N extends Number> extends BasicArray<N> {
 
         if (PrimitiveScalar.isSmall(PrimitiveMath.ONE, tmpZeroValue)) {
 
-            for (int i = 0; i < myIndices.length; i++) {
+            for (int i = 0; i < myActualLength; i++) {
                 final long tmpIndex = myIndices[i];
                 if ((tmpIndex >= first) && (tmpIndex < limit)) {
                     if (((tmpIndex - first) % step) == 0L) {
@@ -670,7 +963,7 @@ public final class SparseArray<N extends Number> extends BasicArray<N> {
 
         if (PrimitiveScalar.isSmall(PrimitiveMath.ONE, tmpZeroValue)) {
 
-            for (int i = 0; i < myIndices.length; i++) {
+            for (int i = 0; i < myActualLength; i++) {
                 final long tmpIndex = myIndices[i];
                 if ((tmpIndex >= first) && (tmpIndex < limit) && (((tmpIndex - first) % step) == 0L)) {
                     myValues.modify(tmpIndex, i, function, right);
@@ -690,7 +983,7 @@ public final class SparseArray<N extends Number> extends BasicArray<N> {
 
         if (PrimitiveScalar.isSmall(PrimitiveMath.ONE, tmpZeroValue)) {
 
-            for (int i = 0; i < myIndices.length; i++) {
+            for (int i = 0; i < myActualLength; i++) {
                 final long tmpIndex = myIndices[i];
                 if ((tmpIndex >= first) && (tmpIndex < limit) && (((tmpIndex - first) % step) == 0L)) {
                     myValues.modify(tmpIndex, i, function);
@@ -705,16 +998,28 @@ public final class SparseArray<N extends Number> extends BasicArray<N> {
 
     @Override
     protected void visit(final long first, final long limit, final long step, final ConsumerFunction<N> visitor) {
-        boolean tmpOnlyOnce = true;
-        for (int i = 0; i < myIndices.length; i++) {
+        long tmpVisited = 0L;
+        for (int i = 0; i < myActualLength; i++) {
             final long tmpIndex = myIndices[i];
             if ((tmpIndex >= first) && (tmpIndex < limit) && (((tmpIndex - first) % step) == 0L)) {
                 myValues.visitOne(i, visitor);
-            } else if (tmpOnlyOnce) {
-                visitor.invoke(myZeroValue);
-                tmpOnlyOnce = false;
+                tmpVisited++;
             }
         }
+        if (tmpVisited < (((limit - first) + (step - 1L)) / step)) {
+            // There are zeros in the range, visit one of them
+            visitor.invoke(myZeroValue);
+        }
+    }
+
+    /**
+     * Append all the nonzeros of the other array, that must all have larger indices than any in this array.
+     */
+    void append(final SparseArray<N> other) {
+        this.ensureCapacity(myActualLength + other.myActualLength);
+        System.arraycopy(other.myIndices, 0, myIndices, myActualLength, other.myActualLength);
+        this.move(other.myValues, 0, myValues, myActualLength, other.myActualLength);
+        myActualLength += other.myActualLength;
     }
 
     long capacity() {
@@ -790,7 +1095,16 @@ public final class SparseArray<N extends Number> extends BasicArray<N> {
     }
 
     final int index(final long index) {
-        return Arrays.binarySearch(myIndices, 0, myActualLength, index);
+        if ((myActualLength == 0) || (index > myIndices[myActualLength - 1])) {
+            // Fast path for appending (setting elements in increasing index order)
+            return -(myActualLength + 1);
+        } else {
+            return Arrays.binarySearch(myIndices, 0, myActualLength, index);
+        }
+    }
+
+    long indexInternally(final int internalIndex) {
+        return myIndices[internalIndex];
     }
 
     final LongStream indices() {
@@ -814,6 +1128,35 @@ public final class SparseArray<N extends Number> extends BasicArray<N> {
         this.update(key, index, value, true);
     }
 
+    /**
+     * Move the nonzeros from the internal index first (and onwards) to a new array.
+     */
+    SparseArray<N> split(final int first) {
+
+        final int tmpCount = myActualLength - first;
+
+        final SparseArray<N> retVal = new SparseArray<>(myCount, myStrategy);
+        retVal.ensureCapacity(tmpCount);
+
+        System.arraycopy(myIndices, first, retVal.myIndices, 0, tmpCount);
+        this.move(myValues, first, retVal.myValues, 0, tmpCount);
+        retVal.myActualLength = tmpCount;
+
+        myActualLength = first;
+
+        final int tmpCapacity = Math.max(first + (first >> 1), myStrategy.initial());
+        if (tmpCapacity < myIndices.length) {
+            // Don't keep the (now unused) upper half of the arrays
+            final long[] tmpIndices = Arrays.copyOf(myIndices, tmpCapacity);
+            final DenseArray<N> tmpValues = myStrategy.make(tmpCapacity);
+            this.move(myValues, 0, tmpValues, 0, first);
+            myIndices = tmpIndices;
+            myValues = tmpValues;
+        }
+
+        return retVal;
+    }
+
     void remove(final long externalIndex, final int internalIndex) {
 
         if (internalIndex >= 0) {
@@ -821,17 +1164,9 @@ public final class SparseArray<N extends Number> extends BasicArray<N> {
 
             myActualLength--;
 
-            if (myValues.isPrimitive()) {
-                for (int i = internalIndex; i < myActualLength; i++) {
-                    myIndices[i] = myIndices[i + 1];
-                    myValues.set(i, myValues.doubleValue(i + 1));
-                }
-            } else {
-                for (int i = internalIndex; i < myActualLength; i++) {
-                    myIndices[i] = myIndices[i + 1];
-                    myValues.set(i, myValues.get(i + 1));
-                }
-            }
+            final int tmpToShift = myActualLength - internalIndex;
+            System.arraycopy(myIndices, internalIndex + 1, myIndices, internalIndex, tmpToShift);
+            this.move(myValues, internalIndex + 1, myValues, internalIndex, tmpToShift);
 
         }
     }
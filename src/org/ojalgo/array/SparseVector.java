@@ -0,0 +1,487 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import org.ojalgo.access.Access1D;
+import org.ojalgo.access.ElementView1D;
+import org.ojalgo.access.Mutate1D;
+import org.ojalgo.constant.PrimitiveMath;
+import org.ojalgo.function.UnaryFunction;
+import org.ojalgo.netio.ASCII;
+
+/**
+ * <p>
+ * A compact sparse vector of primitive double values. Functionally a subset of
+ * {@link SparseArray}&lt;Double&gt;, but the indices are stored as int (half the memory of long) and the
+ * values in a plain double[]. That makes {@link #dot(Access1D)} and {@link #axpy(double, Mutate1D)} simple
+ * monomorphic loops - intended for the rows of large sparse equation systems.
+ * </p>
+ * <p>
+ * The number of elements (the vector length) must be less than {@link Integer#MAX_VALUE}.
+ * </p>
+ *
+ * @author apete
+ */
+public final class SparseVector implements Access1D<Double>, Mutate1D {
+
+    public static final class NonzeroView implements ElementView1D<Double, NonzeroView> {
+
+        private int myCursor;
+        private final int[] myIndices;
+        private final int myLastCursor;
+        private final double[] myValues;
+
+        private NonzeroView(final int[] indices, final double[] values, final int initial, final int last) {
+
+            super();
+
+            myIndices = indices;
+            myValues = values;
+
+            myCursor = initial;
+            myLastCursor = last;
+        }
+
+        NonzeroView(final int[] indices, final double[] values, final int actualLength) {
+            this(indices, values, -1, actualLength - 1);
+        }
+
+        public double doubleValue() {
+            return myValues[myCursor];
+        }
+
+        public long estimateSize() {
+            return myLastCursor - myCursor;
+        }
+
+        public Double get() {
+            return myValues[myCursor];
+        }
+
+        public boolean hasNext() {
+            return myCursor < myLastCursor;
+        }
+
+        public boolean hasPrevious() {
+            return myCursor > 0;
+        }
+
+        public long index() {
+            return myIndices[myCursor];
+        }
+
+        public NonzeroView next() {
+            myCursor++;
+            return this;
+        }
+
+        public NonzeroView previous() {
+            myCursor--;
+            return this;
+        }
+
+        public boolean tryAdvance(final Consumer<? super NonzeroView> action) {
+            return ElementView1D.super.tryAdvance(action);
+        }
+
+        public NonzeroView trySplit() {
+
+            final int remaining = myLastCursor - myCursor;
+
+            if (remaining > 1) {
+
+                final int split = myCursor + (remaining / 2);
+
+                final NonzeroView retVal = new NonzeroView(myIndices, myValues, myCursor, split);
+
+                myCursor = split;
+
+                return retVal;
+
+            } else {
+
+                return null;
+            }
+        }
+
+    }
+
+    private static final int DEFAULT_CAPACITY = 4;
+
+    private int myActualLength = 0;
+    private final int myCount;
+    private int[] myIndices;
+    private double[] myValues;
+
+    public SparseVector(final long count) {
+        this(count, DEFAULT_CAPACITY);
+    }
+
+    public SparseVector(final long count, final int initialCapacity) {
+
+        super();
+
+        if ((count < 0L) || (count >= Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException("The count must be in the range [0, " + Integer.MAX_VALUE + ")!");
+        }
+
+        myCount = (int) count;
+
+        final int tmpCapacity = Math.max(1, Math.min(initialCapacity, myCount));
+        myIndices = new int[tmpCapacity];
+        myValues = new double[tmpCapacity];
+    }
+
+    /**
+     * An element that becomes zero is removed - zeros are never stored explicitly.
+     */
+    public void add(final long index, final double addend) {
+        this.check(index);
+        final int tmpIndex = this.index((int) index);
+        if (tmpIndex >= 0) {
+            final double tmpValue = myValues[tmpIndex] + addend;
+            if (tmpValue == PrimitiveMath.ZERO) {
+                this.remove(tmpIndex);
+            } else {
+                myValues[tmpIndex] = tmpValue;
+            }
+        } else if (addend != PrimitiveMath.ZERO) {
+            final int tmpInserted = this.insert(-(tmpIndex + 1), (int) index);
+            myValues[tmpInserted] = addend;
+        }
+    }
+
+    public void add(final long index, final Number addend) {
+        this.add(index, addend.doubleValue());
+    }
+
+    /**
+     * y = a * this + y. When y is another {@link SparseVector} the nonzeros of both are merged in one pass.
+     * When y is a {@link Primitive64Array} (that includes PrimitiveDenseStore) its data array is updated
+     * directly.
+     */
+    public void axpy(final double a, final Mutate1D y) {
+        if (y instanceof SparseVector) {
+            ((SparseVector) y).merge(a, this);
+        } else if (y instanceof Primitive64Array) {
+            final double[] tmpData = ((Primitive64Array) y).data;
+            for (int n = 0; n < myActualLength; n++) {
+                tmpData[myIndices[n]] += a * myValues[n];
+            }
+        } else {
+            for (int n = 0; n < myActualLength; n++) {
+                y.add(myIndices[n], a * myValues[n]);
+            }
+        }
+    }
+
+    public long count() {
+        return myCount;
+    }
+
+    public long countNonzeros() {
+        return myActualLength;
+    }
+
+    public long countZeros() {
+        return myCount - myActualLength;
+    }
+
+    public double dot(final Access1D<?> vector) {
+
+        double retVal = PrimitiveMath.ZERO;
+
+        if (vector instanceof SparseVector) {
+
+            final SparseVector tmpOther = (SparseVector) vector;
+
+            final int[] tmpIndices = tmpOther.myIndices;
+            final double[] tmpValues = tmpOther.myValues;
+            final int tmpLength = tmpOther.myActualLength;
+
+            int n = 0, o = 0;
+            while ((n < myActualLength) && (o < tmpLength)) {
+                final int tmpThisIndex = myIndices[n];
+                final int tmpOtherIndex = tmpIndices[o];
+                if (tmpThisIndex < tmpOtherIndex) {
+                    n++;
+                } else if (tmpThisIndex > tmpOtherIndex) {
+                    o++;
+                } else {
+                    retVal += myValues[n] * tmpValues[o];
+                    n++;
+                    o++;
+                }
+            }
+
+        } else if (vector instanceof Primitive64Array) {
+
+            final double[] tmpData = ((Primitive64Array) vector).data;
+
+            for (int n = 0; n < myActualLength; n++) {
+                retVal += myValues[n] * tmpData[myIndices[n]];
+            }
+
+        } else {
+
+            for (int n = 0; n < myActualLength; n++) {
+                retVal += myValues[n] * vector.doubleValue(myIndices[n]);
+            }
+        }
+
+        return retVal;
+    }
+
+    public double doubleValue(final long index) {
+        this.check(index);
+        final int tmpIndex = this.index((int) index);
+        if (tmpIndex >= 0) {
+            return myValues[tmpIndex];
+        } else {
+            return PrimitiveMath.ZERO;
+        }
+    }
+
+    public Double get(final long index) {
+        return this.doubleValue(index);
+    }
+
+    /**
+     * Only the nonzero (stored) elements are modified. The modifier must map zero to zero.
+     */
+    public void modifyAll(final UnaryFunction<Double> modifier) {
+
+        if (modifier.invoke(PrimitiveMath.ZERO) != PrimitiveMath.ZERO) {
+            throw new IllegalArgumentException("SparseVector zero modification!");
+        }
+
+        for (int n = 0; n < myActualLength; n++) {
+            myValues[n] = modifier.invoke(myValues[n]);
+        }
+
+        this.compact();
+    }
+
+    /**
+     * this = factor * this
+     */
+    public void multiply(final double factor) {
+        for (int n = 0; n < myActualLength; n++) {
+            myValues[n] *= factor;
+        }
+
+        this.compact();
+    }
+
+    @Override
+    public NonzeroView nonzeros() {
+        return new NonzeroView(myIndices, myValues, myActualLength);
+    }
+
+    public void reset() {
+        myActualLength = 0;
+    }
+
+    /**
+     * Setting an element to zero removes it - zeros are never stored explicitly.
+     */
+    public void set(final long index, final double value) {
+        this.check(index);
+        final int tmpIndex = this.index((int) index);
+        if (tmpIndex >= 0) {
+            if (value == PrimitiveMath.ZERO) {
+                this.remove(tmpIndex);
+            } else {
+                myValues[tmpIndex] = value;
+            }
+        } else if (value != PrimitiveMath.ZERO) {
+            final int tmpInserted = this.insert(-(tmpIndex + 1), (int) index);
+            myValues[tmpInserted] = value;
+        }
+    }
+
+    public void set(final long index, final Number value) {
+        this.set(index, value.doubleValue());
+    }
+
+    public void supplyNonZerosTo(final Mutate1D consumer) {
+        for (int n = 0; n < myActualLength; n++) {
+            consumer.set(myIndices[n], myValues[n]);
+        }
+    }
+
+    @Override
+    public String toString() {
+
+        final StringBuilder retVal = new StringBuilder();
+
+        retVal.append(ASCII.LCB);
+        retVal.append(ASCII.SP);
+        if (myCount >= 1) {
+            retVal.append(this.doubleValue(0));
+            for (int i = 1; i < myCount; i++) {
+                retVal.append(ASCII.COMMA);
+                retVal.append(ASCII.SP);
+                retVal.append(this.doubleValue(i));
+            }
+            retVal.append(ASCII.SP);
+        }
+        retVal.append(ASCII.RCB);
+
+        return retVal.toString();
+    }
+
+    private void check(final long index) {
+        if ((index < 0L) || (index >= myCount)) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+    }
+
+    /**
+     * Remove any elements that have become zero
+     */
+    private void compact() {
+        int k = 0;
+        for (int n = 0; n < myActualLength; n++) {
+            if (myValues[n] != PrimitiveMath.ZERO) {
+                myIndices[k] = myIndices[n];
+                myValues[k] = myValues[n];
+                k++;
+            }
+        }
+        myActualLength = k;
+    }
+
+    private void ensureCapacity(final int required) {
+
+        final int tmpCurrent = myIndices.length;
+
+        if (required > tmpCurrent) {
+
+            final int tmpGrown = (int) Math.min(tmpCurrent + (tmpCurrent >> 1) + 1L, myCount);
+            final int tmpCapacity = Math.max(required, tmpGrown);
+
+            myIndices = Arrays.copyOf(myIndices, tmpCapacity);
+            myValues = Arrays.copyOf(myValues, tmpCapacity);
+        }
+    }
+
+    private int index(final int index) {
+        if ((myActualLength == 0) || (index > myIndices[myActualLength - 1])) {
+            return -(myActualLength + 1);
+        } else {
+            return Arrays.binarySearch(myIndices, 0, myActualLength, index);
+        }
+    }
+
+    private int insert(final int internalIndex, final int externalIndex) {
+
+        this.ensureCapacity(myActualLength + 1);
+
+        final int tmpToShift = myActualLength - internalIndex;
+        if (tmpToShift > 0) {
+            System.arraycopy(myIndices, internalIndex, myIndices, internalIndex + 1, tmpToShift);
+            System.arraycopy(myValues, internalIndex, myValues, internalIndex + 1, tmpToShift);
+        }
+
+        myIndices[internalIndex] = externalIndex;
+        myActualLength++;
+
+        return internalIndex;
+    }
+
+    private void remove(final int internalIndex) {
+
+        final int tmpToShift = myActualLength - internalIndex - 1;
+        if (tmpToShift > 0) {
+            System.arraycopy(myIndices, internalIndex + 1, myIndices, internalIndex, tmpToShift);
+            System.arraycopy(myValues, internalIndex + 1, myValues, internalIndex, tmpToShift);
+        }
+
+        myActualLength--;
+    }
+
+    /**
+     * this = a * x + this, merging the sorted nonzeros of both vectors in one pass (from the back, in place),
+     * and then dropping any resulting zeros.
+     */
+    private void merge(final double a, final SparseVector x) {
+
+        final int tmpLengthX = x.myActualLength;
+        final int tmpLengthY = myActualLength;
+
+        if ((a == PrimitiveMath.ZERO) || (tmpLengthX == 0)) {
+            return;
+        }
+
+        final int[] tmpIndicesX = x.myIndices;
+        final double[] tmpValuesX = x.myValues;
+
+        int tmpNew = 0;
+        for (int ix = 0, iy = 0; ix < tmpLengthX; ix++) {
+            final int tmpIndex = tmpIndicesX[ix];
+            while ((iy < tmpLengthY) && (myIndices[iy] < tmpIndex)) {
+                iy++;
+            }
+            if ((iy >= tmpLengthY) || (myIndices[iy] != tmpIndex)) {
+                tmpNew++;
+            }
+        }
+
+        this.ensureCapacity(tmpLengthY + tmpNew);
+
+        final int[] tmpIndicesY = myIndices;
+        final double[] tmpValuesY = myValues;
+
+        int ix = tmpLengthX - 1;
+        int iy = tmpLengthY - 1;
+        int k = (tmpLengthY + tmpNew) - 1;
+
+        while (ix >= 0) {
+            final int tmpIndex = tmpIndicesX[ix];
+            if ((iy >= 0) && (tmpIndicesY[iy] > tmpIndex)) {
+                tmpIndicesY[k] = tmpIndicesY[iy];
+                tmpValuesY[k] = tmpValuesY[iy];
+                iy--;
+            } else if ((iy >= 0) && (tmpIndicesY[iy] == tmpIndex)) {
+                tmpIndicesY[k] = tmpIndex;
+                tmpValuesY[k] = tmpValuesY[iy] + (a * tmpValuesX[ix]);
+                iy--;
+                ix--;
+            } else {
+                tmpIndicesY[k] = tmpIndex;
+                tmpValuesY[k] = a * tmpValuesX[ix];
+                ix--;
+            }
+            k--;
+        }
+
+        myActualLength = tmpLengthY + tmpNew;
+
+        // Cancellation (or underflow) may have produced zeros
+        this.compact();
+    }
+
+}
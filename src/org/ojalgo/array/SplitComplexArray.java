@@ -0,0 +1,425 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array;
+
+import java.util.Arrays;
+
+import org.ojalgo.access.Access1D;
+import org.ojalgo.access.Mutate1D;
+import org.ojalgo.constant.PrimitiveMath;
+import org.ojalgo.function.BinaryFunction;
+import org.ojalgo.function.ComplexFunction;
+import org.ojalgo.function.ConsumerFunction;
+import org.ojalgo.function.FunctionSet;
+import org.ojalgo.function.FunctionUtils;
+import org.ojalgo.function.NullaryFunction;
+import org.ojalgo.function.ParameterFunction;
+import org.ojalgo.function.UnaryFunction;
+import org.ojalgo.function.aggregator.AggregatorSet;
+import org.ojalgo.function.aggregator.ComplexAggregator;
+import org.ojalgo.machine.JavaType;
+import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.scalar.PrimitiveScalar;
+import org.ojalgo.scalar.Scalar;
+
+/**
+ * A one- and/or arbitrary-dimensional array of {@linkplain org.ojalgo.scalar.ComplexNumber} stored as two
+ * separate double[] - one for the real parts and one for the imaginary parts. Compared to
+ * {@link ComplexArray} there is no object per element, and the two parts can be streamed through
+ * independently by the numerical kernels.
+ *
+ * @author apete
+ */
+public class SplitComplexArray extends PlainArray<ComplexNumber> {
+
+    private static final long serialVersionUID = 6333250739193088695L;
+
+    public static final DenseArray.Factory<ComplexNumber> FACTORY = new DenseArray.Factory<ComplexNumber>() {
+
+        @Override
+        public AggregatorSet<ComplexNumber> aggregator() {
+            return ComplexAggregator.getSet();
+        }
+
+        @Override
+        public FunctionSet<ComplexNumber> function() {
+            return ComplexFunction.getSet();
+        }
+
+        @Override
+        public Scalar.Factory<ComplexNumber> scalar() {
+            return ComplexNumber.FACTORY;
+        }
+
+        @Override
+        long getElementSize() {
+            return ELEMENT_SIZE;
+        }
+
+        @Override
+        PlainArray<ComplexNumber> make(final long size) {
+            return SplitComplexArray.make((int) size);
+        }
+
+    };
+
+    static final long ELEMENT_SIZE = 2L * JavaType.DOUBLE.memory();
+
+    public static final SplitComplexArray make(final int size) {
+        return new SplitComplexArray(size);
+    }
+
+    public static final SplitComplexArray wrap(final double[] real, final double[] imaginary) {
+        return new SplitComplexArray(real, imaginary);
+    }
+
+    public final double[] imaginary;
+    public final double[] real;
+
+    /**
+     * Arrays not copied! No checking!
+     */
+    protected SplitComplexArray(final double[] real, final double[] imaginary) {
+
+        super(FACTORY, real.length);
+
+        this.real = real;
+        this.imaginary = imaginary;
+    }
+
+    protected SplitComplexArray(final int size) {
+
+        super(FACTORY, size);
+
+        real = new double[size];
+        imaginary = new double[size];
+    }
+
+    public void axpy(final double a, final Mutate1D y) {
+        for (int i = 0; i < real.length; i++) {
+            y.add(i, ComplexNumber.of(a * real[i], a * imaginary[i]));
+        }
+    }
+
+    @Override
+    public boolean equals(final Object anObj) {
+        if (anObj instanceof SplitComplexArray) {
+            final SplitComplexArray tmpOther = (SplitComplexArray) anObj;
+            return Arrays.equals(real, tmpOther.real) && Arrays.equals(imaginary, tmpOther.imaginary);
+        } else {
+            return super.equals(anObj);
+        }
+    }
+
+    public void fillMatching(final Access1D<?> values) {
+        if (values instanceof SplitComplexArray) {
+            final SplitComplexArray tmpValues = (SplitComplexArray) values;
+            final int tmpLimit = Math.min(real.length, tmpValues.real.length);
+            System.arraycopy(tmpValues.real, 0, real, 0, tmpLimit);
+            System.arraycopy(tmpValues.imaginary, 0, imaginary, 0, tmpLimit);
+        } else {
+            for (int i = 0, limit = (int) Math.min(this.count(), values.count()); i < limit; i++) {
+                this.set(i, values.get(i));
+            }
+        }
+    }
+
+    public void fillMatching(final Access1D<ComplexNumber> left, final BinaryFunction<ComplexNumber> function, final Access1D<ComplexNumber> right) {
+        final int tmpLimit = (int) FunctionUtils.min(this.count(), left.count(), right.count());
+        for (int i = 0; i < tmpLimit; i++) {
+            this.fillOne(i, function.invoke(left.get(i), right.get(i)));
+        }
+    }
+
+    public void fillMatching(final UnaryFunction<ComplexNumber> function, final Access1D<ComplexNumber> arguments) {
+        final int tmpLimit = (int) FunctionUtils.min(this.count(), arguments.count());
+        for (int i = 0; i < tmpLimit; i++) {
+            this.fillOne(i, function.invoke(arguments.get(i)));
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return (31 * Arrays.hashCode(real)) + Arrays.hashCode(imaginary);
+    }
+
+    @Override
+    public final void reset() {
+        Arrays.fill(real, PrimitiveMath.ZERO);
+        Arrays.fill(imaginary, PrimitiveMath.ZERO);
+    }
+
+    @Override
+    public final void sortAscending() {
+        final ComplexNumber[] tmpValues = this.toArray();
+        Arrays.parallelSort(tmpValues);
+        this.fill(tmpValues);
+    }
+
+    @Override
+    public final void sortDescending() {
+        final ComplexNumber[] tmpValues = this.toArray();
+        Arrays.parallelSort(tmpValues, (a, b) -> b.compareTo(a));
+        this.fill(tmpValues);
+    }
+
+    private void fill(final ComplexNumber[] values) {
+        for (int i = 0; i < values.length; i++) {
+            this.fillOne(i, values[i]);
+        }
+    }
+
+    private ComplexNumber[] toArray() {
+        final ComplexNumber[] retVal = new ComplexNumber[real.length];
+        for (int i = 0; i < retVal.length; i++) {
+            retVal[i] = this.get(i);
+        }
+        return retVal;
+    }
+
+    @Override
+    protected void add(final int index, final double addend) {
+        real[index] += addend;
+    }
+
+    @Override
+    protected void add(final int index, final Number addend) {
+        real[index] += addend.doubleValue();
+        if (addend instanceof ComplexNumber) {
+            imaginary[index] += ((ComplexNumber) addend).i;
+        }
+    }
+
+    protected final double[] copyOfImaginary() {
+        return Raw1D.copyOf(imaginary);
+    }
+
+    protected final double[] copyOfReal() {
+        return Raw1D.copyOf(real);
+    }
+
+    @Override
+    protected final double doubleValue(final int index) {
+        return real[index];
+    }
+
+    @Override
+    protected final void exchange(final int firstA, final int firstB, final int step, final int count) {
+        Primitive64Array.exchange(real, firstA, firstB, step, count);
+        Primitive64Array.exchange(imaginary, firstA, firstB, step, count);
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final Access1D<ComplexNumber> left, final BinaryFunction<ComplexNumber> function,
+            final Access1D<ComplexNumber> right) {
+        for (int i = first; i < limit; i++) {
+            this.fillOne(i, function.invoke(left.get(i), right.get(i)));
+        }
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final Access1D<ComplexNumber> left, final BinaryFunction<ComplexNumber> function,
+            final ComplexNumber right) {
+        for (int i = first; i < limit; i++) {
+            this.fillOne(i, function.invoke(left.get(i), right));
+        }
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final ComplexNumber left, final BinaryFunction<ComplexNumber> function,
+            final Access1D<ComplexNumber> right) {
+        for (int i = first; i < limit; i++) {
+            this.fillOne(i, function.invoke(left, right.get(i)));
+        }
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final int step, final ComplexNumber value) {
+        Primitive64Array.fill(real, first, limit, step, value.doubleValue());
+        Primitive64Array.fill(imaginary, first, limit, step, value.i);
+    }
+
+    @Override
+    protected final void fill(final int first, final int limit, final int step, final NullaryFunction<ComplexNumber> supplier) {
+        for (int i = first; i < limit; i += step) {
+            this.fillOne(i, supplier.invoke());
+        }
+    }
+
+    @Override
+    protected final void fillOne(final int index, final Access1D<?> values, final long valueIndex) {
+        this.set(index, values.get(valueIndex));
+    }
+
+    @Override
+    protected final void fillOne(final int index, final ComplexNumber value) {
+        real[index] = value.doubleValue();
+        imaginary[index] = value.i;
+    }
+
+    @Override
+    protected final void fillOne(final int index, final NullaryFunction<ComplexNumber> supplier) {
+        this.fillOne(index, supplier.get());
+    }
+
+    @Override
+    protected final ComplexNumber get(final int index) {
+        return ComplexNumber.of(real[index], imaginary[index]);
+    }
+
+    @Override
+    protected final int indexOfLargest(final int first, final int limit, final int step) {
+
+        int retVal = first;
+        double tmpLargest = PrimitiveMath.ZERO;
+        double tmpValue;
+
+        for (int i = first; i < limit; i += step) {
+            tmpValue = (real[i] * real[i]) + (imaginary[i] * imaginary[i]);
+            if (tmpValue > tmpLargest) {
+                tmpLargest = tmpValue;
+                retVal = i;
+            }
+        }
+
+        return retVal;
+    }
+
+    @Override
+    protected final boolean isAbsolute(final int index) {
+        return this.get(index).isAbsolute();
+    }
+
+    @Override
+    protected final boolean isSmall(final int index, final double comparedTo) {
+        return PrimitiveScalar.isSmall(comparedTo, Math.hypot(real[index], imaginary[index]));
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final Access1D<ComplexNumber> left,
+            final BinaryFunction<ComplexNumber> function) {
+        for (int i = first; i < limit; i += step) {
+            this.fillOne(i, function.invoke(left.get(i), this.get(i)));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final BinaryFunction<ComplexNumber> function,
+            final Access1D<ComplexNumber> right) {
+        for (int i = first; i < limit; i += step) {
+            this.fillOne(i, function.invoke(this.get(i), right.get(i)));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final BinaryFunction<ComplexNumber> function, final ComplexNumber right) {
+        for (int i = first; i < limit; i += step) {
+            this.fillOne(i, function.invoke(this.get(i), right));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final ComplexNumber left, final BinaryFunction<ComplexNumber> function) {
+        for (int i = first; i < limit; i += step) {
+            this.fillOne(i, function.invoke(left, this.get(i)));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final ParameterFunction<ComplexNumber> function, final int parameter) {
+        for (int i = first; i < limit; i += step) {
+            this.fillOne(i, function.invoke(this.get(i), parameter));
+        }
+    }
+
+    @Override
+    protected final void modify(final int first, final int limit, final int step, final UnaryFunction<ComplexNumber> function) {
+        for (int i = first; i < limit; i += step) {
+            this.fillOne(i, function.invoke(this.get(i)));
+        }
+    }
+
+    @Override
+    protected final void modifyOne(final int index, final UnaryFunction<ComplexNumber> modifier) {
+        this.fillOne(index, modifier.invoke(this.get(index)));
+    }
+
+    @Override
+    protected final int searchAscending(final ComplexNumber number) {
+        return Arrays.binarySearch(this.toArray(), number);
+    }
+
+    @Override
+    protected final void set(final int index, final double value) {
+        real[index] = value;
+        imaginary[index] = PrimitiveMath.ZERO;
+    }
+
+    @Override
+    protected final void set(final int index, final Number value) {
+        if (value instanceof ComplexNumber) {
+            real[index] = value.doubleValue();
+            imaginary[index] = ((ComplexNumber) value).i;
+        } else {
+            real[index] = value.doubleValue();
+            imaginary[index] = PrimitiveMath.ZERO;
+        }
+    }
+
+    @Override
+    protected final int size() {
+        return real.length;
+    }
+
+    @Override
+    protected final void visit(final int first, final int limit, final int step, final ConsumerFunction<ComplexNumber> visitor) {
+        for (int i = first; i < limit; i += step) {
+            visitor.invoke(this.get(i));
+        }
+    }
+
+    @Override
+    protected final void visitOne(final int index, final ConsumerFunction<ComplexNumber> visitor) {
+        visitor.invoke(this.get(index));
+    }
+
+    @Override
+    final boolean isPrimitive() {
+        return false;
+    }
+
+    @Override
+    final void modify(final long extIndex, final int intIndex, final Access1D<ComplexNumber> left, final BinaryFunction<ComplexNumber> function) {
+        this.fillOne(intIndex, function.invoke(left.get(extIndex), this.get(intIndex)));
+    }
+
+    @Override
+    final void modify(final long extIndex, final int intIndex, final BinaryFunction<ComplexNumber> function, final Access1D<ComplexNumber> right) {
+        this.fillOne(intIndex, function.invoke(this.get(intIndex), right.get(extIndex)));
+    }
+
+    @Override
+    final void modify(final long extIndex, final int intIndex, final UnaryFunction<ComplexNumber> function) {
+        this.fillOne(intIndex, function.invoke(this.get(intIndex)));
+    }
+
+}
@@ -0,0 +1,550 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array;
+
+import java.util.Arrays;
+
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.access.AccessAnyD;
+import org.ojalgo.access.MutateAnyD;
+import org.ojalgo.access.StructureAnyD;
+import org.ojalgo.array.blas.AXPY;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.function.BinaryFunction;
+import org.ojalgo.function.ConsumerFunction;
+import org.ojalgo.function.FunctionSet;
+import org.ojalgo.function.aggregator.Aggregator;
+import org.ojalgo.function.aggregator.AggregatorFunction;
+
+/**
+ * A strided, arbitrary dimensional, view of the elements of an {@linkplain ArrayAnyD}. The element with
+ * reference [i0, i1, i2...] is at (internal) index offset + i0 * stride0 + i1 * stride1 + i2 * stride2...
+ * Permuting, transposing and slicing only rearrange the strides - nothing is copied.
+ * <p>
+ * Contraction is done by permuting/copying the operands to column-major matrices and then doing a matrix
+ * multiplication (GEMM). Contraction and reduction are done in parallel when large enough.
+ *
+ * @author apete
+ * @see ArrayAnyD#strided()
+ */
+public final class StridedAnyD<N extends Number> implements AccessAnyD<N>, MutateAnyD {
+
+    @FunctionalInterface
+    interface LineCallback {
+
+        /**
+         * @param line The line (sequence) number
+         * @param first The internal index of the first element of the line
+         */
+        void call(long line, long first);
+
+    }
+
+    /**
+     * The (approximate) number of element operations that justifies splitting the work between threads.
+     */
+    public static int THRESHOLD = 8192;
+
+    static int[] complement(final int[] axes, final int rank) {
+        final int[] retVal = new int[rank - axes.length];
+        for (int d = 0, i = 0; d < rank; d++) {
+            boolean tmpIncluded = false;
+            for (int j = 0; j < axes.length; j++) {
+                tmpIncluded |= axes[j] == d;
+            }
+            if (!tmpIncluded) {
+                retVal[i++] = d;
+            }
+        }
+        return retVal;
+    }
+
+    static int[] concat(final int[] first, final int[] second) {
+        final int[] retVal = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, retVal, first.length, second.length);
+        return retVal;
+    }
+
+    /**
+     * The strides of a contiguous (column-major) array with the given shape
+     */
+    static long[] strides(final long[] shape) {
+        final long[] retVal = new long[shape.length];
+        long tmpStride = 1L;
+        for (int d = 0; d < shape.length; d++) {
+            retVal[d] = tmpStride;
+            tmpStride *= shape[d];
+        }
+        return retVal;
+    }
+
+    private static long[] select(final long[] values, final int[] axes) {
+        if (axes.length == 0) {
+            return new long[] { 1L };
+        }
+        final long[] retVal = new long[axes.length];
+        for (int i = 0; i < axes.length; i++) {
+            retVal[i] = values[axes[i]];
+        }
+        return retVal;
+    }
+
+    private final BasicArray<N> myDelegate;
+    private final long myOffset;
+    private final long[] myShape;
+    private final long[] myStrides;
+
+    StridedAnyD(final BasicArray<N> delegate, final long offset, final long[] shape, final long[] strides) {
+
+        super();
+
+        myDelegate = delegate;
+        myOffset = offset;
+        myShape = shape;
+        myStrides = strides;
+    }
+
+    public void add(final long index, final double addend) {
+        myDelegate.add(this.address(index), addend);
+    }
+
+    public void add(final long index, final Number addend) {
+        myDelegate.add(this.address(index), addend);
+    }
+
+    public void add(final long[] reference, final double addend) {
+        myDelegate.add(this.address(reference), addend);
+    }
+
+    public void add(final long[] reference, final Number addend) {
+        myDelegate.add(this.address(reference), addend);
+    }
+
+    /**
+     * Aggregates along one dimension (axis) - the result has one dimension less than this.
+     *
+     * @param dimension The dimension to aggregate along/over
+     * @param aggregator What to do
+     * @return An array with the shape of this, but without the aggregated dimension
+     */
+    public ArrayAnyD<N> collapse(final int dimension, final Aggregator aggregator) {
+        final int[] tmpKept = StridedAnyD.complement(new int[] { dimension }, myShape.length);
+        return new ArrayAnyD<>(this.reduce(tmpKept, aggregator), StridedAnyD.select(myShape, tmpKept));
+    }
+
+    /**
+     * Tensor contraction - sums the products of the elements over the paired axes. The result has the
+     * remaining (free) axes of this followed by those of right. Ex: Contracting axis 1 of a matrix with axis
+     * 0 of another is the ordinary matrix multiplication.
+     *
+     * @param right The other operand
+     * @param axes The axes of this to contract over
+     * @param rightAxes The corresponding axes of right
+     */
+    public ArrayAnyD<N> contract(final StridedAnyD<N> right, final int[] axes, final int[] rightAxes) {
+
+        if (axes.length != rightAxes.length) {
+            throw new ProgrammingError("Must contract over the same number of axes!");
+        }
+        for (int i = 0; i < axes.length; i++) {
+            if (myShape[axes[i]] != right.count(rightAxes[i])) {
+                throw new ProgrammingError("The contracted axes must have the same lengths!");
+            }
+        }
+
+        final int[] tmpLeftFree = StridedAnyD.complement(axes, this.rank());
+        final int[] tmpRightFree = StridedAnyD.complement(rightAxes, right.rank());
+
+        final StridedAnyD<N> tmpLeft = this.permute(StridedAnyD.concat(tmpLeftFree, axes));
+        final StridedAnyD<N> tmpRight = right.permute(StridedAnyD.concat(rightAxes, tmpRightFree));
+
+        final long[] tmpLeftShape = StridedAnyD.select(myShape, tmpLeftFree);
+        final long[] tmpRightShape = StridedAnyD.select(right.shape(), tmpRightFree);
+
+        final int tmpRows = (int) StructureAnyD.count(tmpLeftShape);
+        final int tmpColumns = (int) StructureAnyD.count(tmpRightShape);
+        final int tmpComplexity = (int) StructureAnyD.count(StridedAnyD.select(myShape, axes));
+
+        final long[] tmpShape;
+        if (tmpLeftFree.length == 0) {
+            tmpShape = tmpRightShape;
+        } else if (tmpRightFree.length == 0) {
+            tmpShape = tmpLeftShape;
+        } else {
+            tmpShape = Arrays.copyOf(tmpLeftShape, tmpLeftShape.length + tmpRightShape.length);
+            System.arraycopy(tmpRightShape, 0, tmpShape, tmpLeftShape.length, tmpRightShape.length);
+        }
+
+        final BasicArray<N> retVal = myDelegate.factory().makeZero((long) tmpRows * tmpColumns);
+
+        final DivideAndConquer tmpConquerer;
+
+        if (myDelegate.isPrimitive()) {
+
+            final double[] tmpLeftData = tmpLeft.toRawCopy1D();
+            final double[] tmpRightData = tmpRight.toRawCopy1D();
+            final boolean tmpDirect = retVal instanceof Primitive64Array;
+            final double[] tmpProduct = tmpDirect ? ((Primitive64Array) retVal).data : new double[tmpRows * tmpColumns];
+
+            tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int first, final int limit) {
+                    for (int j = first; j < limit; j++) {
+                        for (int c = 0; c < tmpComplexity; c++) {
+                            AXPY.invoke(tmpProduct, j * tmpRows, tmpRightData[c + (j * tmpComplexity)], tmpLeftData, c * tmpRows, 0, tmpRows);
+                        }
+                    }
+                }
+            };
+
+            tmpConquerer.invoke(0, tmpColumns, Math.max(1, THRESHOLD / Math.max(1, tmpRows * tmpComplexity)));
+
+            if (!tmpDirect) {
+                for (int i = 0; i < tmpProduct.length; i++) {
+                    retVal.set(i, tmpProduct[i]);
+                }
+            }
+
+        } else {
+
+            final FunctionSet<N> tmpFunctions = myDelegate.factory().function();
+            final BinaryFunction<N> tmpAdd = tmpFunctions.add();
+            final BinaryFunction<N> tmpMultiply = tmpFunctions.multiply();
+            final N tmpZero = myDelegate.factory().scalar().zero().get();
+
+            tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int first, final int limit) {
+                    for (int j = first; j < limit; j++) {
+                        for (int i = 0; i < tmpRows; i++) {
+                            N tmpSum = tmpZero;
+                            for (int c = 0; c < tmpComplexity; c++) {
+                                tmpSum = tmpAdd.invoke(tmpSum, tmpMultiply.invoke(tmpLeft.get(i + ((long) c * tmpRows)),
+                                        tmpRight.get(c + ((long) j * tmpComplexity))));
+                            }
+                            retVal.set(i + ((long) j * tmpRows), tmpSum);
+                        }
+                    }
+                }
+            };
+
+            tmpConquerer.invoke(0, tmpColumns, Math.max(1, THRESHOLD / Math.max(1, tmpRows * tmpComplexity)));
+        }
+
+        return new ArrayAnyD<>(retVal, tmpShape);
+    }
+
+    /**
+     * @return A contiguous copy
+     */
+    public ArrayAnyD<N> copy() {
+
+        final BasicArray<N> retVal = myDelegate.factory().makeZero(this.count());
+        final long tmpLength = myShape[0];
+        final long tmpStep = myStrides[0];
+
+        if (myDelegate.isPrimitive()) {
+            this.loopLines(0L, this.countLines(), (line, first) -> {
+                final long tmpBase = line * tmpLength;
+                for (long i = 0L; i < tmpLength; i++) {
+                    retVal.set(tmpBase + i, myDelegate.doubleValue(first + (i * tmpStep)));
+                }
+            });
+        } else {
+            this.loopLines(0L, this.countLines(), (line, first) -> {
+                final long tmpBase = line * tmpLength;
+                for (long i = 0L; i < tmpLength; i++) {
+                    retVal.set(tmpBase + i, myDelegate.get(first + (i * tmpStep)));
+                }
+            });
+        }
+
+        return new ArrayAnyD<>(retVal, myShape.clone());
+    }
+
+    public long count(final int dimension) {
+        return StructureAnyD.count(myShape, dimension);
+    }
+
+    public double doubleValue(final long index) {
+        return myDelegate.doubleValue(this.address(index));
+    }
+
+    public double doubleValue(final long[] reference) {
+        return myDelegate.doubleValue(this.address(reference));
+    }
+
+    public N get(final long index) {
+        return myDelegate.get(this.address(index));
+    }
+
+    public N get(final long[] reference) {
+        return myDelegate.get(this.address(reference));
+    }
+
+    /**
+     * @return true if the elements are in contiguous (column-major) order
+     */
+    public boolean isContiguous() {
+        return Arrays.equals(myStrides, StridedAnyD.strides(myShape));
+    }
+
+    /**
+     * @param axes The new order of the dimensions - dimension d of the returned view is dimension axes[d] of
+     *        this
+     * @return A view with permuted dimensions (no copying)
+     */
+    public StridedAnyD<N> permute(final int... axes) {
+
+        if (axes.length != myShape.length) {
+            throw new ProgrammingError("Must specify the new position of all dimensions!");
+        }
+
+        final long[] tmpShape = new long[axes.length];
+        final long[] tmpStrides = new long[axes.length];
+        final boolean[] tmpUsed = new boolean[axes.length];
+        for (int d = 0; d < axes.length; d++) {
+            if (tmpUsed[axes[d]]) {
+                throw new ProgrammingError("Not a permutation!");
+            }
+            tmpUsed[axes[d]] = true;
+            tmpShape[d] = myShape[axes[d]];
+            tmpStrides[d] = myStrides[axes[d]];
+        }
+
+        return new StridedAnyD<>(myDelegate, myOffset, tmpShape, tmpStrides);
+    }
+
+    /**
+     * @return A view restricted to the index range [first, limit) of one dimension (no copying)
+     */
+    public StridedAnyD<N> range(final int dimension, final long first, final long limit) {
+        final long[] tmpShape = myShape.clone();
+        tmpShape[dimension] = limit - first;
+        return new StridedAnyD<>(myDelegate, myOffset + (first * myStrides[dimension]), tmpShape, myStrides);
+    }
+
+    public int rank() {
+        return myShape.length;
+    }
+
+    public void set(final long index, final double value) {
+        myDelegate.set(this.address(index), value);
+    }
+
+    public void set(final long index, final Number value) {
+        myDelegate.set(this.address(index), value);
+    }
+
+    public void set(final long[] reference, final double value) {
+        myDelegate.set(this.address(reference), value);
+    }
+
+    public void set(final long[] reference, final Number value) {
+        myDelegate.set(this.address(reference), value);
+    }
+
+    public long[] shape() {
+        return myShape;
+    }
+
+    /**
+     * @return A view with one dimension less, the given dimension fixed at index (no copying)
+     */
+    public StridedAnyD<N> slice(final int dimension, final long index) {
+        final int[] tmpKept = StridedAnyD.complement(new int[] { dimension }, myShape.length);
+        final long[] tmpStrides = tmpKept.length == 0 ? new long[] { 1L } : StridedAnyD.select(myStrides, tmpKept);
+        return new StridedAnyD<>(myDelegate, myOffset + (index * myStrides[dimension]), StridedAnyD.select(myShape, tmpKept), tmpStrides);
+    }
+
+    @Override
+    public double[] toRawCopy1D() {
+
+        final double[] retVal = new double[(int) this.count()];
+        final int tmpLength = (int) myShape[0];
+        final int tmpStep = (int) myStrides[0];
+
+        if (myDelegate instanceof Primitive64Array) {
+            final double[] tmpData = ((Primitive64Array) myDelegate).data;
+            this.loopLines(0L, this.countLines(), (line, first) -> {
+                final int tmpBase = (int) line * tmpLength;
+                if (tmpStep == 1) {
+                    System.arraycopy(tmpData, (int) first, retVal, tmpBase, tmpLength);
+                } else {
+                    for (int i = 0, j = (int) first; i < tmpLength; i++, j += tmpStep) {
+                        retVal[tmpBase + i] = tmpData[j];
+                    }
+                }
+            });
+        } else {
+            this.loopLines(0L, this.countLines(), (line, first) -> {
+                final int tmpBase = (int) line * tmpLength;
+                for (int i = 0; i < tmpLength; i++) {
+                    retVal[tmpBase + i] = myDelegate.doubleValue(first + ((long) i * tmpStep));
+                }
+            });
+        }
+
+        return retVal;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder retVal = new StringBuilder();
+        retVal.append('<');
+        retVal.append(myShape[0]);
+        for (int i = 1; i < myShape.length; i++) {
+            retVal.append('x');
+            retVal.append(myShape[i]);
+        }
+        retVal.append('>');
+        return retVal.toString();
+    }
+
+    /**
+     * @return A view with the dimensions in reverse order (no copying)
+     */
+    public StridedAnyD<N> transpose() {
+        final int[] tmpAxes = new int[myShape.length];
+        for (int d = 0; d < tmpAxes.length; d++) {
+            tmpAxes[d] = tmpAxes.length - 1 - d;
+        }
+        return this.permute(tmpAxes);
+    }
+
+    public void visitAll(final ConsumerFunction<N> visitor) {
+        final long tmpLimit = myShape[0] * myStrides[0];
+        this.loopLines(0L, this.countLines(), (line, first) -> myDelegate.visit(first, first + tmpLimit, myStrides[0], visitor));
+    }
+
+    private long address(final long index) {
+        long retVal = myOffset;
+        long tmpRemaining = index;
+        for (int d = 0; d < myShape.length; d++) {
+            retVal += (tmpRemaining % myShape[d]) * myStrides[d];
+            tmpRemaining /= myShape[d];
+        }
+        return retVal;
+    }
+
+    private long address(final long[] reference) {
+        long retVal = myOffset;
+        for (int d = 0, limit = Math.min(reference.length, myStrides.length); d < limit; d++) {
+            retVal += reference[d] * myStrides[d];
+        }
+        return retVal;
+    }
+
+    /**
+     * The number of lines (sequences along the first dimension)
+     */
+    long countLines() {
+        return myShape[0] != 0L ? this.count() / myShape[0] : 0L;
+    }
+
+    /**
+     * Loops through the lines (sequences along the first dimension) in the range [firstLine, lineLimit), in
+     * (column-major) order.
+     */
+    void loopLines(final long firstLine, final long lineLimit, final LineCallback callback) {
+
+        final long[] tmpReference = StructureAnyD.reference(firstLine * myShape[0], myShape);
+
+        long tmpFirst = this.address(tmpReference);
+        for (long l = firstLine; l < lineLimit; l++) {
+            callback.call(l, tmpFirst);
+            for (int d = 1; d < myShape.length; d++) {
+                tmpFirst += myStrides[d];
+                if (++tmpReference[d] < myShape[d]) {
+                    break;
+                }
+                tmpFirst -= tmpReference[d] * myStrides[d];
+                tmpReference[d] = 0L;
+            }
+        }
+    }
+
+    /**
+     * Aggregates all elements with the same indices in the kept dimensions. The result is in (column-major)
+     * order of the kept dimensions.
+     *
+     * @param kept The dimensions to keep (not aggregate over)
+     */
+    BasicArray<N> reduce(final int[] kept, final Aggregator aggregator) {
+
+        final int[] tmpReduced = StridedAnyD.complement(kept, myShape.length);
+
+        final StridedAnyD<N> tmpView;
+        if (tmpReduced.length == 0) {
+            // Nothing to aggregate over, add a dimension of length 1
+            final StridedAnyD<N> tmpPermuted = this.permute(kept);
+            final long[] tmpShape = new long[kept.length + 1];
+            final long[] tmpStrides = new long[kept.length + 1];
+            tmpShape[0] = 1L;
+            tmpStrides[0] = 1L;
+            System.arraycopy(tmpPermuted.myShape, 0, tmpShape, 1, kept.length);
+            System.arraycopy(tmpPermuted.myStrides, 0, tmpStrides, 1, kept.length);
+            tmpView = new StridedAnyD<>(myDelegate, myOffset, tmpShape, tmpStrides);
+        } else {
+            tmpView = this.permute(StridedAnyD.concat(tmpReduced, kept));
+        }
+
+        final long tmpLength = tmpView.myShape[0];
+        final long tmpStep = tmpView.myStrides[0];
+        long tmpLinesPerBlock = 1L;
+        for (int d = 1; d < tmpReduced.length; d++) {
+            tmpLinesPerBlock *= tmpView.myShape[d];
+        }
+        final long tmpBlockLines = tmpLinesPerBlock;
+        final int tmpBlocks = (int) StructureAnyD.count(StridedAnyD.select(myShape, kept));
+
+        final BasicArray<N> retVal = myDelegate.factory().makeZero(tmpBlocks);
+        final boolean tmpPrimitive = retVal.isPrimitive();
+
+        final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+            @Override
+            public void conquer(final int first, final int limit) {
+
+                final AggregatorFunction<N> tmpVisitor = aggregator.getFunction(myDelegate.factory().aggregator());
+
+                for (int b = first; b < limit; b++) {
+                    tmpVisitor.reset();
+                    tmpView.loopLines(b * tmpBlockLines, (b + 1) * tmpBlockLines,
+                            (line, start) -> myDelegate.visit(start, start + (tmpLength * tmpStep), tmpStep, tmpVisitor));
+                    if (tmpPrimitive) {
+                        retVal.set(b, tmpVisitor.doubleValue());
+                    } else {
+                        retVal.set(b, tmpVisitor.get());
+                    }
+                }
+            }
+        };
+
+        tmpConquerer.invoke(0, tmpBlocks, (int) Math.max(1L, THRESHOLD / Math.max(1L, tmpLength * tmpBlockLines)));
+
+        return retVal;
+    }
+
+}
@@ -25,6 +25,8 @@ import java.math.BigDecimal;
 
 import org.ojalgo.access.Mutate1D;
 import org.ojalgo.function.BigFunction;
+import org.ojalgo.scalar.Quaternion;
+import org.ojalgo.scalar.RationalNumber;
 import org.ojalgo.scalar.Scalar;
 
 /**
@@ -45,8 +47,30 @@ public abstract class AXPY implements BLAS1 {
     }
 
     public static void invoke(final double[] y, final int basey, final double a, final double[] x, final int basex, final int first, final int limit) {
+        if (limit > first) {
+            PrimitiveKernel.INSTANCE.axpy(y, basey + first, 1, a, x, basex + first, 1, limit - first);
+        }
+    }
+
+    /**
+     * Strided variant: count elements starting at basey/basex and stepping stepy/stepx.
+     */
+    public static void invoke(final double[] y, final int basey, final int stepy, final double a, final double[] x, final int basex, final int stepx,
+            final int count) {
+        PrimitiveKernel.INSTANCE.axpy(y, basey, stepy, a, x, basex, stepx, count);
+    }
+
+    /**
+     * Complex numbers with separate arrays for the real and imaginary parts.
+     */
+    public static void invoke(final double[] yRe, final double[] yIm, final int basey, final double aRe, final double aIm, final double[] xRe,
+            final double[] xIm, final int basex, final int first, final int limit) {
+        double tmpRe, tmpIm;
         for (int i = first; i < limit; i++) {
-            y[basey + i] += a * x[basex + i];
+            tmpRe = xRe[basex + i];
+            tmpIm = xIm[basex + i];
+            yRe[basey + i] += (aRe * tmpRe) - (aIm * tmpIm);
+            yIm[basey + i] += (aRe * tmpIm) + (aIm * tmpRe);
         }
     }
 
@@ -69,6 +93,30 @@ public abstract class AXPY implements BLAS1 {
         }
     }
 
+    /**
+     * Creates one new {@linkplain Quaternion} per element of y, rather than one for the product and one for
+     * the sum.
+     */
+    public static void invoke(final Quaternion[] y, final int basey, final Quaternion a, final Quaternion[] x, final int basex, final int first,
+            final int limit) {
+        final QuaternionAccumulator tmpAccumulator = new QuaternionAccumulator();
+        for (int i = first; i < limit; i++) {
+            y[basey + i] = tmpAccumulator.set(y[basey + i]).addProduct(a, x[basex + i]).get();
+        }
+    }
+
+    /**
+     * Creates one new {@linkplain RationalNumber} per element of y, rather than one for the product and one
+     * for the sum.
+     */
+    public static void invoke(final RationalNumber[] y, final int basey, final RationalNumber a, final RationalNumber[] x, final int basex,
+            final int first, final int limit) {
+        final RationalAccumulator tmpAccumulator = new RationalAccumulator();
+        for (int i = first; i < limit; i++) {
+            y[basey + i] = tmpAccumulator.set(y[basey + i]).addProduct(a, x[basex + i]).get();
+        }
+    }
+
     public static <N extends Number & Scalar<N>> void invoke(final Mutate1D y, final double a, final N[] x) {
         for (int i = 0; i < x.length; i++) {
             y.add(i, x[i].multiply(a).get());
@@ -77,6 +125,14 @@ public abstract class AXPY implements BLAS1 {
 
     public static <N extends Number & Scalar<N>> void invoke(final N[] y, final int basey, final N a, final N[] x, final int basex, final int first,
             final int limit) {
+        if (y instanceof RationalNumber[]) {
+            AXPY.invoke((RationalNumber[]) y, basey, (RationalNumber) a, (RationalNumber[]) x, basex, first, limit);
+            return;
+        }
+        if (y instanceof Quaternion[]) {
+            AXPY.invoke((Quaternion[]) y, basey, (Quaternion) a, (Quaternion[]) x, basex, first, limit);
+            return;
+        }
         for (int i = first; i < limit; i++) {
             y[basey + i] = y[basey + i].add(a.multiply(x[basex + i])).get();
         }
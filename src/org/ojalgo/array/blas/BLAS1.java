@@ -74,6 +74,7 @@ public interface BLAS1 {
     public static final PrimitiveToInt DAMAX = AMAX::invoke;
     public static final PrimitiveToInt DAMIN = AMIN::invoke;
     public static final PrimitiveToDouble DASUM = ASUM::invoke;
+    public static final PrimitiveToDouble DNRM2 = NRM2::invoke;
 
     public static final GenericToInt<Quaternion> QAMAX = AMAX::invoke;
 
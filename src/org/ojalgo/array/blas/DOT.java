@@ -26,6 +26,8 @@ import java.math.BigDecimal;
 import org.ojalgo.constant.BigMath;
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.scalar.Quaternion;
+import org.ojalgo.scalar.RationalNumber;
 import org.ojalgo.scalar.Scalar;
 
 /**
@@ -54,6 +56,10 @@ public abstract class DOT implements BLAS1 {
         return retVal;
     }
 
+    /**
+     * Strictly sequential summation. The decompositions and optimisation solvers depend on exactly this
+     * rounding behaviour - use the strided variant for the unrolled multi-accumulator kernel.
+     */
     public static double invoke(final double[] array1, final int offset1, final double[] array2, final int offset2, final int first, final int limit) {
         double retVal = PrimitiveMath.ZERO;
         for (int i = first; i < limit; i++) {
@@ -62,199 +68,55 @@ public abstract class DOT implements BLAS1 {
         return retVal;
     }
 
-    public static <N extends Number & Scalar<N>> N invoke(final N[] array1, final int offset1, final N[] array2, final int offset2, final int first,
-            final int limit, final Scalar.Factory<N> factory) {
-        Scalar<N> retVal = factory.zero();
+    /**
+     * Strided variant: count elements starting at offset1/offset2 and stepping step1/step2. Uses the unrolled
+     * {@link PrimitiveKernel}, and the rounding may differ from the sequential sum.
+     */
+    public static double invoke(final double[] array1, final int offset1, final int step1, final double[] array2, final int offset2, final int step2,
+            final int count) {
+        return PrimitiveKernel.INSTANCE.dot(array1, offset1, step1, array2, offset2, step2, count);
+    }
+
+    public static Quaternion invoke(final Quaternion[] array1, final int offset1, final Quaternion[] array2, final int offset2, final int first,
+            final int limit) {
+        final QuaternionAccumulator retVal = new QuaternionAccumulator();
         for (int i = first; i < limit; i++) {
-            retVal = retVal.add(array1[offset1 + i].multiply(array2[offset2 + i]));
+            retVal.addProduct(array1[offset1 + i], array2[offset2 + i]);
         }
         return retVal.get();
     }
 
-    public static double invoke2(final double[] array1, final int offset1, final double[] array2, final int offset2, final int first, final int limit) {
-
-        double retVal = PrimitiveMath.ZERO;
-
-        int i = first;
-
-        for (; (i + 8) < limit; i += 8) {
-
-            final int base1 = offset1 + i;
-            final int base2 = offset2 + i;
-
-            final double m0 = array1[base1] * array2[base2];
-            final double m1 = array1[base1 + 1] * array2[base2 + 1];
-            final double m2 = array1[base1 + 2] * array2[base2 + 2];
-            final double m3 = array1[base1 + 3] * array2[base2 + 3];
-            final double m4 = array1[base1 + 4] * array2[base2 + 4];
-            final double m5 = array1[base1 + 5] * array2[base2 + 5];
-            final double m6 = array1[base1 + 6] * array2[base2 + 6];
-            final double m7 = array1[base1 + 7] * array2[base2 + 7];
-
-            final double s0 = m0 + m1;
-            final double s1 = m2 + m3;
-            final double s2 = m4 + m5;
-            final double s3 = m6 + m7;
-
-            final double a0 = s0 + s1;
-            final double a1 = s2 + s3;
-
-            retVal += (a0 + a1);
-        }
-
-        switch ((limit - first) % 8) {
-
-        case 7: {
-
-            final int base1 = offset1 + i;
-            final int base2 = offset2 + i;
-
-            final double m0 = array1[base1] * array2[base2];
-            final double m1 = array1[base1 + 1] * array2[base2 + 1];
-            final double m2 = array1[base1 + 2] * array2[base2 + 2];
-            final double m3 = array1[base1 + 3] * array2[base2 + 3];
-            final double m4 = array1[base1 + 4] * array2[base2 + 4];
-            final double m5 = array1[base1 + 5] * array2[base2 + 5];
-            final double m6 = array1[base1 + 6] * array2[base2 + 6];
-
-            final double s0 = m0 + m1;
-            final double s1 = m2 + m3;
-            final double s2 = m4 + m5;
-            final double s3 = m6;
-
-            final double a0 = s0 + s1;
-            final double a1 = s2 + s3;
-
-            retVal += (a0 + a1);
-        }
-
-            break;
-
-        case 6: {
-
-            final int base1 = offset1 + i;
-            final int base2 = offset2 + i;
-
-            final double m0 = array1[base1] * array2[base2];
-            final double m1 = array1[base1 + 1] * array2[base2 + 1];
-            final double m2 = array1[base1 + 2] * array2[base2 + 2];
-            final double m3 = array1[base1 + 3] * array2[base2 + 3];
-            final double m4 = array1[base1 + 4] * array2[base2 + 4];
-            final double m5 = array1[base1 + 5] * array2[base2 + 5];
-
-            final double s0 = m0 + m1;
-            final double s1 = m2 + m3;
-            final double s2 = m4 + m5;
-
-            final double a0 = s0 + s1;
-            final double a1 = s2;
-
-            retVal += (a0 + a1);
-        }
-
-            break;
-
-        case 5: {
-
-            final int base1 = offset1 + i;
-            final int base2 = offset2 + i;
-
-            final double m0 = array1[base1] * array2[base2];
-            final double m1 = array1[base1 + 1] * array2[base2 + 1];
-            final double m2 = array1[base1 + 2] * array2[base2 + 2];
-            final double m3 = array1[base1 + 3] * array2[base2 + 3];
-            final double m4 = array1[base1 + 4] * array2[base2 + 4];
-
-            final double s0 = m0 + m1;
-            final double s1 = m2 + m3;
-            final double s2 = m4;
-
-            final double a0 = s0 + s1;
-            final double a1 = s2;
-
-            retVal += (a0 + a1);
-        }
-
-            break;
-
-        case 4: {
-
-            final int base1 = offset1 + i;
-            final int base2 = offset2 + i;
-
-            final double m0 = array1[base1] * array2[base2];
-            final double m1 = array1[base1 + 1] * array2[base2 + 1];
-            final double m2 = array1[base1 + 2] * array2[base2 + 2];
-            final double m3 = array1[base1 + 3] * array2[base2 + 3];
-
-            final double s0 = m0 + m1;
-            final double s1 = m2 + m3;
-
-            final double a0 = s0 + s1;
-
-            retVal += a0;
-        }
-
-            break;
-
-        case 3: {
-
-            final int base1 = offset1 + i;
-            final int base2 = offset2 + i;
-
-            final double m0 = array1[base1] * array2[base2];
-            final double m1 = array1[base1 + 1] * array2[base2 + 1];
-            final double m2 = array1[base1 + 2] * array2[base2 + 2];
-
-            final double s0 = m0 + m1;
-            final double s1 = m2;
-
-            final double a0 = s0 + s1;
-
-            retVal += a0;
+    public static RationalNumber invoke(final RationalNumber[] array1, final int offset1, final RationalNumber[] array2, final int offset2,
+            final int first, final int limit) {
+        final RationalAccumulator retVal = new RationalAccumulator();
+        for (int i = first; i < limit; i++) {
+            retVal.addProduct(array1[offset1 + i], array2[offset2 + i]);
         }
+        return retVal.get();
+    }
 
-            break;
-
-        case 2: {
-
-            final int base1 = offset1 + i;
-            final int base2 = offset2 + i;
-
-            final double m0 = array1[base1] * array2[base2];
-            final double m1 = array1[base1 + 1] * array2[base2 + 1];
-
-            final double s0 = m0 + m1;
-
-            final double a0 = s0;
-
-            retVal += a0;
+    @SuppressWarnings("unchecked")
+    public static <N extends Number & Scalar<N>> N invoke(final N[] array1, final int offset1, final N[] array2, final int offset2, final int first,
+            final int limit, final Scalar.Factory<N> factory) {
+        if (array1 instanceof RationalNumber[]) {
+            return (N) DOT.invoke((RationalNumber[]) array1, offset1, (RationalNumber[]) array2, offset2, first, limit);
         }
-
-            break;
-
-        case 1: {
-
-            final int base1 = offset1 + i;
-            final int base2 = offset2 + i;
-
-            final double m0 = array1[base1] * array2[base2];
-
-            final double s0 = m0;
-
-            final double a0 = s0;
-
-            retVal += a0;
+        if (array1 instanceof Quaternion[]) {
+            return (N) DOT.invoke((Quaternion[]) array1, offset1, (Quaternion[]) array2, offset2, first, limit);
         }
-
-            break;
-
-        default:
-
-            throw new IllegalStateException();
+        Scalar<N> retVal = factory.zero();
+        for (int i = first; i < limit; i++) {
+            retVal = retVal.add(array1[offset1 + i].multiply(array2[offset2 + i]));
         }
+        return retVal.get();
+    }
 
-        return retVal;
+    /**
+     * @deprecated Same as {@link #invoke(double[], int, double[], int, int, int)}
+     */
+    @Deprecated
+    public static double invoke2(final double[] array1, final int offset1, final double[] array2, final int offset2, final int first, final int limit) {
+        return DOT.invoke(array1, offset1, array2, offset2, first, limit);
     }
 
 }
@@ -29,4 +29,8 @@ package org.ojalgo.array.blas;
  */
 public abstract class NRM2 implements BLAS1 {
 
+    public static double invoke(final double[] data, final int first, final int limit, final int step) {
+        return PrimitiveKernel.INSTANCE.nrm2(data, first, step, PrimitiveKernel.count(first, limit, step));
+    }
+
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array.blas;
+
+/**
+ * The primitive double BLAS1 kernels (used by {@linkplain AXPY}, {@linkplain DOT}, {@linkplain NRM2} and
+ * {@linkplain SCAL}). The implementation is selected once, at startup, and is then available as
+ * {@link #INSTANCE}.
+ * <p>
+ * The default implementation is plain Java tuned for HotSpot's C2 compiler - reductions use several
+ * independent accumulators (breaking the loop carried dependency so that the multiply-adds can be
+ * pipelined), and element-wise operations are kept as simple counted loops that C2 auto-vectorises.
+ * <p>
+ * The reductions do not add the terms in element order, and the result may differ from a sequential sum in
+ * the last few bits (the error bound, n&epsilon;&Sigma;|x<sub>i</sub>y<sub>i</sub>|, is the same). That is
+ * fine for the iterative algorithms that only need results within their convergence tolerance - the
+ * {@link org.ojalgo.matrix.task.iterative.ConjugateGradientSolver} and the Krylov subspace eigenvalue solver
+ * use these kernels. The direct decompositions depend on the exact sequential rounding and use
+ * {@link DOT#invoke(double[], int, double[], int, int, int)}.
+ * <p>
+ * An alternative implementation, typically one built on the incubating Vector API (that requires a newer JDK
+ * and "--add-modules jdk.incubator.vector"), can be plugged in by naming a subclass with a public no-args
+ * constructor using the system property {@value #PROPERTY}. If that class can't be loaded, for any reason,
+ * the default implementation is used.
+ *
+ * @author apete
+ */
+public abstract class PrimitiveKernel {
+
+    /**
+     * Unrolled multi-accumulator implementation.
+     */
+    static final class Unrolled extends PrimitiveKernel {
+
+        /**
+         * Sums of squares smaller than this may have lost precision to underflow.
+         */
+        private static final double TINY = Double.MIN_NORMAL / Math.ulp(1.0);
+
+        Unrolled() {
+            super();
+        }
+
+        @Override
+        public void axpy(final double[] y, final int offsetY, final int strideY, final double a, final double[] x, final int offsetX, final int strideX,
+                final int count) {
+            if ((strideX == 1) && (strideY == 1)) {
+                for (int i = 0; i < count; i++) {
+                    y[offsetY + i] += a * x[offsetX + i];
+                }
+            } else {
+                for (int i = 0, ix = offsetX, iy = offsetY; i < count; i++, ix += strideX, iy += strideY) {
+                    y[iy] += a * x[ix];
+                }
+            }
+        }
+
+        @Override
+        public double dot(final double[] x, final int offsetX, final int strideX, final double[] y, final int offsetY, final int strideY, final int count) {
+
+            double tmpSum0 = 0.0;
+            double tmpSum1 = 0.0;
+            double tmpSum2 = 0.0;
+            double tmpSum3 = 0.0;
+
+            int i = 0;
+
+            if ((strideX == 1) && (strideY == 1)) {
+
+                for (final int limit = count & ~3; i < limit; i += 4) {
+                    final int ix = offsetX + i;
+                    final int iy = offsetY + i;
+                    tmpSum0 += x[ix] * y[iy];
+                    tmpSum1 += x[ix + 1] * y[iy + 1];
+                    tmpSum2 += x[ix + 2] * y[iy + 2];
+                    tmpSum3 += x[ix + 3] * y[iy + 3];
+                }
+                for (; i < count; i++) {
+                    tmpSum0 += x[offsetX + i] * y[offsetY + i];
+                }
+
+            } else {
+
+                int ix = offsetX;
+                int iy = offsetY;
+                for (final int limit = count & ~3; i < limit; i += 4, ix += 4 * strideX, iy += 4 * strideY) {
+                    tmpSum0 += x[ix] * y[iy];
+                    tmpSum1 += x[ix + strideX] * y[iy + strideY];
+                    tmpSum2 += x[ix + (2 * strideX)] * y[iy + (2 * strideY)];
+                    tmpSum3 += x[ix + (3 * strideX)] * y[iy + (3 * strideY)];
+                }
+                for (; i < count; i++, ix += strideX, iy += strideY) {
+                    tmpSum0 += x[ix] * y[iy];
+                }
+            }
+
+            return (tmpSum0 + tmpSum1) + (tmpSum2 + tmpSum3);
+        }
+
+        /**
+         * Sums the squares directly (fast) and only if that overflows, or may have underflowed, falls back to
+         * the scaled (LAPACK style) algorithm.
+         */
+        @Override
+        public double nrm2(final double[] x, final int offset, final int stride, final int count) {
+
+            final double tmpSumOfSquares = this.dot(x, offset, stride, x, offset, stride, count);
+
+            if ((tmpSumOfSquares < Double.POSITIVE_INFINITY) && ((tmpSumOfSquares >= TINY) || (count == 0))) {
+                return Math.sqrt(tmpSumOfSquares);
+            } else if (Double.isNaN(tmpSumOfSquares)) {
+                return Double.NaN;
+            }
+
+            double tmpScale = 0.0;
+            double tmpScaledSum = 1.0;
+            for (int i = 0, ix = offset; i < count; i++, ix += stride) {
+                final double tmpAbs = Math.abs(x[ix]);
+                if (tmpAbs > 0.0) {
+                    if (tmpScale < tmpAbs) {
+                        final double tmpRatio = tmpScale / tmpAbs;
+                        tmpScaledSum = 1.0 + (tmpScaledSum * tmpRatio * tmpRatio);
+                        tmpScale = tmpAbs;
+                    } else {
+                        final double tmpRatio = tmpAbs / tmpScale;
+                        tmpScaledSum += tmpRatio * tmpRatio;
+                    }
+                }
+            }
+            return tmpScale * Math.sqrt(tmpScaledSum);
+        }
+
+        @Override
+        public void scal(final double[] x, final int offset, final int stride, final double a, final int count) {
+            if (stride == 1) {
+                for (int i = 0; i < count; i++) {
+                    x[offset + i] *= a;
+                }
+            } else {
+                for (int i = 0, ix = offset; i < count; i++, ix += stride) {
+                    x[ix] *= a;
+                }
+            }
+        }
+
+    }
+
+    public static final String PROPERTY = "ojalgo.blas1.kernel";
+
+    /**
+     * The implementation selected at startup
+     */
+    public static final PrimitiveKernel INSTANCE = PrimitiveKernel.select();
+
+    /**
+     * The number of elements in [first, limit) with the given step.
+     */
+    static int count(final int first, final int limit, final int step) {
+        return limit > first ? (((limit - first) + step) - 1) / step : 0;
+    }
+
+    private static PrimitiveKernel select() {
+
+        try {
+            final String tmpClassName = System.getProperty(PROPERTY);
+            if (tmpClassName != null) {
+                return Class.forName(tmpClassName).asSubclass(PrimitiveKernel.class).getConstructor().newInstance();
+            }
+        } catch (final Exception | LinkageError cause) {
+            // Not available with this JDK or configuration
+        }
+
+        return new Unrolled();
+    }
+
+    protected PrimitiveKernel() {
+        super();
+    }
+
+    /**
+     * y += a * x (count elements)
+     */
+    public abstract void axpy(final double[] y, final int offsetY, final int strideY, final double a, final double[] x, final int offsetX,
+            final int strideX, final int count);
+
+    /**
+     * @return The dot product of count elements of x and y
+     */
+    public abstract double dot(final double[] x, final int offsetX, final int strideX, final double[] y, final int offsetY, final int strideY,
+            final int count);
+
+    /**
+     * @return The Euclidean norm of count elements of x - without destructive overflow or underflow
+     */
+    public abstract double nrm2(final double[] x, final int offset, final int stride, final int count);
+
+    /**
+     * x *= a (count elements)
+     */
+    public abstract void scal(final double[] x, final int offset, final int stride, final double a, final int count);
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array.blas;
+
+import org.ojalgo.constant.PrimitiveMath;
+import org.ojalgo.scalar.Quaternion;
+
+/**
+ * A mutable sum of {@linkplain Quaternion} values (and products of pairs of values). The accumulation is
+ * done on 4 double fields, without creating any intermediate {@linkplain Quaternion} instances.
+ *
+ * @author apete
+ */
+public final class QuaternionAccumulator {
+
+    private double myI = PrimitiveMath.ZERO;
+    private double myJ = PrimitiveMath.ZERO;
+    private double myK = PrimitiveMath.ZERO;
+    private double myScalar = PrimitiveMath.ZERO;
+
+    public QuaternionAccumulator() {
+        super();
+    }
+
+    /**
+     * this += value
+     */
+    public QuaternionAccumulator add(final Quaternion value) {
+        myScalar += value.scalar();
+        myI += value.i;
+        myJ += value.j;
+        myK += value.k;
+        return this;
+    }
+
+    /**
+     * this += factor1 * factor2 (the Hamilton product, in that order)
+     */
+    public QuaternionAccumulator addProduct(final Quaternion factor1, final Quaternion factor2) {
+
+        final double tmpS1 = factor1.scalar();
+        final double tmpI1 = factor1.i;
+        final double tmpJ1 = factor1.j;
+        final double tmpK1 = factor1.k;
+
+        final double tmpS2 = factor2.scalar();
+        final double tmpI2 = factor2.i;
+        final double tmpJ2 = factor2.j;
+        final double tmpK2 = factor2.k;
+
+        myScalar += (tmpS1 * tmpS2) - (tmpI1 * tmpI2) - (tmpJ1 * tmpJ2) - (tmpK1 * tmpK2);
+        myI += ((tmpS1 * tmpI2) + (tmpI1 * tmpS2) + (tmpJ1 * tmpK2)) - (tmpK1 * tmpJ2);
+        myJ += ((tmpS1 * tmpJ2) - (tmpI1 * tmpK2)) + (tmpJ1 * tmpS2) + (tmpK1 * tmpI2);
+        myK += (((tmpS1 * tmpK2) + (tmpI1 * tmpJ2)) - (tmpJ1 * tmpI2)) + (tmpK1 * tmpS2);
+
+        return this;
+    }
+
+    public Quaternion get() {
+        return Quaternion.of(myScalar, myI, myJ, myK);
+    }
+
+    public QuaternionAccumulator reset() {
+        myScalar = PrimitiveMath.ZERO;
+        myI = PrimitiveMath.ZERO;
+        myJ = PrimitiveMath.ZERO;
+        myK = PrimitiveMath.ZERO;
+        return this;
+    }
+
+    public QuaternionAccumulator set(final Quaternion value) {
+        myScalar = value.scalar();
+        myI = value.i;
+        myJ = value.j;
+        myK = value.k;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return this.get().toString();
+    }
+
+}
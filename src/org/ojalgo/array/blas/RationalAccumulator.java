@@ -0,0 +1,184 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array.blas;
+
+import org.ojalgo.scalar.RationalNumber;
+
+/**
+ * A mutable sum of {@linkplain RationalNumber} values (and products of pairs of values). As long as the
+ * intermediate numerators and denominators fit in a long the accumulation is done in place, without creating
+ * any {@linkplain RationalNumber} instances. On overflow, or when infinite/NaN values are involved, it falls
+ * back to the (immutable) {@linkplain RationalNumber} arithmetic.
+ * <p>
+ * While nothing overflows the result is exact, and identical to what eager {@linkplain RationalNumber}
+ * arithmetic gives. When something does overflow {@linkplain RationalNumber} approximates - it shifts the
+ * numerator and denominator right until they fit in a long - and since the accumulator does not form the
+ * same intermediate values, the two results are then only equivalent up to that approximation.
+ *
+ * @author apete
+ */
+public final class RationalAccumulator {
+
+    /**
+     * Greatest common divisor of the absolute values, throws {@linkplain ArithmeticException} when that is
+     * not representable.
+     */
+    private static long gcd(final long a, final long b) {
+
+        if ((a == Long.MIN_VALUE) || (b == Long.MIN_VALUE)) {
+            throw new ArithmeticException();
+        }
+
+        long tmpMax = Math.abs(a);
+        long tmpMin = Math.abs(b);
+        long tmpRem;
+
+        while (tmpMin != 0L) {
+            tmpRem = tmpMax % tmpMin;
+            tmpMax = tmpMin;
+            tmpMin = tmpRem;
+        }
+
+        return tmpMax;
+    }
+
+    private long myDenominator = 1L;
+    private long myNumerator = 0L;
+
+    public RationalAccumulator() {
+        super();
+    }
+
+    /**
+     * this += value
+     */
+    public RationalAccumulator add(final RationalNumber value) {
+
+        final long tmpNumer = value.getNumerator();
+        final long tmpDenom = value.getDenominator();
+
+        if ((tmpDenom != 0L) && (myDenominator != 0L)) {
+            try {
+                this.accumulate(tmpNumer, tmpDenom);
+                return this;
+            } catch (final ArithmeticException cause) {
+                // Fall back to RationalNumber
+            }
+        }
+
+        return this.set(this.get().add(value));
+    }
+
+    /**
+     * this += factor1 * factor2
+     */
+    public RationalAccumulator addProduct(final RationalNumber factor1, final RationalNumber factor2) {
+
+        final long tmpNumer1 = factor1.getNumerator();
+        final long tmpDenom1 = factor1.getDenominator();
+        final long tmpNumer2 = factor2.getNumerator();
+        final long tmpDenom2 = factor2.getDenominator();
+
+        if ((tmpDenom1 != 0L) && (tmpDenom2 != 0L) && (myDenominator != 0L)) {
+
+            if ((tmpNumer1 == 0L) || (tmpNumer2 == 0L)) {
+                return this;
+            }
+
+            try {
+
+                final long tmpGCD12 = RationalAccumulator.gcd(tmpNumer1, tmpDenom2);
+                final long tmpGCD21 = RationalAccumulator.gcd(tmpNumer2, tmpDenom1);
+
+                final long tmpNumer = Math.multiplyExact(tmpNumer1 / tmpGCD12, tmpNumer2 / tmpGCD21);
+                final long tmpDenom = Math.multiplyExact(tmpDenom1 / tmpGCD21, tmpDenom2 / tmpGCD12);
+
+                this.accumulate(tmpNumer, tmpDenom);
+
+                return this;
+
+            } catch (final ArithmeticException cause) {
+                // Fall back to RationalNumber
+            }
+        }
+
+        return this.set(this.get().add(factor1.multiply(factor2)));
+    }
+
+    public RationalNumber get() {
+        return RationalNumber.of(myNumerator, myDenominator);
+    }
+
+    public RationalAccumulator reset() {
+        myNumerator = 0L;
+        myDenominator = 1L;
+        return this;
+    }
+
+    public RationalAccumulator set(final RationalNumber value) {
+        myNumerator = value.getNumerator();
+        myDenominator = value.getDenominator();
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return this.get().toString();
+    }
+
+    /**
+     * Adds numerator / denominator (with denominator > 0) to this, and reduces the result. Leaves this
+     * unchanged if an {@linkplain ArithmeticException} is thrown.
+     */
+    private void accumulate(final long numerator, final long denominator) {
+
+        long tmpNumer;
+        long tmpDenom;
+
+        if (myDenominator == denominator) {
+
+            tmpNumer = Math.addExact(myNumerator, numerator);
+            tmpDenom = denominator;
+
+        } else {
+
+            final long tmpGCD = RationalAccumulator.gcd(myDenominator, denominator);
+
+            tmpNumer = Math.addExact(Math.multiplyExact(myNumerator, denominator / tmpGCD), Math.multiplyExact(numerator, myDenominator / tmpGCD));
+            tmpDenom = Math.multiplyExact(myDenominator / tmpGCD, denominator);
+        }
+
+        if (tmpNumer == 0L) {
+
+            myNumerator = 0L;
+            myDenominator = 1L;
+
+        } else {
+
+            final long tmpGCD = RationalAccumulator.gcd(tmpNumer, tmpDenom);
+
+            myNumerator = tmpNumer / tmpGCD;
+            myDenominator = tmpDenom / tmpGCD;
+        }
+    }
+
+}
@@ -29,4 +29,8 @@ package org.ojalgo.array.blas;
  */
 public abstract class SCAL implements BLAS1 {
 
+    public static void invoke(final double[] data, final int first, final int limit, final int step, final double scalar) {
+        PrimitiveKernel.INSTANCE.scal(data, first, step, scalar, PrimitiveKernel.count(first, limit, step));
+    }
+
 }
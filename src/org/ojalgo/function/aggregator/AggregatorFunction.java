@@ -21,12 +21,29 @@
  */
 package org.ojalgo.function.aggregator;
 
+import org.ojalgo.ProgrammingError;
 import org.ojalgo.access.AccessScalar;
 import org.ojalgo.function.ConsumerFunction;
 import org.ojalgo.scalar.Scalar;
 
 public interface AggregatorFunction<N extends Number> extends ConsumerFunction<N>, AccessScalar<N> {
 
+    /**
+     * Combine the state of another aggregator, of the same kind (typically used by another thread to
+     * aggregate another part of the same data), with this one. After this call this aggregator reflects all
+     * the values that either aggregator has been invoked with. The other aggregator is not modified.
+     * <p>
+     * By default this is {@link #merge(Number)} with the other aggregator's result, and requires that
+     * {@link #isMergeable()}.
+     */
+    default void combine(final AggregatorFunction<N> other) {
+        if (this.isMergeable()) {
+            this.merge(other.get());
+        } else {
+            ProgrammingError.throwForIllegalInvocation();
+        }
+    }
+
     default boolean isMergeable() {
         return true;
     }
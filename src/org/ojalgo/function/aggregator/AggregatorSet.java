@@ -21,6 +21,15 @@
  */
 package org.ojalgo.function.aggregator;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.ojalgo.OjAlgoUtils;
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.concurrent.DaemonPoolExecutor;
+
 /**
  * Do not cache instances of this class! The methods {@linkplain BigAggregator#getSet()},
  * {@linkplain ComplexAggregator#getSet()} and {@linkplain PrimitiveAggregator#getSet()} return threadlocal
@@ -31,10 +40,91 @@ package org.ojalgo.function.aggregator;
  */
 public abstract class AggregatorSet<N extends Number> {
 
+    /**
+     * Something that can feed a range of elements, [first, limit), to an aggregator.
+     */
+    @FunctionalInterface
+    public interface RangeVisitor<N extends Number> {
+
+        void visit(long first, long limit, AggregatorFunction<N> aggregator);
+
+    }
+
+    /**
+     * The minimum number of elements per chunk when aggregating in parallel
+     */
+    public static long THRESHOLD = 4096L;
+
+    /**
+     * Chunks are multiples of this size (the number of doubles in a 64 byte cache line)
+     */
+    static final long LINE = 8L;
+
     protected AggregatorSet() {
         super();
     }
 
+    /**
+     * @see #aggregate(Aggregator, long, long, long, RangeVisitor)
+     */
+    public final N aggregate(final Aggregator aggregator, final long first, final long limit, final RangeVisitor<N> visitor) {
+        return this.aggregate(aggregator, first, limit, THRESHOLD, visitor);
+    }
+
+    /**
+     * Aggregate the range [first, limit), in parallel if it is large enough. The range is split in (at most
+     * one per thread) chunks of at least minimumChunk elements. Each chunk is visited in a pool thread, using
+     * that thread's own aggregator, which is then {@linkplain AggregatorFunction#combine(AggregatorFunction)
+     * combined} with the main aggregator of the calling thread. Aggregators that are not mergeable (average)
+     * are always executed sequentially.
+     */
+    public final N aggregate(final Aggregator aggregator, final long first, final long limit, final long minimumChunk,
+            final RangeVisitor<N> visitor) {
+
+        final AggregatorFunction<N> retVal = this.get(aggregator);
+
+        final long tmpCount = limit - first;
+        final long tmpChunks = Math.min(OjAlgoUtils.ENVIRONMENT.threads, tmpCount / Math.max(1L, minimumChunk));
+
+        if ((tmpChunks <= 1L) || !retVal.isMergeable()) {
+
+            visitor.visit(first, limit, retVal);
+
+        } else {
+
+            final long tmpSize = ((((tmpCount / tmpChunks) - 1L) / LINE) + 1L) * LINE;
+
+            final List<Future<?>> tmpFutures = new ArrayList<>((int) tmpChunks + 1);
+
+            for (long f = first; f < limit; f += tmpSize) {
+
+                final long tmpFirst = f;
+                final long tmpLimit = Math.min(f + tmpSize, limit);
+
+                tmpFutures.add(DaemonPoolExecutor.invoke(() -> {
+
+                    final AggregatorFunction<N> tmpPart = this.get(aggregator);
+
+                    visitor.visit(tmpFirst, tmpLimit, tmpPart);
+
+                    synchronized (retVal) {
+                        retVal.combine(tmpPart);
+                    }
+                }));
+            }
+
+            try {
+                for (final Future<?> tmpFuture : tmpFutures) {
+                    tmpFuture.get();
+                }
+            } catch (final InterruptedException | ExecutionException exception) {
+                throw new ProgrammingError(exception);
+            }
+        }
+
+        return retVal.get();
+    }
+
     /**
      * Average value
      */
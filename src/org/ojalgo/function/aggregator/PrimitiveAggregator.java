@@ -32,6 +32,46 @@ import org.ojalgo.type.context.NumberContext;
 
 public final class PrimitiveAggregator extends AggregatorSet<Double> {
 
+    /**
+     * Kahan (compensated) summation. Long sums, and sums of partial results from different threads, stay
+     * accurate.
+     */
+    static abstract class CompensatedAggregatorFunction extends PrimitiveAggregatorFunction {
+
+        private double myCompensation = ZERO;
+        private double myValue = ZERO;
+
+        /**
+         * Adds the other (compensated) sum directly, rather than via its result, so that no precision is lost
+         * (taking a square root and then squaring again) when combining {@link PrimitiveAggregator#NORM2}.
+         */
+        public final void combine(final AggregatorFunction<Double> other) {
+            if (other instanceof CompensatedAggregatorFunction) {
+                this.add(((CompensatedAggregatorFunction) other).sum());
+            } else {
+                this.merge(other.get());
+            }
+        }
+
+        public final AggregatorFunction<Double> reset() {
+            myCompensation = ZERO;
+            myValue = ZERO;
+            return this;
+        }
+
+        final void add(final double addend) {
+            final double tmpAddend = addend - myCompensation;
+            final double tmpSum = myValue + tmpAddend;
+            myCompensation = Double.isFinite(tmpSum) ? (tmpSum - myValue) - tmpAddend : ZERO;
+            myValue = tmpSum;
+        }
+
+        final double sum() {
+            return myValue - myCompensation;
+        }
+
+    }
+
     static abstract class PrimitiveAggregatorFunction implements AggregatorFunction<Double> {
 
         public final Double get() {
@@ -288,13 +328,10 @@ public final class PrimitiveAggregator extends AggregatorSet<Double> {
 
         @Override
         protected AggregatorFunction<Double> initialValue() {
-            return new PrimitiveAggregatorFunction() {
-
-                private double myValue = ZERO;
+            return new CompensatedAggregatorFunction() {
 
                 public double doubleValue() {
-                    //return myValue; // more than 100x slower
-                    return PrimitiveFunction.SQRT.invoke(myValue);
+                    return PrimitiveFunction.SQRT.invoke(this.sum());
                 }
 
                 public int intValue() {
@@ -302,8 +339,7 @@ public final class PrimitiveAggregator extends AggregatorSet<Double> {
                 }
 
                 public void invoke(final double anArg) {
-                    myValue += anArg * anArg;
-                    //myValue = PrimitiveFunction.HYPOT.invoke(myValue, anArg); // more than 100x slower
+                    this.add(anArg * anArg);
                 }
 
                 public void merge(final Double result) {
@@ -314,11 +350,6 @@ public final class PrimitiveAggregator extends AggregatorSet<Double> {
                     return PrimitiveFunction.HYPOT.invoke(result1, result2);
                 }
 
-                public AggregatorFunction<Double> reset() {
-                    myValue = ZERO;
-                    return this;
-                }
-
             };
         }
     };
@@ -446,12 +477,10 @@ public final class PrimitiveAggregator extends AggregatorSet<Double> {
 
         @Override
         protected AggregatorFunction<Double> initialValue() {
-            return new PrimitiveAggregatorFunction() {
-
-                private double myValue = ZERO;
+            return new CompensatedAggregatorFunction() {
 
                 public double doubleValue() {
-                    return myValue;
+                    return this.sum();
                 }
 
                 public int intValue() {
@@ -459,7 +488,7 @@ public final class PrimitiveAggregator extends AggregatorSet<Double> {
                 }
 
                 public void invoke(final double anArg) {
-                    myValue += anArg;
+                    this.add(anArg);
                 }
 
                 public void merge(final Double result) {
@@ -470,11 +499,6 @@ public final class PrimitiveAggregator extends AggregatorSet<Double> {
                     return result1 + result2;
                 }
 
-                public AggregatorFunction<Double> reset() {
-                    myValue = ZERO;
-                    return this;
-                }
-
             };
         }
     };
@@ -483,12 +507,10 @@ public final class PrimitiveAggregator extends AggregatorSet<Double> {
 
         @Override
         protected AggregatorFunction<Double> initialValue() {
-            return new PrimitiveAggregatorFunction() {
-
-                private double myValue = ZERO;
+            return new CompensatedAggregatorFunction() {
 
                 public double doubleValue() {
-                    return myValue;
+                    return this.sum();
                 }
 
                 public int intValue() {
@@ -496,22 +518,17 @@ public final class PrimitiveAggregator extends AggregatorSet<Double> {
                 }
 
                 public void invoke(final double anArg) {
-                    myValue += anArg * anArg;
+                    this.add(anArg * anArg);
                 }
 
                 public void merge(final Double result) {
-                    myValue += result;
+                    this.add(result.doubleValue());
                 }
 
                 public Double merge(final Double result1, final Double result2) {
                     return result1 + result2;
                 }
 
-                public AggregatorFunction<Double> reset() {
-                    myValue = ZERO;
-                    return this;
-                }
-
             };
         }
     };
@@ -52,7 +52,7 @@ import org.ojalgo.type.context.NumberContext;
  */
 abstract class AbstractMatrix<N extends Number, I extends BasicMatrix> extends Object implements BasicMatrix, Serializable {
 
-    private transient MatrixDecomposition<N> myDecomposition = null;
+    private transient DecompositionCache<N> myDecompositions = null;
     private transient int myHashCode = 0;
     private transient Boolean myHermitian = null;
     private final MatrixStore<N> myStore;
@@ -219,9 +219,9 @@ abstract class AbstractMatrix<N extends Number, I extends BasicMatrix> extends O
 
         myHashCode = 0;
 
-        if (myDecomposition != null) {
-            myDecomposition.reset();
-            myDecomposition = null;
+        if (myDecompositions != null) {
+            myDecompositions.clear();
+            myDecompositions = null;
         }
 
         myHermitian = null;
@@ -249,20 +249,21 @@ abstract class AbstractMatrix<N extends Number, I extends BasicMatrix> extends O
 
         N tmpDeterminant = null;
 
-        if ((myDecomposition != null) && (myDecomposition instanceof MatrixDecomposition.Determinant)
-                && ((MatrixDecomposition.Determinant<N>) myDecomposition).isComputed()) {
+        final MatrixDecomposition.Determinant<N> tmpCached = this.getDecompositions().get(MatrixDecomposition.Determinant.class);
 
-            tmpDeterminant = ((MatrixDecomposition.Determinant<N>) myDecomposition).getDeterminant();
+        if (tmpCached != null) {
+
+            tmpDeterminant = tmpCached.getDeterminant();
 
         } else {
 
             final DeterminantTask<N> tmpTask = this.getDeterminantTask(myStore);
 
+            tmpDeterminant = tmpTask.calculateDeterminant(myStore);
+
             if (tmpTask instanceof MatrixDecomposition.Determinant) {
-                myDecomposition = (MatrixDecomposition.Determinant<N>) tmpTask;
+                this.getDecompositions().put((MatrixDecomposition.Determinant<N>) tmpTask);
             }
-
-            tmpDeterminant = tmpTask.calculateDeterminant(myStore);
         }
 
         return myStore.physical().scalar().convert(tmpDeterminant);
@@ -364,10 +365,11 @@ abstract class AbstractMatrix<N extends Number, I extends BasicMatrix> extends O
 
         MatrixStore<N> tmpInverse = null;
 
-        if ((myDecomposition != null) && (myDecomposition instanceof MatrixDecomposition.Solver)
-                && ((MatrixDecomposition.Solver<?>) myDecomposition).isSolvable()) {
+        final MatrixDecomposition.Solver<N> tmpCached = this.getCachedSolver();
 
-            tmpInverse = ((MatrixDecomposition.Solver<N>) myDecomposition).getInverse();
+        if (tmpCached != null) {
+
+            tmpInverse = tmpCached.getInverse();
 
         } else {
 
@@ -376,9 +378,9 @@ abstract class AbstractMatrix<N extends Number, I extends BasicMatrix> extends O
             if (tmpTask instanceof MatrixDecomposition.Solver) {
 
                 final MatrixDecomposition.Solver<N> tmpSolver = (MatrixDecomposition.Solver<N>) tmpTask;
-                myDecomposition = tmpSolver;
 
                 if (tmpSolver.compute(myStore)) {
+                    this.getDecompositions().put(tmpSolver);
                     tmpInverse = tmpSolver.getInverse();
                 } else {
                     tmpInverse = null;
@@ -523,6 +525,10 @@ abstract class AbstractMatrix<N extends Number, I extends BasicMatrix> extends O
         return this.getFactory().instantiate(myStore.reduceRows(aggregator).get());
     }
 
+    public void retainDecomposition(final Class<?> decomposition) {
+        this.getDecompositions().retain(decomposition);
+    }
+
     public I selectColumns(final int... someCols) {
         return this.getFactory().instantiate(myStore.logical().column(someCols).get());
     }
@@ -539,10 +545,11 @@ abstract class AbstractMatrix<N extends Number, I extends BasicMatrix> extends O
 
         MatrixStore<N> tmpSolution = null;
 
-        if ((myDecomposition != null) && (myDecomposition instanceof MatrixDecomposition.Solver)
-                && ((MatrixDecomposition.Solver<?>) myDecomposition).isSolvable()) {
+        final MatrixDecomposition.Solver<N> tmpCached = this.getCachedSolver();
+
+        if (tmpCached != null) {
 
-            tmpSolution = ((MatrixDecomposition.Solver<N>) myDecomposition).getSolution(this.cast(rhs));
+            tmpSolution = tmpCached.getSolution(this.cast(rhs));
 
         } else {
 
@@ -551,9 +558,9 @@ abstract class AbstractMatrix<N extends Number, I extends BasicMatrix> extends O
             if (tmpTask instanceof MatrixDecomposition.Solver) {
 
                 final MatrixDecomposition.Solver<N> tmpSolver = (MatrixDecomposition.Solver<N>) tmpTask;
-                myDecomposition = tmpSolver;
 
                 if (tmpSolver.compute(myStore)) {
+                    this.getDecompositions().put(tmpSolver);
                     tmpSolution = tmpSolver.getSolution(this.cast(rhs));
                 } else {
                     tmpSolution = null;
@@ -619,32 +626,45 @@ abstract class AbstractMatrix<N extends Number, I extends BasicMatrix> extends O
         return this.getFactory().instantiate(myStore.transpose());
     }
 
+    /**
+     * @return A cached, solvable, decomposition or null
+     */
+    private MatrixDecomposition.Solver<N> getCachedSolver() {
+        final MatrixDecomposition.Solver<N> retVal = this.getDecompositions().get(MatrixDecomposition.Solver.class);
+        return (retVal != null) && retVal.isSolvable() ? retVal : null;
+    }
+
     private final Eigenvalue<N> getComputedEigenvalue() {
 
-        if (!this.isComputedEigenvalue()) {
-            myDecomposition = Eigenvalue.make(myStore);
-            myDecomposition.decompose(myStore);
+        Eigenvalue<N> retVal = this.getDecompositions().get(Eigenvalue.class);
+
+        if (retVal == null) {
+            retVal = Eigenvalue.make(myStore);
+            retVal.decompose(myStore);
+            this.getDecompositions().put(retVal);
         }
 
-        return (Eigenvalue<N>) myDecomposition;
+        return retVal;
     }
 
     private final SingularValue<N> getComputedSingularValue() {
 
-        if (!this.isComputedSingularValue()) {
-            myDecomposition = SingularValue.make(myStore);
-            myDecomposition.decompose(myStore);
-        }
+        SingularValue<N> retVal = this.getDecompositions().get(SingularValue.class);
 
-        return (SingularValue<N>) myDecomposition;
-    }
+        if (retVal == null) {
+            retVal = SingularValue.make(myStore);
+            retVal.decompose(myStore);
+            this.getDecompositions().put(retVal);
+        }
 
-    private boolean isComputedEigenvalue() {
-        return (myDecomposition != null) && (myDecomposition instanceof Eigenvalue) && myDecomposition.isComputed();
+        return retVal;
     }
 
-    private boolean isComputedSingularValue() {
-        return (myDecomposition != null) && (myDecomposition instanceof SingularValue) && myDecomposition.isComputed();
+    DecompositionCache<N> getDecompositions() {
+        if (myDecompositions == null) {
+            myDecompositions = new DecompositionCache<>(myStore);
+        }
+        return myDecompositions;
     }
 
     abstract ElementsSupplier<N> cast(Access1D<?> matrix);
@@ -277,6 +277,17 @@ public interface BasicMatrix extends Access2D<Number>, Access2D.Elements, Access
      */
     BasicMatrix multiplyElements(Access2D<?> aMtrx);
 
+    /**
+     * Decompositions computed by {@link #solve(Access2D)}, {@link #invert()}, {@link #getDeterminant()},
+     * {@link #getRank()}... are cached with the matrix - several different kinds at the same time. That cache
+     * is memory bounded, and the least recently used decompositions are evicted first. This is a hint that
+     * decompositions of the specified kind should not be evicted. {@link #flushCache()} still clears them.
+     *
+     * @param decomposition The kind of decomposition to retain, LU.class, QR.class, Cholesky.class,
+     *        SingularValue.class...
+     */
+    void retainDecomposition(Class<?> decomposition);
+
     /**
      * @param someCols An ordered array of column indeces.
      * @return A matrix with a subset of, reordered, columns.
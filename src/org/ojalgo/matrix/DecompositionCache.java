@@ -0,0 +1,177 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.ojalgo.OjAlgoUtils;
+import org.ojalgo.machine.JavaType;
+import org.ojalgo.machine.MemoryEstimator;
+import org.ojalgo.matrix.decomposition.Bidiagonal;
+import org.ojalgo.matrix.decomposition.Cholesky;
+import org.ojalgo.matrix.decomposition.Eigenvalue;
+import org.ojalgo.matrix.decomposition.Hessenberg;
+import org.ojalgo.matrix.decomposition.LDL;
+import org.ojalgo.matrix.decomposition.LU;
+import org.ojalgo.matrix.decomposition.MatrixDecomposition;
+import org.ojalgo.matrix.decomposition.QR;
+import org.ojalgo.matrix.decomposition.SingularValue;
+import org.ojalgo.matrix.decomposition.Tridiagonal;
+import org.ojalgo.matrix.store.MatrixStore;
+
+/**
+ * The decompositions (LU, QR, Cholesky, SVD...) computed for one {@linkplain BasicMatrix}. There is at most
+ * one of each kind, and several kinds can be cached at the same time. The cache is memory bounded - when the
+ * estimated total size exceeds {@link #LIMIT} the least recently used decompositions are evicted, unless they
+ * are of a kind that has been marked to be retained.
+ *
+ * @author apete
+ */
+final class DecompositionCache<N extends Number> {
+
+    private static final Class<?>[] KINDS = new Class<?>[] { Cholesky.class, LDL.class, LU.class, QR.class, SingularValue.class, Eigenvalue.class,
+            Bidiagonal.class, Hessenberg.class, Tridiagonal.class };
+
+    /**
+     * The (estimated) max number of bytes cached decompositions may occupy, per matrix. At least one
+     * decomposition, the most recently computed, is always kept.
+     */
+    static final long LIMIT = OjAlgoUtils.ENVIRONMENT.memory / 16L;
+
+    /**
+     * How many matrix sized blocks of memory a decomposition of that kind typically holds on to.
+     */
+    private static long blocks(final Class<?> kind) {
+        if (kind == SingularValue.class) {
+            return 3L;
+        } else if ((kind == Eigenvalue.class) || (kind == Bidiagonal.class)) {
+            return 2L;
+        } else {
+            return 1L;
+        }
+    }
+
+    static Class<?> kind(final Class<?> type) {
+        for (int k = 0; k < KINDS.length; k++) {
+            if (KINDS[k].isAssignableFrom(type)) {
+                return KINDS[k];
+            }
+        }
+        return type;
+    }
+
+    private final long myBlockSize;
+    private final LinkedHashMap<Class<?>, MatrixDecomposition<N>> myDecompositions = new LinkedHashMap<>(8, 0.75F, true);
+    private final long myLimit;
+    private final Set<Class<?>> myRetained = new HashSet<>();
+
+    DecompositionCache(final MatrixStore<N> matrix) {
+        this(matrix, LIMIT);
+    }
+
+    DecompositionCache(final MatrixStore<N> matrix, final long limit) {
+
+        super();
+
+        myLimit = limit;
+
+        final Class<?> tmpElementType = matrix.physical().scalar().zero().get().getClass();
+
+        final long tmpElementSize;
+        if (tmpElementType == Double.class) {
+            tmpElementSize = JavaType.DOUBLE.memory();
+        } else {
+            tmpElementSize = JavaType.REFERENCE.memory() + MemoryEstimator.estimateObject(tmpElementType);
+        }
+
+        myBlockSize = matrix.count() * tmpElementSize;
+    }
+
+    synchronized void clear() {
+        for (final MatrixDecomposition<N> tmpDecomposition : myDecompositions.values()) {
+            tmpDecomposition.reset();
+        }
+        myDecompositions.clear();
+    }
+
+    /**
+     * @return A computed decomposition that is an instance of the specified type, or null. If there are
+     *         more than one the most recently used is returned.
+     */
+    @SuppressWarnings("unchecked")
+    synchronized <D> D get(final Class<? super D> type) {
+
+        Class<?> tmpKey = null;
+
+        for (final Map.Entry<Class<?>, MatrixDecomposition<N>> tmpEntry : myDecompositions.entrySet()) {
+            final MatrixDecomposition<N> tmpDecomposition = tmpEntry.getValue();
+            if (type.isInstance(tmpDecomposition) && tmpDecomposition.isComputed()) {
+                tmpKey = tmpEntry.getKey();
+            }
+        }
+
+        return tmpKey != null ? (D) myDecompositions.get(tmpKey) : null;
+    }
+
+    /**
+     * Add, or replace the previous decomposition of the same kind, and evict whatever no longer fits.
+     */
+    synchronized void put(final MatrixDecomposition<N> decomposition) {
+
+        final Class<?> tmpKind = DecompositionCache.kind(decomposition.getClass());
+
+        final MatrixDecomposition<N> tmpPrevious = myDecompositions.put(tmpKind, decomposition);
+        if ((tmpPrevious != null) && (tmpPrevious != decomposition)) {
+            tmpPrevious.reset();
+        }
+
+        long tmpSize = this.size();
+
+        final Iterator<Map.Entry<Class<?>, MatrixDecomposition<N>>> tmpIterator = myDecompositions.entrySet().iterator();
+        while ((tmpSize > myLimit) && tmpIterator.hasNext()) {
+            final Map.Entry<Class<?>, MatrixDecomposition<N>> tmpEntry = tmpIterator.next();
+            final Class<?> tmpKey = tmpEntry.getKey();
+            if ((tmpKey != tmpKind) && !myRetained.contains(tmpKey)) {
+                tmpEntry.getValue().reset();
+                tmpIterator.remove();
+                tmpSize -= blocks(tmpKey) * myBlockSize;
+            }
+        }
+    }
+
+    synchronized void retain(final Class<?> type) {
+        myRetained.add(DecompositionCache.kind(type));
+    }
+
+    synchronized long size() {
+        long retVal = 0L;
+        for (final Class<?> tmpKind : myDecompositions.keySet()) {
+            retVal += blocks(tmpKind) * myBlockSize;
+        }
+        return retVal;
+    }
+
+}
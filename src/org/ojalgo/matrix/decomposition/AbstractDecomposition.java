@@ -75,4 +75,13 @@ abstract class AbstractDecomposition<N extends Number> implements MatrixDecompos
         return myAspectRatioNormal;
     }
 
+    /**
+     * To be used when an already computed decomposition has been modified (updated or downdated) rather
+     * than recomputed. Any cached solvability check is discarded.
+     */
+    protected final boolean modified(final boolean computed) {
+        mySolvable = null;
+        return (myComputed = computed);
+    }
+
 }
@@ -21,6 +21,7 @@
  */
 package org.ojalgo.matrix.decomposition;
 
+import org.ojalgo.access.Access1D;
 import org.ojalgo.access.Access2D;
 import org.ojalgo.array.DenseArray;
 import org.ojalgo.matrix.store.MatrixStore;
@@ -111,6 +112,31 @@ public interface Cholesky<N extends Number> extends LDU<N>, MatrixDecomposition.
      */
     public boolean isSPD();
 
+    /**
+     * Modify the decomposition to be that of [A] - [x][x]<sup>H</sup> where [A] is the matrix previously
+     * decomposed. The default implementation recomputes the decomposition, primitive implementations do it in
+     * O(n<sup>2</sup>).
+     *
+     * @param vector [x]
+     * @return true if the downdated matrix is positive definite and the decomposition was modified. If false
+     *         the decomposition is left unchanged.
+     */
+    default boolean downdate(final Access1D<?> vector) {
+
+        if (!this.isComputed() || !this.isSPD()) {
+            return false;
+        }
+
+        final MatrixStore<N> tmpDowndated = FactorisationUpdates.addOuterProduct(this.reconstruct(), vector, vector, true);
+
+        final Cholesky<N> tmpTest = Cholesky.make(tmpDowndated);
+        if (tmpTest.decompose(tmpDowndated) && tmpTest.isSPD()) {
+            return this.decompose(tmpDowndated) && this.isSPD();
+        } else {
+            return false;
+        }
+    }
+
     /**
      * Must implement either {@link #getL()} or {@link #getR()}.
      */
@@ -129,4 +155,23 @@ public interface Cholesky<N extends Number> extends LDU<N>, MatrixDecomposition.
         return Cholesky.reconstruct(this);
     }
 
+    /**
+     * Modify the decomposition to be that of [A] + [x][x]<sup>H</sup> where [A] is the matrix previously
+     * decomposed. Typical use is when a (covariance) matrix changes by a rank-1 term, and you don't want to
+     * redo the O(n<sup>3</sup>) decomposition. The default implementation recomputes the decomposition,
+     * primitive implementations do it in O(n<sup>2</sup>).
+     *
+     * @param vector [x]
+     * @return true if the decomposition was modified (requires that it was computed and positive definite
+     *         before).
+     */
+    default boolean update(final Access1D<?> vector) {
+
+        if (!this.isComputed() || !this.isSPD()) {
+            return false;
+        }
+
+        return this.decompose(FactorisationUpdates.addOuterProduct(this.reconstruct(), vector, vector, false)) && this.isSPD();
+    }
+
 }
@@ -25,6 +25,7 @@ import static org.ojalgo.constant.PrimitiveMath.*;
 import static org.ojalgo.function.PrimitiveFunction.*;
 
 import org.ojalgo.RecoverableCondition;
+import org.ojalgo.access.Access1D;
 import org.ojalgo.access.Access2D;
 import org.ojalgo.access.Access2D.Collectable;
 import org.ojalgo.access.Structure2D;
@@ -33,6 +34,7 @@ import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.function.UnaryFunction;
 import org.ojalgo.function.aggregator.AggregatorFunction;
 import org.ojalgo.matrix.MatrixUtils;
+import org.ojalgo.matrix.store.ComplexDenseStore;
 import org.ojalgo.matrix.store.GenericDenseStore;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
@@ -46,7 +48,7 @@ abstract class CholeskyDecomposition<N extends Number> extends InPlaceDecomposit
     static final class Complex extends CholeskyDecomposition<ComplexNumber> {
 
         Complex() {
-            super(GenericDenseStore.COMPLEX);
+            super(ComplexDenseStore.FACTORY);
         }
 
     }
@@ -57,6 +59,25 @@ abstract class CholeskyDecomposition<N extends Number> extends InPlaceDecomposit
             super(PrimitiveDenseStore.FACTORY);
         }
 
+        @Override
+        public boolean downdate(final Access1D<?> vector) {
+            if (this.isComputed() && this.isSPD() && FactorisationUpdates.downdateCholesky(this.getInPlace(), vector)) {
+                return this.updated();
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public boolean update(final Access1D<?> vector) {
+            if (this.isComputed() && this.isSPD()) {
+                FactorisationUpdates.updateCholesky(this.getInPlace(), vector);
+                return this.updated();
+            } else {
+                return false;
+            }
+        }
+
     }
 
     static final class Quat extends CholeskyDecomposition<Quaternion> {
@@ -304,4 +325,16 @@ abstract class CholeskyDecomposition<N extends Number> extends InPlaceDecomposit
         return myMaxDiag * TEN * this.getDimensionalEpsilon();
     }
 
+    /**
+     * The factor was modified in place (updated or downdated)
+     */
+    final boolean updated() {
+
+        final double[] tmpRange = FactorisationUpdates.squaredDiagonalRange(this.getInPlace(), this.getMinDim());
+        myMinDiag = tmpRange[0];
+        myMaxDiag = tmpRange[1];
+
+        return this.modified(true);
+    }
+
 }
@@ -117,6 +117,58 @@ public interface Eigenvalue<N extends Number>
 
     }
 
+    /**
+     * A matrix-free (square) linear operator. All an iterative eigensolver needs is to be able to calculate
+     * [A]x.
+     */
+    @FunctionalInterface
+    interface Operator {
+
+        /**
+         * @param x The vector to multiply
+         * @param y Receives the result, [A]x, overwriting whatever was there before
+         */
+        void multiply(double[] x, double[] y);
+
+    }
+
+    /**
+     * Iterative (Krylov subspace) eigenvalue decompositions that only calculate a few of the eigenpairs - those
+     * with the largest magnitude - and only need to be able to multiply [A] by a vector. For large sparse
+     * matrices, or matrices that are never formed at all (an {@link Operator}).
+     * <p>
+     * [D] and [V] are partial: k-by-k and n-by-k, with the eigenvalues ordered by descending magnitude. In the
+     * non-hermitian case k may be one larger than requested, not to split a complex conjugate pair.
+     * {@link #getDeterminant()} and {@link #getTrace()} only account for the calculated eigenvalues.
+     * </p>
+     */
+    interface Partial extends Eigenvalue<Double> {
+
+        /**
+         * @param dimension The number of rows/columns of the (square) operator
+         * @param operator Calculates [A]x
+         * @return true if the requested eigenpairs converged
+         */
+        boolean compute(int dimension, Operator operator);
+
+        /**
+         * @return The number of eigenpairs to calculate
+         */
+        int getNumberOfEigenpairs();
+
+        /**
+         * @param iterationsLimit Max number of (implicit) restarts, default 300
+         */
+        void setIterationsLimit(int iterationsLimit);
+
+        /**
+         * @param tolerance An eigenpair is considered converged when the residual, ||[A]x - &lambda;x||, is
+         *        less than tolerance * |&lambda;|. The default is machine epsilon, the same as ARPACK.
+         */
+        void setTolerance(double tolerance);
+
+    }
+
     interface Factory<N extends Number> extends MatrixDecomposition.Factory<Eigenvalue<N>> {
 
         default Eigenvalue<N> make(final boolean hermitian) {
@@ -179,6 +231,15 @@ public interface Eigenvalue<N extends Number>
 
     };
 
+    /**
+     * Same as {@link #PRIMITIVE} except that hermitian (symmetric) matrices are always tridiagonalised and
+     * then diagonalised using Cuppen's divide-and-conquer algorithm, with the independent subproblems solved in
+     * parallel. Typically the faster alternative for large symmetric matrices when all the eigenvectors are
+     * needed.
+     */
+    public static final Factory<Double> PRIMITIVE_DIVIDE_AND_CONQUER = (typical,
+            hermitian) -> hermitian ? new HermitianEvD.DivideAndConquerPrimitive() : PRIMITIVE.make(typical, false);
+
     public static final Factory<Quaternion> QUATERNION = (typical, hermitian) -> hermitian ? new HermitianEvD.Quat() : null;
 
     public static final Factory<RationalNumber> RATIONAL = (typical, hermitian) -> hermitian ? new HermitianEvD.Rational() : null;
@@ -205,6 +266,15 @@ public interface Eigenvalue<N extends Number>
         }
     }
 
+    /**
+     * @param numberOfEigenpairs The number of eigenpairs (with the largest magnitude) to calculate
+     * @param hermitian true: implicitly restarted Lanczos; false: implicitly restarted Arnoldi
+     * @return A partial, iterative, eigenvalue decomposition
+     */
+    public static Partial makePartial(final int numberOfEigenpairs, final boolean hermitian) {
+        return hermitian ? new KrylovEvD.Lanczos(numberOfEigenpairs) : new KrylovEvD.Arnoldi(numberOfEigenpairs);
+    }
+
     static <N extends Number> boolean equals(final MatrixStore<N> matrix, final Eigenvalue<N> decomposition, final NumberContext context) {
 
         final MatrixStore<N> tmpD = decomposition.getD();
@@ -232,20 +302,21 @@ public interface Eigenvalue<N extends Number>
         final MatrixStore<N> tmpV = this.getV();
         final MatrixStore<N> tmpD = this.getD();
         final long tmpDimension = tmpD.countColumns();
+        final long tmpLength = tmpV.countRows();
 
         final int prevCol = index - 1;
         final int nextCol = index + 1;
 
         if ((index < (tmpDimension - 1L)) && (tmpD.doubleValue(nextCol, index) != 0.0)) {
-            for (int i = 0; i < tmpDimension; i++) {
+            for (int i = 0; i < tmpLength; i++) {
                 destination.set(i, ComplexNumber.of(tmpV.doubleValue(i, index), tmpV.doubleValue(i, nextCol)));
             }
         } else if ((index > 0) && (tmpD.doubleValue(prevCol, index) != 0.0)) {
-            for (int i = 0; i < tmpDimension; i++) {
+            for (int i = 0; i < tmpLength; i++) {
                 destination.set(i, ComplexNumber.of(tmpV.doubleValue(i, prevCol), -tmpV.doubleValue(i, index)));
             }
         } else {
-            for (int i = 0; i < tmpDimension; i++) {
+            for (int i = 0; i < tmpLength; i++) {
                 destination.set(i, tmpV.doubleValue(i, index));
             }
         }
@@ -267,7 +338,7 @@ public interface Eigenvalue<N extends Number>
 
     default Eigenpair getEigenpair(final int index) {
 
-        final long dim = this.getV().countColumns();
+        final long dim = this.getV().countRows();
 
         final Array1D<ComplexNumber> vector = Array1D.COMPLEX.makeZero(dim);
         this.copyEigenvector(index, vector);
@@ -329,7 +400,7 @@ public interface Eigenvalue<N extends Number>
     @Deprecated
     default MatrixStore<ComplexNumber> getEigenvector(final int index) {
 
-        final long tmpDimension = this.getV().countColumns();
+        final long tmpDimension = this.getV().countRows();
 
         final GenericDenseStore<ComplexNumber> retVal = GenericDenseStore.COMPLEX.makeZero(tmpDimension, 1L);
 
@@ -343,9 +414,10 @@ public interface Eigenvalue<N extends Number>
      */
     default MatrixStore<ComplexNumber> getEigenvectors() {
 
-        final long tmpDimension = this.getV().countColumns();
+        final MatrixStore<N> tmpV = this.getV();
+        final long tmpDimension = tmpV.countColumns();
 
-        final GenericDenseStore<ComplexNumber> retVal = GenericDenseStore.COMPLEX.makeZero(tmpDimension, tmpDimension);
+        final GenericDenseStore<ComplexNumber> retVal = GenericDenseStore.COMPLEX.makeZero(tmpV.countRows(), tmpDimension);
 
         for (int j = 0; j < tmpDimension; j++) {
             this.copyEigenvector(j, retVal.sliceColumn(0, j));
@@ -0,0 +1,245 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+import static org.ojalgo.function.PrimitiveFunction.*;
+
+import org.ojalgo.access.Access1D;
+import org.ojalgo.access.Access2D;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+
+/**
+ * Modifying an existing factorisation, rather than recomputing it, when the matrix changes by a low rank
+ * term or by inserting/removing a row or column.
+ * <p>
+ * The primitive Cholesky kernels work in O(n<sup>2</sup>). The generic methods just form the modified
+ * matrix - they're used by the default (recompute) implementations in {@link Cholesky} and {@link QR}.
+ *
+ * @author apete
+ */
+abstract class FactorisationUpdates {
+
+    /**
+     * @return [matrix] + [left][right]<sup>H</sup> or [matrix] - [left][right]<sup>H</sup>
+     */
+    static <N extends Number> MatrixStore<N> addOuterProduct(final MatrixStore<N> matrix, final Access1D<?> left, final Access1D<?> right,
+            final boolean subtract) {
+
+        final PhysicalStore.Factory<N, ?> tmpFactory = matrix.physical();
+
+        final MatrixStore<N> tmpOuter = tmpFactory.columns(left).multiply(tmpFactory.columns(right).conjugate());
+
+        return subtract ? matrix.subtract(tmpOuter) : matrix.add(tmpOuter);
+    }
+
+    /**
+     * [L][L]<sup>T</sup> - [x][x]<sup>T</sup> = [L'][L']<sup>T</sup> using hyperbolic rotations. Before
+     * anything is modified it is verified that the result will be positive definite, by solving
+     * [L][p]=[x] and checking that |p| &lt; 1 (as in LINPACK dchdd).
+     *
+     * @param lower The lower triangular Cholesky factor, modified in place
+     * @return false if the downdated matrix would not be positive definite - then [L] is left unchanged
+     */
+    static boolean downdateCholesky(final PhysicalStore<Double> lower, final Access1D<?> vector) {
+
+        final int tmpDim = (int) lower.countRows();
+
+        final double[] tmpWork = new double[tmpDim];
+        double tmpNorm2 = ZERO;
+        for (int i = 0; i < tmpDim; i++) {
+            double tmpVal = vector.doubleValue(i);
+            for (int k = 0; k < i; k++) {
+                tmpVal -= lower.doubleValue(i, k) * tmpWork[k];
+            }
+            tmpVal /= lower.doubleValue(i, i);
+            tmpWork[i] = tmpVal;
+            tmpNorm2 += tmpVal * tmpVal;
+        }
+
+        if (!(ONE - tmpNorm2 > (tmpDim * MACHINE_EPSILON))) {
+            return false;
+        }
+
+        for (int i = 0; i < tmpDim; i++) {
+            tmpWork[i] = vector.doubleValue(i);
+        }
+
+        for (int k = 0; k < tmpDim; k++) {
+
+            final double tmpDiag = lower.doubleValue(k, k);
+            final double tmpX = tmpWork[k];
+
+            final double tmpNew = Math.sqrt((tmpDiag - tmpX) * (tmpDiag + tmpX));
+            final double tmpCos = tmpNew / tmpDiag;
+            final double tmpSin = tmpX / tmpDiag;
+
+            lower.set(k, k, tmpNew);
+
+            for (int i = k + 1; i < tmpDim; i++) {
+                final double tmpL = (lower.doubleValue(i, k) - (tmpSin * tmpWork[i])) / tmpCos;
+                lower.set(i, k, tmpL);
+                tmpWork[i] = (tmpCos * tmpWork[i]) - (tmpSin * tmpL);
+            }
+        }
+
+        return true;
+    }
+
+    static <N extends Number> MatrixStore<N> insertColumn(final MatrixStore<N> matrix, final int index, final Access1D<?> column) {
+
+        final int tmpRows = (int) matrix.countRows();
+        final int tmpColumns = (int) matrix.countColumns();
+
+        final PhysicalStore<N> retVal = matrix.physical().makeZero(tmpRows, tmpColumns + 1);
+
+        for (int j = 0; j <= tmpColumns; j++) {
+            for (int i = 0; i < tmpRows; i++) {
+                if (j < index) {
+                    retVal.set(i, j, matrix.get(i, j));
+                } else if (j == index) {
+                    retVal.set(i, j, column.get(i));
+                } else {
+                    retVal.set(i, j, matrix.get(i, j - 1));
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    static <N extends Number> MatrixStore<N> insertRow(final MatrixStore<N> matrix, final int index, final Access1D<?> row) {
+
+        final int tmpRows = (int) matrix.countRows();
+        final int tmpColumns = (int) matrix.countColumns();
+
+        final PhysicalStore<N> retVal = matrix.physical().makeZero(tmpRows + 1, tmpColumns);
+
+        for (int j = 0; j < tmpColumns; j++) {
+            for (int i = 0; i <= tmpRows; i++) {
+                if (i < index) {
+                    retVal.set(i, j, matrix.get(i, j));
+                } else if (i == index) {
+                    retVal.set(i, j, row.get(j));
+                } else {
+                    retVal.set(i, j, matrix.get(i - 1, j));
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    static <N extends Number> MatrixStore<N> removeColumn(final MatrixStore<N> matrix, final int index) {
+
+        final int tmpRows = (int) matrix.countRows();
+        final int tmpColumns = (int) matrix.countColumns();
+
+        final PhysicalStore<N> retVal = matrix.physical().makeZero(tmpRows, tmpColumns - 1);
+
+        for (int j = 0; j < (tmpColumns - 1); j++) {
+            final int tmpSource = j < index ? j : j + 1;
+            for (int i = 0; i < tmpRows; i++) {
+                retVal.set(i, j, matrix.get(i, tmpSource));
+            }
+        }
+
+        return retVal;
+    }
+
+    static <N extends Number> MatrixStore<N> removeRow(final MatrixStore<N> matrix, final int index) {
+
+        final int tmpRows = (int) matrix.countRows();
+        final int tmpColumns = (int) matrix.countColumns();
+
+        final PhysicalStore<N> retVal = matrix.physical().makeZero(tmpRows - 1, tmpColumns);
+
+        for (int j = 0; j < tmpColumns; j++) {
+            for (int i = 0; i < (tmpRows - 1); i++) {
+                retVal.set(i, j, matrix.get(i < index ? i : i + 1, j));
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * After a Cholesky factor has been modified in place the decompositions need to refresh the range of
+     * its (squared) diagonal elements, as that is what decides solvability.
+     *
+     * @param lower The lower triangular Cholesky factor
+     * @param dim The number of diagonal elements
+     * @return The smallest and the largest squared diagonal element, in that order
+     */
+    static double[] squaredDiagonalRange(final Access2D<?> lower, final int dim) {
+
+        double tmpMin = POSITIVE_INFINITY;
+        double tmpMax = ZERO;
+
+        for (int ij = 0; ij < dim; ij++) {
+            final double tmpVal = lower.doubleValue(ij, ij);
+            tmpMin = MIN.invoke(tmpMin, tmpVal * tmpVal);
+            tmpMax = MAX.invoke(tmpMax, tmpVal * tmpVal);
+        }
+
+        return new double[] { tmpMin, tmpMax };
+    }
+
+    /**
+     * [L][L]<sup>T</sup> + [x][x]<sup>T</sup> = [L'][L']<sup>T</sup> using Givens rotations, O(n<sup>2</sup>).
+     *
+     * @param lower The lower triangular Cholesky factor, modified in place
+     */
+    static void updateCholesky(final PhysicalStore<Double> lower, final Access1D<?> vector) {
+
+        final int tmpDim = (int) lower.countRows();
+
+        final double[] tmpWork = new double[tmpDim];
+        for (int i = 0; i < tmpDim; i++) {
+            tmpWork[i] = vector.doubleValue(i);
+        }
+
+        for (int k = 0; k < tmpDim; k++) {
+
+            final double tmpDiag = lower.doubleValue(k, k);
+            final double tmpX = tmpWork[k];
+
+            final double tmpNew = Math.hypot(tmpDiag, tmpX);
+            final double tmpCos = tmpNew / tmpDiag;
+            final double tmpSin = tmpX / tmpDiag;
+
+            lower.set(k, k, tmpNew);
+
+            for (int i = k + 1; i < tmpDim; i++) {
+                final double tmpL = (lower.doubleValue(i, k) + (tmpSin * tmpWork[i])) / tmpCos;
+                lower.set(i, k, tmpL);
+                tmpWork[i] = (tmpCos * tmpWork[i]) - (tmpSin * tmpL);
+            }
+        }
+    }
+
+    private FactorisationUpdates() {
+        super();
+    }
+
+}
@@ -39,6 +39,7 @@ import org.ojalgo.function.aggregator.AggregatorFunction;
 import org.ojalgo.function.aggregator.ComplexAggregator;
 import org.ojalgo.matrix.decomposition.function.ExchangeColumns;
 import org.ojalgo.matrix.decomposition.function.RotateRight;
+import org.ojalgo.matrix.store.ComplexDenseStore;
 import org.ojalgo.matrix.store.GenericDenseStore;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
@@ -65,7 +66,7 @@ public abstract class HermitianEvD<N extends Number> extends EigenvalueDecomposi
     static final class Complex extends HermitianEvD<ComplexNumber> {
 
         Complex() {
-            super(GenericDenseStore.COMPLEX, new DeferredTridiagonal.Complex());
+            super(ComplexDenseStore.FACTORY, new DeferredTridiagonal.Complex());
         }
 
     }
@@ -78,6 +79,32 @@ public abstract class HermitianEvD<N extends Number> extends EigenvalueDecomposi
 
     }
 
+    /**
+     * Tridiagonalisation followed by Cuppen's divide-and-conquer algorithm, with the subproblems solved in
+     * parallel. Only differs from {@link DeferredPrimitive} when eigenvectors are requested.
+     */
+    static final class DivideAndConquerPrimitive extends HermitianEvD<Double> {
+
+        DivideAndConquerPrimitive() {
+            super(PrimitiveDenseStore.FACTORY, new DeferredTridiagonal.Primitive());
+        }
+
+        @Override
+        MatrixStore<Double> diagonalise(final double[] d, final double[] e, final DecompositionStore<Double> mtrxQ) {
+
+            if (d.length <= TridiagonalDivideAndConquer.SMALL) {
+                return super.diagonalise(d, e, mtrxQ);
+            }
+
+            final PrimitiveDenseStore mtrxW = TridiagonalDivideAndConquer.solve(d, e);
+
+            final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeZero(d.length, d.length);
+            retVal.fillByMultiplying(mtrxQ, mtrxW);
+            return retVal;
+        }
+
+    }
+
     static final class Quat extends HermitianEvD<Quaternion> {
 
         Quat() {
@@ -395,21 +422,39 @@ public abstract class HermitianEvD<N extends Number> extends EigenvalueDecomposi
 
         myTridiagonal.supplyDiagonalTo(d, e);
 
-        final RotateRight tmpRotateRight = valuesOnly ? RotateRight.NULL : myTridiagonal.getDecompositionQ();
-        HermitianEvD.tql2(d, e, tmpRotateRight);
+        if (valuesOnly) {
 
-        if (this.isOrdered()) {
-            final ExchangeColumns tmpExchangeColumns = valuesOnly ? ExchangeColumns.NULL : myTridiagonal.getDecompositionQ();
-            EigenvalueDecomposition.sort(d, tmpExchangeColumns);
-        }
+            HermitianEvD.tql2(d, e, RotateRight.NULL);
+
+            if (this.isOrdered()) {
+                EigenvalueDecomposition.sort(d, ExchangeColumns.NULL);
+            }
 
-        if (!valuesOnly) {
-            this.setV(myTridiagonal.getDecompositionQ());
+        } else {
+
+            this.setV(this.diagonalise(d, e, myTridiagonal.getDecompositionQ()));
         }
 
         return this.computed(true);
     }
 
+    /**
+     * Diagonalise the tridiagonal matrix [d,e] - on return d contains the eigenvalues - and return the
+     * eigenvectors of the original matrix.
+     *
+     * @param mtrxQ The orthogonal matrix from the tridiagonalisation (may be modified)
+     */
+    MatrixStore<N> diagonalise(final double[] d, final double[] e, final DecompositionStore<N> mtrxQ) {
+
+        HermitianEvD.tql2(d, e, mtrxQ);
+
+        if (this.isOrdered()) {
+            EigenvalueDecomposition.sort(d, mtrxQ);
+        }
+
+        return mtrxQ;
+    }
+
     @Override
     protected double getDimensionalEpsilon() {
         return d.length * PrimitiveMath.MACHINE_EPSILON;
@@ -0,0 +1,475 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+
+import org.ojalgo.RecoverableCondition;
+import org.ojalgo.access.Access2D;
+import org.ojalgo.access.Structure2D;
+import org.ojalgo.array.Array1D;
+import org.ojalgo.array.blas.DOT;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.function.aggregator.Aggregator;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+
+/**
+ * One-sided (Hestenes) Jacobi singular value decomposition. Plane rotations are applied to pairs of columns
+ * until all columns are mutually orthogonal; the column norms are then the singular values. The pairs are
+ * scheduled round-robin so that each step of a sweep consists of disjoint column pairs, and those rotations
+ * are performed in parallel.
+ * <p>
+ * Tall matrices are first reduced to a square triangular matrix using a QR decomposition, and fat matrices
+ * are transposed. The algorithm delivers singular values with high relative accuracy also for matrices that
+ * are badly scaled (by columns), and is typically slower than bidiagonalisation for large matrices that are
+ * not.
+ * </p>
+ *
+ * @author apete
+ */
+final class JacobiSingularValue extends AbstractDecomposition<Double> implements SingularValue<Double> {
+
+    private static final int MAX_SWEEPS = 64;
+    /**
+     * Roughly the number of matrix elements each (parallel) task should handle
+     */
+    private static final int THRESHOLD = 16384;
+
+    private static void complete(final PrimitiveDenseStore mtrxQ, final int column) {
+
+        final int tmpRowDim = (int) mtrxQ.countRows();
+        final double[] tmpData = mtrxQ.data;
+        final int tmpOffset = column * tmpRowDim;
+
+        for (int candidate = 0; candidate < tmpRowDim; candidate++) {
+
+            Arrays.fill(tmpData, tmpOffset, tmpOffset + tmpRowDim, ZERO);
+            tmpData[tmpOffset + candidate] = ONE;
+
+            for (int twice = 0; twice < 2; twice++) {
+                for (int j = 0; j < mtrxQ.countColumns(); j++) {
+                    if (j != column) {
+                        final double tmpDot = DOT.invoke(tmpData, j * tmpRowDim, tmpData, tmpOffset, 0, tmpRowDim);
+                        for (int i = 0; i < tmpRowDim; i++) {
+                            tmpData[tmpOffset + i] -= tmpDot * tmpData[(j * tmpRowDim) + i];
+                        }
+                    }
+                }
+            }
+
+            final double tmpNorm = Math.sqrt(DOT.invoke(tmpData, tmpOffset, tmpData, tmpOffset, 0, tmpRowDim));
+            if (tmpNorm > HALF) {
+                for (int i = 0; i < tmpRowDim; i++) {
+                    tmpData[tmpOffset + i] /= tmpNorm;
+                }
+                return;
+            }
+        }
+    }
+
+    private static void rotate(final double[] data, final int offsetP, final int offsetQ, final int length, final double cos, final double sin) {
+        for (int i = 0; i < length; i++) {
+            final double tmpP = data[offsetP + i];
+            final double tmpQ = data[offsetQ + i];
+            data[offsetP + i] = (cos * tmpP) - (sin * tmpQ);
+            data[offsetQ + i] = (sin * tmpP) + (cos * tmpQ);
+        }
+    }
+
+    private int myColDim;
+    private transient MatrixStore<Double> myPseudoinverse = null;
+    private PrimitiveDenseStore myQ1 = null;
+    private PrimitiveDenseStore myQ2 = null;
+    private int myRowDim;
+    private double[] mySingularValues = null;
+
+    JacobiSingularValue() {
+        super();
+    }
+
+    public boolean computeValuesOnly(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> matrix) {
+        return this.compute(matrix, true);
+    }
+
+    public boolean decompose(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> matrix) {
+        return this.compute(matrix, false);
+    }
+
+    public double getCondition() {
+        return mySingularValues[0] / mySingularValues[mySingularValues.length - 1];
+    }
+
+    public MatrixStore<Double> getD() {
+        return MatrixStore.PRIMITIVE.makeWrapper(new DiagonalArray1D<>(this.getSingularValues(), null, null, ZERO)).get();
+    }
+
+    public double getFrobeniusNorm() {
+
+        double retVal = ZERO;
+
+        for (int i = mySingularValues.length - 1; i >= 0; i--) {
+            final double tmpVal = mySingularValues[i];
+            retVal += tmpVal * tmpVal;
+        }
+
+        return Math.sqrt(retVal);
+    }
+
+    public MatrixStore<Double> getInverse() {
+        return this.getInverse(this.allocate(myColDim, myRowDim));
+    }
+
+    public MatrixStore<Double> getInverse(final PhysicalStore<Double> preallocated) {
+
+        if (myPseudoinverse == null) {
+
+            final int tmpRank = this.getRank();
+
+            final PrimitiveDenseStore tmpScaled = PrimitiveDenseStore.FACTORY.makeZero(myColDim, tmpRank);
+            for (int j = 0; j < tmpRank; j++) {
+                final double tmpSingular = mySingularValues[j];
+                for (int i = 0; i < myColDim; i++) {
+                    tmpScaled.set(i, j, myQ2.doubleValue(i, j) / tmpSingular);
+                }
+            }
+
+            preallocated.fillByMultiplying(tmpScaled, myQ1.logical().limits(myRowDim, tmpRank).transpose().get());
+            myPseudoinverse = preallocated;
+        }
+
+        return myPseudoinverse;
+    }
+
+    public double getKyFanNorm(final int k) {
+
+        double retVal = ZERO;
+
+        for (int i = Math.min(mySingularValues.length, k) - 1; i >= 0; i--) {
+            retVal += mySingularValues[i];
+        }
+
+        return retVal;
+    }
+
+    public double getOperatorNorm() {
+        return mySingularValues[0];
+    }
+
+    public MatrixStore<Double> getQ1() {
+        return myQ1;
+    }
+
+    public MatrixStore<Double> getQ2() {
+        return myQ2;
+    }
+
+    public int getRank() {
+        final double tmpTolerance = mySingularValues[0] * this.getDimensionalEpsilon();
+        int retVal = 0;
+        for (int i = 0; i < mySingularValues.length; i++) {
+            if (mySingularValues[i] > tmpTolerance) {
+                retVal++;
+            }
+        }
+        return retVal;
+    }
+
+    public Array1D<Double> getSingularValues() {
+        return Array1D.PRIMITIVE64.copy(mySingularValues);
+    }
+
+    @Override
+    public void getSingularValues(final double[] values) {
+        System.arraycopy(mySingularValues, 0, values, 0, Math.min(mySingularValues.length, values.length));
+    }
+
+    public MatrixStore<Double> getSolution(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> rhs) {
+        return this.getSolution(rhs, this.allocate(myColDim, myRowDim));
+    }
+
+    public MatrixStore<Double> getSolution(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> rhs,
+            final PhysicalStore<Double> preallocated) {
+        final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeZero(rhs.countRows(), rhs.countColumns());
+        rhs.supplyTo(tmpRHS);
+        return this.getInverse(preallocated).multiply(tmpRHS);
+    }
+
+    public double getTraceNorm() {
+        return this.getKyFanNorm(mySingularValues.length);
+    }
+
+    public MatrixStore<Double> invert(final Access2D<?> original, final PhysicalStore<Double> preallocated) throws RecoverableCondition {
+
+        this.decompose(original.asCollectable2D());
+
+        if (this.isSolvable()) {
+            return this.getInverse(preallocated);
+        } else {
+            throw RecoverableCondition.newMatrixNotInvertible();
+        }
+    }
+
+    public boolean isFullRank() {
+        return this.getRank() == Math.min(myRowDim, myColDim);
+    }
+
+    public boolean isFullSize() {
+        return false;
+    }
+
+    public boolean isOrdered() {
+        return true;
+    }
+
+    public PhysicalStore<Double> preallocate(final Structure2D template) {
+        return this.allocate(template.countColumns(), template.countRows());
+    }
+
+    public PhysicalStore<Double> preallocate(final Structure2D templateBody, final Structure2D templateRHS) {
+        return this.allocate(templateBody.countColumns(), templateBody.countRows());
+    }
+
+    @Override
+    public void reset() {
+
+        super.reset();
+
+        myPseudoinverse = null;
+        myQ1 = null;
+        myQ2 = null;
+        mySingularValues = null;
+    }
+
+    public MatrixStore<Double> solve(final Access2D<?> body, final Access2D<?> rhs, final PhysicalStore<Double> preallocated) throws RecoverableCondition {
+
+        this.decompose(body.asCollectable2D());
+
+        if (this.isSolvable()) {
+            return this.getInverse(preallocated).multiply(MatrixStore.PRIMITIVE.makeWrapper(rhs).get());
+        } else {
+            throw RecoverableCondition.newEquationSystemNotSolvable();
+        }
+    }
+
+    private boolean compute(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> matrix, final boolean valuesOnly) {
+
+        this.reset();
+
+        myRowDim = (int) matrix.countRows();
+        myColDim = (int) matrix.countColumns();
+
+        final boolean tmpTranspose = myRowDim < myColDim;
+
+        PrimitiveDenseStore tmpWork = PrimitiveDenseStore.FACTORY.makeZero(myRowDim, myColDim);
+        matrix.supplyTo(tmpWork);
+        if (tmpTranspose) {
+            tmpWork = PrimitiveDenseStore.FACTORY.copy(tmpWork.transpose());
+        }
+
+        // Tall - reduce to square triangular: [A] = [Q][R]
+
+        MatrixStore<Double> tmpQ = null;
+        if (tmpWork.countRows() > tmpWork.countColumns()) {
+            final QR<Double> tmpQR = QR.PRIMITIVE.make(tmpWork);
+            tmpQR.decompose(tmpWork);
+            if (!valuesOnly) {
+                tmpQ = tmpQR.getQ();
+            }
+            tmpWork = PrimitiveDenseStore.FACTORY.copy(tmpQR.getR());
+        }
+
+        final int tmpSize = (int) tmpWork.countColumns();
+
+        final PrimitiveDenseStore tmpV = valuesOnly ? null : PrimitiveDenseStore.FACTORY.makeEye(tmpSize, tmpSize);
+
+        final boolean tmpConverged = this.sweep(tmpWork, tmpV);
+
+        final double[] tmpNorms = new double[tmpSize];
+        final Integer[] tmpOrder = new Integer[tmpSize];
+        for (int j = 0; j < tmpSize; j++) {
+            tmpNorms[j] = tmpWork.aggregateColumn(0L, j, Aggregator.NORM2).doubleValue();
+            tmpOrder[j] = j;
+        }
+        Arrays.sort(tmpOrder, (j1, j2) -> Double.compare(tmpNorms[j2], tmpNorms[j1]));
+
+        mySingularValues = new double[tmpSize];
+        for (int j = 0; j < tmpSize; j++) {
+            mySingularValues[j] = tmpNorms[tmpOrder[j]];
+        }
+
+        if (!valuesOnly) {
+
+            final int tmpRows = (int) tmpWork.countRows();
+
+            PrimitiveDenseStore tmpU = PrimitiveDenseStore.FACTORY.makeZero(tmpRows, tmpSize);
+            final PrimitiveDenseStore tmpSortedV = PrimitiveDenseStore.FACTORY.makeZero(tmpSize, tmpSize);
+
+            for (int j = 0; j < tmpSize; j++) {
+                final int tmpColumn = tmpOrder[j];
+                final double tmpNorm = tmpNorms[tmpColumn];
+                if (tmpNorm > ZERO) {
+                    for (int i = 0; i < tmpRows; i++) {
+                        tmpU.data[(j * tmpRows) + i] = tmpWork.data[(tmpColumn * tmpRows) + i] / tmpNorm;
+                    }
+                }
+                System.arraycopy(tmpV.data, tmpColumn * tmpSize, tmpSortedV.data, j * tmpSize, tmpSize);
+            }
+
+            for (int j = 0; j < tmpSize; j++) {
+                if (tmpNorms[tmpOrder[j]] <= ZERO) {
+                    JacobiSingularValue.complete(tmpU, j);
+                }
+            }
+
+            if (tmpQ != null) {
+                final PrimitiveDenseStore tmpProduct = PrimitiveDenseStore.FACTORY.makeZero(tmpQ.countRows(), tmpSize);
+                tmpProduct.fillByMultiplying(tmpQ, tmpU);
+                tmpU = tmpProduct;
+            }
+
+            if (tmpTranspose) {
+                myQ1 = tmpSortedV;
+                myQ2 = tmpU;
+            } else {
+                myQ1 = tmpU;
+                myQ2 = tmpSortedV;
+            }
+        }
+
+        return this.computed(tmpConverged);
+    }
+
+    /**
+     * Orthogonalise the columns of [A] using rotations, and accumulate those rotations in [V] (if not null).
+     * Each sweep consists of n-1 (n even) steps of n/2 disjoint pairs - the round-robin (tournament)
+     * schedule - and the pairs of a step are processed in parallel.
+     *
+     * @return true if a sweep without any rotations was reached (within {@link #MAX_SWEEPS} sweeps)
+     */
+    private boolean sweep(final PrimitiveDenseStore mtrxA, final PrimitiveDenseStore mtrxV) {
+
+        final int tmpRowDim = (int) mtrxA.countRows();
+        final int tmpColDim = (int) mtrxA.countColumns();
+
+        final double[] tmpA = mtrxA.data;
+        final double[] tmpV = mtrxV != null ? mtrxV.data : null;
+
+        final double tmpTolerance = Math.sqrt(tmpRowDim) * MACHINE_EPSILON;
+
+        final int tmpPlayers = tmpColDim + (tmpColDim % 2);
+        final int tmpPairs = tmpPlayers / 2;
+
+        final int[] tmpFirst = new int[tmpPairs];
+        final int[] tmpSecond = new int[tmpPairs];
+        final boolean[] tmpRotated = new boolean[tmpPairs];
+
+        final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+                for (int k = first; k < limit; k++) {
+
+                    final int p = tmpFirst[k];
+                    final int q = tmpSecond[k];
+
+                    tmpRotated[k] = false;
+
+                    if (q >= tmpColDim) {
+                        continue;
+                    }
+
+                    final int tmpOffsetP = p * tmpRowDim;
+                    final int tmpOffsetQ = q * tmpRowDim;
+
+                    final double tmpAlpha = DOT.invoke(tmpA, tmpOffsetP, tmpA, tmpOffsetP, 0, tmpRowDim);
+                    final double tmpBeta = DOT.invoke(tmpA, tmpOffsetQ, tmpA, tmpOffsetQ, 0, tmpRowDim);
+                    final double tmpGamma = DOT.invoke(tmpA, tmpOffsetP, tmpA, tmpOffsetQ, 0, tmpRowDim);
+
+                    if ((tmpAlpha == ZERO) || (tmpBeta == ZERO) || (Math.abs(tmpGamma) <= (tmpTolerance * Math.sqrt(tmpAlpha) * Math.sqrt(tmpBeta)))) {
+                        continue;
+                    }
+
+                    final double tmpZeta = (tmpBeta - tmpAlpha) / (tmpGamma + tmpGamma);
+                    final double tmpTan = Math.copySign(ONE / (Math.abs(tmpZeta) + Math.hypot(ONE, tmpZeta)), tmpZeta);
+                    final double tmpCos = ONE / Math.sqrt(ONE + (tmpTan * tmpTan));
+                    final double tmpSin = tmpCos * tmpTan;
+
+                    JacobiSingularValue.rotate(tmpA, tmpOffsetP, tmpOffsetQ, tmpRowDim, tmpCos, tmpSin);
+                    if (tmpV != null) {
+                        JacobiSingularValue.rotate(tmpV, p * tmpColDim, q * tmpColDim, tmpColDim, tmpCos, tmpSin);
+                    }
+
+                    tmpRotated[k] = true;
+                }
+            }
+
+        };
+
+        final int tmpThreshold = Math.max(1, THRESHOLD / tmpRowDim);
+
+        boolean tmpAnyRotated = true;
+        for (int s = 0; tmpAnyRotated && (s < MAX_SWEEPS); s++) {
+
+            tmpAnyRotated = false;
+
+            for (int tmpRound = 0; tmpRound < (tmpPlayers - 1); tmpRound++) {
+
+                tmpFirst[0] = tmpRound;
+                tmpSecond[0] = tmpPlayers - 1;
+                for (int k = 1; k < tmpPairs; k++) {
+                    final int tmpOne = (tmpRound + k) % (tmpPlayers - 1);
+                    final int tmpOther = ((tmpRound - k) + (tmpPlayers - 1)) % (tmpPlayers - 1);
+                    tmpFirst[k] = Math.min(tmpOne, tmpOther);
+                    tmpSecond[k] = Math.max(tmpOne, tmpOther);
+                }
+
+                tmpConquerer.invoke(0, tmpPairs, tmpThreshold);
+
+                for (int k = 0; k < tmpPairs; k++) {
+                    tmpAnyRotated |= tmpRotated[k];
+                }
+            }
+        }
+
+        return !tmpAnyRotated;
+    }
+
+    @Override
+    protected PrimitiveDenseStore allocate(final long numberOfRows, final long numberOfColumns) {
+        return PrimitiveDenseStore.FACTORY.makeZero(numberOfRows, numberOfColumns);
+    }
+
+    @Override
+    protected boolean checkSolvability() {
+        return this.isFullRank();
+    }
+
+    @Override
+    protected double getDimensionalEpsilon() {
+        return Math.max(myRowDim, myColDim) * MACHINE_EPSILON;
+    }
+
+}
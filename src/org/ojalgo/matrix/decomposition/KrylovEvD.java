@@ -0,0 +1,776 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.ojalgo.access.Access2D;
+import org.ojalgo.array.Array1D;
+import org.ojalgo.array.Primitive64Array;
+import org.ojalgo.array.blas.AXPY;
+import org.ojalgo.array.blas.DOT;
+import org.ojalgo.array.blas.NRM2;
+import org.ojalgo.array.blas.SCAL;
+import org.ojalgo.function.aggregator.AggregatorFunction;
+import org.ojalgo.function.aggregator.ComplexAggregator;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.RawStore;
+import org.ojalgo.matrix.store.SparseStore;
+import org.ojalgo.random.Uniform;
+import org.ojalgo.scalar.ComplexNumber;
+
+/**
+ * Implicitly restarted Krylov subspace eigensolvers (in the style of ARPACK), calculating the few eigenpairs
+ * with the largest magnitude using only matrix-vector multiplications.
+ * <p>
+ * An m-step Arnoldi (Lanczos) factorisation [A][V] = [V][H] + f e<sub>m</sub><sup>T</sup> is built, with
+ * full (DGKS) reorthogonalisation. The eigenpairs of the small matrix [H] give the Ritz approximations. If
+ * the wanted ones have not converged, the unwanted Ritz values are applied as (exact) shifts of the QR
+ * algorithm to [H], compressing the factorisation to the wanted part, and then it is extended again. A
+ * complex conjugate pair of shifts is applied as one real double shift step.
+ * </p>
+ * <p>
+ * Memory use is dominated by the basis - 2 x m vectors of length n, where m is the larger of 2k+1 and 20
+ * (but not more than n).
+ * </p>
+ *
+ * @author apete
+ */
+abstract class KrylovEvD extends AbstractDecomposition<Double> implements Eigenvalue.Partial {
+
+    /**
+     * Implicitly restarted Arnoldi - the general case.
+     */
+    static final class Arnoldi extends KrylovEvD {
+
+        Arnoldi(final int numberOfEigenpairs) {
+            super(numberOfEigenpairs);
+        }
+
+        public boolean isHermitian() {
+            return false;
+        }
+
+        @Override
+        RawEigenvalue makeRitzSolver() {
+            return new RawEigenvalue.General();
+        }
+
+        @Override
+        void tidy(final double[][] hessenberg, final int dim) {
+            for (int j = 0; j < dim; j++) {
+                for (int i = j + 2; i < dim; i++) {
+                    hessenberg[i][j] = ZERO;
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Implicitly restarted Lanczos - the symmetric case. [H] is tridiagonal and the Ritz values are real.
+     */
+    static final class Lanczos extends KrylovEvD {
+
+        Lanczos(final int numberOfEigenpairs) {
+            super(numberOfEigenpairs);
+        }
+
+        public boolean isHermitian() {
+            return true;
+        }
+
+        @Override
+        RawEigenvalue makeRitzSolver() {
+            return new RawEigenvalue.Symmetric();
+        }
+
+        @Override
+        void tidy(final double[][] hessenberg, final int dim) {
+            for (int j = 0; j < dim; j++) {
+                final double[] tmpRow = hessenberg[j];
+                for (int i = 0; i < dim; i++) {
+                    if ((i < (j - 1)) || (i > (j + 1))) {
+                        tmpRow[i] = ZERO;
+                    }
+                }
+                if ((j + 1) < dim) {
+                    tmpRow[j + 1] = hessenberg[j + 1][j];
+                }
+            }
+        }
+
+    }
+
+    /**
+     * DGKS criterion - reorthogonalise if the norm dropped more than this
+     */
+    private static final double DGKS = 0.717;
+    private static final double EPS23 = Math.pow(MACHINE_EPSILON, TWO / THREE);
+
+    @SuppressWarnings("unchecked")
+    static Eigenvalue.Operator operator(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> matrix) {
+
+        if (matrix instanceof SparseStore) {
+
+            final SparseQR.Columns tmpColumns = SparseQR.Columns.of((SparseStore<?>) matrix);
+            final int[] tmpPointers = tmpColumns.pointers;
+            final int[] tmpRows = tmpColumns.rows;
+            final double[] tmpValues = tmpColumns.values;
+
+            return (x, y) -> {
+                Arrays.fill(y, ZERO);
+                for (int j = 0; j < x.length; j++) {
+                    final double tmpX = x[j];
+                    if (tmpX != ZERO) {
+                        for (int p = tmpPointers[j], limit = tmpPointers[j + 1]; p < limit; p++) {
+                            y[tmpRows[p]] += tmpValues[p] * tmpX;
+                        }
+                    }
+                }
+            };
+
+        } else {
+
+            final MatrixStore<Double> tmpStore;
+            if (matrix instanceof MatrixStore<?>) {
+                tmpStore = (MatrixStore<Double>) matrix;
+            } else {
+                final PrimitiveDenseStore tmpCopy = PrimitiveDenseStore.FACTORY.makeZero(matrix.countRows(), matrix.countColumns());
+                matrix.supplyTo(tmpCopy);
+                tmpStore = tmpCopy;
+            }
+
+            final PrimitiveDenseStore tmpProduct = PrimitiveDenseStore.FACTORY.makeZero(tmpStore.countRows(), 1L);
+
+            return (x, y) -> {
+                tmpStore.multiply(Primitive64Array.wrap(x), tmpProduct);
+                System.arraycopy(tmpProduct.data, 0, y, 0, y.length);
+            };
+        }
+    }
+
+    private static double norm(final double[] vector) {
+        return NRM2.invoke(vector, 0, vector.length, 1);
+    }
+
+    private double[][] myBasis = null;
+    private int myDimension = 0;
+    private double[][] myHessenberg = null;
+    private double[] myImaginaryParts = null;
+    private int myIterationsLimit = 300;
+    private final int myNumberOfEigenpairs;
+    private double[] myRealParts = null;
+    private double[] myResidual = null;
+    private double myTolerance = MACHINE_EPSILON;
+    private final Uniform myUniform = new Uniform(NEG, ONE);
+    private double[][] myVectors = null;
+    private double[][] myWork = null;
+
+    KrylovEvD(final int numberOfEigenpairs) {
+
+        super();
+
+        myNumberOfEigenpairs = numberOfEigenpairs;
+    }
+
+    public Double calculateDeterminant(final Access2D<?> matrix) {
+        return LU.PRIMITIVE.make(matrix).calculateDeterminant(matrix);
+    }
+
+    public boolean compute(final int dimension, final Eigenvalue.Operator operator) {
+        return this.compute(dimension, operator, false);
+    }
+
+    public boolean computeValuesOnly(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> matrix) {
+        return this.compute((int) matrix.countRows(), KrylovEvD.operator(matrix), true);
+    }
+
+    public boolean decompose(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> matrix) {
+        return this.compute((int) matrix.countRows(), KrylovEvD.operator(matrix), false);
+    }
+
+    public MatrixStore<Double> getD() {
+
+        final int tmpCount = myRealParts.length;
+
+        final RawStore retVal = new RawStore(tmpCount, tmpCount);
+        final double[][] tmpData = retVal.data;
+
+        for (int i = 0; i < tmpCount; i++) {
+            tmpData[i][i] = myRealParts[i];
+            final double tmpImaginary = myImaginaryParts[i];
+            if (tmpImaginary > ZERO) {
+                tmpData[i][i + 1] = tmpImaginary;
+            } else if (tmpImaginary < ZERO) {
+                tmpData[i][i - 1] = tmpImaginary;
+            }
+        }
+
+        return retVal;
+    }
+
+    public Double getDeterminant() {
+
+        final AggregatorFunction<ComplexNumber> tmpVisitor = ComplexAggregator.getSet().product();
+
+        this.getEigenvalues().visitAll(tmpVisitor);
+
+        return tmpVisitor.get().doubleValue();
+    }
+
+    public Array1D<ComplexNumber> getEigenvalues() {
+
+        final Array1D<ComplexNumber> retVal = Array1D.COMPLEX.makeZero(myRealParts.length);
+
+        for (int i = 0; i < myRealParts.length; i++) {
+            retVal.set(i, ComplexNumber.of(myRealParts[i], myImaginaryParts[i]));
+        }
+
+        return retVal;
+    }
+
+    @Override
+    public void getEigenvalues(final double[] realParts, final Optional<double[]> imaginaryParts) {
+
+        final int tmpLength = Math.min(realParts.length, myRealParts.length);
+
+        System.arraycopy(myRealParts, 0, realParts, 0, tmpLength);
+
+        if (imaginaryParts.isPresent()) {
+            System.arraycopy(myImaginaryParts, 0, imaginaryParts.get(), 0, tmpLength);
+        }
+    }
+
+    public int getNumberOfEigenpairs() {
+        return myNumberOfEigenpairs;
+    }
+
+    public ComplexNumber getTrace() {
+
+        final AggregatorFunction<ComplexNumber> tmpVisitor = ComplexAggregator.getSet().sum();
+
+        this.getEigenvalues().visitAll(tmpVisitor);
+
+        return tmpVisitor.get();
+    }
+
+    public MatrixStore<Double> getV() {
+        return new RawStore(myVectors, myVectors.length, myDimension).logical().transpose().get();
+    }
+
+    public boolean isOrdered() {
+        return true;
+    }
+
+    @Override
+    public void reset() {
+
+        super.reset();
+
+        myImaginaryParts = null;
+        myRealParts = null;
+        myVectors = null;
+    }
+
+    public void setIterationsLimit(final int iterationsLimit) {
+        myIterationsLimit = iterationsLimit;
+    }
+
+    public void setTolerance(final double tolerance) {
+        myTolerance = tolerance;
+    }
+
+    private void advance(final int index) {
+
+        final double[] tmpNext = myBasis[index];
+
+        final double tmpBeta = KrylovEvD.norm(myResidual);
+
+        if (tmpBeta > ZERO) {
+            for (int i = 0; i < myDimension; i++) {
+                tmpNext[i] = myResidual[i] / tmpBeta;
+            }
+            myHessenberg[index][index - 1] = tmpBeta;
+        } else {
+            // Invariant subspace found - continue with any vector orthogonal to it
+            this.random(tmpNext, index);
+            myHessenberg[index][index - 1] = ZERO;
+        }
+    }
+
+    private boolean compute(final int dimension, final Eigenvalue.Operator operator, final boolean valuesOnly) {
+
+        this.reset();
+
+        final int tmpWanted = Math.min(myNumberOfEigenpairs, dimension);
+        final int m = Math.min(dimension, Math.max(2 * tmpWanted + 1, 20));
+
+        if ((myBasis == null) || (myDimension != dimension) || (myBasis.length != m)) {
+            myDimension = dimension;
+            myBasis = new double[m][dimension];
+            myWork = new double[m][dimension];
+            myHessenberg = new double[m][m];
+            myResidual = new double[dimension];
+        }
+
+        final RawEigenvalue tmpRitzSolver = this.makeRitzSolver();
+        final double[] tmpRe = new double[m];
+        final double[] tmpIm = new double[m];
+        final double[] tmpResiduals = new double[m];
+
+        // Units: a real Ritz value, or a complex conjugate pair (index of the one with positive imaginary part)
+        final int[] tmpUnits = new int[m];
+        int tmpNumberOfUnits = 0;
+        MatrixStore<Double> tmpY = null;
+
+        this.random(myBasis[0], 0);
+        this.extend(operator, 0);
+
+        boolean tmpConverged = false;
+        int tmpWantedUnits = 0;
+
+        for (int r = 0; r < myIterationsLimit; r++) {
+
+            tmpRitzSolver.decompose(new RawStore(myHessenberg, m, m));
+            tmpRitzSolver.getEigenvalues(tmpRe, Optional.of(tmpIm));
+            if (this.isHermitian()) {
+                Arrays.fill(tmpIm, ZERO);
+            }
+            tmpY = tmpRitzSolver.getV();
+
+            final double tmpBeta = KrylovEvD.norm(myResidual);
+
+            tmpNumberOfUnits = 0;
+            for (int j = 0; j < m; j++) {
+                if (tmpIm[j] >= ZERO) {
+                    tmpUnits[tmpNumberOfUnits++] = j;
+                    double tmpNorm = ZERO;
+                    double tmpLast = ZERO;
+                    final int tmpLimit = tmpIm[j] > ZERO ? j + 2 : j + 1;
+                    for (int c = j; c < tmpLimit; c++) {
+                        for (int i = 0; i < m; i++) {
+                            final double tmpVal = tmpY.doubleValue(i, c);
+                            tmpNorm += tmpVal * tmpVal;
+                        }
+                        final double tmpVal = tmpY.doubleValue(m - 1, c);
+                        tmpLast += tmpVal * tmpVal;
+                    }
+                    tmpResiduals[j] = tmpBeta * Math.sqrt(tmpLast / tmpNorm);
+                }
+            }
+
+            // Largest magnitude first
+            for (int u = 1; u < tmpNumberOfUnits; u++) {
+                final int tmpUnit = tmpUnits[u];
+                final double tmpModulus = Math.hypot(tmpRe[tmpUnit], tmpIm[tmpUnit]);
+                int v = u;
+                while ((v > 0) && (Math.hypot(tmpRe[tmpUnits[v - 1]], tmpIm[tmpUnits[v - 1]]) < tmpModulus)) {
+                    tmpUnits[v] = tmpUnits[v - 1];
+                    v--;
+                }
+                tmpUnits[v] = tmpUnit;
+            }
+
+            tmpWantedUnits = 0;
+            int tmpConvergedUnits = 0;
+            for (int tmpCount = 0; tmpCount < tmpWanted; tmpWantedUnits++) {
+                final int tmpUnit = tmpUnits[tmpWantedUnits];
+                tmpCount += tmpIm[tmpUnit] > ZERO ? 2 : 1;
+                if (tmpResiduals[tmpUnit] <= (myTolerance * Math.max(EPS23, Math.hypot(tmpRe[tmpUnit], tmpIm[tmpUnit])))) {
+                    tmpConvergedUnits++;
+                }
+            }
+
+            if (tmpConvergedUnits == tmpWantedUnits) {
+                tmpConverged = true;
+                break;
+            } else if (r == (myIterationsLimit - 1)) {
+                break;
+            }
+
+            // Keep some of the converged ones in addition to the wanted (ARPACK does this too), but at least one shift
+            int tmpKeepUnits = tmpWantedUnits + Math.min(tmpConvergedUnits, (tmpNumberOfUnits - tmpWantedUnits) / 2);
+            int tmpKeep = this.count(tmpUnits, tmpKeepUnits, tmpIm);
+            while ((tmpKeepUnits > 0) && (tmpKeep >= m)) {
+                tmpKeepUnits--;
+                tmpKeep = this.count(tmpUnits, tmpKeepUnits, tmpIm);
+            }
+            if (tmpKeepUnits == 0) {
+                break;
+            }
+
+            final double[][] tmpQ = new double[m][m];
+            for (int i = 0; i < m; i++) {
+                tmpQ[i][i] = ONE;
+            }
+            for (int u = tmpKeepUnits; u < tmpNumberOfUnits; u++) {
+                final int tmpUnit = tmpUnits[u];
+                if (tmpIm[tmpUnit] > ZERO) {
+                    this.shift(tmpRe[tmpUnit], tmpIm[tmpUnit], tmpQ, m);
+                } else {
+                    this.shift(tmpRe[tmpUnit], tmpQ, m);
+                }
+            }
+            this.tidy(myHessenberg, m);
+
+            this.restart(tmpQ, tmpKeep, m);
+            this.extend(operator, tmpKeep);
+        }
+
+        final int tmpCount = this.count(tmpUnits, tmpWantedUnits, tmpIm);
+
+        myRealParts = new double[tmpCount];
+        myImaginaryParts = new double[tmpCount];
+        if (!valuesOnly) {
+            myVectors = new double[tmpCount][dimension];
+        }
+
+        for (int u = 0, p = 0; u < tmpWantedUnits; u++) {
+
+            final int tmpUnit = tmpUnits[u];
+            final boolean tmpPair = tmpIm[tmpUnit] > ZERO;
+
+            myRealParts[p] = tmpRe[tmpUnit];
+            myImaginaryParts[p] = tmpIm[tmpUnit];
+            if (tmpPair) {
+                myRealParts[p + 1] = tmpRe[tmpUnit];
+                myImaginaryParts[p + 1] = -tmpIm[tmpUnit];
+            }
+
+            final int tmpSize = tmpPair ? 2 : 1;
+
+            if (!valuesOnly) {
+                double tmpNorm = ZERO;
+                for (int c = 0; c < tmpSize; c++) {
+                    final double[] tmpVector = myVectors[p + c];
+                    for (int i = 0; i < m; i++) {
+                        final double tmpVal = tmpY.doubleValue(i, tmpUnit + c);
+                        AXPY.invoke(tmpVector, 0, tmpVal, myBasis[i], 0, 0, dimension);
+                        tmpNorm += tmpVal * tmpVal;
+                    }
+                }
+                tmpNorm = Math.sqrt(tmpNorm);
+                for (int c = 0; c < tmpSize; c++) {
+                    SCAL.invoke(myVectors[p + c], 0, dimension, 1, ONE / tmpNorm);
+                }
+            }
+
+            p += tmpSize;
+        }
+
+        return this.computed(tmpConverged);
+    }
+
+    private int count(final int[] units, final int numberOfUnits, final double[] imaginaryParts) {
+        int retVal = 0;
+        for (int u = 0; u < numberOfUnits; u++) {
+            retVal += imaginaryParts[units[u]] > ZERO ? 2 : 1;
+        }
+        return retVal;
+    }
+
+    /**
+     * Extend the factorisation from first to m columns. The first vectors of the basis, the corresponding
+     * part of [H] and the residual are assumed to be valid.
+     */
+    private void extend(final Eigenvalue.Operator operator, final int first) {
+
+        final int m = myBasis.length;
+        final double[] tmpCoefficients = new double[m];
+
+        for (int j = first; j < m; j++) {
+
+            if (j > 0) {
+                this.advance(j);
+            }
+
+            operator.multiply(myBasis[j], myResidual);
+
+            Arrays.fill(tmpCoefficients, ZERO);
+
+            final double tmpNorm = KrylovEvD.norm(myResidual);
+            final double tmpOrthogonalised = this.orthogonalise(myResidual, j + 1, tmpCoefficients);
+            if (tmpOrthogonalised < (DGKS * tmpNorm)) {
+                final double tmpReorthogonalised = this.orthogonalise(myResidual, j + 1, tmpCoefficients);
+                if (tmpReorthogonalised < (DGKS * tmpOrthogonalised)) {
+                    // [A]v is (numerically) in the span of the basis
+                    Arrays.fill(myResidual, ZERO);
+                }
+            }
+
+            for (int i = 0; i < m; i++) {
+                myHessenberg[i][j] = i <= j ? tmpCoefficients[i] : ZERO;
+            }
+        }
+
+        this.tidy(myHessenberg, m);
+    }
+
+    /**
+     * Classical Gram-Schmidt against the first vectors of the basis
+     *
+     * @return The norm of the result
+     */
+    private double orthogonalise(final double[] vector, final int limit, final double[] coefficients) {
+
+        final double[] tmpDots = new double[limit];
+        for (int i = 0; i < limit; i++) {
+            tmpDots[i] = DOT.invoke(myBasis[i], 0, 1, vector, 0, 1, myDimension);
+        }
+        for (int i = 0; i < limit; i++) {
+            AXPY.invoke(vector, 0, -tmpDots[i], myBasis[i], 0, 0, myDimension);
+            coefficients[i] += tmpDots[i];
+        }
+
+        return KrylovEvD.norm(vector);
+    }
+
+    /**
+     * A random unit vector orthogonal to the first vectors of the basis
+     */
+    private void random(final double[] destination, final int limit) {
+
+        final double[] tmpCoefficients = new double[limit];
+
+        double tmpNorm = ZERO;
+        while (tmpNorm == ZERO) {
+            for (int i = 0; i < myDimension; i++) {
+                destination[i] = myUniform.doubleValue();
+            }
+            this.orthogonalise(destination, limit, tmpCoefficients);
+            tmpNorm = this.orthogonalise(destination, limit, tmpCoefficients);
+        }
+
+        SCAL.invoke(destination, 0, myDimension, 1, ONE / tmpNorm);
+    }
+
+    /**
+     * Compress the (shifted) factorisation to the first keep columns: [V] = [V][Q] and f = v<sub>keep</sub>
+     * h<sub>keep,keep-1</sub> + f q<sub>m,keep</sub>
+     */
+    private void restart(final double[][] q, final int keep, final int m) {
+
+        for (int j = 0; j <= keep; j++) {
+            final double[] tmpNew = myWork[j];
+            Arrays.fill(tmpNew, ZERO);
+            for (int i = 0; i < m; i++) {
+                final double tmpVal = q[i][j];
+                if (tmpVal != ZERO) {
+                    AXPY.invoke(tmpNew, 0, tmpVal, myBasis[i], 0, 0, myDimension);
+                }
+            }
+        }
+
+        final double tmpBeta = myHessenberg[keep][keep - 1];
+        final double tmpSigma = q[m - 1][keep - 1];
+        final double[] tmpNext = myWork[keep];
+        for (int i = 0; i < myDimension; i++) {
+            myResidual[i] = (tmpNext[i] * tmpBeta) + (myResidual[i] * tmpSigma);
+        }
+
+        final double[][] tmpBasis = myBasis;
+        myBasis = myWork;
+        myWork = tmpBasis;
+
+        for (int i = keep; i < m; i++) {
+            Arrays.fill(myHessenberg[i], ZERO);
+        }
+        for (int i = 0; i < keep; i++) {
+            Arrays.fill(myHessenberg[i], keep, m, ZERO);
+        }
+
+        // Rounding could have brought back components along the kept vectors
+        final double tmpNorm = KrylovEvD.norm(myResidual);
+        final double tmpOrthogonalised = this.orthogonalise(myResidual, keep, new double[keep]);
+        if (tmpOrthogonalised < (DGKS * tmpNorm)) {
+            this.orthogonalise(myResidual, keep, new double[keep]);
+        }
+    }
+
+    /**
+     * One double shift QR step, with a complex conjugate pair of shifts, using 3-element Householder
+     * reflections on [H]<sup>2</sup> - 2re[H] + (re<sup>2</sup>+im<sup>2</sup>)[I] .
+     */
+    private void shift(final double re, final double im, final double[][] q, final int m) {
+
+        final double[][] h = myHessenberg;
+
+        final double tmpS = re + re;
+        final double tmpT = (re * re) + (im * im);
+
+        final double[][] tmpM = new double[m][m];
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < m; j++) {
+                double tmpVal = ZERO;
+                for (int k = Math.max(0, i - 1), limit = Math.min(m, j + 2); k < limit; k++) {
+                    tmpVal += h[i][k] * h[k][j];
+                }
+                tmpM[i][j] = tmpVal - (tmpS * h[i][j]);
+            }
+            tmpM[i][i] += tmpT;
+        }
+
+        final double[] tmpV = new double[3];
+
+        for (int c = 0; c < (m - 1); c++) {
+
+            final int tmpLength = Math.min(3, m - c);
+
+            double tmpNorm = ZERO;
+            for (int k = 0; k < tmpLength; k++) {
+                tmpV[k] = tmpM[c + k][c];
+                tmpNorm += tmpV[k] * tmpV[k];
+            }
+            tmpNorm = Math.sqrt(tmpNorm);
+            if (tmpNorm == ZERO) {
+                continue;
+            }
+            tmpV[0] += tmpV[0] >= ZERO ? tmpNorm : -tmpNorm;
+            double tmpScale = ZERO;
+            for (int k = 0; k < tmpLength; k++) {
+                tmpScale += tmpV[k] * tmpV[k];
+            }
+            tmpScale = TWO / tmpScale;
+
+            // [P] = [I] - s v v<sup>T</sup> from the left: [M] and [H]
+            for (int j = 0; j < m; j++) {
+                double tmpDotM = ZERO;
+                double tmpDotH = ZERO;
+                for (int k = 0; k < tmpLength; k++) {
+                    tmpDotM += tmpV[k] * tmpM[c + k][j];
+                    tmpDotH += tmpV[k] * h[c + k][j];
+                }
+                tmpDotM *= tmpScale;
+                tmpDotH *= tmpScale;
+                for (int k = 0; k < tmpLength; k++) {
+                    tmpM[c + k][j] -= tmpDotM * tmpV[k];
+                    h[c + k][j] -= tmpDotH * tmpV[k];
+                }
+            }
+
+            // ...and from the right: [H] and [Q]
+            for (int i = 0; i < m; i++) {
+                double tmpDotH = ZERO;
+                double tmpDotQ = ZERO;
+                for (int k = 0; k < tmpLength; k++) {
+                    tmpDotH += h[i][c + k] * tmpV[k];
+                    tmpDotQ += q[i][c + k] * tmpV[k];
+                }
+                tmpDotH *= tmpScale;
+                tmpDotQ *= tmpScale;
+                for (int k = 0; k < tmpLength; k++) {
+                    h[i][c + k] -= tmpDotH * tmpV[k];
+                    q[i][c + k] -= tmpDotQ * tmpV[k];
+                }
+            }
+        }
+
+        for (int j = 0; j < m; j++) {
+            for (int i = j + 2; i < m; i++) {
+                h[i][j] = ZERO;
+            }
+        }
+    }
+
+    /**
+     * One (explicitly) shifted QR step on the Hessenberg matrix using Givens rotations: [H] - s[I] = [Q][R]
+     * and then [H] = [R][Q] + s[I]
+     */
+    private void shift(final double shift, final double[][] q, final int m) {
+
+        final double[][] h = myHessenberg;
+
+        final double[] tmpCos = new double[m];
+        final double[] tmpSin = new double[m];
+
+        for (int i = 0; i < m; i++) {
+            h[i][i] -= shift;
+        }
+
+        for (int i = 0; i < (m - 1); i++) {
+
+            final double tmpA = h[i][i];
+            final double tmpB = h[i + 1][i];
+            final double tmpR = Math.hypot(tmpA, tmpB);
+
+            final double tmpC = tmpR == ZERO ? ONE : tmpA / tmpR;
+            final double tmpS = tmpR == ZERO ? ZERO : tmpB / tmpR;
+            tmpCos[i] = tmpC;
+            tmpSin[i] = tmpS;
+
+            for (int j = i; j < m; j++) {
+                final double tmpX = h[i][j];
+                final double tmpY = h[i + 1][j];
+                h[i][j] = (tmpC * tmpX) + (tmpS * tmpY);
+                h[i + 1][j] = (tmpC * tmpY) - (tmpS * tmpX);
+            }
+            h[i + 1][i] = ZERO;
+        }
+
+        for (int j = 0; j < (m - 1); j++) {
+
+            final double tmpC = tmpCos[j];
+            final double tmpS = tmpSin[j];
+
+            for (int i = 0, limit = Math.min(j + 2, m); i < limit; i++) {
+                final double tmpX = h[i][j];
+                final double tmpY = h[i][j + 1];
+                h[i][j] = (tmpC * tmpX) + (tmpS * tmpY);
+                h[i][j + 1] = (tmpC * tmpY) - (tmpS * tmpX);
+            }
+            for (int i = 0; i < m; i++) {
+                final double tmpX = q[i][j];
+                final double tmpY = q[i][j + 1];
+                q[i][j] = (tmpC * tmpX) + (tmpS * tmpY);
+                q[i][j + 1] = (tmpC * tmpY) - (tmpS * tmpX);
+            }
+        }
+
+        for (int i = 0; i < m; i++) {
+            h[i][i] += shift;
+        }
+    }
+
+    @Override
+    protected PrimitiveDenseStore allocate(final long numberOfRows, final long numberOfColumns) {
+        return PrimitiveDenseStore.FACTORY.makeZero(numberOfRows, numberOfColumns);
+    }
+
+    @Override
+    protected double getDimensionalEpsilon() {
+        return myDimension * MACHINE_EPSILON;
+    }
+
+    abstract RawEigenvalue makeRitzSolver();
+
+    /**
+     * Clean up [H] - zero what should be zero (and symmetrise)
+     */
+    abstract void tidy(double[][] hessenberg, int dim);
+
+}
@@ -72,6 +72,12 @@ public interface LU<N extends Number> extends LDU<N> {
 
     public static final Factory<RationalNumber> RATIONAL = typical -> new LUDecomposition.Rational();
 
+    /**
+     * Sparse LU with Markowitz pivoting (both rows and columns are permuted). Retains the symbolic analysis
+     * between decompositions of matrices with the same nonzero pattern.
+     */
+    public static final Factory<Double> SPARSE = typical -> new SparseLU();
+
     @SuppressWarnings("unchecked")
     public static <N extends Number> LU<N> make(final Access2D<N> typical) {
 
@@ -0,0 +1,775 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.access.Access2D;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.constant.PrimitiveMath;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+
+/**
+ * A batch of many small, equally sized, matrices stored contiguously (each one column-major, one after the
+ * other) in a single double[]. It is intended for the case with thousands (or millions) of independent
+ * 3x3...16x16 problems where going through the regular {@linkplain MatrixDecomposition} factories, one matrix
+ * at the time, would be dominated by object creation and threshold checks.
+ * <p>
+ * The decompositions work in place, LAPACK style, and are done in parallel across the batch. Each matrix is
+ * processed by a single thread with plain loops (Cholesky is fully unrolled for 2x2, 3x3 and 4x4). The
+ * results of a decomposition are then used by the corresponding solve method.
+ * <ul>
+ * <li>{@link #decomposeCholesky()} / {@link #solveCholesky(MatrixBatch)}</li>
+ * <li>{@link #decomposeLU(int[])} / {@link #solveLU(int[], MatrixBatch)}</li>
+ * <li>{@link #decomposeQR(double[])} / {@link #solveQR(double[], MatrixBatch)} (least squares)</li>
+ * <li>{@link #decomposeSymmetricEigen(double[], MatrixBatch)}</li>
+ * </ul>
+ *
+ * @author apete
+ */
+public final class MatrixBatch {
+
+    /**
+     * The min number of matrices per thread
+     */
+    public static int THRESHOLD = 256;
+
+    private static final int MAX_SWEEPS = 64;
+
+    public static MatrixBatch make(final int count, final int rows, final int columns) {
+        return new MatrixBatch(new double[count * rows * columns], count, rows, columns);
+    }
+
+    public static MatrixBatch wrap(final double[] data, final int rows, final int columns) {
+        return new MatrixBatch(data, data.length / (rows * columns), rows, columns);
+    }
+
+    private static boolean cholesky(final double[] data, final int offset, final int dim) {
+
+        for (int j = 0; j < dim; j++) {
+
+            final int tmpColJ = offset + (j * dim);
+
+            double tmpDiag = data[tmpColJ + j];
+            for (int k = 0; k < j; k++) {
+                final double tmpVal = data[offset + (k * dim) + j];
+                tmpDiag -= tmpVal * tmpVal;
+            }
+
+            if (tmpDiag <= PrimitiveMath.ZERO) {
+                return false;
+            }
+
+            tmpDiag = Math.sqrt(tmpDiag);
+            data[tmpColJ + j] = tmpDiag;
+
+            for (int i = j + 1; i < dim; i++) {
+                double tmpVal = data[tmpColJ + i];
+                for (int k = 0; k < j; k++) {
+                    final int tmpColK = offset + (k * dim);
+                    tmpVal -= data[tmpColK + i] * data[tmpColK + j];
+                }
+                data[tmpColJ + i] = tmpVal / tmpDiag;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean cholesky2(final double[] data, final int offset) {
+
+        final double l00 = Math.sqrt(data[offset]);
+        if (!(l00 > PrimitiveMath.ZERO)) {
+            return false;
+        }
+        final double l10 = data[offset + 1] / l00;
+
+        final double d11 = data[offset + 3] - (l10 * l10);
+        if (!(d11 > PrimitiveMath.ZERO)) {
+            return false;
+        }
+
+        data[offset] = l00;
+        data[offset + 1] = l10;
+        data[offset + 3] = Math.sqrt(d11);
+
+        return true;
+    }
+
+    private static boolean cholesky3(final double[] data, final int offset) {
+
+        final double l00 = Math.sqrt(data[offset]);
+        if (!(l00 > PrimitiveMath.ZERO)) {
+            return false;
+        }
+        final double l10 = data[offset + 1] / l00;
+        final double l20 = data[offset + 2] / l00;
+
+        final double d11 = data[offset + 4] - (l10 * l10);
+        if (!(d11 > PrimitiveMath.ZERO)) {
+            return false;
+        }
+        final double l11 = Math.sqrt(d11);
+        final double l21 = (data[offset + 5] - (l20 * l10)) / l11;
+
+        final double d22 = data[offset + 8] - (l20 * l20) - (l21 * l21);
+        if (!(d22 > PrimitiveMath.ZERO)) {
+            return false;
+        }
+
+        data[offset] = l00;
+        data[offset + 1] = l10;
+        data[offset + 2] = l20;
+        data[offset + 4] = l11;
+        data[offset + 5] = l21;
+        data[offset + 8] = Math.sqrt(d22);
+
+        return true;
+    }
+
+    private static boolean cholesky4(final double[] data, final int offset) {
+
+        final double l00 = Math.sqrt(data[offset]);
+        if (!(l00 > PrimitiveMath.ZERO)) {
+            return false;
+        }
+        final double l10 = data[offset + 1] / l00;
+        final double l20 = data[offset + 2] / l00;
+        final double l30 = data[offset + 3] / l00;
+
+        final double d11 = data[offset + 5] - (l10 * l10);
+        if (!(d11 > PrimitiveMath.ZERO)) {
+            return false;
+        }
+        final double l11 = Math.sqrt(d11);
+        final double l21 = (data[offset + 6] - (l20 * l10)) / l11;
+        final double l31 = (data[offset + 7] - (l30 * l10)) / l11;
+
+        final double d22 = data[offset + 10] - (l20 * l20) - (l21 * l21);
+        if (!(d22 > PrimitiveMath.ZERO)) {
+            return false;
+        }
+        final double l22 = Math.sqrt(d22);
+        final double l32 = (data[offset + 11] - (l30 * l20) - (l31 * l21)) / l22;
+
+        final double d33 = data[offset + 15] - (l30 * l30) - (l31 * l31) - (l32 * l32);
+        if (!(d33 > PrimitiveMath.ZERO)) {
+            return false;
+        }
+
+        data[offset] = l00;
+        data[offset + 1] = l10;
+        data[offset + 2] = l20;
+        data[offset + 3] = l30;
+        data[offset + 5] = l11;
+        data[offset + 6] = l21;
+        data[offset + 7] = l31;
+        data[offset + 10] = l22;
+        data[offset + 11] = l32;
+        data[offset + 15] = Math.sqrt(d33);
+
+        return true;
+    }
+
+    /**
+     * Cyclic Jacobi. On return the diagonal of the (destroyed) matrix holds the eigenvalues, and vectors the
+     * eigenvectors (columns).
+     */
+    private static void jacobi(final double[] data, final int offset, final int dim, final double[] vectors, final int vectorsOffset) {
+
+        for (int j = 0; j < dim; j++) {
+            for (int i = 0; i < dim; i++) {
+                vectors[vectorsOffset + i + (j * dim)] = i == j ? PrimitiveMath.ONE : PrimitiveMath.ZERO;
+            }
+        }
+
+        for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+
+            double tmpOff = PrimitiveMath.ZERO;
+            double tmpDiag = PrimitiveMath.ZERO;
+            for (int j = 0; j < dim; j++) {
+                for (int i = 0; i < j; i++) {
+                    final double tmpVal = data[offset + i + (j * dim)];
+                    tmpOff += tmpVal * tmpVal;
+                }
+                final double tmpVal = data[offset + j + (j * dim)];
+                tmpDiag += tmpVal * tmpVal;
+            }
+
+            if (tmpOff <= (PrimitiveMath.MACHINE_EPSILON * PrimitiveMath.MACHINE_EPSILON * tmpDiag)) {
+                return;
+            }
+
+            for (int p = 0; p < (dim - 1); p++) {
+                for (int q = p + 1; q < dim; q++) {
+
+                    final double apq = data[offset + p + (q * dim)];
+                    if (apq == PrimitiveMath.ZERO) {
+                        continue;
+                    }
+
+                    final double app = data[offset + p + (p * dim)];
+                    final double aqq = data[offset + q + (q * dim)];
+
+                    final double theta = (aqq - app) / (PrimitiveMath.TWO * apq);
+                    final double t = (theta >= PrimitiveMath.ZERO ? PrimitiveMath.ONE : PrimitiveMath.NEG)
+                            / (Math.abs(theta) + Math.sqrt((theta * theta) + PrimitiveMath.ONE));
+                    final double c = PrimitiveMath.ONE / Math.sqrt((t * t) + PrimitiveMath.ONE);
+                    final double s = t * c;
+
+                    for (int k = 0; k < dim; k++) {
+                        final int tmpKP = offset + k + (p * dim);
+                        final int tmpKQ = offset + k + (q * dim);
+                        final double akp = data[tmpKP];
+                        final double akq = data[tmpKQ];
+                        data[tmpKP] = (c * akp) - (s * akq);
+                        data[tmpKQ] = (s * akp) + (c * akq);
+                    }
+
+                    for (int k = 0; k < dim; k++) {
+                        final int tmpPK = offset + p + (k * dim);
+                        final int tmpQK = offset + q + (k * dim);
+                        final double apk = data[tmpPK];
+                        final double aqk = data[tmpQK];
+                        data[tmpPK] = (c * apk) - (s * aqk);
+                        data[tmpQK] = (s * apk) + (c * aqk);
+                    }
+
+                    data[offset + p + (q * dim)] = PrimitiveMath.ZERO;
+                    data[offset + q + (p * dim)] = PrimitiveMath.ZERO;
+
+                    for (int k = 0; k < dim; k++) {
+                        final int tmpKP = vectorsOffset + k + (p * dim);
+                        final int tmpKQ = vectorsOffset + k + (q * dim);
+                        final double vkp = vectors[tmpKP];
+                        final double vkq = vectors[tmpKQ];
+                        vectors[tmpKP] = (c * vkp) - (s * vkq);
+                        vectors[tmpKQ] = (s * vkp) + (c * vkq);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean lu(final double[] data, final int offset, final int dim, final int[] pivots, final int pivotsOffset) {
+
+        boolean retVal = true;
+
+        for (int j = 0; j < dim; j++) {
+
+            final int tmpColJ = offset + (j * dim);
+
+            int tmpPivot = j;
+            double tmpLargest = Math.abs(data[tmpColJ + j]);
+            for (int i = j + 1; i < dim; i++) {
+                final double tmpVal = Math.abs(data[tmpColJ + i]);
+                if (tmpVal > tmpLargest) {
+                    tmpLargest = tmpVal;
+                    tmpPivot = i;
+                }
+            }
+            pivots[pivotsOffset + j] = tmpPivot;
+
+            if (tmpPivot != j) {
+                for (int k = 0; k < dim; k++) {
+                    final int tmpColK = offset + (k * dim);
+                    final double tmpVal = data[tmpColK + j];
+                    data[tmpColK + j] = data[tmpColK + tmpPivot];
+                    data[tmpColK + tmpPivot] = tmpVal;
+                }
+            }
+
+            final double tmpDiag = data[tmpColJ + j];
+
+            if (tmpDiag == PrimitiveMath.ZERO) {
+                retVal = false;
+                continue;
+            }
+
+            for (int i = j + 1; i < dim; i++) {
+                data[tmpColJ + i] /= tmpDiag;
+            }
+
+            for (int k = j + 1; k < dim; k++) {
+                final int tmpColK = offset + (k * dim);
+                final double tmpVal = data[tmpColK + j];
+                if (tmpVal != PrimitiveMath.ZERO) {
+                    for (int i = j + 1; i < dim; i++) {
+                        data[tmpColK + i] -= data[tmpColJ + i] * tmpVal;
+                    }
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Householder QR, rows >= columns. R ends up on and above the diagonal, the Householder vectors (with an
+     * implicit leading 1) below.
+     */
+    private static boolean qr(final double[] data, final int offset, final int rows, final int columns, final double[] tau, final int tauOffset) {
+
+        boolean retVal = true;
+
+        for (int j = 0; j < columns; j++) {
+
+            final int tmpColJ = offset + (j * rows);
+
+            final double tmpAlpha = data[tmpColJ + j];
+            double tmpNorm2 = PrimitiveMath.ZERO;
+            for (int i = j + 1; i < rows; i++) {
+                final double tmpVal = data[tmpColJ + i];
+                tmpNorm2 += tmpVal * tmpVal;
+            }
+
+            if (tmpNorm2 == PrimitiveMath.ZERO) {
+
+                tau[tauOffset + j] = PrimitiveMath.ZERO;
+
+            } else {
+
+                final double tmpNorm = Math.sqrt((tmpAlpha * tmpAlpha) + tmpNorm2);
+                final double tmpBeta = tmpAlpha >= PrimitiveMath.ZERO ? -tmpNorm : tmpNorm;
+                final double tmpTau = (tmpBeta - tmpAlpha) / tmpBeta;
+                final double tmpScale = PrimitiveMath.ONE / (tmpAlpha - tmpBeta);
+
+                tau[tauOffset + j] = tmpTau;
+                data[tmpColJ + j] = tmpBeta;
+                for (int i = j + 1; i < rows; i++) {
+                    data[tmpColJ + i] *= tmpScale;
+                }
+
+                for (int k = j + 1; k < columns; k++) {
+                    final int tmpColK = offset + (k * rows);
+                    double tmpVal = data[tmpColK + j];
+                    for (int i = j + 1; i < rows; i++) {
+                        tmpVal += data[tmpColJ + i] * data[tmpColK + i];
+                    }
+                    tmpVal *= tmpTau;
+                    data[tmpColK + j] -= tmpVal;
+                    for (int i = j + 1; i < rows; i++) {
+                        data[tmpColK + i] -= tmpVal * data[tmpColJ + i];
+                    }
+                }
+            }
+
+            if (data[tmpColJ + j] == PrimitiveMath.ZERO) {
+                retVal = false;
+            }
+        }
+
+        return retVal;
+    }
+
+    private static void solveCholesky(final double[] body, final int offset, final int dim, final double[] rhs, final int rhsOffset, final int rhsColumns) {
+
+        for (int c = 0; c < rhsColumns; c++) {
+
+            final int tmpRHS = rhsOffset + (c * dim);
+
+            for (int i = 0; i < dim; i++) {
+                double tmpVal = rhs[tmpRHS + i];
+                for (int k = 0; k < i; k++) {
+                    tmpVal -= body[offset + i + (k * dim)] * rhs[tmpRHS + k];
+                }
+                rhs[tmpRHS + i] = tmpVal / body[offset + i + (i * dim)];
+            }
+
+            for (int i = dim - 1; i >= 0; i--) {
+                final int tmpColI = offset + (i * dim);
+                double tmpVal = rhs[tmpRHS + i];
+                for (int k = i + 1; k < dim; k++) {
+                    tmpVal -= body[tmpColI + k] * rhs[tmpRHS + k];
+                }
+                rhs[tmpRHS + i] = tmpVal / body[tmpColI + i];
+            }
+        }
+    }
+
+    private static void solveLU(final double[] body, final int offset, final int dim, final int[] pivots, final int pivotsOffset, final double[] rhs,
+            final int rhsOffset, final int rhsColumns) {
+
+        for (int c = 0; c < rhsColumns; c++) {
+
+            final int tmpRHS = rhsOffset + (c * dim);
+
+            for (int i = 0; i < dim; i++) {
+                final int tmpPivot = pivots[pivotsOffset + i];
+                if (tmpPivot != i) {
+                    final double tmpVal = rhs[tmpRHS + i];
+                    rhs[tmpRHS + i] = rhs[tmpRHS + tmpPivot];
+                    rhs[tmpRHS + tmpPivot] = tmpVal;
+                }
+            }
+
+            for (int i = 1; i < dim; i++) {
+                double tmpVal = rhs[tmpRHS + i];
+                for (int k = 0; k < i; k++) {
+                    tmpVal -= body[offset + i + (k * dim)] * rhs[tmpRHS + k];
+                }
+                rhs[tmpRHS + i] = tmpVal;
+            }
+
+            for (int i = dim - 1; i >= 0; i--) {
+                double tmpVal = rhs[tmpRHS + i];
+                for (int k = i + 1; k < dim; k++) {
+                    tmpVal -= body[offset + i + (k * dim)] * rhs[tmpRHS + k];
+                }
+                rhs[tmpRHS + i] = tmpVal / body[offset + i + (i * dim)];
+            }
+        }
+    }
+
+    private static void solveQR(final double[] body, final int offset, final int rows, final int columns, final double[] tau, final int tauOffset,
+            final double[] rhs, final int rhsOffset, final int rhsColumns) {
+
+        for (int c = 0; c < rhsColumns; c++) {
+
+            final int tmpRHS = rhsOffset + (c * rows);
+
+            for (int j = 0; j < columns; j++) {
+                final double tmpTau = tau[tauOffset + j];
+                if (tmpTau != PrimitiveMath.ZERO) {
+                    final int tmpColJ = offset + (j * rows);
+                    double tmpVal = rhs[tmpRHS + j];
+                    for (int i = j + 1; i < rows; i++) {
+                        tmpVal += body[tmpColJ + i] * rhs[tmpRHS + i];
+                    }
+                    tmpVal *= tmpTau;
+                    rhs[tmpRHS + j] -= tmpVal;
+                    for (int i = j + 1; i < rows; i++) {
+                        rhs[tmpRHS + i] -= tmpVal * body[tmpColJ + i];
+                    }
+                }
+            }
+
+            for (int i = columns - 1; i >= 0; i--) {
+                double tmpVal = rhs[tmpRHS + i];
+                for (int k = i + 1; k < columns; k++) {
+                    tmpVal -= body[offset + i + (k * rows)] * rhs[tmpRHS + k];
+                }
+                rhs[tmpRHS + i] = tmpVal / body[offset + i + (i * rows)];
+            }
+        }
+    }
+
+    /**
+     * Sort descending, with the eigenvectors
+     */
+    private static void sort(final double[] values, final int valuesOffset, final int dim, final double[] vectors, final int vectorsOffset) {
+        for (int i = 0; i < (dim - 1); i++) {
+            int k = i;
+            double p = values[valuesOffset + i];
+            for (int j = i + 1; j < dim; j++) {
+                if (values[valuesOffset + j] > p) {
+                    k = j;
+                    p = values[valuesOffset + j];
+                }
+            }
+            if (k != i) {
+                values[valuesOffset + k] = values[valuesOffset + i];
+                values[valuesOffset + i] = p;
+                for (int r = 0; r < dim; r++) {
+                    final int tmpRI = vectorsOffset + r + (i * dim);
+                    final int tmpRK = vectorsOffset + r + (k * dim);
+                    final double tmpVal = vectors[tmpRI];
+                    vectors[tmpRI] = vectors[tmpRK];
+                    vectors[tmpRK] = tmpVal;
+                }
+            }
+        }
+    }
+
+    /**
+     * The number of columns of each matrix
+     */
+    public final int columns;
+    /**
+     * The number of matrices
+     */
+    public final int count;
+    /**
+     * All matrices, each one column-major, one after the other
+     */
+    public final double[] data;
+    /**
+     * The number of rows of each matrix
+     */
+    public final int rows;
+
+    private final int mySize;
+
+    MatrixBatch(final double[] data, final int count, final int rows, final int columns) {
+
+        super();
+
+        if (data.length < (count * rows * columns)) {
+            throw new IllegalArgumentException();
+        }
+
+        this.data = data;
+        this.count = count;
+        this.rows = rows;
+        this.columns = columns;
+
+        mySize = rows * columns;
+    }
+
+    public MatrixBatch copy() {
+        return new MatrixBatch(data.clone(), count, rows, columns);
+    }
+
+    /**
+     * In place: each (symmetric positive definite) matrix is replaced by its lower triangular Cholesky
+     * factor. Only the lower triangle is read, and the strictly upper triangle is left untouched.
+     *
+     * @return For each matrix, true if it was positive definite
+     */
+    public boolean[] decomposeCholesky() {
+
+        this.checkSquare();
+
+        final boolean[] retVal = new boolean[count];
+        final int tmpDim = rows;
+
+        this.invoke(new DivideAndConquer() {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+                for (int m = first; m < limit; m++) {
+                    final int tmpOffset = m * mySize;
+                    switch (tmpDim) {
+                    case 2:
+                        retVal[m] = MatrixBatch.cholesky2(data, tmpOffset);
+                        break;
+                    case 3:
+                        retVal[m] = MatrixBatch.cholesky3(data, tmpOffset);
+                        break;
+                    case 4:
+                        retVal[m] = MatrixBatch.cholesky4(data, tmpOffset);
+                        break;
+                    default:
+                        retVal[m] = MatrixBatch.cholesky(data, tmpOffset, tmpDim);
+                        break;
+                    }
+                }
+            }
+        });
+
+        return retVal;
+    }
+
+    /**
+     * In place LU decomposition with partial (row) pivoting. L (unit diagonal, not stored) is below and U on
+     * and above the diagonal.
+     *
+     * @param pivots Output, count * rows, the row each row was interchanged with (in order).
+     * @return For each matrix, true if it was nonsingular
+     */
+    public boolean[] decomposeLU(final int[] pivots) {
+
+        this.checkSquare();
+
+        final boolean[] retVal = new boolean[count];
+        final int tmpDim = rows;
+
+        this.invoke(new DivideAndConquer() {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+                for (int m = first; m < limit; m++) {
+                    retVal[m] = MatrixBatch.lu(data, m * mySize, tmpDim, pivots, m * tmpDim);
+                }
+            }
+        });
+
+        return retVal;
+    }
+
+    /**
+     * In place Householder QR decomposition (rows >= columns).
+     *
+     * @param tau Output, count * columns, the Householder scale factors
+     * @return For each matrix, true if it had full column rank
+     */
+    public boolean[] decomposeQR(final double[] tau) {
+
+        if (rows < columns) {
+            throw new IllegalArgumentException("Requires rows >= columns!");
+        }
+
+        final boolean[] retVal = new boolean[count];
+
+        this.invoke(new DivideAndConquer() {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+                for (int m = first; m < limit; m++) {
+                    retVal[m] = MatrixBatch.qr(data, m * mySize, rows, columns, tau, m * columns);
+                }
+            }
+        });
+
+        return retVal;
+    }
+
+    /**
+     * Eigenvalue decomposition of symmetric matrices (cyclic Jacobi). The matrices are destroyed in the
+     * process.
+     *
+     * @param values Output, count * rows, the eigenvalues of each matrix sorted in descending order
+     * @param vectors Output, the corresponding (column) eigenvectors
+     */
+    public void decomposeSymmetricEigen(final double[] values, final MatrixBatch vectors) {
+
+        this.checkSquare();
+
+        final int tmpDim = rows;
+
+        this.invoke(new DivideAndConquer() {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+                for (int m = first; m < limit; m++) {
+                    final int tmpOffset = m * mySize;
+                    MatrixBatch.jacobi(data, tmpOffset, tmpDim, vectors.data, tmpOffset);
+                    for (int i = 0; i < tmpDim; i++) {
+                        values[(m * tmpDim) + i] = data[tmpOffset + i + (i * tmpDim)];
+                    }
+                    MatrixBatch.sort(values, m * tmpDim, tmpDim, vectors.data, tmpOffset);
+                }
+            }
+        });
+    }
+
+    public double doubleValue(final int matrix, final int row, final int col) {
+        return data[(matrix * mySize) + row + (col * rows)];
+    }
+
+    public PrimitiveDenseStore extract(final int matrix) {
+        final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeZero(rows, columns);
+        for (int j = 0; j < columns; j++) {
+            for (int i = 0; i < rows; i++) {
+                retVal.set(i, j, this.doubleValue(matrix, i, j));
+            }
+        }
+        return retVal;
+    }
+
+    public void fill(final int matrix, final Access2D<?> source) {
+        for (int j = 0; j < columns; j++) {
+            for (int i = 0; i < rows; i++) {
+                this.set(matrix, i, j, source.doubleValue(i, j));
+            }
+        }
+    }
+
+    public void set(final int matrix, final int row, final int col, final double value) {
+        data[(matrix * mySize) + row + (col * rows)] = value;
+    }
+
+    /**
+     * Solves [A][X]=[B] for each matrix, using the factors from {@link #decomposeCholesky()}.
+     *
+     * @param rhs [B] on input, [X] on output
+     */
+    public void solveCholesky(final MatrixBatch rhs) {
+
+        this.checkRHS(rhs, rows);
+
+        final int tmpDim = rows;
+
+        this.invoke(new DivideAndConquer() {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+                for (int m = first; m < limit; m++) {
+                    MatrixBatch.solveCholesky(data, m * mySize, tmpDim, rhs.data, m * rhs.mySize, rhs.columns);
+                }
+            }
+        });
+    }
+
+    /**
+     * Solves [A][X]=[B] for each matrix, using the factors from {@link #decomposeLU(int[])}.
+     *
+     * @param rhs [B] on input, [X] on output
+     */
+    public void solveLU(final int[] pivots, final MatrixBatch rhs) {
+
+        this.checkRHS(rhs, rows);
+
+        final int tmpDim = rows;
+
+        this.invoke(new DivideAndConquer() {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+                for (int m = first; m < limit; m++) {
+                    MatrixBatch.solveLU(data, m * mySize, tmpDim, pivots, m * tmpDim, rhs.data, m * rhs.mySize, rhs.columns);
+                }
+            }
+        });
+    }
+
+    /**
+     * Least squares solution of [A][X]=[B] for each matrix, using the factors from
+     * {@link #decomposeQR(double[])}.
+     *
+     * @param rhs [B] on input. On output the first (columns) rows hold [X].
+     */
+    public void solveQR(final double[] tau, final MatrixBatch rhs) {
+
+        this.checkRHS(rhs, rows);
+
+        this.invoke(new DivideAndConquer() {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+                for (int m = first; m < limit; m++) {
+                    MatrixBatch.solveQR(data, m * mySize, rows, columns, tau, m * columns, rhs.data, m * rhs.mySize, rhs.columns);
+                }
+            }
+        });
+    }
+
+    private void checkRHS(final MatrixBatch rhs, final int expectedRows) {
+        if ((rhs.count != count) || (rhs.rows != expectedRows)) {
+            throw new IllegalArgumentException("RHS dimensions don't match!");
+        }
+    }
+
+    private void checkSquare() {
+        if (rows != columns) {
+            throw new ProgrammingError("Matrix is not square!");
+        }
+    }
+
+    private void invoke(final DivideAndConquer conquerer) {
+        if (count > THRESHOLD) {
+            conquerer.invoke(0, count, THRESHOLD);
+        } else {
+            conquerer.invoke(0, count, count + 1);
+        }
+    }
+
+}
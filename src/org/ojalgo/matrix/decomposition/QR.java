@@ -21,6 +21,7 @@
  */
 package org.ojalgo.matrix.decomposition;
 
+import org.ojalgo.access.Access1D;
 import org.ojalgo.access.Access2D;
 import org.ojalgo.access.Structure2D;
 import org.ojalgo.array.DenseArray;
@@ -82,6 +83,22 @@ public interface QR<N extends Number> extends MatrixDecomposition<N>, MatrixDeco
 
     public static final Factory<RationalNumber> RATIONAL = (typical, fullSize) -> new QRDecomposition.Rational(fullSize);
 
+    /**
+     * A sparse, row-wise Givens, QR decomposition with fill-reducing column ordering - for large
+     * sparse least squares problems. Only economy size decompositions, and with the columns permuted.
+     */
+    public static final Factory<Double> SPARSE = (typical, fullSize) -> new SparseQR();
+
+    /**
+     * Keeps [Q] and [R] explicitly (both full size, [Q] is m x m) so that the decomposition can be updated
+     * in O(m<sup>2</sup>+mn), using Givens rotations, when the matrix changes by a rank-1 term or a row or
+     * column is added or removed - see {@link #update(Access1D, Access1D)}, {@link #addColumn(int, Access1D)},
+     * {@link #removeColumn(int)}, {@link #addRow(int, Access1D)} and {@link #removeRow(int)}. The other
+     * implementations recompute the decomposition. Storing [Q] is O(m<sup>2</sup>) memory, so this is only
+     * practical for moderately sized matrices.
+     */
+    public static final Factory<Double> UPDATABLE = (typical, fullSize) -> new UpdatableQR(fullSize);
+
     @SuppressWarnings("unchecked")
     public static <N extends Number> QR<N> make(final Access2D<N> typical) {
 
@@ -118,6 +135,30 @@ public interface QR<N extends Number> extends MatrixDecomposition<N>, MatrixDeco
 
     MatrixStore<N> getR();
 
+    /**
+     * Modify the decomposition to be that of [A] with a column inserted. The default implementation
+     * recomputes the decomposition, {@link #UPDATABLE} does it in O(m<sup>2</sup>+mn).
+     *
+     * @param index Where to insert the column (it gets this index)
+     * @param column The new column
+     * @return true if the decomposition was modified
+     */
+    default boolean addColumn(final int index, final Access1D<?> column) {
+        return this.isComputed() && this.decompose(FactorisationUpdates.insertColumn(this.reconstruct(), index, column));
+    }
+
+    /**
+     * Modify the decomposition to be that of [A] with a row inserted. The default implementation
+     * recomputes the decomposition, {@link #UPDATABLE} does it in O(m<sup>2</sup>+mn).
+     *
+     * @param index Where to insert the row (it gets this index)
+     * @param row The new row
+     * @return true if the decomposition was modified
+     */
+    default boolean addRow(final int index, final Access1D<?> row) {
+        return this.isComputed() && this.decompose(FactorisationUpdates.insertRow(this.reconstruct(), index, row));
+    }
+
     /**
      * @deprecated v44 Use {@link #isFullRank()} instead
      */
@@ -134,4 +175,34 @@ public interface QR<N extends Number> extends MatrixDecomposition<N>, MatrixDeco
         return QR.reconstruct(this);
     }
 
+    /**
+     * Modify the decomposition to be that of [A] with a column removed. The default implementation
+     * recomputes the decomposition, {@link #UPDATABLE} does it in O(m<sup>2</sup>+mn).
+     *
+     * @return true if the decomposition was modified
+     */
+    default boolean removeColumn(final int index) {
+        return this.isComputed() && this.decompose(FactorisationUpdates.removeColumn(this.reconstruct(), index));
+    }
+
+    /**
+     * Modify the decomposition to be that of [A] with a row removed. The default implementation recomputes
+     * the decomposition, {@link #UPDATABLE} does it in O(m<sup>2</sup>+mn).
+     *
+     * @return true if the decomposition was modified
+     */
+    default boolean removeRow(final int index) {
+        return this.isComputed() && this.decompose(FactorisationUpdates.removeRow(this.reconstruct(), index));
+    }
+
+    /**
+     * Modify the decomposition to be that of [A] + [u][v]<sup>H</sup>. The default implementation recomputes
+     * the decomposition, {@link #UPDATABLE} does it in O(m<sup>2</sup>+mn).
+     *
+     * @return true if the decomposition was modified
+     */
+    default boolean update(final Access1D<?> u, final Access1D<?> v) {
+        return this.isComputed() && this.decompose(FactorisationUpdates.addOuterProduct(this.reconstruct(), u, v, false));
+    }
+
 }
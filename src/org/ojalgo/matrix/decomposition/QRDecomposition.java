@@ -26,6 +26,7 @@ import org.ojalgo.access.Access2D;
 import org.ojalgo.access.Access2D.Collectable;
 import org.ojalgo.access.Structure2D;
 import org.ojalgo.function.aggregator.AggregatorFunction;
+import org.ojalgo.matrix.store.ComplexDenseStore;
 import org.ojalgo.matrix.store.GenericDenseStore;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
@@ -45,7 +46,7 @@ abstract class QRDecomposition<N extends Number> extends InPlaceDecomposition<N>
         }
 
         Complex(boolean fullSize) {
-            super(GenericDenseStore.COMPLEX, fullSize);
+            super(ComplexDenseStore.FACTORY, fullSize);
         }
 
     }
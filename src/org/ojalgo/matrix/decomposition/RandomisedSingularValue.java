@@ -0,0 +1,519 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import org.ojalgo.RecoverableCondition;
+import org.ojalgo.access.Access2D;
+import org.ojalgo.access.Structure2D;
+import org.ojalgo.array.Array1D;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.function.PrimitiveFunction;
+import org.ojalgo.function.aggregator.Aggregator;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.SparseStore;
+import org.ojalgo.random.Normal;
+
+/**
+ * Randomised, truncated, singular value decomposition (Halko, Martinsson &amp; Tropp): [A] &asymp;
+ * [Q1][D][Q2]<sup>T</sup> with only the largest singular values/vectors.
+ * <p>
+ * The range of [A] is found by multiplying with a random (gaussian) matrix, refined with a few steps of
+ * subspace (power) iteration - orthonormalising in between - to [Q]. The small matrix [Q]<sup>T</sup>[A] is
+ * then decomposed with an ordinary SVD. Either the rank is fixed (and then oversampled), or the range is
+ * grown block by block until the (estimated) approximation error is below a tolerance.
+ * </p>
+ * <p>
+ * [A] is only ever multiplied with tall, thin, matrices. Dense matrices use the parallel multiplication
+ * kernels, and a {@link SparseStore} is converted to compressed columns once and multiplied in parallel
+ * (one block of columns per thread).
+ * </p>
+ * <p>
+ * All values (rank, norms, condition...) refer to the truncated approximation. The solution/inverse is
+ * that of the approximation; it is considered solvable only if the full rank was captured.
+ * </p>
+ *
+ * @author apete
+ */
+final class RandomisedSingularValue extends AbstractDecomposition<Double> implements SingularValue<Double> {
+
+    /**
+     * HMT (4.3): ||(I-QQ<sup>T</sup>)A|| &lt;= 10 sqrt(2/&pi;) max ||(I-QQ<sup>T</sup>)A&omega;|| with
+     * probability 1-10<sup>-r</sup>, r being the number of samples.
+     */
+    private static final double ERROR_FACTOR = TEN * Math.sqrt(TWO / PI);
+    private static final int THRESHOLD = 4;
+
+    private static PrimitiveDenseStore orthonormalise(final MatrixStore<Double> matrix) {
+        final QR<Double> tmpQR = QR.PRIMITIVE.make(matrix);
+        tmpQR.decompose(matrix);
+        return PrimitiveDenseStore.FACTORY.copy(tmpQR.getQ());
+    }
+
+    private int myColDim;
+    private SparseQR.Columns myColumns = null;
+    private MatrixStore<Double> myMatrix = null;
+    private final Normal myNormal = new Normal();
+    private final int myOversampling;
+    private final int myPowerIterations;
+    private transient MatrixStore<Double> myPseudoinverse = null;
+    private PrimitiveDenseStore myQ1 = null;
+    private PrimitiveDenseStore myQ2 = null;
+    private final int myRank;
+    private int myRowDim;
+    private double[] mySingularValues = null;
+    private final double myTolerance;
+
+    /**
+     * Adaptive rank - blocks of columns are added until the approximation error is less than tolerance times
+     * the largest singular value. The block size is stored as the oversampling.
+     */
+    RandomisedSingularValue(final double tolerance, final int blockSize, final int powerIterations) {
+
+        super();
+
+        myRank = 0;
+        myTolerance = tolerance;
+        myOversampling = Math.max(1, blockSize);
+        myPowerIterations = powerIterations;
+    }
+
+    /**
+     * Fixed rank
+     */
+    RandomisedSingularValue(final int rank, final int oversampling, final int powerIterations) {
+
+        super();
+
+        myRank = rank;
+        myTolerance = ZERO;
+        myOversampling = oversampling;
+        myPowerIterations = powerIterations;
+    }
+
+    public boolean computeValuesOnly(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> matrix) {
+        return this.compute(matrix, true);
+    }
+
+    public boolean decompose(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> matrix) {
+        return this.compute(matrix, false);
+    }
+
+    public double getCondition() {
+        return mySingularValues[0] / mySingularValues[mySingularValues.length - 1];
+    }
+
+    public MatrixStore<Double> getD() {
+        return MatrixStore.PRIMITIVE.makeWrapper(new DiagonalArray1D<>(this.getSingularValues(), null, null, ZERO)).get();
+    }
+
+    public double getFrobeniusNorm() {
+
+        double retVal = ZERO;
+
+        for (int i = mySingularValues.length - 1; i >= 0; i--) {
+            final double tmpVal = mySingularValues[i];
+            retVal += tmpVal * tmpVal;
+        }
+
+        return Math.sqrt(retVal);
+    }
+
+    public MatrixStore<Double> getInverse() {
+        return this.getInverse(this.allocate(myColDim, myRowDim));
+    }
+
+    public MatrixStore<Double> getInverse(final PhysicalStore<Double> preallocated) {
+
+        if (myPseudoinverse == null) {
+
+            final int tmpRank = this.getRank();
+
+            final PrimitiveDenseStore tmpScaled = PrimitiveDenseStore.FACTORY.makeZero(myColDim, tmpRank);
+            for (int j = 0; j < tmpRank; j++) {
+                final double tmpSingular = mySingularValues[j];
+                for (int i = 0; i < myColDim; i++) {
+                    tmpScaled.set(i, j, myQ2.doubleValue(i, j) / tmpSingular);
+                }
+            }
+
+            preallocated.fillByMultiplying(tmpScaled, myQ1.logical().limits(myRowDim, tmpRank).transpose().get());
+            myPseudoinverse = preallocated;
+        }
+
+        return myPseudoinverse;
+    }
+
+    public double getKyFanNorm(final int k) {
+
+        double retVal = ZERO;
+
+        for (int i = Math.min(mySingularValues.length, k) - 1; i >= 0; i--) {
+            retVal += mySingularValues[i];
+        }
+
+        return retVal;
+    }
+
+    public double getOperatorNorm() {
+        return mySingularValues[0];
+    }
+
+    public MatrixStore<Double> getQ1() {
+        return myQ1;
+    }
+
+    public MatrixStore<Double> getQ2() {
+        return myQ2;
+    }
+
+    public int getRank() {
+        final double tmpTolerance = mySingularValues[0] * this.getDimensionalEpsilon();
+        int retVal = 0;
+        for (int i = 0; i < mySingularValues.length; i++) {
+            if (mySingularValues[i] > tmpTolerance) {
+                retVal++;
+            }
+        }
+        return retVal;
+    }
+
+    public Array1D<Double> getSingularValues() {
+        return Array1D.PRIMITIVE64.copy(mySingularValues);
+    }
+
+    @Override
+    public void getSingularValues(final double[] values) {
+        System.arraycopy(mySingularValues, 0, values, 0, Math.min(mySingularValues.length, values.length));
+    }
+
+    public MatrixStore<Double> getSolution(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> rhs) {
+        return this.getSolution(rhs, this.allocate(myColDim, myRowDim));
+    }
+
+    public MatrixStore<Double> getSolution(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> rhs,
+            final PhysicalStore<Double> preallocated) {
+        final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeZero(rhs.countRows(), rhs.countColumns());
+        rhs.supplyTo(tmpRHS);
+        return this.getInverse(preallocated).multiply(tmpRHS);
+    }
+
+    public double getTraceNorm() {
+        return this.getKyFanNorm(mySingularValues.length);
+    }
+
+    public MatrixStore<Double> invert(final Access2D<?> original, final PhysicalStore<Double> preallocated) throws RecoverableCondition {
+
+        this.decompose(original.asCollectable2D());
+
+        if (this.isSolvable()) {
+            return this.getInverse(preallocated);
+        } else {
+            throw RecoverableCondition.newMatrixNotInvertible();
+        }
+    }
+
+    public boolean isFullRank() {
+        return this.getRank() == Math.min(myRowDim, myColDim);
+    }
+
+    public boolean isFullSize() {
+        return false;
+    }
+
+    public boolean isOrdered() {
+        return true;
+    }
+
+    public PhysicalStore<Double> preallocate(final Structure2D template) {
+        return this.allocate(template.countColumns(), template.countRows());
+    }
+
+    public PhysicalStore<Double> preallocate(final Structure2D templateBody, final Structure2D templateRHS) {
+        return this.allocate(templateBody.countColumns(), templateBody.countRows());
+    }
+
+    @Override
+    public void reset() {
+
+        super.reset();
+
+        myPseudoinverse = null;
+        myQ1 = null;
+        myQ2 = null;
+        mySingularValues = null;
+    }
+
+    public MatrixStore<Double> solve(final Access2D<?> body, final Access2D<?> rhs, final PhysicalStore<Double> preallocated) throws RecoverableCondition {
+
+        this.decompose(body.asCollectable2D());
+
+        if (this.isSolvable()) {
+            return this.getInverse(preallocated).multiply(MatrixStore.PRIMITIVE.makeWrapper(rhs).get());
+        } else {
+            throw RecoverableCondition.newEquationSystemNotSolvable();
+        }
+    }
+
+    /**
+     * Grow [Q] block by block, until a (not power iterated) sample block indicates that the remaining part
+     * is small enough.
+     */
+    private PrimitiveDenseStore adaptiveRange() {
+
+        final int tmpMinDim = Math.min(myRowDim, myColDim);
+
+        PrimitiveDenseStore retVal = null;
+        double tmpLargest = ZERO;
+
+        for (int tmpCount = 0; tmpCount < tmpMinDim;) {
+
+            final int tmpBlock = Math.min(myOversampling, tmpMinDim - tmpCount);
+
+            final PrimitiveDenseStore tmpOmega = PrimitiveDenseStore.FACTORY.makeFilled(myColDim, tmpBlock, myNormal);
+            PrimitiveDenseStore tmpY = this.multiply(tmpOmega);
+
+            for (int j = 0; j < tmpBlock; j++) {
+                final double tmpRatio = tmpY.aggregateColumn(0L, j, Aggregator.NORM2).doubleValue()
+                        / tmpOmega.aggregateColumn(0L, j, Aggregator.NORM2).doubleValue();
+                tmpLargest = Math.max(tmpLargest, tmpRatio);
+            }
+
+            if (retVal != null) {
+                tmpY = this.project(retVal, this.project(retVal, tmpY));
+                double tmpError = ZERO;
+                for (int j = 0; j < tmpBlock; j++) {
+                    tmpError = Math.max(tmpError, tmpY.aggregateColumn(0L, j, Aggregator.NORM2).doubleValue());
+                }
+                if ((ERROR_FACTOR * tmpError) <= (myTolerance * tmpLargest)) {
+                    break;
+                }
+            }
+
+            for (int q = 0; q < myPowerIterations; q++) {
+                tmpY = this.multiply(RandomisedSingularValue.orthonormalise(this.multiplyTransposed(RandomisedSingularValue.orthonormalise(tmpY))));
+            }
+            if (retVal != null) {
+                tmpY = this.project(retVal, this.project(retVal, tmpY));
+                retVal = PrimitiveDenseStore.FACTORY.copy(retVal.logical().right(RandomisedSingularValue.orthonormalise(tmpY)).get());
+            } else {
+                retVal = RandomisedSingularValue.orthonormalise(tmpY);
+            }
+
+            tmpCount += tmpBlock;
+        }
+
+        return retVal;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean compute(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> matrix, final boolean valuesOnly) {
+
+        this.reset();
+
+        myRowDim = (int) matrix.countRows();
+        myColDim = (int) matrix.countColumns();
+
+        if (matrix instanceof SparseStore) {
+            myColumns = SparseQR.Columns.of((SparseStore<?>) matrix);
+        } else if (matrix instanceof MatrixStore) {
+            myMatrix = (MatrixStore<Double>) matrix;
+        } else {
+            final PrimitiveDenseStore tmpCopy = PrimitiveDenseStore.FACTORY.makeZero(myRowDim, myColDim);
+            matrix.supplyTo(tmpCopy);
+            myMatrix = tmpCopy;
+        }
+
+        final PrimitiveDenseStore tmpQ = myRank > 0 ? this.range(Math.min(myRank + myOversampling, Math.min(myRowDim, myColDim))) : this.adaptiveRange();
+
+        // [Q]<sup>T</sup>[A] = [Z]<sup>T</sup> = [V][S][U]<sup>T</sup> => [A] = [Q][V][S][U]<sup>T</sup>
+        final PrimitiveDenseStore tmpZ = this.multiplyTransposed(tmpQ);
+
+        myColumns = null;
+        myMatrix = null;
+
+        final RawSingularValue tmpSVD = new RawSingularValue();
+        if (valuesOnly) {
+            tmpSVD.computeValuesOnly(tmpZ);
+        } else {
+            tmpSVD.decompose(tmpZ);
+        }
+
+        final double[] tmpValues = new double[(int) tmpQ.countColumns()];
+        tmpSVD.getSingularValues(tmpValues);
+
+        int tmpRank;
+        if (myRank > 0) {
+            tmpRank = Math.min(myRank, tmpValues.length);
+        } else {
+            tmpRank = 0;
+            while ((tmpRank < tmpValues.length) && (tmpValues[tmpRank] > (myTolerance * tmpValues[0]))) {
+                tmpRank++;
+            }
+            tmpRank = Math.max(1, tmpRank);
+        }
+
+        mySingularValues = new double[tmpRank];
+        System.arraycopy(tmpValues, 0, mySingularValues, 0, tmpRank);
+
+        if (!valuesOnly) {
+            myQ1 = PrimitiveDenseStore.FACTORY.makeZero(myRowDim, tmpRank);
+            myQ1.fillByMultiplying(tmpQ, tmpSVD.getQ2().logical().limits((int) tmpQ.countColumns(), tmpRank).get());
+            myQ2 = PrimitiveDenseStore.FACTORY.copy(tmpSVD.getQ1().logical().limits(myColDim, tmpRank).get());
+        }
+
+        return this.computed(true);
+    }
+
+    /**
+     * [A][X]
+     */
+    private PrimitiveDenseStore multiply(final PrimitiveDenseStore x) {
+
+        final int tmpWidth = (int) x.countColumns();
+        final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeZero(myRowDim, tmpWidth);
+
+        if (myColumns != null) {
+
+            final int[] tmpPointers = myColumns.pointers;
+            final int[] tmpRows = myColumns.rows;
+            final double[] tmpValues = myColumns.values;
+            final double[] tmpX = x.data;
+            final double[] tmpProduct = retVal.data;
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    for (int c = first; c < limit; c++) {
+                        final int tmpOffsetX = c * myColDim;
+                        final int tmpOffsetProduct = c * myRowDim;
+                        for (int j = 0; j < myColDim; j++) {
+                            final double tmpFactor = tmpX[tmpOffsetX + j];
+                            if (tmpFactor != ZERO) {
+                                for (int p = tmpPointers[j], tmpLimit = tmpPointers[j + 1]; p < tmpLimit; p++) {
+                                    tmpProduct[tmpOffsetProduct + tmpRows[p]] += tmpValues[p] * tmpFactor;
+                                }
+                            }
+                        }
+                    }
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpWidth, THRESHOLD);
+
+        } else {
+
+            retVal.fillByMultiplying(myMatrix, x);
+        }
+
+        return retVal;
+    }
+
+    /**
+     * [A]<sup>T</sup>[X]
+     */
+    private PrimitiveDenseStore multiplyTransposed(final PrimitiveDenseStore x) {
+
+        final int tmpWidth = (int) x.countColumns();
+        final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeZero(myColDim, tmpWidth);
+
+        if (myColumns != null) {
+
+            final int[] tmpPointers = myColumns.pointers;
+            final int[] tmpRows = myColumns.rows;
+            final double[] tmpValues = myColumns.values;
+            final double[] tmpX = x.data;
+            final double[] tmpProduct = retVal.data;
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    for (int c = first; c < limit; c++) {
+                        final int tmpOffsetX = c * myRowDim;
+                        final int tmpOffsetProduct = c * myColDim;
+                        for (int j = 0; j < myColDim; j++) {
+                            double tmpSum = ZERO;
+                            for (int p = tmpPointers[j], tmpLimit = tmpPointers[j + 1]; p < tmpLimit; p++) {
+                                tmpSum += tmpValues[p] * tmpX[tmpOffsetX + tmpRows[p]];
+                            }
+                            tmpProduct[tmpOffsetProduct + j] = tmpSum;
+                        }
+                    }
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpWidth, THRESHOLD);
+
+        } else {
+
+            retVal.fillByMultiplying(myMatrix.transpose(), x);
+        }
+
+        return retVal;
+    }
+
+    /**
+     * [Y] - [Q][Q]<sup>T</sup>[Y]
+     */
+    private PrimitiveDenseStore project(final PrimitiveDenseStore q, final PrimitiveDenseStore y) {
+        final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.copy(y);
+        retVal.modifyMatching(PrimitiveFunction.SUBTRACT, q.multiply(q.transpose().multiply(y)));
+        return retVal;
+    }
+
+    /**
+     * Fixed width range finder with subspace iteration
+     */
+    private PrimitiveDenseStore range(final int width) {
+
+        PrimitiveDenseStore retVal = RandomisedSingularValue.orthonormalise(this.multiply(PrimitiveDenseStore.FACTORY.makeFilled(myColDim, width, myNormal)));
+
+        for (int q = 0; q < myPowerIterations; q++) {
+            retVal = RandomisedSingularValue.orthonormalise(this.multiply(RandomisedSingularValue.orthonormalise(this.multiplyTransposed(retVal))));
+        }
+
+        return retVal;
+    }
+
+    @Override
+    protected PrimitiveDenseStore allocate(final long numberOfRows, final long numberOfColumns) {
+        return PrimitiveDenseStore.FACTORY.makeZero(numberOfRows, numberOfColumns);
+    }
+
+    @Override
+    protected boolean checkSolvability() {
+        return this.isFullRank();
+    }
+
+    @Override
+    protected double getDimensionalEpsilon() {
+        return Math.max(myRowDim, myColDim) * MACHINE_EPSILON;
+    }
+
+}
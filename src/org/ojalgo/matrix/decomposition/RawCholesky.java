@@ -25,6 +25,7 @@ import static org.ojalgo.constant.PrimitiveMath.*;
 import static org.ojalgo.function.PrimitiveFunction.*;
 
 import org.ojalgo.RecoverableCondition;
+import org.ojalgo.access.Access1D;
 import org.ojalgo.access.Access2D;
 import org.ojalgo.access.Access2D.Collectable;
 import org.ojalgo.access.Structure2D;
@@ -84,6 +85,15 @@ final class RawCholesky extends RawDecomposition implements Cholesky<Double> {
         return this.doDecompose(retVal, tmpRawInPlaceStore);
     }
 
+    @Override
+    public boolean downdate(final Access1D<?> vector) {
+        if (this.isComputed() && mySPD && FactorisationUpdates.downdateCholesky(this.getRawInPlaceStore(), vector)) {
+            return this.updated();
+        } else {
+            return false;
+        }
+    }
+
     public Double getDeterminant() {
 
         final double[][] tmpData = this.getRawInPlaceData();
@@ -189,6 +199,16 @@ final class RawCholesky extends RawDecomposition implements Cholesky<Double> {
         }
     }
 
+    @Override
+    public boolean update(final Access1D<?> vector) {
+        if (this.isComputed() && mySPD) {
+            FactorisationUpdates.updateCholesky(this.getRawInPlaceStore(), vector);
+            return this.updated();
+        } else {
+            return false;
+        }
+    }
+
     private boolean doDecompose(final double[][] data, final Access2D<?> input) {
 
         final int tmpDiagDim = this.getRowDim();
@@ -240,6 +260,18 @@ final class RawCholesky extends RawDecomposition implements Cholesky<Double> {
         return preallocated;
     }
 
+    /**
+     * The factor was modified in place (updated or downdated)
+     */
+    private boolean updated() {
+
+        final double[] tmpRange = FactorisationUpdates.squaredDiagonalRange(this.getRawInPlaceStore(), this.getMinDim());
+        myMinDiag = tmpRange[0];
+        myMaxDiag = tmpRange[1];
+
+        return this.modified(true);
+    }
+
     @Override
     protected boolean checkSolvability() {
         return mySPD && (myMinDiag > this.getAlgorithmEpsilon());
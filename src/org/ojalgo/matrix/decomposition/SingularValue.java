@@ -77,6 +77,13 @@ public interface SingularValue<N extends Number> extends MatrixDecomposition<N>,
         }
     };
 
+    /**
+     * One-sided Jacobi SVD, with the (disjoint) rotations of each sweep performed in parallel. High relative
+     * accuracy, also for the small singular values of (column) badly scaled matrices. Always economy size - a
+     * full size request is delegated to {@link #PRIMITIVE}.
+     */
+    public static final Factory<Double> PRIMITIVE_JACOBI = (typical, fullSize) -> fullSize ? PRIMITIVE.make(typical, true) : new JacobiSingularValue();
+
     public static final Factory<Quaternion> QUATERNION = (typical, fullSize) -> new SingularValueDecomposition.Quat(fullSize);
 
     public static final Factory<RationalNumber> RATIONAL = (typical, fullSize) -> new SingularValueDecomposition.Rational(fullSize);
@@ -99,6 +106,41 @@ public interface SingularValue<N extends Number> extends MatrixDecomposition<N>,
         }
     }
 
+    /**
+     * Randomised, truncated, SVD with adaptive rank - the range is grown until the (estimated) approximation
+     * error is less than tolerance times the largest singular value.
+     *
+     * @param tolerance Relative (to the largest singular value) approximation error
+     * @param blockSize The number of columns the range is grown by in each step
+     * @param powerIterations The number of subspace iterations (for each block), 1 or 2 is typically enough
+     * @return A randomised (truncated) singular value decomposition
+     */
+    public static SingularValue<Double> makeRandomised(final double tolerance, final int blockSize, final int powerIterations) {
+        return new RandomisedSingularValue(tolerance, blockSize, powerIterations);
+    }
+
+    /**
+     * Randomised, truncated, SVD with oversampling 10 and 2 power iterations
+     *
+     * @param rank The number of singular values/vectors to calculate
+     * @return A randomised (truncated) singular value decomposition
+     */
+    public static SingularValue<Double> makeRandomised(final int rank) {
+        return new RandomisedSingularValue(rank, 10, 2);
+    }
+
+    /**
+     * Randomised, truncated, SVD with fixed rank
+     *
+     * @param rank The number of singular values/vectors to calculate
+     * @param oversampling The number of extra random samples, 5-10 is typically enough
+     * @param powerIterations The number of subspace iterations, 1 or 2 is typically enough
+     * @return A randomised (truncated) singular value decomposition
+     */
+    public static SingularValue<Double> makeRandomised(final int rank, final int oversampling, final int powerIterations) {
+        return new RandomisedSingularValue(rank, oversampling, powerIterations);
+    }
+
     static <N extends Number> boolean equals(final MatrixStore<N> matrix, final SingularValue<N> decomposition, final NumberContext context) {
 
         final int tmpRowDim = (int) matrix.countRows();
@@ -0,0 +1,955 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+
+import org.ojalgo.RecoverableCondition;
+import org.ojalgo.access.Access2D;
+import org.ojalgo.access.ElementView2D;
+import org.ojalgo.access.Structure2D;
+import org.ojalgo.matrix.store.ElementsSupplier;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.SparseStore;
+import org.ojalgo.scalar.PrimitiveScalar;
+
+/**
+ * A sparse LU decomposition: [P][A][Q] = [L][U]
+ * <p>
+ * Right-looking elimination on a row-wise copy of the matrix, choosing pivots according to the Markowitz
+ * criterion (minimise (r<sub>i</sub>-1)(c<sub>j</sub>-1) to keep fill low) among the entries that pass a
+ * threshold partial pivoting test (|a<sub>ij</sub>| &ge; u max<sub>k</sub> |a<sub>kj</sub>|). Both rows and
+ * columns are permuted - {@link #getPivotOrder()} gives the row order and {@link #getColumnOrder()} the
+ * column order.
+ * </p>
+ * <p>
+ * The pivot sequence and the nonzero structure of [L] and [U] are kept between calls. Decomposing another
+ * matrix with the same nonzero pattern (typically a sequence of simplex bases, or a Newton iteration) only
+ * redoes the numeric factorisation - the Markowitz search is skipped. If any multiplier then violates the
+ * threshold the full analysis is redone.
+ * </p>
+ *
+ * @author apete
+ */
+final class SparseLU extends AbstractDecomposition<Double> implements LU<Double> {
+
+    /**
+     * Compressed sparse rows, with the column indices sorted within each row.
+     */
+    static final class Rows {
+
+        static Rows of(final Access2D<?> matrix) {
+
+            final int tmpRowDim = (int) matrix.countRows();
+            final int tmpColDim = (int) matrix.countColumns();
+
+            final int[] tmpPointers = new int[tmpRowDim + 1];
+
+            if (matrix instanceof SparseStore) {
+
+                final SparseStore<?> tmpSparse = (SparseStore<?>) matrix;
+
+                for (final ElementView2D<?, ?> nonzero : tmpSparse.nonzeros()) {
+                    tmpPointers[(int) nonzero.row() + 1]++;
+                }
+                for (int i = 0; i < tmpRowDim; i++) {
+                    tmpPointers[i + 1] += tmpPointers[i];
+                }
+
+                final int[] tmpNext = Arrays.copyOf(tmpPointers, tmpRowDim);
+                final int[] tmpColumns = new int[tmpPointers[tmpRowDim]];
+                final double[] tmpValues = new double[tmpPointers[tmpRowDim]];
+
+                // Nonzeros are visited in column-major order so the column indices end up sorted
+                for (final ElementView2D<?, ?> nonzero : tmpSparse.nonzeros()) {
+                    final int tmpIndex = tmpNext[(int) nonzero.row()]++;
+                    tmpColumns[tmpIndex] = (int) nonzero.column();
+                    tmpValues[tmpIndex] = nonzero.doubleValue();
+                }
+
+                return new Rows(tmpRowDim, tmpColDim, tmpPointers, tmpColumns, tmpValues);
+
+            } else {
+
+                int tmpCount = 0;
+                for (int i = 0; i < tmpRowDim; i++) {
+                    for (int j = 0; j < tmpColDim; j++) {
+                        if (matrix.doubleValue(i, j) != ZERO) {
+                            tmpCount++;
+                        }
+                    }
+                    tmpPointers[i + 1] = tmpCount;
+                }
+
+                final int[] tmpColumns = new int[tmpCount];
+                final double[] tmpValues = new double[tmpCount];
+
+                int tmpIndex = 0;
+                for (int i = 0; i < tmpRowDim; i++) {
+                    for (int j = 0; j < tmpColDim; j++) {
+                        final double tmpValue = matrix.doubleValue(i, j);
+                        if (tmpValue != ZERO) {
+                            tmpColumns[tmpIndex] = j;
+                            tmpValues[tmpIndex] = tmpValue;
+                            tmpIndex++;
+                        }
+                    }
+                }
+
+                return new Rows(tmpRowDim, tmpColDim, tmpPointers, tmpColumns, tmpValues);
+            }
+        }
+
+        final int[] columns;
+        final int[] pointers;
+        final int rowDim;
+        final int colDim;
+        final double[] values;
+
+        Rows(final int rowDim, final int colDim, final int[] pointers, final int[] columns, final double[] values) {
+
+            super();
+
+            this.rowDim = rowDim;
+            this.colDim = colDim;
+            this.pointers = pointers;
+            this.columns = columns;
+            this.values = values;
+        }
+
+        double largest() {
+            double retVal = ZERO;
+            for (int e = 0; e < values.length; e++) {
+                retVal = Math.max(retVal, Math.abs(values[e]));
+            }
+            return retVal;
+        }
+
+        boolean isSamePattern(final Rows other) {
+            return (other != null) && (rowDim == other.rowDim) && (colDim == other.colDim) && Arrays.equals(pointers, other.pointers)
+                    && Arrays.equals(columns, other.columns);
+        }
+
+    }
+
+    /**
+     * Number of candidate columns (those with the fewest nonzeros) examined for each pivot.
+     */
+    private static final int SEARCH_LIMIT = 4;
+
+    /**
+     * The threshold, u, in the partial pivoting test. Smaller values favour sparsity, larger values favour
+     * stability. 0.1 is the commonly recommended compromise.
+     */
+    private static final double THRESHOLD = 0.1;
+
+    static SparseStore<Double> assemble(final int rowDim, final int colDim, final int[] rows, final int[] cols, final double[] values, final int count) {
+
+        // Two pass (stable) counting sort - by row and then by column - to get column-major order
+
+        final int[] tmpByRow = SparseLU.order(rows, count, rowDim, null);
+        final int[] tmpByCol = SparseLU.order(cols, count, colDim, tmpByRow);
+
+        final SparseStore<Double> retVal = SparseStore.makePrimitive(rowDim, colDim);
+
+        for (int e = 0; e < count; e++) {
+            final int tmpEntry = tmpByCol[e];
+            retVal.set(rows[tmpEntry], cols[tmpEntry], values[tmpEntry]);
+        }
+
+        return retVal;
+    }
+
+    static int[] order(final int[] keys, final int count, final int range, final int[] previous) {
+
+        final int[] tmpPointers = new int[range + 1];
+        for (int e = 0; e < count; e++) {
+            tmpPointers[keys[e] + 1]++;
+        }
+        for (int k = 0; k < range; k++) {
+            tmpPointers[k + 1] += tmpPointers[k];
+        }
+
+        final int[] retVal = new int[count];
+        for (int e = 0; e < count; e++) {
+            final int tmpEntry = previous != null ? previous[e] : e;
+            retVal[tmpPointers[keys[tmpEntry]]++] = tmpEntry;
+        }
+        return retVal;
+    }
+
+    static int signum(final int[] permutation) {
+        final boolean[] tmpVisited = new boolean[permutation.length];
+        int retVal = 1;
+        for (int i = 0; i < permutation.length; i++) {
+            if (!tmpVisited[i]) {
+                int tmpLength = 0;
+                for (int j = i; !tmpVisited[j]; j = permutation[j]) {
+                    tmpVisited[j] = true;
+                    tmpLength++;
+                }
+                if ((tmpLength % 2) == 0) {
+                    retVal = -retVal;
+                }
+            }
+        }
+        return retVal;
+    }
+
+    private int[] myColOrder;
+    private int myColDim;
+    private double[] myDiagonal;
+    private int[][] myLowerRows;
+    private double[][] myLowerValues;
+    /**
+     * Row-wise view of the [L] pattern (for the numeric refactorisation): for each row position the
+     * eliminating pivots in increasing order, and where in the corresponding [L] column the multiplier is
+     * stored.
+     */
+    private int[][] myMultiplierPivots;
+    private int[][] myMultiplierSlots;
+    private Rows myPattern;
+    private int myRank;
+    private int myRowDim;
+    private int[] myRowOrder;
+    private int[][] myUpperColumns;
+    private double[][] myUpperValues;
+
+    /**
+     * Not recommended to use this constructor directly. Consider using the static factory
+     * {@linkplain org.ojalgo.matrix.decomposition.LU#SPARSE} instead.
+     */
+    SparseLU() {
+        super();
+    }
+
+    public Double calculateDeterminant(final Access2D<?> matrix) {
+
+        this.decompose(Rows.of(matrix));
+
+        return this.getDeterminant();
+    }
+
+    public boolean computeWithoutPivoting(final ElementsSupplier<Double> matrix) {
+        return this.decompose(matrix);
+    }
+
+    public boolean decompose(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> matrix) {
+        if (matrix instanceof Access2D) {
+            return this.decompose(Rows.of((Access2D<?>) matrix));
+        } else {
+            return this.decompose(Rows.of(matrix.collect(PrimitiveDenseStore.FACTORY)));
+        }
+    }
+
+    /**
+     * @return The column order - the j:th column of [L][U] is the getColumnOrder()[j]:th column of [A].
+     */
+    public int[] getColumnOrder() {
+        return myColOrder;
+    }
+
+    public Double getDeterminant() {
+
+        if (myRowDim != myColDim) {
+            throw new IllegalArgumentException("Matrix must be square.");
+        }
+
+        if (myRank < myColDim) {
+            return ZERO;
+        }
+
+        double retVal = SparseLU.signum(myRowOrder) * SparseLU.signum(myColOrder);
+        for (int k = 0; k < myRank; k++) {
+            retVal *= myDiagonal[k];
+        }
+        return retVal;
+    }
+
+    public MatrixStore<Double> getInverse() {
+        return this.getInverse(this.allocate(myColDim, myRowDim));
+    }
+
+    public MatrixStore<Double> getInverse(final PhysicalStore<Double> preallocated) {
+
+        final double[] tmpRHS = new double[myRowDim];
+        final double[] tmpSolution = new double[myColDim];
+
+        for (int j = 0; j < myRowDim; j++) {
+            Arrays.fill(tmpRHS, ZERO);
+            tmpRHS[j] = ONE;
+            this.solve(tmpRHS, tmpSolution);
+            for (int i = 0; i < myColDim; i++) {
+                preallocated.set(i, j, tmpSolution[i]);
+            }
+        }
+
+        return preallocated;
+    }
+
+    /**
+     * Sparse, unit lower triangular, with the rows in pivot order.
+     */
+    public MatrixStore<Double> getL() {
+
+        final int tmpMinDim = Math.min(myRowDim, myColDim);
+
+        final int[] tmpRowPositions = this.positions(myRowOrder);
+
+        int tmpCount = tmpMinDim;
+        for (int k = 0; k < myRank; k++) {
+            tmpCount += myLowerRows[k].length;
+        }
+
+        final int[] tmpRows = new int[tmpCount];
+        final int[] tmpCols = new int[tmpCount];
+        final double[] tmpValues = new double[tmpCount];
+
+        int tmpIndex = 0;
+        for (int k = 0; k < tmpMinDim; k++) {
+            tmpRows[tmpIndex] = k;
+            tmpCols[tmpIndex] = k;
+            tmpValues[tmpIndex] = ONE;
+            tmpIndex++;
+            if (k < myRank) {
+                final int[] tmpLowerRows = myLowerRows[k];
+                final double[] tmpLowerValues = myLowerValues[k];
+                for (int e = 0; e < tmpLowerRows.length; e++) {
+                    tmpRows[tmpIndex] = tmpRowPositions[tmpLowerRows[e]];
+                    tmpCols[tmpIndex] = k;
+                    tmpValues[tmpIndex] = tmpLowerValues[e];
+                    tmpIndex++;
+                }
+            }
+        }
+
+        return SparseLU.assemble(myRowDim, tmpMinDim, tmpRows, tmpCols, tmpValues, tmpCount);
+    }
+
+    public int[] getPivotOrder() {
+        return myRowOrder;
+    }
+
+    public int getRank() {
+
+        double tmpLargest = ZERO;
+        for (int k = 0; k < myRank; k++) {
+            tmpLargest = Math.max(tmpLargest, Math.abs(myDiagonal[k]));
+        }
+
+        int retVal = 0;
+        for (int k = 0; k < myRank; k++) {
+            if (!PrimitiveScalar.isSmall(tmpLargest, myDiagonal[k])) {
+                retVal++;
+            }
+        }
+        return retVal;
+    }
+
+    public MatrixStore<Double> getSolution(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> rhs) {
+        return this.getSolution(rhs, this.allocate(myColDim, rhs.countColumns()));
+    }
+
+    public MatrixStore<Double> getSolution(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> rhs, final PhysicalStore<Double> preallocated) {
+
+        final Access2D<?> tmpRHS = rhs instanceof Access2D ? (Access2D<?>) rhs : rhs.collect(PrimitiveDenseStore.FACTORY);
+
+        final double[] tmpColumn = new double[myRowDim];
+        final double[] tmpSolution = new double[myColDim];
+
+        final long tmpNumberOfColumns = rhs.countColumns();
+        for (int j = 0; j < tmpNumberOfColumns; j++) {
+            for (int i = 0; i < myRowDim; i++) {
+                tmpColumn[i] = tmpRHS.doubleValue(i, j);
+            }
+            this.solve(tmpColumn, tmpSolution);
+            for (int i = 0; i < myColDim; i++) {
+                preallocated.set(i, j, tmpSolution[i]);
+            }
+        }
+
+        return preallocated;
+    }
+
+    /**
+     * Sparse, upper triangular, with the columns in the order given by {@link #getColumnOrder()}.
+     */
+    public MatrixStore<Double> getU() {
+
+        final int tmpMinDim = Math.min(myRowDim, myColDim);
+
+        final int[] tmpColPositions = this.positions(myColOrder);
+
+        int tmpCount = myRank;
+        for (int k = 0; k < myRank; k++) {
+            tmpCount += myUpperColumns[k].length;
+        }
+
+        final int[] tmpRows = new int[tmpCount];
+        final int[] tmpCols = new int[tmpCount];
+        final double[] tmpValues = new double[tmpCount];
+
+        int tmpIndex = 0;
+        for (int k = 0; k < myRank; k++) {
+            tmpRows[tmpIndex] = k;
+            tmpCols[tmpIndex] = k;
+            tmpValues[tmpIndex] = myDiagonal[k];
+            tmpIndex++;
+            final int[] tmpUpperColumns = myUpperColumns[k];
+            final double[] tmpUpperValues = myUpperValues[k];
+            for (int e = 0; e < tmpUpperColumns.length; e++) {
+                tmpRows[tmpIndex] = k;
+                tmpCols[tmpIndex] = tmpColPositions[tmpUpperColumns[e]];
+                tmpValues[tmpIndex] = tmpUpperValues[e];
+                tmpIndex++;
+            }
+        }
+
+        return SparseLU.assemble(tmpMinDim, myColDim, tmpRows, tmpCols, tmpValues, tmpCount);
+    }
+
+    public MatrixStore<Double> invert(final Access2D<?> original, final PhysicalStore<Double> preallocated) throws RecoverableCondition {
+
+        this.decompose(Rows.of(original));
+
+        if (this.isSolvable()) {
+            return this.getInverse(preallocated);
+        } else {
+            throw RecoverableCondition.newMatrixNotInvertible();
+        }
+    }
+
+    public boolean isFullRank() {
+        return this.getRank() == Math.min(myRowDim, myColDim);
+    }
+
+    public PhysicalStore<Double> preallocate(final Structure2D template) {
+        return this.allocate(template.countColumns(), template.countRows());
+    }
+
+    public PhysicalStore<Double> preallocate(final Structure2D templateBody, final Structure2D templateRHS) {
+        return this.allocate(templateBody.countColumns(), templateRHS.countColumns());
+    }
+
+    @Override
+    public MatrixStore<Double> reconstruct() {
+        final MatrixStore<Double> tmpProduct = this.getL().multiply(this.getU());
+        return tmpProduct.logical().row(this.positions(myRowOrder)).column(this.positions(myColOrder)).get();
+    }
+
+    public MatrixStore<Double> solve(final Access2D<?> body, final Access2D<?> rhs, final PhysicalStore<Double> preallocated) throws RecoverableCondition {
+
+        this.decompose(Rows.of(body));
+
+        if (this.isSolvable()) {
+            return this.getSolution(MatrixStore.PRIMITIVE.makeWrapper(rhs).get(), preallocated);
+        } else {
+            throw RecoverableCondition.newEquationSystemNotSolvable();
+        }
+    }
+
+    /**
+     * Markowitz search and elimination - establishes the pivot sequence and the nonzero structure of [L] and
+     * [U].
+     */
+    private void analyse(final Rows matrix, final double tolerance) {
+
+        final int tmpRowDim = matrix.rowDim;
+        final int tmpColDim = matrix.colDim;
+        final int tmpMinDim = Math.min(tmpRowDim, tmpColDim);
+
+        // Active submatrix, row-wise with values, and column-wise pattern only
+
+        final int[][] tmpRowCols = new int[tmpRowDim][];
+        final double[][] tmpRowVals = new double[tmpRowDim][];
+        final int[] tmpRowLength = new int[tmpRowDim];
+
+        final int[] tmpColCount = new int[tmpColDim];
+        for (int e = 0; e < matrix.columns.length; e++) {
+            tmpColCount[matrix.columns[e]]++;
+        }
+        final int[][] tmpColRows = new int[tmpColDim][];
+        final int[] tmpColLength = new int[tmpColDim];
+        for (int j = 0; j < tmpColDim; j++) {
+            tmpColRows[j] = new int[Math.max(4, tmpColCount[j])];
+        }
+
+        for (int i = 0; i < tmpRowDim; i++) {
+            final int tmpFirst = matrix.pointers[i];
+            final int tmpLength = matrix.pointers[i + 1] - tmpFirst;
+            tmpRowCols[i] = Arrays.copyOfRange(matrix.columns, tmpFirst, tmpFirst + Math.max(4, tmpLength));
+            tmpRowVals[i] = Arrays.copyOfRange(matrix.values, tmpFirst, tmpFirst + Math.max(4, tmpLength));
+            tmpRowLength[i] = tmpLength;
+            for (int e = 0; e < tmpLength; e++) {
+                final int j = tmpRowCols[i][e];
+                tmpColRows[j][tmpColLength[j]++] = i;
+            }
+        }
+
+        // Columns linked in lists by (active) count
+
+        final int[] tmpHead = new int[tmpRowDim + 1];
+        final int[] tmpNext = new int[tmpColDim];
+        final int[] tmpPrev = new int[tmpColDim];
+        Arrays.fill(tmpHead, -1);
+        for (int j = 0; j < tmpColDim; j++) {
+            this.link(j, tmpColCount[j], tmpHead, tmpNext, tmpPrev);
+        }
+
+        final boolean[] tmpRowDone = new boolean[tmpRowDim];
+        final boolean[] tmpColDone = new boolean[tmpColDim];
+
+        myRowOrder = new int[tmpRowDim];
+        myColOrder = new int[tmpColDim];
+        myDiagonal = new double[tmpMinDim];
+        myLowerRows = new int[tmpMinDim][];
+        myLowerValues = new double[tmpMinDim][];
+        myUpperColumns = new int[tmpMinDim][];
+        myUpperValues = new double[tmpMinDim][];
+
+        final int[] tmpDeferred = new int[tmpColDim];
+        int tmpDeferredCount = 0;
+
+        final double[] tmpWork = new double[tmpColDim];
+        final int[] tmpInPivotRow = new int[tmpColDim];
+        final int[] tmpInTargetRow = new int[tmpColDim];
+        Arrays.fill(tmpInPivotRow, -1);
+        Arrays.fill(tmpInTargetRow, -1);
+        int tmpStamp = 0;
+
+        final int[] tmpLowerRows = new int[tmpRowDim];
+        final double[] tmpLowerValues = new double[tmpRowDim];
+
+        int k = 0;
+        while (k < tmpMinDim) {
+
+            // Pivot search
+
+            int tmpPivotRow = -1;
+            int tmpPivotCol = -1;
+            int tmpPivotSlot = -1;
+            double tmpPivotValue = ZERO;
+            long tmpPivotCost = Long.MAX_VALUE;
+
+            int tmpSearched = 0;
+            for (int c = 0; (c <= tmpRowDim) && ((tmpPivotRow < 0) || ((tmpSearched < SEARCH_LIMIT) && (tmpPivotCost > 0L))); c++) {
+                for (int j = tmpHead[c], tmpNextCol; (j >= 0) && ((tmpPivotRow < 0) || ((tmpSearched < SEARCH_LIMIT) && (tmpPivotCost > 0L))); j = tmpNextCol) {
+
+                    tmpNextCol = tmpNext[j];
+
+                    double tmpLargest = ZERO;
+                    final int[] tmpRows = tmpColRows[j];
+                    for (int e = 0; e < tmpColLength[j]; e++) {
+                        final int i = tmpRows[e];
+                        if (!tmpRowDone[i]) {
+                            final int tmpSlot = this.find(tmpRowCols[i], tmpRowLength[i], j);
+                            if (tmpSlot >= 0) {
+                                tmpLargest = Math.max(tmpLargest, Math.abs(tmpRowVals[i][tmpSlot]));
+                            }
+                        }
+                    }
+
+                    if (tmpLargest <= tolerance) {
+                        // Numerically empty column - defer it (to the end of the column order)
+                        this.unlink(j, c, tmpHead, tmpNext, tmpPrev);
+                        tmpColDone[j] = true;
+                        tmpDeferred[tmpDeferredCount++] = j;
+                        for (int e = 0; e < tmpColLength[j]; e++) {
+                            final int i = tmpRows[e];
+                            if (!tmpRowDone[i]) {
+                                final int tmpSlot = this.find(tmpRowCols[i], tmpRowLength[i], j);
+                                if (tmpSlot >= 0) {
+                                    this.remove(tmpRowCols[i], tmpRowVals[i], tmpRowLength[i]--, tmpSlot);
+                                }
+                            }
+                        }
+                        continue;
+                    }
+
+                    tmpSearched++;
+
+                    final double tmpLimit = THRESHOLD * tmpLargest;
+                    for (int e = 0; e < tmpColLength[j]; e++) {
+                        final int i = tmpRows[e];
+                        if (!tmpRowDone[i]) {
+                            final int tmpSlot = this.find(tmpRowCols[i], tmpRowLength[i], j);
+                            if (tmpSlot >= 0) {
+                                final double tmpValue = tmpRowVals[i][tmpSlot];
+                                final double tmpMagnitude = Math.abs(tmpValue);
+                                if (tmpMagnitude >= tmpLimit) {
+                                    final long tmpCost = (long) (tmpRowLength[i] - 1) * (long) (c - 1);
+                                    if ((tmpCost < tmpPivotCost) || ((tmpCost == tmpPivotCost) && (tmpMagnitude > Math.abs(tmpPivotValue)))) {
+                                        tmpPivotRow = i;
+                                        tmpPivotCol = j;
+                                        tmpPivotSlot = tmpSlot;
+                                        tmpPivotValue = tmpValue;
+                                        tmpPivotCost = tmpCost;
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (tmpPivotRow < 0) {
+                break; // Everything left is (numerically) zero
+            }
+
+            // Eliminate
+
+            final int p = tmpPivotRow;
+            final int q = tmpPivotCol;
+
+            myRowOrder[k] = p;
+            myColOrder[k] = q;
+            myDiagonal[k] = tmpPivotValue;
+
+            final int[] tmpPivotCols = tmpRowCols[p];
+            final double[] tmpPivotVals = tmpRowVals[p];
+            final int tmpPivotLength = tmpRowLength[p];
+
+            this.remove(tmpPivotCols, tmpPivotVals, tmpPivotLength, tmpPivotSlot);
+            myUpperColumns[k] = Arrays.copyOf(tmpPivotCols, tmpPivotLength - 1);
+            myUpperValues[k] = Arrays.copyOf(tmpPivotVals, tmpPivotLength - 1);
+
+            tmpRowDone[p] = true;
+            this.unlink(q, tmpColCount[q], tmpHead, tmpNext, tmpPrev);
+            tmpColDone[q] = true;
+
+            for (int e = 0; e < (tmpPivotLength - 1); e++) {
+                final int j = tmpPivotCols[e];
+                this.unlink(j, tmpColCount[j], tmpHead, tmpNext, tmpPrev);
+                this.link(j, --tmpColCount[j], tmpHead, tmpNext, tmpPrev);
+                tmpWork[j] = tmpPivotVals[e];
+                tmpInPivotRow[j] = k;
+            }
+
+            int tmpLowerCount = 0;
+
+            final int[] tmpRows = tmpColRows[q];
+            for (int e = 0, tmpLimit = tmpColLength[q]; e < tmpLimit; e++) {
+                final int i = tmpRows[e];
+                if (tmpRowDone[i]) {
+                    continue;
+                }
+                final int tmpSlot = this.find(tmpRowCols[i], tmpRowLength[i], q);
+                if (tmpSlot < 0) {
+                    continue;
+                }
+
+                final double tmpMultiplier = tmpRowVals[i][tmpSlot] / tmpPivotValue;
+                this.remove(tmpRowCols[i], tmpRowVals[i], tmpRowLength[i]--, tmpSlot);
+
+                tmpLowerRows[tmpLowerCount] = i;
+                tmpLowerValues[tmpLowerCount] = tmpMultiplier;
+                tmpLowerCount++;
+
+                tmpStamp++;
+
+                int[] tmpCols = tmpRowCols[i];
+                double[] tmpVals = tmpRowVals[i];
+                for (int s = 0; s < tmpRowLength[i]; s++) {
+                    final int j = tmpCols[s];
+                    if (tmpInPivotRow[j] == k) {
+                        tmpVals[s] -= tmpMultiplier * tmpWork[j];
+                        tmpInTargetRow[j] = tmpStamp;
+                    }
+                }
+
+                for (int s = 0; s < (tmpPivotLength - 1); s++) {
+                    final int j = tmpPivotCols[s];
+                    if (tmpInTargetRow[j] != tmpStamp) {
+                        // Fill-in
+                        if (tmpRowLength[i] == tmpCols.length) {
+                            tmpRowCols[i] = tmpCols = Arrays.copyOf(tmpCols, 2 * tmpCols.length);
+                            tmpRowVals[i] = tmpVals = Arrays.copyOf(tmpVals, 2 * tmpVals.length);
+                        }
+                        tmpCols[tmpRowLength[i]] = j;
+                        tmpVals[tmpRowLength[i]] = -tmpMultiplier * tmpWork[j];
+                        tmpRowLength[i]++;
+
+                        if (tmpColLength[j] == tmpColRows[j].length) {
+                            tmpColRows[j] = Arrays.copyOf(tmpColRows[j], 2 * tmpColRows[j].length);
+                        }
+                        tmpColRows[j][tmpColLength[j]++] = i;
+
+                        this.unlink(j, tmpColCount[j], tmpHead, tmpNext, tmpPrev);
+                        this.link(j, ++tmpColCount[j], tmpHead, tmpNext, tmpPrev);
+                    }
+                }
+            }
+
+            myLowerRows[k] = Arrays.copyOf(tmpLowerRows, tmpLowerCount);
+            myLowerValues[k] = Arrays.copyOf(tmpLowerValues, tmpLowerCount);
+
+            tmpRowCols[p] = null;
+            tmpRowVals[p] = null;
+            tmpColRows[q] = null;
+
+            k++;
+        }
+
+        myRank = k;
+
+        int tmpRowIndex = k;
+        for (int i = 0; i < tmpRowDim; i++) {
+            if (!tmpRowDone[i]) {
+                myRowOrder[tmpRowIndex++] = i;
+            }
+        }
+
+        int tmpColIndex = k;
+        for (int j = 0; j < tmpColDim; j++) {
+            if (!tmpColDone[j]) {
+                myColOrder[tmpColIndex++] = j;
+            }
+        }
+        for (int d = 0; d < tmpDeferredCount; d++) {
+            myColOrder[tmpColIndex++] = tmpDeferred[d];
+        }
+
+        myMultiplierPivots = null;
+        myMultiplierSlots = null;
+    }
+
+    private boolean clear(final double[] work, final int index, final double tolerance) {
+        final boolean retVal = Math.abs(work[index]) <= tolerance;
+        work[index] = ZERO;
+        return retVal;
+    }
+
+    private boolean decompose(final Rows matrix) {
+
+        this.reset();
+
+        final double tmpTolerance = Math.max(matrix.rowDim, matrix.colDim) * MACHINE_EPSILON * matrix.largest();
+
+        if (!matrix.isSamePattern(myPattern) || !this.refactor(matrix, tmpTolerance)) {
+
+            myRowDim = matrix.rowDim;
+            myColDim = matrix.colDim;
+            myPattern = matrix;
+
+            this.analyse(matrix, tmpTolerance);
+        }
+
+        return this.computed(true);
+    }
+
+    private int find(final int[] columns, final int length, final int column) {
+        for (int s = 0; s < length; s++) {
+            if (columns[s] == column) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    private void link(final int column, final int count, final int[] head, final int[] next, final int[] prev) {
+        final int tmpFirst = head[count];
+        next[column] = tmpFirst;
+        prev[column] = -1;
+        if (tmpFirst >= 0) {
+            prev[tmpFirst] = column;
+        }
+        head[count] = column;
+    }
+
+    private int[] positions(final int[] order) {
+        final int[] retVal = new int[order.length];
+        for (int k = 0; k < order.length; k++) {
+            retVal[order[k]] = k;
+        }
+        return retVal;
+    }
+
+    /**
+     * Numeric factorisation reusing the pivot sequence and nonzero structure from the previous analysis.
+     * Row-by-row (IKJ) elimination in a dense work vector.
+     *
+     * @return false if the new values are not compatible with the old pivot sequence (a multiplier violates
+     *         the threshold, a pivot vanishes or fill appears outside the known structure); true if the
+     *         refactorisation succeeded.
+     */
+    private boolean refactor(final Rows matrix, final double tolerance) {
+
+        if (myMultiplierPivots == null) {
+
+            final int[] tmpRowPositions = this.positions(myRowOrder);
+
+            final int[] tmpCounts = new int[myRowDim];
+            for (int t = 0; t < myRank; t++) {
+                for (final int i : myLowerRows[t]) {
+                    tmpCounts[tmpRowPositions[i]]++;
+                }
+            }
+            myMultiplierPivots = new int[myRowDim][];
+            myMultiplierSlots = new int[myRowDim][];
+            for (int k = 0; k < myRowDim; k++) {
+                myMultiplierPivots[k] = new int[tmpCounts[k]];
+                myMultiplierSlots[k] = new int[tmpCounts[k]];
+                tmpCounts[k] = 0;
+            }
+            for (int t = 0; t < myRank; t++) {
+                final int[] tmpLowerRows = myLowerRows[t];
+                for (int e = 0; e < tmpLowerRows.length; e++) {
+                    final int k = tmpRowPositions[tmpLowerRows[e]];
+                    myMultiplierPivots[k][tmpCounts[k]] = t;
+                    myMultiplierSlots[k][tmpCounts[k]] = e;
+                    tmpCounts[k]++;
+                }
+            }
+        }
+
+        final double tmpLargestMultiplier = ONE / THRESHOLD;
+
+        final double[] tmpWork = new double[myColDim];
+
+        for (int k = 0; k < myRowDim; k++) {
+
+            final int p = myRowOrder[k];
+
+            for (int e = matrix.pointers[p]; e < matrix.pointers[p + 1]; e++) {
+                tmpWork[matrix.columns[e]] = matrix.values[e];
+            }
+
+            final int[] tmpPivots = myMultiplierPivots[k];
+            final int[] tmpSlots = myMultiplierSlots[k];
+            for (int s = 0; s < tmpPivots.length; s++) {
+                final int t = tmpPivots[s];
+                final int tmpCol = myColOrder[t];
+                final double tmpMultiplier = tmpWork[tmpCol] / myDiagonal[t];
+                if (!(Math.abs(tmpMultiplier) <= tmpLargestMultiplier)) {
+                    return false;
+                }
+                tmpWork[tmpCol] = ZERO;
+                myLowerValues[t][tmpSlots[s]] = tmpMultiplier;
+                final int[] tmpUpperColumns = myUpperColumns[t];
+                final double[] tmpUpperValues = myUpperValues[t];
+                for (int u = 0; u < tmpUpperColumns.length; u++) {
+                    tmpWork[tmpUpperColumns[u]] -= tmpMultiplier * tmpUpperValues[u];
+                }
+            }
+
+            if (k < myRank) {
+                final int q = myColOrder[k];
+                final double tmpDiagonal = tmpWork[q];
+                if (Math.abs(tmpDiagonal) <= tolerance) {
+                    return false;
+                }
+                myDiagonal[k] = tmpDiagonal;
+                tmpWork[q] = ZERO;
+                final int[] tmpUpperColumns = myUpperColumns[k];
+                final double[] tmpUpperValues = myUpperValues[k];
+                for (int u = 0; u < tmpUpperColumns.length; u++) {
+                    tmpUpperValues[u] = tmpWork[tmpUpperColumns[u]];
+                    tmpWork[tmpUpperColumns[u]] = ZERO;
+                }
+            }
+
+            // Whatever remains is outside the known structure - must be negligible
+            for (int e = matrix.pointers[p]; e < matrix.pointers[p + 1]; e++) {
+                if (!this.clear(tmpWork, matrix.columns[e], tolerance)) {
+                    return false;
+                }
+            }
+            for (int s = 0; s < tmpPivots.length; s++) {
+                for (final int j : myUpperColumns[tmpPivots[s]]) {
+                    if (!this.clear(tmpWork, j, tolerance)) {
+                        return false;
+                    }
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private void remove(final int[] columns, final double[] values, final int length, final int slot) {
+        final int tmpLast = length - 1;
+        columns[slot] = columns[tmpLast];
+        values[slot] = values[tmpLast];
+    }
+
+    /**
+     * [L][U][x] = [b] with both permutations applied. The argument b is overwritten.
+     */
+    private void solve(final double[] b, final double[] x) {
+
+        for (int k = 0; k < myRank; k++) {
+            final double tmpValue = b[myRowOrder[k]];
+            if (tmpValue != ZERO) {
+                final int[] tmpLowerRows = myLowerRows[k];
+                final double[] tmpLowerValues = myLowerValues[k];
+                for (int e = 0; e < tmpLowerRows.length; e++) {
+                    b[tmpLowerRows[e]] -= tmpLowerValues[e] * tmpValue;
+                }
+            }
+        }
+
+        Arrays.fill(x, ZERO);
+
+        for (int k = myRank - 1; k >= 0; k--) {
+            double tmpValue = b[myRowOrder[k]];
+            final int[] tmpUpperColumns = myUpperColumns[k];
+            final double[] tmpUpperValues = myUpperValues[k];
+            for (int e = 0; e < tmpUpperColumns.length; e++) {
+                tmpValue -= tmpUpperValues[e] * x[tmpUpperColumns[e]];
+            }
+            x[myColOrder[k]] = tmpValue / myDiagonal[k];
+        }
+    }
+
+    private void unlink(final int column, final int count, final int[] head, final int[] next, final int[] prev) {
+        final int tmpPrev = prev[column];
+        final int tmpNext = next[column];
+        if (tmpPrev >= 0) {
+            next[tmpPrev] = tmpNext;
+        } else {
+            head[count] = tmpNext;
+        }
+        if (tmpNext >= 0) {
+            prev[tmpNext] = tmpPrev;
+        }
+    }
+
+    @Override
+    protected PrimitiveDenseStore allocate(final long numberOfRows, final long numberOfColumns) {
+        return PrimitiveDenseStore.FACTORY.makeZero(numberOfRows, numberOfColumns);
+    }
+
+    @Override
+    protected boolean checkSolvability() {
+        return (myRowDim == myColDim) && this.isFullRank();
+    }
+
+    @Override
+    protected double getDimensionalEpsilon() {
+        return Math.max(myRowDim, myColDim) * MACHINE_EPSILON;
+    }
+
+}
@@ -0,0 +1,887 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+import org.ojalgo.RecoverableCondition;
+import org.ojalgo.access.Access2D;
+import org.ojalgo.access.ElementView2D;
+import org.ojalgo.access.Structure2D;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.SparseStore;
+import org.ojalgo.scalar.PrimitiveScalar;
+
+/**
+ * A sparse QR decomposition: [A][P] = [Q][R]
+ * <p>
+ * Row-wise Givens QR (George &amp; Heath): each row of [A] is rotated into the rows of [R], following the
+ * parent chain of the column elimination tree (the elimination tree of [A]<sup>T</sup>[A]). The nonzero
+ * structure of [R] is determined by a symbolic analysis before the numeric factorisation, and [Q] is never
+ * stored - only [R] is kept.
+ * </p>
+ * <p>
+ * The columns are ordered (before the numeric factorisation) to reduce fill-in in [R], in the style of
+ * COLAMD: an approximate minimum degree ordering of [A]<sup>T</sup>[A] computed on the row structure of [A]
+ * (eliminating a column merges all rows it touches) without forming [A]<sup>T</sup>[A]. Dense rows are
+ * ignored by the ordering. {@link #getColumnOrder()} gives the order, and it is reused when a matrix with the
+ * same nonzero pattern is decomposed again.
+ * </p>
+ * <p>
+ * Primarily intended for (large) sparse least squares problems - use {@link #getSolution(Access2D.Collectable)} and
+ * {@link #getR()}. Solving uses the corrected semi-normal equations, [R]<sup>T</sup>[R]x = [P]<sup>T</sup>[A]<sup>T</sup>b
+ * plus one step of refinement, as [Q] is not available. {@link #getQ()} is calculated as [A][P][R]<sup>-1</sup>, is
+ * dense and only practical for moderately sized matrices.
+ * </p>
+ *
+ * @author apete
+ */
+final class SparseQR extends AbstractDecomposition<Double> implements QR<Double> {
+
+    /**
+     * Compressed sparse columns, with the row indices sorted within each column.
+     */
+    static final class Columns {
+
+        static Columns of(final Access2D<?> matrix) {
+
+            final int tmpRowDim = (int) matrix.countRows();
+            final int tmpColDim = (int) matrix.countColumns();
+
+            final int[] tmpPointers = new int[tmpColDim + 1];
+
+            if (matrix instanceof SparseStore) {
+
+                final SparseStore<?> tmpSparse = (SparseStore<?>) matrix;
+
+                for (final ElementView2D<?, ?> nonzero : tmpSparse.nonzeros()) {
+                    tmpPointers[(int) nonzero.column() + 1]++;
+                }
+                for (int j = 0; j < tmpColDim; j++) {
+                    tmpPointers[j + 1] += tmpPointers[j];
+                }
+
+                final int[] tmpRows = new int[tmpPointers[tmpColDim]];
+                final double[] tmpValues = new double[tmpPointers[tmpColDim]];
+
+                // Nonzeros are visited in column-major order
+                int tmpIndex = 0;
+                for (final ElementView2D<?, ?> nonzero : tmpSparse.nonzeros()) {
+                    tmpRows[tmpIndex] = (int) nonzero.row();
+                    tmpValues[tmpIndex] = nonzero.doubleValue();
+                    tmpIndex++;
+                }
+
+                return new Columns(tmpRowDim, tmpColDim, tmpPointers, tmpRows, tmpValues);
+
+            } else {
+
+                int tmpCount = 0;
+                for (int j = 0; j < tmpColDim; j++) {
+                    for (int i = 0; i < tmpRowDim; i++) {
+                        if (matrix.doubleValue(i, j) != ZERO) {
+                            tmpCount++;
+                        }
+                    }
+                    tmpPointers[j + 1] = tmpCount;
+                }
+
+                final int[] tmpRows = new int[tmpCount];
+                final double[] tmpValues = new double[tmpCount];
+
+                int tmpIndex = 0;
+                for (int j = 0; j < tmpColDim; j++) {
+                    for (int i = 0; i < tmpRowDim; i++) {
+                        final double tmpValue = matrix.doubleValue(i, j);
+                        if (tmpValue != ZERO) {
+                            tmpRows[tmpIndex] = i;
+                            tmpValues[tmpIndex] = tmpValue;
+                            tmpIndex++;
+                        }
+                    }
+                }
+
+                return new Columns(tmpRowDim, tmpColDim, tmpPointers, tmpRows, tmpValues);
+            }
+        }
+
+        final int colDim;
+        final int[] pointers;
+        final int rowDim;
+        final int[] rows;
+        final double[] values;
+
+        Columns(final int rowDim, final int colDim, final int[] pointers, final int[] rows, final double[] values) {
+
+            super();
+
+            this.rowDim = rowDim;
+            this.colDim = colDim;
+            this.pointers = pointers;
+            this.rows = rows;
+            this.values = values;
+        }
+
+        boolean isSamePattern(final Columns other) {
+            return (other != null) && (rowDim == other.rowDim) && (colDim == other.colDim) && Arrays.equals(pointers, other.pointers)
+                    && Arrays.equals(rows, other.rows);
+        }
+
+        double largestNorm() {
+            double retVal = ZERO;
+            for (int j = 0; j < colDim; j++) {
+                double tmpSum = ZERO;
+                for (int e = pointers[j]; e < pointers[j + 1]; e++) {
+                    tmpSum += values[e] * values[e];
+                }
+                retVal = Math.max(retVal, tmpSum);
+            }
+            return Math.sqrt(retVal);
+        }
+
+    }
+
+    /**
+     * Rows with more nonzeros than this (or 10 times the square root of the number of columns, whichever is
+     * larger) are considered dense and ignored by the column ordering.
+     */
+    private static final int DENSE_ROW_MINIMUM = 16;
+
+    /**
+     * Approximate minimum degree ordering of the columns of [A] with respect to [A]<sup>T</sup>[A]. Each row
+     * of [A] is an "element" (a clique in [A]<sup>T</sup>[A]). Eliminating a column merges all elements that
+     * contain it into one new element. The score of a column is the sum of the sizes (less one) of the
+     * elements it belongs to - an upper bound on its degree.
+     */
+    static int[] order(final Columns matrix) {
+
+        final int tmpRowDim = matrix.rowDim;
+        final int tmpColDim = matrix.colDim;
+
+        final int tmpDenseRow = Math.max(DENSE_ROW_MINIMUM, (int) (10.0 * Math.sqrt(tmpColDim)));
+
+        // Row-wise pattern of [A] - the initial elements
+
+        final int[] tmpRowCounts = new int[tmpRowDim];
+        for (int e = 0, limit = matrix.pointers[tmpColDim]; e < limit; e++) {
+            tmpRowCounts[matrix.rows[e]]++;
+        }
+
+        final int[][] tmpElements = new int[tmpRowDim + tmpColDim][];
+        for (int i = 0; i < tmpRowDim; i++) {
+            if ((tmpRowCounts[i] > 0) && (tmpRowCounts[i] <= tmpDenseRow)) {
+                tmpElements[i] = new int[tmpRowCounts[i]];
+            }
+            tmpRowCounts[i] = 0;
+        }
+
+        final int[][] tmpColElements = new int[tmpColDim][];
+        final int[] tmpColLengths = new int[tmpColDim];
+
+        for (int j = 0; j < tmpColDim; j++) {
+            tmpColElements[j] = new int[Math.max(1, matrix.pointers[j + 1] - matrix.pointers[j])];
+            for (int e = matrix.pointers[j]; e < matrix.pointers[j + 1]; e++) {
+                final int tmpRow = matrix.rows[e];
+                if (tmpElements[tmpRow] != null) {
+                    tmpElements[tmpRow][tmpRowCounts[tmpRow]++] = j;
+                    tmpColElements[j][tmpColLengths[j]++] = tmpRow;
+                }
+            }
+        }
+
+        final int[] tmpScores = new int[tmpColDim];
+        final PriorityQueue<Long> tmpQueue = new PriorityQueue<>(Math.max(1, tmpColDim));
+        for (int j = 0; j < tmpColDim; j++) {
+            tmpScores[j] = SparseQR.score(tmpColElements[j], tmpColLengths, j, tmpElements);
+            tmpQueue.add(SparseQR.key(tmpScores[j], j));
+        }
+
+        final boolean[] tmpEliminated = new boolean[tmpColDim];
+        final int[] tmpMarker = new int[tmpColDim];
+        Arrays.fill(tmpMarker, -1);
+        int[] tmpUnion = new int[16];
+        int tmpNextElement = tmpRowDim;
+
+        final int[] retVal = new int[tmpColDim];
+
+        for (int k = 0; k < tmpColDim; k++) {
+
+            int tmpCol;
+            long tmpKey;
+            do {
+                tmpKey = tmpQueue.poll();
+                tmpCol = (int) tmpKey;
+            } while (tmpEliminated[tmpCol] || (SparseQR.key(tmpScores[tmpCol], tmpCol) != tmpKey));
+
+            retVal[k] = tmpCol;
+            tmpEliminated[tmpCol] = true;
+            tmpMarker[tmpCol] = k;
+
+            // Merge all elements containing the column into one new element
+
+            int tmpUnionLength = 0;
+            final int[] tmpMerged = tmpColElements[tmpCol];
+            for (int m = 0; m < tmpColLengths[tmpCol]; m++) {
+                final int[] tmpElement = tmpElements[tmpMerged[m]];
+                if (tmpElement != null) {
+                    for (int c = 0; c < tmpElement.length; c++) {
+                        final int tmpOther = tmpElement[c];
+                        if (tmpMarker[tmpOther] != k) {
+                            tmpMarker[tmpOther] = k;
+                            if (tmpUnionLength == tmpUnion.length) {
+                                tmpUnion = Arrays.copyOf(tmpUnion, 2 * tmpUnionLength);
+                            }
+                            tmpUnion[tmpUnionLength++] = tmpOther;
+                        }
+                    }
+                    tmpElements[tmpMerged[m]] = null;
+                }
+            }
+            tmpColElements[tmpCol] = null;
+
+            if (tmpUnionLength > 0) {
+
+                final int tmpNew = tmpNextElement++;
+                tmpElements[tmpNew] = Arrays.copyOf(tmpUnion, tmpUnionLength);
+
+                for (int u = 0; u < tmpUnionLength; u++) {
+                    final int tmpOther = tmpUnion[u];
+                    int[] tmpList = tmpColElements[tmpOther];
+                    // Drop the (now dead) elements, and add the new
+                    int tmpLength = 0;
+                    for (int m = 0; m < tmpColLengths[tmpOther]; m++) {
+                        if (tmpElements[tmpList[m]] != null) {
+                            tmpList[tmpLength++] = tmpList[m];
+                        }
+                    }
+                    if (tmpLength == tmpList.length) {
+                        tmpList = tmpColElements[tmpOther] = Arrays.copyOf(tmpList, tmpLength + 1);
+                    }
+                    tmpList[tmpLength++] = tmpNew;
+                    tmpColLengths[tmpOther] = tmpLength;
+
+                    tmpScores[tmpOther] = SparseQR.score(tmpList, tmpColLengths, tmpOther, tmpElements);
+                    tmpQueue.add(SparseQR.key(tmpScores[tmpOther], tmpOther));
+                }
+            }
+        }
+
+        return retVal;
+    }
+
+    private static long key(final int score, final int column) {
+        return ((long) score << 32) | column;
+    }
+
+    private static int score(final int[] elements, final int[] lengths, final int column, final int[][] patterns) {
+        long retVal = 0L;
+        for (int m = 0; m < lengths[column]; m++) {
+            final int[] tmpPattern = patterns[elements[m]];
+            if (tmpPattern != null) {
+                retVal += tmpPattern.length - 1;
+            }
+        }
+        return (int) Math.min(retVal, Integer.MAX_VALUE);
+    }
+
+    private int[] myColOrder;
+    private int myColDim;
+    private Columns myMatrix;
+    /**
+     * For each row of [R] the row of [A] that ended up there, or -1 if that row of [R] is empty - the
+     * corresponding column of [A] is (numerically) linearly dependent on the preceding columns.
+     */
+    private int[] myOwners;
+    /**
+     * The parent of each row of [R] in the (column) elimination tree.
+     */
+    private int[] myParents;
+    private Columns myPattern;
+    private int myRowDim;
+    /**
+     * The (static) nonzero structure of each row of [R] - sorted column positions, beginning with the
+     * diagonal. It is the structure of the Cholesky factor of [A]<sup>T</sup>[A].
+     */
+    private int[][] myStructure;
+    private double[][] myValues;
+
+    /**
+     * Not recommended to use this constructor directly. Consider using the static factory
+     * {@linkplain org.ojalgo.matrix.decomposition.QR#SPARSE} instead.
+     */
+    SparseQR() {
+        super();
+    }
+
+    public Double calculateDeterminant(final Access2D<?> matrix) {
+
+        this.decompose(Columns.of(matrix));
+
+        return this.getDeterminant();
+    }
+
+    public boolean decompose(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> matrix) {
+        if (matrix instanceof Access2D) {
+            return this.decompose(Columns.of((Access2D<?>) matrix));
+        } else {
+            return this.decompose(Columns.of(matrix.collect(PrimitiveDenseStore.FACTORY)));
+        }
+    }
+
+    /**
+     * @return The column order - the j:th column of [Q][R] is the getColumnOrder()[j]:th column of [A].
+     */
+    public int[] getColumnOrder() {
+        return myColOrder;
+    }
+
+    public Double getDeterminant() {
+
+        if (myRowDim != myColDim) {
+            throw new IllegalArgumentException("Matrix must be square.");
+        }
+
+        if (!this.isFullRank()) {
+            return ZERO;
+        }
+
+        // The Givens rotations all have determinant 1, what remains is the row and column permutations
+        double retVal = SparseLU.signum(myColOrder) * SparseLU.signum(myOwners);
+        for (int k = 0; k < myColDim; k++) {
+            retVal *= myValues[k][0];
+        }
+        return retVal;
+    }
+
+    public MatrixStore<Double> getInverse() {
+        return this.getInverse(this.allocate(myColDim, myRowDim));
+    }
+
+    /**
+     * The (least squares) pseudoinverse if the matrix is not square.
+     */
+    public MatrixStore<Double> getInverse(final PhysicalStore<Double> preallocated) {
+
+        final double[] tmpRHS = new double[myRowDim];
+        final double[] tmpSolution = new double[myColDim];
+
+        for (int j = 0; j < myRowDim; j++) {
+            Arrays.fill(tmpRHS, ZERO);
+            tmpRHS[j] = ONE;
+            this.solve(tmpRHS, tmpSolution);
+            for (int i = 0; i < myColDim; i++) {
+                preallocated.set(i, j, tmpSolution[i]);
+            }
+        }
+
+        return preallocated;
+    }
+
+    /**
+     * [Q] is not stored, this method calculates [Q] = [A][P][R]<sup>-1</sup>. The result is dense and has
+     * zero columns corresponding to linearly dependent columns of [A]. Only practical for moderately sized
+     * matrices.
+     */
+    public MatrixStore<Double> getQ() {
+
+        final PrimitiveDenseStore retVal = this.allocate(myRowDim, myColDim);
+
+        final double[] tmpRow = new double[myColDim];
+
+        final int[] tmpRowPointers = new int[myRowDim + 1];
+        final int[] tmpRowPositions = new int[myMatrix.rows.length];
+        final double[] tmpRowValues = new double[myMatrix.rows.length];
+        this.transpose(myMatrix, tmpRowPointers, tmpRowPositions, tmpRowValues);
+
+        for (int i = 0; i < myRowDim; i++) {
+            Arrays.fill(tmpRow, ZERO);
+            for (int e = tmpRowPointers[i]; e < tmpRowPointers[i + 1]; e++) {
+                tmpRow[tmpRowPositions[e]] = tmpRowValues[e];
+            }
+            this.solveTransposed(tmpRow);
+            for (int k = 0; k < myColDim; k++) {
+                retVal.set(i, k, tmpRow[k]);
+            }
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Sparse, square and upper triangular, with the columns in the order given by {@link #getColumnOrder()}.
+     * Rows corresponding to linearly dependent columns are zero.
+     */
+    public MatrixStore<Double> getR() {
+
+        int tmpCount = 0;
+        for (int k = 0; k < myColDim; k++) {
+            if (myOwners[k] >= 0) {
+                tmpCount += myStructure[k].length;
+            }
+        }
+
+        final int[] tmpRows = new int[tmpCount];
+        final int[] tmpCols = new int[tmpCount];
+        final double[] tmpValues = new double[tmpCount];
+
+        int tmpIndex = 0;
+        for (int k = 0; k < myColDim; k++) {
+            if (myOwners[k] >= 0) {
+                final int[] tmpStructure = myStructure[k];
+                final double[] tmpRowValues = myValues[k];
+                for (int e = 0; e < tmpStructure.length; e++) {
+                    if (tmpRowValues[e] != ZERO) {
+                        tmpRows[tmpIndex] = k;
+                        tmpCols[tmpIndex] = tmpStructure[e];
+                        tmpValues[tmpIndex] = tmpRowValues[e];
+                        tmpIndex++;
+                    }
+                }
+            }
+        }
+
+        return SparseLU.assemble(myColDim, myColDim, tmpRows, tmpCols, tmpValues, tmpIndex);
+    }
+
+    public int getRank() {
+
+        double tmpLargest = ZERO;
+        for (int k = 0; k < myColDim; k++) {
+            tmpLargest = Math.max(tmpLargest, Math.abs(myValues[k][0]));
+        }
+
+        int retVal = 0;
+        for (int k = 0; k < myColDim; k++) {
+            if ((myOwners[k] >= 0) && !PrimitiveScalar.isSmall(tmpLargest, myValues[k][0])) {
+                retVal++;
+            }
+        }
+        return retVal;
+    }
+
+    public MatrixStore<Double> getSolution(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> rhs) {
+        return this.getSolution(rhs, this.allocate(myColDim, rhs.countColumns()));
+    }
+
+    /**
+     * The least squares solution. If [A] does not have full column rank the (basic) solution has zeros for
+     * the variables corresponding to the linearly dependent columns.
+     */
+    public MatrixStore<Double> getSolution(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> rhs,
+            final PhysicalStore<Double> preallocated) {
+
+        final Access2D<?> tmpRHS = rhs instanceof Access2D ? (Access2D<?>) rhs : rhs.collect(PrimitiveDenseStore.FACTORY);
+
+        final double[] tmpColumn = new double[myRowDim];
+        final double[] tmpSolution = new double[myColDim];
+
+        final long tmpNumberOfColumns = rhs.countColumns();
+        for (int j = 0; j < tmpNumberOfColumns; j++) {
+            for (int i = 0; i < myRowDim; i++) {
+                tmpColumn[i] = tmpRHS.doubleValue(i, j);
+            }
+            this.solve(tmpColumn, tmpSolution);
+            for (int i = 0; i < myColDim; i++) {
+                preallocated.set(i, j, tmpSolution[i]);
+            }
+        }
+
+        return preallocated;
+    }
+
+    public MatrixStore<Double> invert(final Access2D<?> original, final PhysicalStore<Double> preallocated) throws RecoverableCondition {
+
+        this.decompose(Columns.of(original));
+
+        if (this.isSolvable()) {
+            return this.getInverse(preallocated);
+        } else {
+            throw RecoverableCondition.newMatrixNotInvertible();
+        }
+    }
+
+    public boolean isFullRank() {
+        return this.getRank() == myColDim;
+    }
+
+    public boolean isFullSize() {
+        return false;
+    }
+
+    public PhysicalStore<Double> preallocate(final Structure2D template) {
+        return this.allocate(template.countColumns(), template.countRows());
+    }
+
+    public PhysicalStore<Double> preallocate(final Structure2D templateBody, final Structure2D templateRHS) {
+        return this.allocate(templateBody.countColumns(), templateRHS.countColumns());
+    }
+
+    @Override
+    public MatrixStore<Double> reconstruct() {
+        final MatrixStore<Double> tmpProduct = this.getQ().multiply(this.getR());
+        return tmpProduct.logical().column(this.positions(myColOrder)).get();
+    }
+
+    public MatrixStore<Double> solve(final Access2D<?> body, final Access2D<?> rhs, final PhysicalStore<Double> preallocated) throws RecoverableCondition {
+
+        this.decompose(Columns.of(body));
+
+        if (this.isSolvable()) {
+            return this.getSolution(MatrixStore.PRIMITIVE.makeWrapper(rhs).get(), preallocated);
+        } else {
+            throw RecoverableCondition.newEquationSystemNotSolvable();
+        }
+    }
+
+    private boolean decompose(final Columns matrix) {
+
+        this.reset();
+
+        if (!matrix.isSamePattern(myPattern)) {
+            myColOrder = SparseQR.order(matrix);
+            myStructure = null;
+            myPattern = matrix;
+        }
+
+        myMatrix = matrix;
+        myRowDim = matrix.rowDim;
+        myColDim = matrix.colDim;
+
+        this.factor(matrix, Math.max(myRowDim, myColDim) * MACHINE_EPSILON * matrix.largestNorm());
+
+        return this.computed(true);
+    }
+
+    /**
+     * The numeric factorisation. The rows of [A] (with the columns permuted) are, one at the time, rotated
+     * into [R] using Givens rotations (George and Heath). A row is processed, walking up the elimination tree
+     * from its leftmost column, until it is either eliminated or ends up in an empty row of [R]. Only [R] is
+     * stored.
+     */
+    private void factor(final Columns matrix, final double tolerance) {
+
+        final int tmpRowDim = matrix.rowDim;
+        final int tmpColDim = matrix.colDim;
+
+        final int[] tmpRowPointers = new int[tmpRowDim + 1];
+        final int[] tmpRowPositions = new int[matrix.rows.length];
+        final double[] tmpRowValues = new double[matrix.rows.length];
+        this.transpose(matrix, tmpRowPointers, tmpRowPositions, tmpRowValues);
+
+        // Process the rows in order of their leftmost (permuted) column
+        int tmpNonemptyRows = 0;
+        final int[] tmpNonempty = new int[tmpRowDim];
+        final int[] tmpLeftmost = new int[tmpRowDim];
+        for (int i = 0; i < tmpRowDim; i++) {
+            if (tmpRowPointers[i + 1] > tmpRowPointers[i]) {
+                tmpNonempty[tmpNonemptyRows] = i;
+                tmpLeftmost[tmpNonemptyRows] = tmpRowPositions[tmpRowPointers[i]];
+                tmpNonemptyRows++;
+            }
+        }
+        final int[] tmpRowOrder = SparseLU.order(tmpLeftmost, tmpNonemptyRows, tmpColDim, null);
+
+        if (myStructure == null) {
+            this.analyse(tmpColDim, tmpRowPointers, tmpRowPositions, tmpNonempty, tmpRowOrder, tmpNonemptyRows);
+        }
+
+        myOwners = new int[tmpColDim];
+        Arrays.fill(myOwners, -1);
+        myValues = new double[tmpColDim][];
+        for (int k = 0; k < tmpColDim; k++) {
+            myValues[k] = new double[myStructure[k].length];
+        }
+
+        final double[] tmpWork = new double[tmpColDim];
+
+        for (int o = 0; o < tmpNonemptyRows; o++) {
+
+            final int tmpRow = tmpNonempty[tmpRowOrder[o]];
+
+            for (int e = tmpRowPointers[tmpRow]; e < tmpRowPointers[tmpRow + 1]; e++) {
+                tmpWork[tmpRowPositions[e]] = tmpRowValues[e];
+            }
+
+            for (int k = tmpRowPositions[tmpRowPointers[tmpRow]]; k >= 0; k = myParents[k]) {
+
+                final double tmpLeading = tmpWork[k];
+
+                if (tmpLeading == ZERO) {
+                    continue;
+                }
+
+                final int[] tmpStructure = myStructure[k];
+                final double[] tmpValues = myValues[k];
+
+                if (myOwners[k] < 0) {
+
+                    if (Math.abs(tmpLeading) <= tolerance) {
+                        // Numerically zero - drop it and continue
+                        tmpWork[k] = ZERO;
+                        continue;
+                    }
+
+                    // Empty row of [R] - the (remaining) row goes there
+
+                    myOwners[k] = tmpRow;
+                    for (int e = 0; e < tmpStructure.length; e++) {
+                        final int j = tmpStructure[e];
+                        tmpValues[e] = tmpWork[j];
+                        tmpWork[j] = ZERO;
+                    }
+
+                    break;
+                }
+
+                // Rotate: [r, a] = [[c, s], [-s, c]] [r, a]
+
+                final double tmpDiagonal = tmpValues[0];
+                final double tmpHypot = Math.sqrt((tmpDiagonal * tmpDiagonal) + (tmpLeading * tmpLeading));
+                final double c = tmpDiagonal / tmpHypot;
+                final double s = tmpLeading / tmpHypot;
+
+                tmpValues[0] = tmpHypot;
+                tmpWork[k] = ZERO;
+
+                for (int e = 1; e < tmpStructure.length; e++) {
+                    final int j = tmpStructure[e];
+                    final double r = tmpValues[e];
+                    final double a = tmpWork[j];
+                    tmpValues[e] = (c * r) + (s * a);
+                    tmpWork[j] = (c * a) - (s * r);
+                }
+            }
+        }
+    }
+
+    /**
+     * Symbolic factorisation - the nonzero structure of each row of [R] and the elimination tree. Row k of [R]
+     * is the union of the rows of [A] with their leftmost nonzero in column k and the (off-diagonal)
+     * structures of the rows of [R] that are children of k in the elimination tree.
+     */
+    private void analyse(final int colDim, final int[] rowPointers, final int[] rowPositions, final int[] nonempty, final int[] rowOrder,
+            final int nonemptyRows) {
+
+        myStructure = new int[colDim][];
+        myParents = new int[colDim];
+
+        final int[] tmpChildHead = new int[colDim];
+        Arrays.fill(tmpChildHead, -1);
+        final int[] tmpChildNext = new int[colDim];
+
+        final int[] tmpMarker = new int[colDim];
+        Arrays.fill(tmpMarker, -1);
+        final int[] tmpUnion = new int[colDim];
+
+        int o = 0;
+        for (int k = 0; k < colDim; k++) {
+
+            int tmpLength = 0;
+            tmpUnion[tmpLength++] = k;
+            tmpMarker[k] = k;
+
+            for (; (o < nonemptyRows) && (rowPositions[rowPointers[nonempty[rowOrder[o]]]] == k); o++) {
+                final int tmpRow = nonempty[rowOrder[o]];
+                for (int e = rowPointers[tmpRow]; e < rowPointers[tmpRow + 1]; e++) {
+                    final int j = rowPositions[e];
+                    if (tmpMarker[j] != k) {
+                        tmpMarker[j] = k;
+                        tmpUnion[tmpLength++] = j;
+                    }
+                }
+            }
+
+            for (int c = tmpChildHead[k]; c >= 0; c = tmpChildNext[c]) {
+                final int[] tmpChild = myStructure[c];
+                for (int e = 1; e < tmpChild.length; e++) {
+                    final int j = tmpChild[e];
+                    if (tmpMarker[j] != k) {
+                        tmpMarker[j] = k;
+                        tmpUnion[tmpLength++] = j;
+                    }
+                }
+            }
+
+            Arrays.sort(tmpUnion, 1, tmpLength);
+            myStructure[k] = Arrays.copyOf(tmpUnion, tmpLength);
+
+            if (tmpLength > 1) {
+                final int tmpParent = tmpUnion[1];
+                myParents[k] = tmpParent;
+                tmpChildNext[k] = tmpChildHead[tmpParent];
+                tmpChildHead[tmpParent] = k;
+            } else {
+                myParents[k] = -1;
+            }
+        }
+    }
+
+    private int[] positions(final int[] order) {
+        final int[] retVal = new int[order.length];
+        for (int k = 0; k < order.length; k++) {
+            retVal[order[k]] = k;
+        }
+        return retVal;
+    }
+
+    /**
+     * Least squares solution of [A][x] = [b] using the corrected semi-normal equations:
+     * [R]<sup>T</sup>[R][x] = [A]<sup>T</sup>[b] followed by one step of iterative refinement. Only [R] (and
+     * [A]) is needed - [Q] is never formed. The argument b is overwritten.
+     */
+    private void solve(final double[] b, final double[] x) {
+
+        final double[] tmpWork = new double[myColDim];
+
+        this.multiplyTransposed(b, tmpWork);
+        this.solveTransposed(tmpWork);
+        this.solveTriangular(tmpWork);
+        for (int k = 0; k < myColDim; k++) {
+            x[myColOrder[k]] = tmpWork[k];
+        }
+
+        // Refine: b := b - [A][x] and solve for the correction
+
+        final int[] tmpPointers = myMatrix.pointers;
+        final int[] tmpRows = myMatrix.rows;
+        final double[] tmpValues = myMatrix.values;
+        for (int j = 0; j < myColDim; j++) {
+            final double tmpValue = x[j];
+            if (tmpValue != ZERO) {
+                for (int e = tmpPointers[j]; e < tmpPointers[j + 1]; e++) {
+                    b[tmpRows[e]] -= tmpValues[e] * tmpValue;
+                }
+            }
+        }
+
+        this.multiplyTransposed(b, tmpWork);
+        this.solveTransposed(tmpWork);
+        this.solveTriangular(tmpWork);
+        for (int k = 0; k < myColDim; k++) {
+            x[myColOrder[k]] += tmpWork[k];
+        }
+    }
+
+    /**
+     * c = [P]<sup>T</sup>[A]<sup>T</sup>[b]
+     */
+    private void multiplyTransposed(final double[] b, final double[] c) {
+
+        final int[] tmpPointers = myMatrix.pointers;
+        final int[] tmpRows = myMatrix.rows;
+        final double[] tmpValues = myMatrix.values;
+
+        for (int k = 0; k < myColDim; k++) {
+            final int tmpCol = myColOrder[k];
+            double tmpSum = ZERO;
+            for (int e = tmpPointers[tmpCol]; e < tmpPointers[tmpCol + 1]; e++) {
+                tmpSum += tmpValues[e] * b[tmpRows[e]];
+            }
+            c[k] = tmpSum;
+        }
+    }
+
+    /**
+     * Solves [R]<sup>T</sup>[z] = [c] in place.
+     */
+    private void solveTransposed(final double[] c) {
+        for (int k = 0; k < myColDim; k++) {
+            if (myOwners[k] >= 0) {
+                final int[] tmpStructure = myStructure[k];
+                final double[] tmpValues = myValues[k];
+                final double tmpValue = c[k] /= tmpValues[0];
+                if (tmpValue != ZERO) {
+                    for (int e = 1; e < tmpStructure.length; e++) {
+                        c[tmpStructure[e]] -= tmpValues[e] * tmpValue;
+                    }
+                }
+            } else {
+                c[k] = ZERO;
+            }
+        }
+    }
+
+    /**
+     * Solves [R][y] = [z] in place.
+     */
+    private void solveTriangular(final double[] z) {
+        for (int k = myColDim - 1; k >= 0; k--) {
+            if (myOwners[k] >= 0) {
+                final int[] tmpStructure = myStructure[k];
+                final double[] tmpValues = myValues[k];
+                double tmpValue = z[k];
+                for (int e = 1; e < tmpStructure.length; e++) {
+                    tmpValue -= tmpValues[e] * z[tmpStructure[e]];
+                }
+                z[k] = tmpValue / tmpValues[0];
+            } else {
+                z[k] = ZERO;
+            }
+        }
+    }
+
+    /**
+     * Compressed sparse rows of [A][P] - the column indices are positions in the column order, sorted within
+     * each row.
+     */
+    private void transpose(final Columns matrix, final int[] pointers, final int[] columns, final double[] values) {
+
+        Arrays.fill(pointers, 0);
+        for (int e = 0, limit = matrix.pointers[matrix.colDim]; e < limit; e++) {
+            pointers[matrix.rows[e] + 1]++;
+        }
+        for (int i = 0; i < matrix.rowDim; i++) {
+            pointers[i + 1] += pointers[i];
+        }
+
+        final int[] tmpNext = Arrays.copyOf(pointers, matrix.rowDim);
+        for (int k = 0; k < matrix.colDim; k++) {
+            final int tmpCol = myColOrder[k];
+            for (int e = matrix.pointers[tmpCol]; e < matrix.pointers[tmpCol + 1]; e++) {
+                final int tmpIndex = tmpNext[matrix.rows[e]]++;
+                columns[tmpIndex] = k;
+                values[tmpIndex] = matrix.values[e];
+            }
+        }
+    }
+
+    @Override
+    protected PrimitiveDenseStore allocate(final long numberOfRows, final long numberOfColumns) {
+        return PrimitiveDenseStore.FACTORY.makeZero(numberOfRows, numberOfColumns);
+    }
+
+    @Override
+    protected boolean checkSolvability() {
+        return (myRowDim >= myColDim) && this.isFullRank();
+    }
+
+    @Override
+    protected double getDimensionalEpsilon() {
+        return Math.max(myRowDim, myColDim) * MACHINE_EPSILON;
+    }
+
+}
@@ -0,0 +1,470 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.ojalgo.OjAlgoUtils;
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.concurrent.DaemonPoolExecutor;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+
+/**
+ * Cuppen's divide-and-conquer algorithm for the eigenvalues and eigenvectors of a real symmetric tridiagonal
+ * matrix. The matrix is torn in two by a rank-one modification, the two halves are solved recursively (in
+ * parallel) and then merged by solving the secular equation of the rank-one update. Deflation takes care of
+ * tiny components and (nearly) equal eigenvalues, and the eigenvectors are calculated from a recomputed
+ * update vector (Gu &amp; Eisenstat) so that they stay numerically orthogonal. Small subproblems are solved
+ * using the implicit QL algorithm.
+ *
+ * @author apete
+ */
+final class TridiagonalDivideAndConquer {
+
+    /**
+     * Subproblems of this size, or smaller, are solved using {@link HermitianEvD#tql2(double[], double[],
+     * org.ojalgo.matrix.decomposition.function.RotateRight)}
+     */
+    static final int SMALL = 32;
+
+    private static final int MAX_ITERATIONS = 128;
+    private static final int THRESHOLD = 64;
+
+    /**
+     * @param d The diagonal - on return the eigenvalues (not sorted)
+     * @param e The super/sub diagonal, e[i] couples i and i+1 (the last element is not used) - on return all
+     *        zeros.
+     * @return The eigenvectors of the tridiagonal matrix, in the same order as the eigenvalues.
+     */
+    static PrimitiveDenseStore solve(final double[] d, final double[] e) {
+
+        final PrimitiveDenseStore retVal = TridiagonalDivideAndConquer.divide(d, e, OjAlgoUtils.ENVIRONMENT.threads);
+
+        Arrays.fill(e, ZERO);
+
+        return retVal;
+    }
+
+    private static PrimitiveDenseStore divide(final double[] d, final double[] e, final int workers) {
+
+        final int size = d.length;
+
+        if (size <= SMALL) {
+            final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeEye(size, size);
+            e[size - 1] = ZERO;
+            HermitianEvD.tql2(d, e, retVal);
+            return retVal;
+        }
+
+        final int size1 = size / 2;
+        final int size2 = size - size1;
+
+        final double beta = e[size1 - 1];
+        final double rho = Math.abs(beta);
+
+        final double[] d1 = Arrays.copyOfRange(d, 0, size1);
+        final double[] e1 = Arrays.copyOfRange(e, 0, size1);
+        d1[size1 - 1] -= rho;
+        e1[size1 - 1] = ZERO;
+
+        final double[] d2 = Arrays.copyOfRange(d, size1, size);
+        final double[] e2 = Arrays.copyOfRange(e, size1, size);
+        d2[0] -= rho;
+        e2[size2 - 1] = ZERO;
+
+        final PrimitiveDenseStore mtrxQ1;
+        final PrimitiveDenseStore mtrxQ2;
+
+        if (workers > 1) {
+
+            final int nextWorkers = workers / 2;
+
+            final Future<PrimitiveDenseStore> firstPart = DaemonPoolExecutor.invoke(() -> TridiagonalDivideAndConquer.divide(d1, e1, nextWorkers));
+            mtrxQ2 = TridiagonalDivideAndConquer.divide(d2, e2, nextWorkers);
+
+            try {
+                mtrxQ1 = firstPart.get();
+            } catch (final InterruptedException | ExecutionException exception) {
+                throw new ProgrammingError(exception);
+            }
+
+        } else {
+
+            mtrxQ1 = TridiagonalDivideAndConquer.divide(d1, e1, 1);
+            mtrxQ2 = TridiagonalDivideAndConquer.divide(d2, e2, 1);
+        }
+
+        final double[] z = new double[size];
+        final PrimitiveDenseStore mtrxQ = PrimitiveDenseStore.FACTORY.makeZero(size, size);
+
+        System.arraycopy(d1, 0, d, 0, size1);
+        System.arraycopy(d2, 0, d, size1, size2);
+        for (int j = 0; j < size1; j++) {
+            z[j] = mtrxQ1.data[(j * size1) + (size1 - 1)];
+            System.arraycopy(mtrxQ1.data, j * size1, mtrxQ.data, j * size, size1);
+        }
+        final double sign = beta < ZERO ? NEG : ONE;
+        for (int j = 0; j < size2; j++) {
+            z[size1 + j] = sign * mtrxQ2.data[j * size2];
+            System.arraycopy(mtrxQ2.data, j * size2, mtrxQ.data, ((size1 + j) * size) + size1, size2);
+        }
+
+        return TridiagonalDivideAndConquer.merge(d, z, rho, mtrxQ, size1);
+    }
+
+    /**
+     * Diagonalise [Q]([D] + rho [z][z]<sup>T</sup>)[Q]<sup>T</sup> with rho &gt;= 0. Initially [Q] is block
+     * diagonal with the split between the blocks at the given index. That structure is tracked (per column) so
+     * that the zero blocks can be skipped when multiplying.
+     */
+    private static PrimitiveDenseStore merge(final double[] d, final double[] z, final double rho, final PrimitiveDenseStore mtrxQ, final int split) {
+
+        final int size = d.length;
+
+        final boolean[] upper = new boolean[size];
+        final boolean[] lower = new boolean[size];
+        for (int j = 0; j < size; j++) {
+            upper[j] = j < split;
+            lower[j] = j >= split;
+        }
+
+        final Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (i1, i2) -> Double.compare(d[i1], d[i2]));
+
+        final double[] sortedD = new double[size];
+        final double[] sortedZ = new double[size];
+        final int[] column = new int[size];
+
+        double norm2 = ZERO;
+        for (int i = 0; i < size; i++) {
+            final int index = order[i];
+            sortedD[i] = d[index];
+            sortedZ[i] = z[index];
+            column[i] = index;
+            norm2 += z[index] * z[index];
+        }
+
+        final double norm = Math.sqrt(norm2);
+        final double scaledRho = rho * norm2;
+
+        double largestZ = ZERO;
+        for (int i = 0; i < size; i++) {
+            sortedZ[i] /= norm;
+            largestZ = Math.max(largestZ, Math.abs(sortedZ[i]));
+        }
+        final double largestD = Math.max(Math.abs(sortedD[0]), Math.abs(sortedD[size - 1]));
+        final double tolerance = EIGHT * MACHINE_EPSILON * Math.max(largestD, largestZ);
+
+        // Deflation
+
+        final int[] kept = new int[size];
+        final int[] deflated = new int[size];
+        int countKept = 0;
+        int countDeflated = 0;
+
+        int previous = -1;
+        for (int j = 0; j < size; j++) {
+
+            if ((scaledRho * Math.abs(sortedZ[j])) <= tolerance) {
+                deflated[countDeflated++] = j;
+                continue;
+            }
+
+            if (previous < 0) {
+                previous = j;
+                continue;
+            }
+
+            final double hypot = Math.hypot(sortedZ[j], sortedZ[previous]);
+            final double cos = sortedZ[j] / hypot;
+            final double sin = -sortedZ[previous] / hypot;
+
+            if (Math.abs((sortedD[j] - sortedD[previous]) * cos * sin) <= tolerance) {
+
+                sortedZ[j] = hypot;
+                sortedZ[previous] = ZERO;
+
+                final int columnP = column[previous];
+                final int columnJ = column[j];
+                upper[columnP] = upper[columnJ] = upper[columnP] || upper[columnJ];
+                lower[columnP] = lower[columnJ] = lower[columnP] || lower[columnJ];
+
+                final int offsetP = columnP * size;
+                final int offsetJ = columnJ * size;
+                for (int i = 0; i < size; i++) {
+                    final double valP = mtrxQ.data[offsetP + i];
+                    final double valJ = mtrxQ.data[offsetJ + i];
+                    mtrxQ.data[offsetP + i] = (cos * valP) + (sin * valJ);
+                    mtrxQ.data[offsetJ + i] = (cos * valJ) - (sin * valP);
+                }
+
+                final double cos2 = cos * cos;
+                final double sin2 = sin * sin;
+                final double valP = (sortedD[previous] * cos2) + (sortedD[j] * sin2);
+                sortedD[j] = (sortedD[previous] * sin2) + (sortedD[j] * cos2);
+                sortedD[previous] = valP;
+
+                deflated[countDeflated++] = previous;
+
+            } else {
+
+                kept[countKept++] = previous;
+            }
+
+            previous = j;
+        }
+        if (previous >= 0) {
+            kept[countKept++] = previous;
+        }
+
+        final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeZero(size, size);
+
+        if (countKept > 0) {
+
+            final int k = countKept;
+
+            final double[] keptD = new double[k];
+            final double[] keptZ = new double[k];
+            for (int i = 0; i < k; i++) {
+                final int index = kept[i];
+                keptD[i] = sortedD[index];
+                keptZ[i] = sortedZ[index];
+            }
+
+            final int[] origin = new int[k];
+            final double[] tau = new double[k];
+            final double[] recomputedZ = new double[k];
+            final PrimitiveDenseStore mtrxU = PrimitiveDenseStore.FACTORY.makeZero(k, k);
+
+            final DivideAndConquer secular = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    for (int j = first; j < limit; j++) {
+                        tau[j] = TridiagonalDivideAndConquer.root(keptD, keptZ, scaledRho, j, origin);
+                    }
+                }
+
+            };
+
+            final DivideAndConquer update = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    for (int i = first; i < limit; i++) {
+                        double product = (keptD[i] - keptD[origin[i]]) - tau[i];
+                        for (int j = 0; j < k; j++) {
+                            if (j != i) {
+                                product *= ((keptD[i] - keptD[origin[j]]) - tau[j]) / (keptD[i] - keptD[j]);
+                            }
+                        }
+                        recomputedZ[i] = Math.copySign(Math.sqrt(Math.abs(product)), keptZ[i]);
+                    }
+                }
+
+            };
+
+            final DivideAndConquer vectors = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    for (int j = first; j < limit; j++) {
+                        final int offset = j * k;
+                        double sum = ZERO;
+                        for (int i = 0; i < k; i++) {
+                            final double value = recomputedZ[i] / ((keptD[i] - keptD[origin[j]]) - tau[j]);
+                            mtrxU.data[offset + i] = value;
+                            sum += value * value;
+                        }
+                        final double scale = ONE / Math.sqrt(sum);
+                        for (int i = 0; i < k; i++) {
+                            mtrxU.data[offset + i] *= scale;
+                        }
+                    }
+                }
+
+            };
+
+            secular.invoke(0, k, THRESHOLD);
+            update.invoke(0, k, THRESHOLD);
+            vectors.invoke(0, k, THRESHOLD);
+
+            TridiagonalDivideAndConquer.multiply(mtrxQ, column, kept, upper, 0, split, mtrxU, retVal);
+            TridiagonalDivideAndConquer.multiply(mtrxQ, column, kept, lower, split, size, mtrxU, retVal);
+
+            for (int j = 0; j < k; j++) {
+                d[j] = keptD[origin[j]] + tau[j];
+            }
+        }
+
+        for (int j = 0; j < countDeflated; j++) {
+            final int index = deflated[j];
+            d[countKept + j] = sortedD[index];
+            System.arraycopy(mtrxQ.data, column[index] * size, retVal.data, (countKept + j) * size, size);
+        }
+
+        return retVal;
+    }
+
+    /**
+     * Multiply the rows [first,limit) of the kept columns of [Q], those that are nonzero in that range, with
+     * the matching rows of [U] and write the results to the same rows of the first columns of the destination.
+     */
+    private static void multiply(final PrimitiveDenseStore mtrxQ, final int[] column, final int[] kept, final boolean[] nonzero, final int first,
+            final int limit, final PrimitiveDenseStore mtrxU, final PrimitiveDenseStore destination) {
+
+        final int size = (int) mtrxQ.countRows();
+        final int rows = limit - first;
+        final int k = (int) mtrxU.countColumns();
+
+        int count = 0;
+        final int[] selected = new int[k];
+        for (int i = 0; i < k; i++) {
+            if (nonzero[column[kept[i]]]) {
+                selected[count++] = i;
+            }
+        }
+
+        if ((rows == 0) || (count == 0)) {
+            return;
+        }
+
+        final PrimitiveDenseStore left = PrimitiveDenseStore.FACTORY.makeZero(rows, count);
+        final PrimitiveDenseStore right = PrimitiveDenseStore.FACTORY.makeZero(count, k);
+        for (int c = 0; c < count; c++) {
+            final int i = selected[c];
+            System.arraycopy(mtrxQ.data, (column[kept[i]] * size) + first, left.data, c * rows, rows);
+            for (int j = 0; j < k; j++) {
+                right.data[(j * count) + c] = mtrxU.data[(j * k) + i];
+            }
+        }
+
+        final PrimitiveDenseStore product = PrimitiveDenseStore.FACTORY.makeZero(rows, k);
+        product.fillByMultiplying(left, right);
+
+        for (int j = 0; j < k; j++) {
+            System.arraycopy(product.data, j * rows, destination.data, (j * size) + first, rows);
+        }
+    }
+
+    /**
+     * Solves the secular equation 1 + rho &sum; z<sub>i</sub><sup>2</sup> / (d<sub>i</sub> - &lambda;) = 0 for
+     * the j:th root, located between d[j] and d[j+1] (the last root between d[k-1] and d[k-1] + rho). The
+     * root is returned as an offset from the closest of the two poles, d[origin[j]], to preserve the accuracy
+     * of the differences d<sub>i</sub> - &lambda; needed for the eigenvectors.
+     */
+    private static double root(final double[] d, final double[] z, final double rho, final int j, final int[] origin) {
+
+        final int k = d.length;
+
+        int pole;
+        double lower;
+        double upper;
+
+        if (j < (k - 1)) {
+
+            final double half = (d[j + 1] - d[j]) / TWO;
+
+            double value = ONE;
+            for (int i = 0; i < k; i++) {
+                value += (rho * z[i] * z[i]) / ((d[i] - d[j]) - half);
+            }
+
+            if (value >= ZERO) {
+                pole = j;
+                lower = ZERO;
+                upper = half;
+            } else {
+                pole = j + 1;
+                lower = -half;
+                upper = ZERO;
+            }
+
+        } else {
+
+            double norm2 = ZERO;
+            for (int i = 0; i < k; i++) {
+                norm2 += z[i] * z[i];
+            }
+
+            pole = j;
+            lower = ZERO;
+            upper = rho * norm2;
+        }
+
+        origin[j] = pole;
+        final double base = d[pole];
+
+        double retVal = (lower + upper) / TWO;
+
+        for (int iter = 0; iter < MAX_ITERATIONS; iter++) {
+
+            double value = ONE;
+            double slope = ZERO;
+            double bound = ONE;
+
+            for (int i = 0; i < k; i++) {
+                final double ratio = z[i] / ((d[i] - base) - retVal);
+                final double term = rho * z[i] * ratio;
+                value += term;
+                bound += Math.abs(term);
+                slope += rho * ratio * ratio;
+            }
+
+            if (Math.abs(value) <= (k * MACHINE_EPSILON * bound)) {
+                break;
+            }
+
+            if (value < ZERO) {
+                lower = retVal;
+            } else {
+                upper = retVal;
+            }
+
+            double next = retVal - (value / slope);
+            if (!((next > lower) && (next < upper))) {
+                next = (lower + upper) / TWO;
+            }
+
+            if ((next == retVal) || ((upper - lower) <= (TWO * MACHINE_EPSILON * Math.max(Math.abs(lower), Math.abs(upper))))) {
+                break;
+            }
+
+            retVal = next;
+        }
+
+        return retVal;
+    }
+
+    private TridiagonalDivideAndConquer() {
+        super();
+    }
+
+}
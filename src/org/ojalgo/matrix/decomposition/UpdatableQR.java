@@ -0,0 +1,518 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import org.ojalgo.RecoverableCondition;
+import org.ojalgo.access.Access1D;
+import org.ojalgo.access.Access2D;
+import org.ojalgo.access.Structure2D;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PhysicalStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.scalar.PrimitiveScalar;
+
+/**
+ * A QR decomposition with [Q] (m x m) and [R] (m x n) stored explicitly, so that it can be modified using
+ * Givens rotations when [A] changes - Golub &amp; Van Loan, section 12.5. Each modification is
+ * O(m<sup>2</sup>+mn) rather than the O(mn<sup>2</sup>) of a new decomposition.
+ * <ul>
+ * <li>{@link #update(Access1D, Access1D)}: [A] + [u][v]<sup>T</sup></li>
+ * <li>{@link #addColumn(int, Access1D)} / {@link #removeColumn(int)}</li>
+ * <li>{@link #addRow(int, Access1D)} / {@link #removeRow(int)}: typically a rolling window regression</li>
+ * </ul>
+ * The initial decomposition is also done with Givens rotations, and is slower than the Householder based
+ * implementations.
+ *
+ * @author apete
+ */
+final class UpdatableQR extends AbstractDecomposition<Double> implements QR<Double> {
+
+    private int myColDim = 0;
+    private final boolean myFullSize;
+    /**
+     * m x m, column major
+     */
+    private double[] myQ = null;
+    /**
+     * m x n, column major
+     */
+    private double[] myR = null;
+    private int myRowDim = 0;
+    /**
+     * The determinant of [Q], +1 or -1
+     */
+    private double mySign = ONE;
+
+    /**
+     * Not recommended to use this constructor directly. Consider using the static factory
+     * {@linkplain org.ojalgo.matrix.decomposition.QR#UPDATABLE} instead.
+     */
+    UpdatableQR(final boolean fullSize) {
+        super();
+        myFullSize = fullSize;
+    }
+
+    @Override
+    public boolean addColumn(final int index, final Access1D<?> column) {
+
+        if (!this.isComputed()) {
+            return false;
+        }
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim + 1;
+
+        final double[] tmpR = new double[tmpRowDim * tmpColDim];
+        System.arraycopy(myR, 0, tmpR, 0, index * tmpRowDim);
+        System.arraycopy(myR, index * tmpRowDim, tmpR, (index + 1) * tmpRowDim, (myColDim - index) * tmpRowDim);
+
+        // The new column is [Q]^T[x]
+        for (int i = 0; i < tmpRowDim; i++) {
+            double tmpVal = ZERO;
+            for (int k = 0; k < tmpRowDim; k++) {
+                tmpVal += myQ[k + (i * tmpRowDim)] * column.doubleValue(k);
+            }
+            tmpR[i + (index * tmpRowDim)] = tmpVal;
+        }
+
+        myR = tmpR;
+        myColDim = tmpColDim;
+
+        final int tmpOffset = index * tmpRowDim;
+        for (int k = tmpRowDim - 1; k > index; k--) {
+            this.rotate(k - 1, k, myR[(k - 1) + tmpOffset], myR[k + tmpOffset], index);
+        }
+
+        return this.modified(true);
+    }
+
+    @Override
+    public boolean addRow(final int index, final Access1D<?> row) {
+
+        if (!this.isComputed()) {
+            return false;
+        }
+
+        final int tmpOldRowDim = myRowDim;
+        final int tmpRowDim = tmpOldRowDim + 1;
+        final int tmpColDim = myColDim;
+
+        // [Q'] = [P][1 0; 0 Q] where [P] moves the first row to "index"
+        final double[] tmpQ = new double[tmpRowDim * tmpRowDim];
+        tmpQ[index] = ONE;
+        for (int j = 1; j < tmpRowDim; j++) {
+            for (int i = 0; i < tmpRowDim; i++) {
+                if (i != index) {
+                    tmpQ[i + (j * tmpRowDim)] = myQ[(i < index ? i : i - 1) + ((j - 1) * tmpOldRowDim)];
+                }
+            }
+        }
+
+        // [R~] = [x^T; R] is upper Hessenberg
+        final double[] tmpR = new double[tmpRowDim * tmpColDim];
+        for (int j = 0; j < tmpColDim; j++) {
+            tmpR[j * tmpRowDim] = row.doubleValue(j);
+            System.arraycopy(myR, j * tmpOldRowDim, tmpR, 1 + (j * tmpRowDim), tmpOldRowDim);
+        }
+
+        myQ = tmpQ;
+        myR = tmpR;
+        myRowDim = tmpRowDim;
+        if ((index % 2) == 1) {
+            mySign = -mySign;
+        }
+
+        final int tmpLimit = Math.min(tmpColDim, tmpRowDim - 1);
+        for (int k = 0; k < tmpLimit; k++) {
+            this.rotate(k, k + 1, myR[k + (k * tmpRowDim)], myR[(k + 1) + (k * tmpRowDim)], k);
+        }
+
+        return this.modified(true);
+    }
+
+    public Double calculateDeterminant(final Access2D<?> matrix) {
+        this.decompose(MatrixStore.PRIMITIVE.makeWrapper(matrix).get());
+        return this.getDeterminant();
+    }
+
+    public boolean decompose(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> matrix) {
+
+        this.reset();
+
+        final int tmpRowDim = (int) matrix.countRows();
+        final int tmpColDim = (int) matrix.countColumns();
+
+        final PrimitiveDenseStore tmpR = PrimitiveDenseStore.FACTORY.makeZero(tmpRowDim, tmpColDim);
+        matrix.supplyTo(tmpR);
+
+        myRowDim = tmpRowDim;
+        myColDim = tmpColDim;
+        myR = tmpR.data;
+        myQ = new double[tmpRowDim * tmpRowDim];
+        for (int ij = 0; ij < tmpRowDim; ij++) {
+            myQ[ij + (ij * tmpRowDim)] = ONE;
+        }
+        mySign = ONE;
+
+        final int tmpLimit = Math.min(tmpColDim, tmpRowDim - 1);
+        for (int j = 0; j < tmpLimit; j++) {
+            final int tmpOffset = j * tmpRowDim;
+            for (int k = tmpRowDim - 1; k > j; k--) {
+                if (myR[k + tmpOffset] != ZERO) {
+                    this.rotate(k - 1, k, myR[(k - 1) + tmpOffset], myR[k + tmpOffset], j);
+                }
+            }
+        }
+
+        return this.computed(true);
+    }
+
+    public Double getDeterminant() {
+
+        if (myRowDim != myColDim) {
+            throw new IllegalArgumentException("Matrix must be square.");
+        }
+
+        double retVal = mySign;
+        for (int ij = 0; ij < myRowDim; ij++) {
+            retVal *= myR[ij + (ij * myRowDim)];
+        }
+        return retVal;
+    }
+
+    public MatrixStore<Double> getInverse() {
+        return this.getInverse(this.allocate(myColDim, myRowDim));
+    }
+
+    public MatrixStore<Double> getInverse(final PhysicalStore<Double> preallocated) {
+        return this.getSolution(MatrixStore.PRIMITIVE.makeIdentity(myRowDim).get(), preallocated);
+    }
+
+    public MatrixStore<Double> getQ() {
+
+        final int tmpColDim = myFullSize ? myRowDim : Math.min(myRowDim, myColDim);
+
+        final PrimitiveDenseStore retVal = this.allocate(myRowDim, tmpColDim);
+        System.arraycopy(myQ, 0, retVal.data, 0, myRowDim * tmpColDim);
+
+        return retVal;
+    }
+
+    public MatrixStore<Double> getR() {
+
+        final int tmpRowDim = myFullSize ? myRowDim : Math.min(myRowDim, myColDim);
+
+        final PrimitiveDenseStore retVal = this.allocate(tmpRowDim, myColDim);
+        for (int j = 0; j < myColDim; j++) {
+            final int tmpLimit = Math.min(j + 1, tmpRowDim);
+            for (int i = 0; i < tmpLimit; i++) {
+                retVal.data[i + (j * tmpRowDim)] = myR[i + (j * myRowDim)];
+            }
+        }
+
+        return retVal;
+    }
+
+    public int getRank() {
+
+        final int tmpMinDim = Math.min(myRowDim, myColDim);
+
+        double tmpLargest = ZERO;
+        for (int ij = 0; ij < tmpMinDim; ij++) {
+            tmpLargest = Math.max(tmpLargest, Math.abs(myR[ij + (ij * myRowDim)]));
+        }
+
+        int retVal = 0;
+        for (int ij = 0; ij < tmpMinDim; ij++) {
+            if (!PrimitiveScalar.isSmall(tmpLargest, myR[ij + (ij * myRowDim)])) {
+                retVal++;
+            }
+        }
+        return retVal;
+    }
+
+    public MatrixStore<Double> getSolution(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> rhs) {
+        return this.getSolution(rhs, this.allocate(myColDim, rhs.countColumns()));
+    }
+
+    /**
+     * The least squares solution, [R]<sup>-1</sup>[Q]<sup>T</sup>[B]
+     */
+    public MatrixStore<Double> getSolution(final Access2D.Collectable<Double, ? super PhysicalStore<Double>> rhs,
+            final PhysicalStore<Double> preallocated) {
+
+        final PrimitiveDenseStore tmpRHS = this.allocate(myRowDim, rhs.countColumns());
+        rhs.supplyTo(tmpRHS);
+
+        final int tmpRowDim = myRowDim;
+        final int tmpMinDim = Math.min(myRowDim, myColDim);
+        final double[] tmpY = new double[tmpMinDim];
+
+        final long tmpNumberOfColumns = rhs.countColumns();
+        for (int c = 0; c < tmpNumberOfColumns; c++) {
+
+            final int tmpBase = c * tmpRowDim;
+
+            for (int i = 0; i < tmpMinDim; i++) {
+                double tmpVal = ZERO;
+                for (int k = 0; k < tmpRowDim; k++) {
+                    tmpVal += myQ[k + (i * tmpRowDim)] * tmpRHS.data[k + tmpBase];
+                }
+                tmpY[i] = tmpVal;
+            }
+
+            for (int i = tmpMinDim - 1; i >= 0; i--) {
+                double tmpVal = tmpY[i];
+                for (int k = i + 1; k < tmpMinDim; k++) {
+                    tmpVal -= myR[i + (k * tmpRowDim)] * tmpY[k];
+                }
+                tmpY[i] = tmpVal / myR[i + (i * tmpRowDim)];
+            }
+
+            for (int i = 0; i < myColDim; i++) {
+                preallocated.set(i, c, i < tmpMinDim ? tmpY[i] : ZERO);
+            }
+        }
+
+        return preallocated;
+    }
+
+    public MatrixStore<Double> invert(final Access2D<?> original, final PhysicalStore<Double> preallocated) throws RecoverableCondition {
+
+        this.decompose(MatrixStore.PRIMITIVE.makeWrapper(original).get());
+
+        if (this.isSolvable()) {
+            return this.getInverse(preallocated);
+        } else {
+            throw RecoverableCondition.newMatrixNotInvertible();
+        }
+    }
+
+    public boolean isFullRank() {
+        return this.getRank() == Math.min(myRowDim, myColDim);
+    }
+
+    public boolean isFullSize() {
+        return myFullSize;
+    }
+
+    public PhysicalStore<Double> preallocate(final Structure2D template) {
+        return this.allocate(template.countColumns(), template.countRows());
+    }
+
+    public PhysicalStore<Double> preallocate(final Structure2D templateBody, final Structure2D templateRHS) {
+        return this.allocate(templateBody.countColumns(), templateRHS.countColumns());
+    }
+
+    @Override
+    public boolean removeColumn(final int index) {
+
+        if (!this.isComputed()) {
+            return false;
+        }
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim - 1;
+
+        final double[] tmpR = new double[tmpRowDim * tmpColDim];
+        System.arraycopy(myR, 0, tmpR, 0, index * tmpRowDim);
+        System.arraycopy(myR, (index + 1) * tmpRowDim, tmpR, index * tmpRowDim, (tmpColDim - index) * tmpRowDim);
+
+        myR = tmpR;
+        myColDim = tmpColDim;
+
+        // Columns index and onwards are upper Hessenberg
+        final int tmpLimit = Math.min(tmpColDim, tmpRowDim - 1);
+        for (int k = index; k < tmpLimit; k++) {
+            this.rotate(k, k + 1, myR[k + (k * tmpRowDim)], myR[(k + 1) + (k * tmpRowDim)], k);
+        }
+
+        return this.modified(true);
+    }
+
+    @Override
+    public boolean removeRow(final int index) {
+
+        if (!this.isComputed()) {
+            return false;
+        }
+
+        final int tmpOldRowDim = myRowDim;
+        final int tmpRowDim = tmpOldRowDim - 1;
+        final int tmpColDim = myColDim;
+
+        // Rotate row "index" of [Q] to become [1 0 ... 0]
+        final double[] tmpRow = new double[tmpOldRowDim];
+        for (int j = 0; j < tmpOldRowDim; j++) {
+            tmpRow[j] = myQ[index + (j * tmpOldRowDim)];
+        }
+        for (int k = tmpOldRowDim - 1; k > 0; k--) {
+            final double tmpA = tmpRow[k - 1];
+            final double tmpB = tmpRow[k];
+            if (tmpB != ZERO) {
+                this.rotate(k - 1, k, tmpA, tmpB, k - 1);
+                tmpRow[k - 1] = Math.hypot(tmpA, tmpB);
+                tmpRow[k] = ZERO;
+            }
+        }
+
+        // Drop row "index" and the first column of [Q], and the first row of [R]
+        final double[] tmpQ = new double[tmpRowDim * tmpRowDim];
+        for (int j = 0; j < tmpRowDim; j++) {
+            for (int i = 0; i < tmpRowDim; i++) {
+                tmpQ[i + (j * tmpRowDim)] = myQ[(i < index ? i : i + 1) + ((j + 1) * tmpOldRowDim)];
+            }
+        }
+        final double[] tmpR = new double[tmpRowDim * tmpColDim];
+        for (int j = 0; j < tmpColDim; j++) {
+            System.arraycopy(myR, 1 + (j * tmpOldRowDim), tmpR, j * tmpRowDim, tmpRowDim);
+        }
+
+        myQ = tmpQ;
+        myR = tmpR;
+        myRowDim = tmpRowDim;
+        if (((index % 2) == 1) != (tmpRow[0] < ZERO)) {
+            mySign = -mySign;
+        }
+
+        return this.modified(true);
+    }
+
+    @Override
+    public void reset() {
+
+        super.reset();
+
+        myQ = null;
+        myR = null;
+        mySign = ONE;
+    }
+
+    public MatrixStore<Double> solve(final Access2D<?> body, final Access2D<?> rhs, final PhysicalStore<Double> preallocated) throws RecoverableCondition {
+
+        this.decompose(MatrixStore.PRIMITIVE.makeWrapper(body).get());
+
+        if (this.isSolvable()) {
+            return this.getSolution(MatrixStore.PRIMITIVE.makeWrapper(rhs).get(), preallocated);
+        } else {
+            throw RecoverableCondition.newEquationSystemNotSolvable();
+        }
+    }
+
+    @Override
+    public boolean update(final Access1D<?> u, final Access1D<?> v) {
+
+        if (!this.isComputed()) {
+            return false;
+        }
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        // [w] = [Q]^T[u]
+        final double[] tmpW = new double[tmpRowDim];
+        for (int i = 0; i < tmpRowDim; i++) {
+            double tmpVal = ZERO;
+            for (int k = 0; k < tmpRowDim; k++) {
+                tmpVal += myQ[k + (i * tmpRowDim)] * u.doubleValue(k);
+            }
+            tmpW[i] = tmpVal;
+        }
+
+        // Rotate [w] to a multiple of e1, makes [R] upper Hessenberg
+        for (int k = tmpRowDim - 1; k > 0; k--) {
+            final double tmpA = tmpW[k - 1];
+            final double tmpB = tmpW[k];
+            if (tmpB != ZERO) {
+                this.rotate(k - 1, k, tmpA, tmpB, k - 1);
+                tmpW[k - 1] = Math.hypot(tmpA, tmpB);
+                tmpW[k] = ZERO;
+            }
+        }
+
+        for (int j = 0; j < tmpColDim; j++) {
+            myR[j * tmpRowDim] += tmpW[0] * v.doubleValue(j);
+        }
+
+        // Back to upper triangular
+        final int tmpLimit = Math.min(tmpColDim, tmpRowDim - 1);
+        for (int k = 0; k < tmpLimit; k++) {
+            this.rotate(k, k + 1, myR[k + (k * tmpRowDim)], myR[(k + 1) + (k * tmpRowDim)], k);
+        }
+
+        return this.modified(true);
+    }
+
+    /**
+     * Applies the Givens rotation that zeros b in [a; b] to rows p and q of [R] (from column "first"), and
+     * its transpose to columns p and q of [Q].
+     */
+    private void rotate(final int p, final int q, final double a, final double b, final int first) {
+
+        if (b == ZERO) {
+            return;
+        }
+
+        final double tmpHypot = Math.hypot(a, b);
+        final double tmpCos = a / tmpHypot;
+        final double tmpSin = b / tmpHypot;
+
+        final int tmpRowDim = myRowDim;
+
+        final double[] tmpR = myR;
+        for (int j = first; j < myColDim; j++) {
+            final int tmpBase = j * tmpRowDim;
+            final double tmpP = tmpR[p + tmpBase];
+            final double tmpQ = tmpR[q + tmpBase];
+            tmpR[p + tmpBase] = (tmpCos * tmpP) + (tmpSin * tmpQ);
+            tmpR[q + tmpBase] = (tmpCos * tmpQ) - (tmpSin * tmpP);
+        }
+
+        final double[] tmpQ = myQ;
+        final int tmpBaseP = p * tmpRowDim;
+        final int tmpBaseQ = q * tmpRowDim;
+        for (int i = 0; i < tmpRowDim; i++) {
+            final double tmpP = tmpQ[i + tmpBaseP];
+            final double tmpQi = tmpQ[i + tmpBaseQ];
+            tmpQ[i + tmpBaseP] = (tmpCos * tmpP) + (tmpSin * tmpQi);
+            tmpQ[i + tmpBaseQ] = (tmpCos * tmpQi) - (tmpSin * tmpP);
+        }
+    }
+
+    @Override
+    protected PrimitiveDenseStore allocate(final long numberOfRows, final long numberOfColumns) {
+        return PrimitiveDenseStore.FACTORY.makeZero(numberOfRows, numberOfColumns);
+    }
+
+    @Override
+    protected boolean checkSolvability() {
+        return (myRowDim >= myColDim) && this.isFullRank();
+    }
+
+    @Override
+    protected double getDimensionalEpsilon() {
+        return Math.max(myRowDim, myColDim) * MACHINE_EPSILON;
+    }
+
+}
@@ -0,0 +1,583 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.access.Access1D;
+import org.ojalgo.access.Access2D;
+import org.ojalgo.function.BinaryFunction;
+import org.ojalgo.function.NullaryFunction;
+import org.ojalgo.function.UnaryFunction;
+import org.ojalgo.matrix.store.operation.MultiplyBoth;
+
+/**
+ * A band matrix with kl sub-diagonals and ku super-diagonals, stored column by column the way LAPACK does
+ * (general band storage), using (2kl+ku+1) doubles per column. The extra kl rows per column are there to
+ * hold the fill-in from the LU decomposition with partial pivoting. A tridiagonal matrix is a band matrix
+ * with kl = ku = 1.
+ * <p>
+ * Writing a nonzero value outside the band is an error, zeros are silently ignored. That means a band store
+ * can be filled from any full matrix with that band structure.
+ * <p>
+ * Multiplication and the decompositions are all O(n*b) or O(n*b<sup>2</sup>) where b is the bandwidth.
+ * <ul>
+ * <li>{@link #decomposeLU()} / {@link #solveLU(PhysicalStore)} - any square band matrix. Afterwards this
+ * store represents the (band) upper triangular factor U, with kl+ku super-diagonals.</li>
+ * <li>{@link #decomposeCholesky()} / {@link #solveCholesky(PhysicalStore)} - symmetric positive definite
+ * band matrices, only the lower band is read. Afterwards this store represents the lower triangular factor
+ * L.</li>
+ * </ul>
+ *
+ * @author apete
+ */
+public final class BandedStore extends FactoryStore<Double> implements ElementsConsumer<Double> {
+
+    public static BandedStore copy(final Access2D<?> source, final int lowerBandwidth, final int upperBandwidth) {
+        final BandedStore retVal = new BandedStore((int) source.countRows(), (int) source.countColumns(), lowerBandwidth, upperBandwidth);
+        final int tmpColumns = retVal.getColDim();
+        for (int j = 0; j < tmpColumns; j++) {
+            final int tmpLimit = retVal.limitOfColumn(j);
+            for (int i = retVal.firstInColumn(j); i < tmpLimit; i++) {
+                retVal.myData[retVal.index(i, j)] = source.doubleValue(i, j);
+            }
+        }
+        return retVal;
+    }
+
+    public static BandedStore make(final int rows, final int columns, final int lowerBandwidth, final int upperBandwidth) {
+        return new BandedStore(rows, columns, lowerBandwidth, upperBandwidth);
+    }
+
+    private boolean myCholesky = false;
+    /**
+     * Number of super-diagonals (incl. fill-in) of the U factor
+     */
+    private final int myCombinedBandwidth;
+    private final double[] myData;
+    private final int myLeadingDimension;
+    private int myLowerBandwidth;
+    private final ElementsConsumer.FillByMultiplying<Double> myMultiplyer;
+    private int[] myPivots = null;
+    private int myUpperBandwidth;
+
+    BandedStore(final int rows, final int columns, final int lowerBandwidth, final int upperBandwidth) {
+
+        super(PrimitiveDenseStore.FACTORY, rows, columns);
+
+        if ((lowerBandwidth < 0) || (upperBandwidth < 0)) {
+            throw new IllegalArgumentException();
+        }
+
+        myLowerBandwidth = lowerBandwidth;
+        myUpperBandwidth = upperBandwidth;
+        myCombinedBandwidth = lowerBandwidth + upperBandwidth;
+        myLeadingDimension = myCombinedBandwidth + lowerBandwidth + 1;
+
+        final long tmpSize = (long) myLeadingDimension * columns;
+        if (tmpSize > Integer.MAX_VALUE) {
+            throw new ProgrammingError("Too large to be stored in a single array!");
+        }
+
+        myData = new double[(int) tmpSize];
+        myMultiplyer = MultiplyBoth.getPrimitive(rows, columns);
+    }
+
+    public void add(final long row, final long col, final double addend) {
+        if (this.isInBand(row, col)) {
+            myData[this.index((int) row, (int) col)] += addend;
+        } else if (addend != ZERO) {
+            throw new ProgrammingError("Outside the band!");
+        }
+    }
+
+    public void add(final long row, final long col, final Number addend) {
+        this.add(row, col, addend.doubleValue());
+    }
+
+    /**
+     * In-place band Cholesky decomposition (LAPACK dpbtf2) of a symmetric positive definite band matrix.
+     * Only the diagonal and the kl sub-diagonals are read.
+     *
+     * @return true if the matrix was positive definite and the decomposition succeeded. If not the contents
+     *         of this store is undefined.
+     */
+    public boolean decomposeCholesky() {
+
+        this.checkDecomposable();
+
+        final int tmpDim = this.getRowDim();
+        final int tmpBand = myLowerBandwidth;
+        final double[] tmpData = myData;
+
+        for (int j = 0; j < tmpDim; j++) {
+
+            final int tmpJJ = this.index(j, j);
+
+            final double tmpDiag = tmpData[tmpJJ];
+            if (!(tmpDiag > ZERO)) {
+                return false;
+            }
+
+            final double tmpSqrt = Math.sqrt(tmpDiag);
+            tmpData[tmpJJ] = tmpSqrt;
+
+            final int tmpCount = Math.min(tmpBand, tmpDim - 1 - j);
+            for (int r = 1; r <= tmpCount; r++) {
+                tmpData[tmpJJ + r] /= tmpSqrt;
+            }
+
+            for (int k = 1; k <= tmpCount; k++) {
+                final double tmpVal = tmpData[tmpJJ + k];
+                if (tmpVal != ZERO) {
+                    final int tmpKK = this.index(j + k, j + k);
+                    for (int r = k; r <= tmpCount; r++) {
+                        tmpData[tmpKK + (r - k)] -= tmpData[tmpJJ + r] * tmpVal;
+                    }
+                }
+            }
+        }
+
+        for (int j = 0; j < tmpDim; j++) {
+            for (int i = Math.max(0, j - myUpperBandwidth); i < j; i++) {
+                tmpData[this.index(i, j)] = ZERO;
+            }
+        }
+        myUpperBandwidth = 0;
+        myCholesky = true;
+
+        return true;
+    }
+
+    /**
+     * In-place band LU decomposition with partial (row) pivoting (LAPACK dgbtf2).
+     *
+     * @return true if the matrix was nonsingular. If false the factors are still there, but U has (at least)
+     *         one zero on the diagonal and {@link #solveLU(PhysicalStore)} should not be used.
+     */
+    public boolean decomposeLU() {
+
+        this.checkDecomposable();
+
+        final int tmpDim = this.getRowDim();
+        final int tmpLower = myLowerBandwidth;
+        final int tmpUpper = myUpperBandwidth;
+        final double[] tmpData = myData;
+
+        final int[] tmpPivots = new int[tmpDim];
+        boolean retVal = true;
+
+        int tmpLastAffected = 0;
+
+        for (int j = 0; j < tmpDim; j++) {
+
+            final int tmpJJ = this.index(j, j);
+            final int tmpCount = Math.min(tmpLower, tmpDim - 1 - j);
+
+            int tmpPivot = 0;
+            double tmpLargest = Math.abs(tmpData[tmpJJ]);
+            for (int r = 1; r <= tmpCount; r++) {
+                final double tmpVal = Math.abs(tmpData[tmpJJ + r]);
+                if (tmpVal > tmpLargest) {
+                    tmpLargest = tmpVal;
+                    tmpPivot = r;
+                }
+            }
+            tmpPivots[j] = j + tmpPivot;
+
+            if (tmpLargest == ZERO) {
+                retVal = false;
+                continue;
+            }
+
+            tmpLastAffected = Math.max(tmpLastAffected, Math.min(j + tmpUpper + tmpPivot, tmpDim - 1));
+
+            if (tmpPivot != 0) {
+                for (int c = j; c <= tmpLastAffected; c++) {
+                    final int tmpJC = this.index(j, c);
+                    final double tmpVal = tmpData[tmpJC];
+                    tmpData[tmpJC] = tmpData[tmpJC + tmpPivot];
+                    tmpData[tmpJC + tmpPivot] = tmpVal;
+                }
+            }
+
+            if (tmpCount > 0) {
+
+                final double tmpDiag = tmpData[tmpJJ];
+                for (int r = 1; r <= tmpCount; r++) {
+                    tmpData[tmpJJ + r] /= tmpDiag;
+                }
+
+                for (int c = j + 1; c <= tmpLastAffected; c++) {
+                    final int tmpJC = this.index(j, c);
+                    final double tmpVal = tmpData[tmpJC];
+                    if (tmpVal != ZERO) {
+                        for (int r = 1; r <= tmpCount; r++) {
+                            tmpData[tmpJC + r] -= tmpData[tmpJJ + r] * tmpVal;
+                        }
+                    }
+                }
+            }
+        }
+
+        myPivots = tmpPivots;
+        myLowerBandwidth = 0;
+        myUpperBandwidth = myCombinedBandwidth;
+
+        return retVal;
+    }
+
+    public double doubleValue(final long row, final long col) {
+        if (this.isInBand(row, col)) {
+            return myData[this.index((int) row, (int) col)];
+        } else {
+            return ZERO;
+        }
+    }
+
+    public void fillByMultiplying(final Access1D<Double> left, final Access1D<Double> right) {
+        myMultiplyer.invoke(this, left, (int) (left.count() / this.countRows()), right);
+    }
+
+    public void fillOne(final long row, final long col, final Access1D<?> values, final long valueIndex) {
+        this.set(row, col, values.doubleValue(valueIndex));
+    }
+
+    public void fillOne(final long row, final long col, final Double value) {
+        this.set(row, col, value.doubleValue());
+    }
+
+    public void fillOne(final long row, final long col, final NullaryFunction<Double> supplier) {
+        this.set(row, col, supplier.doubleValue());
+    }
+
+    @Override
+    public int firstInColumn(final int col) {
+        return Math.max(0, col - myUpperBandwidth);
+    }
+
+    @Override
+    public int firstInRow(final int row) {
+        return Math.max(0, row - myLowerBandwidth);
+    }
+
+    public Double get(final long row, final long col) {
+        return this.doubleValue(row, col);
+    }
+
+    public int getLowerBandwidth() {
+        return myLowerBandwidth;
+    }
+
+    public int getUpperBandwidth() {
+        return myUpperBandwidth;
+    }
+
+    @Override
+    public int limitOfColumn(final int col) {
+        return Math.min(this.getRowDim(), col + myLowerBandwidth + 1);
+    }
+
+    @Override
+    public int limitOfRow(final int row) {
+        return Math.min(this.getColDim(), row + myUpperBandwidth + 1);
+    }
+
+    /**
+     * Only the elements within the band are modified - the modifier should map 0 to 0.
+     */
+    public void modifyAll(final UnaryFunction<Double> modifier) {
+        final int tmpColumns = this.getColDim();
+        for (int j = 0; j < tmpColumns; j++) {
+            final int tmpLimit = this.limitOfColumn(j);
+            for (int i = this.firstInColumn(j); i < tmpLimit; i++) {
+                final int tmpIndex = this.index(i, j);
+                myData[tmpIndex] = modifier.invoke(myData[tmpIndex]);
+            }
+        }
+    }
+
+    /**
+     * Only the elements within the band are modified.
+     */
+    public void modifyMatching(final Access1D<Double> left, final BinaryFunction<Double> function) {
+        final long tmpRows = this.countRows();
+        final int tmpColumns = this.getColDim();
+        for (int j = 0; j < tmpColumns; j++) {
+            final int tmpLimit = this.limitOfColumn(j);
+            for (int i = this.firstInColumn(j); i < tmpLimit; i++) {
+                final int tmpIndex = this.index(i, j);
+                myData[tmpIndex] = function.invoke(left.doubleValue(i + (j * tmpRows)), myData[tmpIndex]);
+            }
+        }
+    }
+
+    /**
+     * Only the elements within the band are modified.
+     */
+    public void modifyMatching(final BinaryFunction<Double> function, final Access1D<Double> right) {
+        final long tmpRows = this.countRows();
+        final int tmpColumns = this.getColDim();
+        for (int j = 0; j < tmpColumns; j++) {
+            final int tmpLimit = this.limitOfColumn(j);
+            for (int i = this.firstInColumn(j); i < tmpLimit; i++) {
+                final int tmpIndex = this.index(i, j);
+                myData[tmpIndex] = function.invoke(myData[tmpIndex], right.doubleValue(i + (j * tmpRows)));
+            }
+        }
+    }
+
+    public void modifyOne(final long row, final long col, final UnaryFunction<Double> modifier) {
+        this.set(row, col, modifier.invoke(this.doubleValue(row, col)));
+    }
+
+    /**
+     * Band matrix multiplication (LAPACK dgbmv for each column of right).
+     */
+    @Override
+    public void multiply(final Access1D<Double> right, final ElementsConsumer<Double> target) {
+
+        final int tmpRows = this.getRowDim();
+        final int tmpColDim = this.getColDim();
+        final int tmpColumns = (int) (right.count() / tmpColDim);
+
+        final double[] tmpData = myData;
+        final double[] tmpY = new double[tmpRows];
+
+        for (int c = 0; c < tmpColumns; c++) {
+
+            Arrays.fill(tmpY, ZERO);
+
+            for (int j = 0; j < tmpColDim; j++) {
+                final double tmpXj = right.doubleValue(j + ((long) c * tmpColDim));
+                if (tmpXj != ZERO) {
+                    final int tmpLimit = this.limitOfColumn(j);
+                    for (int i = this.firstInColumn(j); i < tmpLimit; i++) {
+                        tmpY[i] += tmpData[this.index(i, j)] * tmpXj;
+                    }
+                }
+            }
+
+            for (int i = 0; i < tmpRows; i++) {
+                target.set(i, c, tmpY[i]);
+            }
+        }
+    }
+
+    public MatrixStore<Double> multiply(final double scalar) {
+        final BandedStore retVal = new BandedStore(this.getRowDim(), this.getColDim(), myLowerBandwidth, myUpperBandwidth);
+        for (int i = 0; i < myData.length; i++) {
+            retVal.myData[i] = scalar * myData[i];
+        }
+        return retVal;
+    }
+
+    public MatrixStore<Double> multiply(final Double scalar) {
+        return this.multiply(scalar.doubleValue());
+    }
+
+    public ElementsConsumer<Double> regionByColumns(final int... columns) {
+        return new ElementsConsumer.ColumnsRegion<>(this, myMultiplyer, columns);
+    }
+
+    public ElementsConsumer<Double> regionByLimits(final int rowLimit, final int columnLimit) {
+        return new ElementsConsumer.LimitRegion<>(this, myMultiplyer, rowLimit, columnLimit);
+    }
+
+    public ElementsConsumer<Double> regionByOffsets(final int rowOffset, final int columnOffset) {
+        return new ElementsConsumer.OffsetRegion<>(this, myMultiplyer, rowOffset, columnOffset);
+    }
+
+    public ElementsConsumer<Double> regionByRows(final int... rows) {
+        return new ElementsConsumer.RowsRegion<>(this, myMultiplyer, rows);
+    }
+
+    public ElementsConsumer<Double> regionByTransposing() {
+        return new ElementsConsumer.TransposedRegion<>(this, myMultiplyer);
+    }
+
+    /**
+     * Resets to all zeros, and the original band structure (if it had been changed by a decomposition).
+     */
+    public void reset() {
+        Arrays.fill(myData, ZERO);
+        myLowerBandwidth = myLeadingDimension - myCombinedBandwidth - 1;
+        myUpperBandwidth = myCombinedBandwidth - myLowerBandwidth;
+        myCholesky = false;
+        myPivots = null;
+    }
+
+    public void set(final long row, final long col, final double value) {
+        if (this.isInBand(row, col)) {
+            myData[this.index((int) row, (int) col)] = value;
+        } else if (value != ZERO) {
+            throw new ProgrammingError("Outside the band!");
+        }
+    }
+
+    public void set(final long row, final long col, final Number value) {
+        this.set(row, col, value.doubleValue());
+    }
+
+    /**
+     * Solves [A][X]=[B] using the factor from a previous (successful) call to {@link #decomposeCholesky()}.
+     *
+     * @param rhs [B] on input, [X] on output
+     */
+    public void solveCholesky(final PhysicalStore<Double> rhs) {
+
+        if (!myCholesky) {
+            throw new IllegalStateException("Not decomposed!");
+        }
+
+        final int tmpDim = this.getRowDim();
+        final int tmpBand = myLowerBandwidth;
+        final int tmpColumns = (int) rhs.countColumns();
+        final double[] tmpData = myData;
+        final double[] tmpX = new double[tmpDim];
+
+        for (int c = 0; c < tmpColumns; c++) {
+
+            for (int i = 0; i < tmpDim; i++) {
+                tmpX[i] = rhs.doubleValue(i, c);
+            }
+
+            for (int j = 0; j < tmpDim; j++) {
+                final int tmpJJ = this.index(j, j);
+                final double tmpVal = tmpX[j] / tmpData[tmpJJ];
+                tmpX[j] = tmpVal;
+                final int tmpCount = Math.min(tmpBand, tmpDim - 1 - j);
+                for (int r = 1; r <= tmpCount; r++) {
+                    tmpX[j + r] -= tmpData[tmpJJ + r] * tmpVal;
+                }
+            }
+
+            for (int j = tmpDim - 1; j >= 0; j--) {
+                final int tmpJJ = this.index(j, j);
+                double tmpVal = tmpX[j];
+                final int tmpCount = Math.min(tmpBand, tmpDim - 1 - j);
+                for (int r = 1; r <= tmpCount; r++) {
+                    tmpVal -= tmpData[tmpJJ + r] * tmpX[j + r];
+                }
+                tmpX[j] = tmpVal / tmpData[tmpJJ];
+            }
+
+            for (int i = 0; i < tmpDim; i++) {
+                rhs.set(i, c, tmpX[i]);
+            }
+        }
+    }
+
+    /**
+     * Solves [A][X]=[B] using the factors from a previous (successful) call to {@link #decomposeLU()}
+     * (LAPACK dgbtrs).
+     *
+     * @param rhs [B] on input, [X] on output
+     */
+    public void solveLU(final PhysicalStore<Double> rhs) {
+
+        if (myPivots == null) {
+            throw new IllegalStateException("Not decomposed!");
+        }
+
+        final int tmpDim = this.getRowDim();
+        final int tmpLower = myLeadingDimension - myCombinedBandwidth - 1;
+        final int tmpUpper = myCombinedBandwidth;
+        final int tmpColumns = (int) rhs.countColumns();
+        final int[] tmpPivots = myPivots;
+        final double[] tmpData = myData;
+        final double[] tmpX = new double[tmpDim];
+
+        for (int c = 0; c < tmpColumns; c++) {
+
+            for (int i = 0; i < tmpDim; i++) {
+                tmpX[i] = rhs.doubleValue(i, c);
+            }
+
+            // L (and the row interchanges)
+            for (int j = 0; j < tmpDim; j++) {
+                final int tmpPivot = tmpPivots[j];
+                if (tmpPivot != j) {
+                    final double tmpVal = tmpX[j];
+                    tmpX[j] = tmpX[tmpPivot];
+                    tmpX[tmpPivot] = tmpVal;
+                }
+                final double tmpXj = tmpX[j];
+                if (tmpXj != ZERO) {
+                    final int tmpJJ = this.index(j, j);
+                    final int tmpCount = Math.min(tmpLower, tmpDim - 1 - j);
+                    for (int r = 1; r <= tmpCount; r++) {
+                        tmpX[j + r] -= tmpData[tmpJJ + r] * tmpXj;
+                    }
+                }
+            }
+
+            // U (column oriented)
+            for (int j = tmpDim - 1; j >= 0; j--) {
+                final int tmpJJ = this.index(j, j);
+                final double tmpXj = tmpX[j] / tmpData[tmpJJ];
+                tmpX[j] = tmpXj;
+                if (tmpXj != ZERO) {
+                    for (int i = Math.max(0, j - tmpUpper); i < j; i++) {
+                        tmpX[i] -= tmpData[tmpJJ - (j - i)] * tmpXj;
+                    }
+                }
+            }
+
+            for (int i = 0; i < tmpDim; i++) {
+                rhs.set(i, c, tmpX[i]);
+            }
+        }
+    }
+
+    public void supplyTo(final ElementsConsumer<Double> receiver) {
+        receiver.reset();
+        final int tmpColumns = this.getColDim();
+        for (int j = 0; j < tmpColumns; j++) {
+            final int tmpLimit = this.limitOfColumn(j);
+            for (int i = this.firstInColumn(j); i < tmpLimit; i++) {
+                receiver.set(i, j, myData[this.index(i, j)]);
+            }
+        }
+    }
+
+    private void checkDecomposable() {
+        if (this.getRowDim() != this.getColDim()) {
+            throw new ProgrammingError("Matrix is not square!");
+        }
+        if (myCholesky || (myPivots != null)) {
+            throw new IllegalStateException("Already decomposed!");
+        }
+    }
+
+    private int index(final int row, final int col) {
+        return (myCombinedBandwidth + row) - col + (col * myLeadingDimension);
+    }
+
+    private boolean isInBand(final long row, final long col) {
+        return ((row - col) <= myLowerBandwidth) && ((col - row) <= myUpperBandwidth);
+    }
+
+}
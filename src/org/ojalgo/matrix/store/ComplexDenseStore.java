@@ -0,0 +1,1306 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import java.util.List;
+
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.access.Access1D;
+import org.ojalgo.access.Access2D;
+import org.ojalgo.array.Array1D;
+import org.ojalgo.array.Array2D;
+import org.ojalgo.array.BasicArray;
+import org.ojalgo.array.DenseArray;
+import org.ojalgo.array.SplitComplexArray;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.constant.PrimitiveMath;
+import org.ojalgo.function.BinaryFunction;
+import org.ojalgo.function.ComplexFunction;
+import org.ojalgo.function.ConsumerFunction;
+import org.ojalgo.function.FunctionSet;
+import org.ojalgo.function.FunctionUtils;
+import org.ojalgo.function.NullaryFunction;
+import org.ojalgo.function.UnaryFunction;
+import org.ojalgo.function.aggregator.Aggregator;
+import org.ojalgo.function.aggregator.AggregatorSet;
+import org.ojalgo.function.aggregator.ComplexAggregator;
+import org.ojalgo.machine.MemoryEstimator;
+import org.ojalgo.matrix.MatrixUtils;
+import org.ojalgo.matrix.decomposition.DecompositionStore;
+import org.ojalgo.matrix.store.GenericDenseStore.GenericMultiplyBoth;
+import org.ojalgo.matrix.store.operation.*;
+import org.ojalgo.matrix.transformation.Householder;
+import org.ojalgo.matrix.transformation.HouseholderReference;
+import org.ojalgo.matrix.transformation.Rotation;
+import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.scalar.Scalar;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * A {@linkplain ComplexNumber} implementation of {@linkplain PhysicalStore} that stores the real and
+ * imaginary parts in two separate double[] (structure-of-arrays) rather than as an array of
+ * {@linkplain ComplexNumber} instances. The multiplication, LU, Cholesky, QR (Householder) and hermitian
+ * tridiagonalisation kernels work directly on those arrays and do not create any intermediate objects.
+ *
+ * @author apete
+ */
+public final class ComplexDenseStore extends SplitComplexArray implements PhysicalStore<ComplexNumber>, DecompositionStore<ComplexNumber> {
+
+    public static interface ComplexMultiplyNeither {
+
+        void invoke(double[] productRe, double[] productIm, double[] leftRe, double[] leftIm, int complexity, double[] rightRe, double[] rightIm);
+
+    }
+
+    public static final PhysicalStore.Factory<ComplexNumber, ComplexDenseStore> FACTORY = new PhysicalStore.Factory<ComplexNumber, ComplexDenseStore>() {
+
+        public AggregatorSet<ComplexNumber> aggregator() {
+            return ComplexAggregator.getSet();
+        }
+
+        public DenseArray.Factory<ComplexNumber> array() {
+            return SplitComplexArray.FACTORY;
+        }
+
+        public MatrixStore.Factory<ComplexNumber> builder() {
+            return new MatrixStore.Factory<ComplexNumber>() {
+
+                public LogicalBuilder<ComplexNumber> makeIdentity(final int dimension) {
+                    return new LogicalBuilder<>(new IdentityStore<>(FACTORY, dimension));
+                }
+
+                public LogicalBuilder<ComplexNumber> makeSingle(final ComplexNumber element) {
+                    return new LogicalBuilder<>(new SingleStore<>(FACTORY, element));
+                }
+
+                public LogicalBuilder<ComplexNumber> makeWrapper(final Access2D<?> access) {
+                    return new LogicalBuilder<>(new WrapperStore<>(FACTORY, access));
+                }
+
+                public LogicalBuilder<ComplexNumber> makeZero(final int rowsCount, final int columnsCount) {
+                    return new LogicalBuilder<>(new ZeroStore<>(FACTORY, rowsCount, columnsCount));
+                }
+
+            };
+        }
+
+        public ComplexDenseStore columns(final Access1D<?>... source) {
+
+            final int tmpRowDim = (int) source[0].count();
+            final int tmpColDim = source.length;
+
+            final ComplexDenseStore retVal = new ComplexDenseStore(tmpRowDim, tmpColDim);
+
+            Access1D<?> tmpColumn;
+            for (int j = 0; j < tmpColDim; j++) {
+                tmpColumn = source[j];
+                for (int i = 0; i < tmpRowDim; i++) {
+                    retVal.set(i + (tmpRowDim * j), tmpColumn.get(i));
+                }
+            }
+
+            return retVal;
+        }
+
+        public ComplexDenseStore columns(final double[]... source) {
+
+            final int tmpRowDim = source[0].length;
+            final int tmpColDim = source.length;
+
+            final double[] tmpReal = new double[tmpRowDim * tmpColDim];
+
+            double[] tmpColumn;
+            for (int j = 0; j < tmpColDim; j++) {
+                tmpColumn = source[j];
+                for (int i = 0; i < tmpRowDim; i++) {
+                    tmpReal[i + (tmpRowDim * j)] = tmpColumn[i];
+                }
+            }
+
+            return new ComplexDenseStore(tmpRowDim, tmpColDim, tmpReal, new double[tmpRowDim * tmpColDim]);
+        }
+
+        public ComplexDenseStore columns(final List<? extends Number>... source) {
+
+            final int tmpRowDim = source[0].size();
+            final int tmpColDim = source.length;
+
+            final ComplexDenseStore retVal = new ComplexDenseStore(tmpRowDim, tmpColDim);
+
+            final double[] tmpReal = retVal.real;
+            final double[] tmpImaginary = retVal.imaginary;
+
+            List<? extends Number> tmpColumn;
+            Number tmpValue;
+            for (int j = 0; j < tmpColDim; j++) {
+                tmpColumn = source[j];
+                for (int i = 0; i < tmpRowDim; i++) {
+                    tmpValue = tmpColumn.get(i);
+                    tmpReal[i + (tmpRowDim * j)] = tmpValue.doubleValue();
+                    if (tmpValue instanceof ComplexNumber) {
+                        tmpImaginary[i + (tmpRowDim * j)] = ((ComplexNumber) tmpValue).i;
+                    }
+                }
+            }
+
+            return retVal;
+        }
+
+        public ComplexDenseStore columns(final Number[]... source) {
+
+            final int tmpRowDim = source[0].length;
+            final int tmpColDim = source.length;
+
+            final ComplexDenseStore retVal = new ComplexDenseStore(tmpRowDim, tmpColDim);
+
+            Number[] tmpColumn;
+            for (int j = 0; j < tmpColDim; j++) {
+                tmpColumn = source[j];
+                for (int i = 0; i < tmpRowDim; i++) {
+                    retVal.set(i + (tmpRowDim * j), tmpColumn[i]);
+                }
+            }
+
+            return retVal;
+        }
+
+        public ComplexDenseStore conjugate(final Access2D<?> source) {
+
+            final ComplexDenseStore retVal = new ComplexDenseStore((int) source.countColumns(), (int) source.countRows());
+
+            final int tmpRowDim = retVal.getRowDim();
+            final int tmpColDim = retVal.getColDim();
+
+            if (tmpColDim > FillMatchingSingle.THRESHOLD) {
+
+                final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                    @Override
+                    public void conquer(final int first, final int limit) {
+                        FillMatchingSingle.conjugate(retVal.real, retVal.imaginary, tmpRowDim, first, limit, source);
+                    }
+
+                };
+
+                tmpConquerer.invoke(0, tmpColDim, FillMatchingSingle.THRESHOLD);
+
+            } else {
+
+                FillMatchingSingle.conjugate(retVal.real, retVal.imaginary, tmpRowDim, 0, tmpColDim, source);
+            }
+
+            return retVal;
+        }
+
+        public ComplexDenseStore copy(final Access2D<?> source) {
+
+            final int tmpRowDim = (int) source.countRows();
+            final int tmpColDim = (int) source.countColumns();
+
+            final ComplexDenseStore retVal = new ComplexDenseStore(tmpRowDim, tmpColDim);
+
+            if (source instanceof ComplexDenseStore) {
+
+                final ComplexDenseStore tmpSource = (ComplexDenseStore) source;
+
+                System.arraycopy(tmpSource.real, 0, retVal.real, 0, tmpRowDim * tmpColDim);
+                System.arraycopy(tmpSource.imaginary, 0, retVal.imaginary, 0, tmpRowDim * tmpColDim);
+
+            } else if (tmpColDim > FillMatchingSingle.THRESHOLD) {
+
+                final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                    @Override
+                    public void conquer(final int first, final int limit) {
+                        FillMatchingSingle.copy(retVal.real, retVal.imaginary, tmpRowDim, first, limit, source);
+                    }
+
+                };
+
+                tmpConquerer.invoke(0, tmpColDim, FillMatchingSingle.THRESHOLD);
+
+            } else {
+
+                FillMatchingSingle.copy(retVal.real, retVal.imaginary, tmpRowDim, 0, tmpColDim, source);
+            }
+
+            return retVal;
+        }
+
+        public FunctionSet<ComplexNumber> function() {
+            return ComplexFunction.getSet();
+        }
+
+        public ComplexDenseStore makeEye(final long rows, final long columns) {
+
+            final ComplexDenseStore retVal = this.makeZero(rows, columns);
+
+            retVal.myUtility.fillDiagonal(0, 0, ComplexNumber.ONE);
+
+            return retVal;
+        }
+
+        public ComplexDenseStore makeFilled(final long rows, final long columns, final NullaryFunction<?> supplier) {
+
+            final int tmpRowDim = (int) rows;
+            final int tmpColDim = (int) columns;
+
+            final int tmpLength = tmpRowDim * tmpColDim;
+
+            final ComplexDenseStore retVal = new ComplexDenseStore(tmpRowDim, tmpColDim);
+
+            for (int i = 0; i < tmpLength; i++) {
+                retVal.set(i, supplier.get());
+            }
+
+            return retVal;
+        }
+
+        public Householder.SplitComplex makeHouseholder(final int length) {
+            return new Householder.SplitComplex(length);
+        }
+
+        public Rotation.Generic<ComplexNumber> makeRotation(final int low, final int high, final ComplexNumber cos, final ComplexNumber sin) {
+            return new Rotation.Generic<>(low, high, cos, sin);
+        }
+
+        public Rotation.Generic<ComplexNumber> makeRotation(final int low, final int high, final double cos, final double sin) {
+            return this.makeRotation(low, high, ComplexNumber.valueOf(cos), ComplexNumber.valueOf(sin));
+        }
+
+        public ComplexDenseStore makeZero(final long rows, final long columns) {
+            return new ComplexDenseStore((int) rows, (int) columns);
+        }
+
+        public ComplexDenseStore rows(final Access1D<?>... source) {
+
+            final int tmpRowDim = source.length;
+            final int tmpColDim = (int) source[0].count();
+
+            final ComplexDenseStore retVal = new ComplexDenseStore(tmpRowDim, tmpColDim);
+
+            Access1D<?> tmpRow;
+            for (int i = 0; i < tmpRowDim; i++) {
+                tmpRow = source[i];
+                for (int j = 0; j < tmpColDim; j++) {
+                    retVal.set(i + (tmpRowDim * j), tmpRow.get(j));
+                }
+            }
+
+            return retVal;
+        }
+
+        public ComplexDenseStore rows(final double[]... source) {
+
+            final int tmpRowDim = source.length;
+            final int tmpColDim = source[0].length;
+
+            final double[] tmpReal = new double[tmpRowDim * tmpColDim];
+
+            double[] tmpRow;
+            for (int i = 0; i < tmpRowDim; i++) {
+                tmpRow = source[i];
+                for (int j = 0; j < tmpColDim; j++) {
+                    tmpReal[i + (tmpRowDim * j)] = tmpRow[j];
+                }
+            }
+
+            return new ComplexDenseStore(tmpRowDim, tmpColDim, tmpReal, new double[tmpRowDim * tmpColDim]);
+        }
+
+        public ComplexDenseStore rows(final List<? extends Number>... source) {
+
+            final int tmpRowDim = source.length;
+            final int tmpColDim = source[0].size();
+
+            final ComplexDenseStore retVal = new ComplexDenseStore(tmpRowDim, tmpColDim);
+
+            final double[] tmpReal = retVal.real;
+            final double[] tmpImaginary = retVal.imaginary;
+
+            List<? extends Number> tmpRow;
+            Number tmpValue;
+            for (int i = 0; i < tmpRowDim; i++) {
+                tmpRow = source[i];
+                for (int j = 0; j < tmpColDim; j++) {
+                    tmpValue = tmpRow.get(j);
+                    tmpReal[i + (tmpRowDim * j)] = tmpValue.doubleValue();
+                    if (tmpValue instanceof ComplexNumber) {
+                        tmpImaginary[i + (tmpRowDim * j)] = ((ComplexNumber) tmpValue).i;
+                    }
+                }
+            }
+
+            return retVal;
+        }
+
+        public ComplexDenseStore rows(final Number[]... source) {
+
+            final int tmpRowDim = source.length;
+            final int tmpColDim = source[0].length;
+
+            final ComplexDenseStore retVal = new ComplexDenseStore(tmpRowDim, tmpColDim);
+
+            Number[] tmpRow;
+            for (int i = 0; i < tmpRowDim; i++) {
+                tmpRow = source[i];
+                for (int j = 0; j < tmpColDim; j++) {
+                    retVal.set(i + (tmpRowDim * j), tmpRow[j]);
+                }
+            }
+
+            return retVal;
+        }
+
+        public Scalar.Factory<ComplexNumber> scalar() {
+            return ComplexNumber.FACTORY;
+        }
+
+        public ComplexDenseStore transpose(final Access2D<?> source) {
+
+            final ComplexDenseStore retVal = new ComplexDenseStore((int) source.countColumns(), (int) source.countRows());
+
+            final int tmpRowDim = retVal.getRowDim();
+            final int tmpColDim = retVal.getColDim();
+
+            if (tmpColDim > FillMatchingSingle.THRESHOLD) {
+
+                final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                    @Override
+                    public void conquer(final int first, final int limit) {
+                        FillMatchingSingle.transpose(retVal.real, retVal.imaginary, tmpRowDim, first, limit, source);
+                    }
+
+                };
+
+                tmpConquerer.invoke(0, tmpColDim, FillMatchingSingle.THRESHOLD);
+
+            } else {
+
+                FillMatchingSingle.transpose(retVal.real, retVal.imaginary, tmpRowDim, 0, tmpColDim, source);
+            }
+
+            return retVal;
+        }
+
+    };
+
+    static final long SHALLOW_SIZE = MemoryEstimator.estimateObject(ComplexDenseStore.class);
+
+    static ComplexDenseStore cast(final Access1D<ComplexNumber> matrix) {
+        if (matrix instanceof ComplexDenseStore) {
+            return (ComplexDenseStore) matrix;
+        } else if (matrix instanceof Access2D<?>) {
+            return FACTORY.copy((Access2D<?>) matrix);
+        } else {
+            return FACTORY.columns(matrix);
+        }
+    }
+
+    static Householder.SplitComplex cast(final Householder<ComplexNumber> transformation) {
+        if (transformation instanceof Householder.SplitComplex) {
+            return (Householder.SplitComplex) transformation;
+        } else if (transformation instanceof HouseholderReference<?>) {
+            final Householder<ComplexNumber> tmpWorker = ((HouseholderReference<ComplexNumber>) transformation).getWorker(FACTORY);
+            if (tmpWorker instanceof Householder.SplitComplex) {
+                return ((Householder.SplitComplex) tmpWorker).copy(transformation);
+            }
+        }
+        return new Householder.SplitComplex(transformation);
+    }
+
+    static Rotation.Generic<ComplexNumber> cast(final Rotation<ComplexNumber> transformation) {
+        if (transformation instanceof Rotation.Generic) {
+            return (Rotation.Generic<ComplexNumber>) transformation;
+        } else {
+            return new Rotation.Generic<>(transformation);
+        }
+    }
+
+    private final GenericMultiplyBoth<ComplexNumber> multiplyBoth;
+    private final ComplexMultiplyNeither multiplyNeither;
+    private final int myColDim;
+    private final int myRowDim;
+    private final Array2D<ComplexNumber> myUtility;
+
+    private transient SplitComplexArray myWorkerColumn;
+
+    ComplexDenseStore(final int numbRows, final int numbCols) {
+
+        super(numbRows * numbCols);
+
+        myRowDim = numbRows;
+        myColDim = numbCols;
+
+        myUtility = this.wrapInArray2D(myRowDim);
+
+        multiplyBoth = MultiplyBoth.getGeneric(myRowDim, myColDim);
+        multiplyNeither = MultiplyNeither.getComplex(myRowDim, myColDim);
+    }
+
+    ComplexDenseStore(final int numbRows, final int numbCols, final double[] realArray, final double[] imaginaryArray) {
+
+        super(realArray, imaginaryArray);
+
+        myRowDim = numbRows;
+        myColDim = numbCols;
+
+        myUtility = this.wrapInArray2D(myRowDim);
+
+        multiplyBoth = MultiplyBoth.getGeneric(myRowDim, myColDim);
+        multiplyNeither = MultiplyNeither.getComplex(myRowDim, myColDim);
+    }
+
+    public void accept(final Access2D<?> supplied) {
+        for (long j = 0L; j < supplied.countColumns(); j++) {
+            for (long i = 0L; i < supplied.countRows(); i++) {
+                this.set(i, j, supplied.get(i, j));
+            }
+        }
+    }
+
+    public void add(final long row, final long col, final double addend) {
+        myUtility.add(row, col, addend);
+    }
+
+    public void add(final long row, final long col, final Number addend) {
+        myUtility.add(row, col, addend);
+    }
+
+    public ComplexNumber aggregateAll(final Aggregator aggregator) {
+        return FACTORY.aggregator().aggregate(aggregator, 0L, this.count(), AggregateAll.THRESHOLD * AggregateAll.THRESHOLD,
+                (first, limit, aggr) -> this.visit((int) first, (int) limit, 1, aggr));
+    }
+
+    public void applyCholesky(final int iterationPoint, final BasicArray<ComplexNumber> multipliers) {
+
+        final double[] tmpDataRe = real;
+        final double[] tmpDataIm = imaginary;
+        final SplitComplexArray tmpColumn = this.cast(multipliers);
+
+        if ((myColDim - iterationPoint - 1) > ApplyCholesky.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    ApplyCholesky.invoke(tmpDataRe, tmpDataIm, myRowDim, first, limit, tmpColumn.real, tmpColumn.imaginary);
+                }
+            };
+
+            tmpConquerer.invoke(iterationPoint + 1, myColDim, ApplyCholesky.THRESHOLD);
+
+        } else {
+
+            ApplyCholesky.invoke(tmpDataRe, tmpDataIm, myRowDim, iterationPoint + 1, myColDim, tmpColumn.real, tmpColumn.imaginary);
+        }
+    }
+
+    public void applyLDL(final int iterationPoint, final BasicArray<ComplexNumber> multipliers) {
+
+        final double[] tmpDataRe = real;
+        final double[] tmpDataIm = imaginary;
+        final SplitComplexArray tmpColumn = this.cast(multipliers);
+
+        if ((myColDim - iterationPoint - 1) > ApplyLDL.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    ApplyLDL.invoke(tmpDataRe, tmpDataIm, myRowDim, first, limit, tmpColumn.real, tmpColumn.imaginary, iterationPoint);
+                }
+            };
+
+            tmpConquerer.invoke(iterationPoint + 1, myColDim, ApplyLDL.THRESHOLD);
+
+        } else {
+
+            ApplyLDL.invoke(tmpDataRe, tmpDataIm, myRowDim, iterationPoint + 1, myColDim, tmpColumn.real, tmpColumn.imaginary, iterationPoint);
+        }
+    }
+
+    public void applyLU(final int iterationPoint, final BasicArray<ComplexNumber> multipliers) {
+
+        final double[] tmpDataRe = real;
+        final double[] tmpDataIm = imaginary;
+        final SplitComplexArray tmpColumn = this.cast(multipliers);
+
+        if ((myColDim - iterationPoint - 1) > ApplyLU.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    ApplyLU.invoke(tmpDataRe, tmpDataIm, myRowDim, first, limit, tmpColumn.real, tmpColumn.imaginary, iterationPoint);
+                }
+            };
+
+            tmpConquerer.invoke(iterationPoint + 1, myColDim, ApplyLU.THRESHOLD);
+
+        } else {
+
+            ApplyLU.invoke(tmpDataRe, tmpDataIm, myRowDim, iterationPoint + 1, myColDim, tmpColumn.real, tmpColumn.imaginary, iterationPoint);
+        }
+    }
+
+    public Array1D<ComplexNumber> asList() {
+        return this.wrapInArray1D();
+    }
+
+    public Array1D<ComplexNumber> computeInPlaceSchur(final PhysicalStore<ComplexNumber> transformationCollector, final boolean eigenvalue) {
+        ProgrammingError.throwForUnsupportedOptionalOperation();
+        return null;
+    }
+
+    public MatrixStore<ComplexNumber> conjugate() {
+        return new ConjugatedStore<>(this);
+    }
+
+    public ComplexDenseStore copy() {
+        return new ComplexDenseStore(myRowDim, myColDim, this.copyOfReal(), this.copyOfImaginary());
+    }
+
+    public long countColumns() {
+        return myColDim;
+    }
+
+    public long countRows() {
+        return myRowDim;
+    }
+
+    public void divideAndCopyColumn(final int row, final int column, final BasicArray<ComplexNumber> destination) {
+
+        final double[] tmpDataRe = real;
+        final double[] tmpDataIm = imaginary;
+        final int tmpRowDim = myRowDim;
+
+        int tmpIndex = row + (column * tmpRowDim);
+        final double tmpDenomRe = tmpDataRe[tmpIndex];
+        final double tmpDenomIm = tmpDataIm[tmpIndex];
+        final double tmpDenomNorm2 = (tmpDenomRe * tmpDenomRe) + (tmpDenomIm * tmpDenomIm);
+
+        double tmpValRe, tmpValIm;
+        if (destination instanceof SplitComplexArray) {
+
+            final double[] tmpDestinationRe = ((SplitComplexArray) destination).real;
+            final double[] tmpDestinationIm = ((SplitComplexArray) destination).imaginary;
+
+            for (int i = row + 1; i < tmpRowDim; i++) {
+                tmpIndex++;
+                tmpValRe = tmpDataRe[tmpIndex];
+                tmpValIm = tmpDataIm[tmpIndex];
+                tmpDestinationRe[i] = tmpDataRe[tmpIndex] = ((tmpValRe * tmpDenomRe) + (tmpValIm * tmpDenomIm)) / tmpDenomNorm2;
+                tmpDestinationIm[i] = tmpDataIm[tmpIndex] = ((tmpValIm * tmpDenomRe) - (tmpValRe * tmpDenomIm)) / tmpDenomNorm2;
+            }
+
+        } else {
+
+            for (int i = row + 1; i < tmpRowDim; i++) {
+                tmpIndex++;
+                tmpValRe = tmpDataRe[tmpIndex];
+                tmpValIm = tmpDataIm[tmpIndex];
+                tmpDataRe[tmpIndex] = ((tmpValRe * tmpDenomRe) + (tmpValIm * tmpDenomIm)) / tmpDenomNorm2;
+                tmpDataIm[tmpIndex] = ((tmpValIm * tmpDenomRe) - (tmpValRe * tmpDenomIm)) / tmpDenomNorm2;
+                destination.set(i, this.get(tmpIndex));
+            }
+        }
+    }
+
+    public double doubleValue(final long row, final long col) {
+        return real[(int) (row + (col * myRowDim))];
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean equals(final Object anObj) {
+        if (anObj instanceof MatrixStore) {
+            return this.equals((MatrixStore<ComplexNumber>) anObj, NumberContext.getGeneral(6));
+        } else {
+            return super.equals(anObj);
+        }
+    }
+
+    public void exchangeColumns(final long colA, final long colB) {
+        myUtility.exchangeColumns(colA, colB);
+    }
+
+    public void exchangeHermitian(final int indexA, final int indexB) {
+
+        final int tmpMin = Math.min(indexA, indexB);
+        final int tmpMax = Math.max(indexA, indexB);
+
+        final int tmpRowDim = myRowDim;
+
+        for (int j = 0; j < tmpMin; j++) {
+            this.swap(tmpMin + (j * tmpRowDim), tmpMax + (j * tmpRowDim), false);
+        }
+
+        this.swap(tmpMin + (tmpMin * tmpRowDim), tmpMax + (tmpMax * tmpRowDim), false);
+
+        for (int ij = tmpMin + 1; ij < tmpMax; ij++) {
+            this.swap(ij + (tmpMin * tmpRowDim), tmpMax + (ij * tmpRowDim), true);
+        }
+
+        for (int i = tmpMax + 1; i < tmpRowDim; i++) {
+            this.swap(i + (tmpMin * tmpRowDim), i + (tmpMax * tmpRowDim), false);
+        }
+    }
+
+    public void exchangeRows(final long rowA, final long rowB) {
+        myUtility.exchangeRows(rowA, rowB);
+    }
+
+    public void fillByMultiplying(final Access1D<ComplexNumber> left, final Access1D<ComplexNumber> right) {
+
+        final int complexity = ((int) left.count()) / myRowDim;
+
+        if ((left instanceof ComplexDenseStore) || (right instanceof ComplexDenseStore)) {
+
+            final ComplexDenseStore tmpLeft = ComplexDenseStore.cast(left);
+            final ComplexDenseStore tmpRight = ComplexDenseStore.cast(right);
+
+            multiplyNeither.invoke(real, imaginary, tmpLeft.real, tmpLeft.imaginary, complexity, tmpRight.real, tmpRight.imaginary);
+
+        } else {
+
+            multiplyBoth.invoke(this, left, complexity, right);
+        }
+    }
+
+    public void fillColumn(final long row, final long col, final Access1D<ComplexNumber> values) {
+        myUtility.fillColumn(row, col, values);
+    }
+
+    public void fillColumn(final long row, final long col, final ComplexNumber value) {
+        myUtility.fillColumn(row, col, value);
+    }
+
+    public void fillColumn(final long row, final long col, final NullaryFunction<ComplexNumber> supplier) {
+        myUtility.fillColumn(row, col, supplier);
+    }
+
+    public void fillDiagonal(final long row, final long col, final ComplexNumber value) {
+        myUtility.fillDiagonal(row, col, value);
+    }
+
+    public void fillDiagonal(final long row, final long col, final NullaryFunction<ComplexNumber> supplier) {
+        myUtility.fillDiagonal(row, col, supplier);
+    }
+
+    @Override
+    public void fillMatching(final Access1D<?> values) {
+
+        if (values instanceof ConjugatedStore) {
+            final TransjugatedStore<?> conjugated = (ConjugatedStore<?>) values;
+
+            if (myColDim > FillMatchingSingle.THRESHOLD) {
+
+                final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                    @Override
+                    public void conquer(final int first, final int limit) {
+                        FillMatchingSingle.conjugate(real, imaginary, myRowDim, first, limit, conjugated.getOriginal());
+                    }
+
+                };
+
+                tmpConquerer.invoke(0, myColDim, FillMatchingSingle.THRESHOLD);
+
+            } else {
+
+                FillMatchingSingle.conjugate(real, imaginary, myRowDim, 0, myColDim, conjugated.getOriginal());
+            }
+
+        } else if (values instanceof TransposedStore) {
+            final TransjugatedStore<?> transposed = (TransposedStore<?>) values;
+
+            if (myColDim > FillMatchingSingle.THRESHOLD) {
+
+                final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                    @Override
+                    public void conquer(final int first, final int limit) {
+                        FillMatchingSingle.transpose(real, imaginary, myRowDim, first, limit, transposed.getOriginal());
+                    }
+
+                };
+
+                tmpConquerer.invoke(0, myColDim, FillMatchingSingle.THRESHOLD);
+
+            } else {
+
+                FillMatchingSingle.transpose(real, imaginary, myRowDim, 0, myColDim, transposed.getOriginal());
+            }
+
+        } else {
+
+            super.fillMatching(values);
+        }
+    }
+
+    @Override
+    public void fillMatching(final Access1D<ComplexNumber> left, final BinaryFunction<ComplexNumber> function, final Access1D<ComplexNumber> right) {
+
+        final int matchingCount = (int) FunctionUtils.min(this.count(), left.count(), right.count());
+
+        if (myColDim > FillMatchingDual.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    ComplexDenseStore.this.fill(first, limit, left, function, right);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, matchingCount, FillMatchingDual.THRESHOLD * FillMatchingDual.THRESHOLD);
+
+        } else {
+
+            this.fill(0, matchingCount, left, function, right);
+        }
+    }
+
+    @Override
+    public void fillMatching(final UnaryFunction<ComplexNumber> function, final Access1D<ComplexNumber> arguments) {
+
+        final int matchingCount = (int) FunctionUtils.min(this.count(), arguments.count());
+
+        if (myColDim > FillMatchingSingle.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    ComplexDenseStore.this.fill(first, limit, function, arguments);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, matchingCount, FillMatchingSingle.THRESHOLD * FillMatchingSingle.THRESHOLD);
+
+        } else {
+
+            this.fill(0, matchingCount, function, arguments);
+        }
+    }
+
+    public void fillOne(final long row, final long col, final Access1D<?> values, final long valueIndex) {
+        this.set(row, col, values.get(valueIndex));
+    }
+
+    public void fillOne(final long row, final long col, final ComplexNumber value) {
+        myUtility.fillOne(row, col, value);
+    }
+
+    public void fillOne(final long row, final long col, final NullaryFunction<ComplexNumber> supplier) {
+        myUtility.fillOne(row, col, supplier);
+    }
+
+    public void fillRow(final long row, final long col, final Access1D<ComplexNumber> values) {
+        myUtility.fillRow(row, col, values);
+    }
+
+    public void fillRow(final long row, final long col, final ComplexNumber value) {
+        myUtility.fillRow(row, col, value);
+    }
+
+    public void fillRow(final long row, final long col, final NullaryFunction<ComplexNumber> supplier) {
+        myUtility.fillRow(row, col, supplier);
+    }
+
+    public boolean generateApplyAndCopyHouseholderColumn(final int row, final int column, final Householder<ComplexNumber> destination) {
+        if (destination instanceof Householder.SplitComplex) {
+            return GenerateApplyAndCopyHouseholderColumn.invoke(real, imaginary, myRowDim, row, column, (Householder.SplitComplex) destination);
+        } else {
+            final Householder.SplitComplex tmpSplit = new Householder.SplitComplex((int) destination.count());
+            final boolean retVal = GenerateApplyAndCopyHouseholderColumn.invoke(real, imaginary, myRowDim, row, column, tmpSplit);
+            ((Householder.Generic<ComplexNumber>) destination).copy(tmpSplit, ComplexNumber.valueOf(tmpSplit.beta));
+            return retVal;
+        }
+    }
+
+    public boolean generateApplyAndCopyHouseholderRow(final int row, final int column, final Householder<ComplexNumber> destination) {
+        if (destination instanceof Householder.SplitComplex) {
+            return GenerateApplyAndCopyHouseholderRow.invoke(real, imaginary, myRowDim, row, column, (Householder.SplitComplex) destination);
+        } else {
+            final Householder.SplitComplex tmpSplit = new Householder.SplitComplex((int) destination.count());
+            final boolean retVal = GenerateApplyAndCopyHouseholderRow.invoke(real, imaginary, myRowDim, row, column, tmpSplit);
+            ((Householder.Generic<ComplexNumber>) destination).copy(tmpSplit, ComplexNumber.valueOf(tmpSplit.beta));
+            return retVal;
+        }
+    }
+
+    public final MatrixStore<ComplexNumber> get() {
+        return this;
+    }
+
+    public ComplexNumber get(final long row, final long col) {
+        final int tmpIndex = (int) (row + (col * myRowDim));
+        return ComplexNumber.of(real[tmpIndex], imaginary[tmpIndex]);
+    }
+
+    @Override
+    public int hashCode() {
+        return MatrixUtils.hashCode(this);
+    }
+
+    public long indexOfLargestInColumn(final long row, final long col) {
+        return myUtility.indexOfLargestInColumn(row, col);
+    }
+
+    public long indexOfLargestInRow(final long row, final long col) {
+        return myUtility.indexOfLargestInRow(row, col);
+    }
+
+    public long indexOfLargestOnDiagonal(final long first) {
+        return myUtility.indexOfLargestOnDiagonal(first);
+    }
+
+    public boolean isAbsolute(final long row, final long col) {
+        return myUtility.isAbsolute(row, col);
+    }
+
+    public boolean isColumnSmall(final long row, final long col, final double comparedTo) {
+        return myUtility.isColumnSmall(row, col, comparedTo);
+    }
+
+    public boolean isRowSmall(final long row, final long col, final double comparedTo) {
+        return myUtility.isRowSmall(row, col, comparedTo);
+    }
+
+    public boolean isSmall(final long row, final long col, final double comparedTo) {
+        return myUtility.isSmall(row, col, comparedTo);
+    }
+
+    @Override
+    public void modifyAll(final UnaryFunction<ComplexNumber> modifier) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        if (tmpColDim > ModifyAll.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int first, final int limit) {
+                    ComplexDenseStore.this.modify(tmpRowDim * first, tmpRowDim * limit, 1, modifier);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, ModifyAll.THRESHOLD);
+
+        } else {
+
+            this.modify(0, tmpRowDim * tmpColDim, 1, modifier);
+        }
+    }
+
+    public void modifyColumn(final long row, final long col, final UnaryFunction<ComplexNumber> modifier) {
+        myUtility.modifyColumn(row, col, modifier);
+    }
+
+    public void modifyDiagonal(final long row, final long col, final UnaryFunction<ComplexNumber> modifier) {
+        myUtility.modifyDiagonal(row, col, modifier);
+    }
+
+    public void modifyMatching(final Access1D<ComplexNumber> left, final BinaryFunction<ComplexNumber> function) {
+        final long tmpLimit = FunctionUtils.min(left.count(), this.count());
+        for (long i = 0L; i < tmpLimit; i++) {
+            this.fillOne(i, function.invoke(left.get(i), this.get(i)));
+        }
+    }
+
+    public void modifyMatching(final BinaryFunction<ComplexNumber> function, final Access1D<ComplexNumber> right) {
+        final long tmpLimit = FunctionUtils.min(this.count(), right.count());
+        for (long i = 0L; i < tmpLimit; i++) {
+            this.fillOne(i, function.invoke(this.get(i), right.get(i)));
+        }
+    }
+
+    public void modifyOne(final long row, final long col, final UnaryFunction<ComplexNumber> modifier) {
+        this.set(row, col, modifier.invoke(this.get(row, col)));
+    }
+
+    public void modifyRow(final long row, final long col, final UnaryFunction<ComplexNumber> modifier) {
+        myUtility.modifyRow(row, col, modifier);
+    }
+
+    public MatrixStore<ComplexNumber> multiply(final MatrixStore<ComplexNumber> right) {
+
+        final ComplexDenseStore retVal = FACTORY.makeZero(myRowDim, right.count() / myColDim);
+
+        final ComplexDenseStore tmpRight = ComplexDenseStore.cast(right);
+
+        retVal.multiplyNeither.invoke(retVal.real, retVal.imaginary, real, imaginary, myColDim, tmpRight.real, tmpRight.imaginary);
+
+        return retVal;
+    }
+
+    public ComplexNumber multiplyBoth(final Access1D<ComplexNumber> leftAndRight) {
+
+        final PhysicalStore<ComplexNumber> tmpStep1 = FACTORY.makeZero(1L, leftAndRight.count());
+        final PhysicalStore<ComplexNumber> tmpStep2 = FACTORY.makeZero(1L, 1L);
+
+        final PhysicalStore<ComplexNumber> tmpLeft = FACTORY.rows(leftAndRight);
+        tmpLeft.modifyAll(FACTORY.function().conjugate());
+        tmpStep1.fillByMultiplying(tmpLeft, this);
+
+        tmpStep2.fillByMultiplying(tmpStep1, leftAndRight);
+
+        return tmpStep2.get(0L);
+    }
+
+    public void negateColumn(final int column) {
+        for (int i = column * myRowDim, limit = i + myRowDim; i < limit; i++) {
+            real[i] = -real[i];
+            imaginary[i] = -imaginary[i];
+        }
+    }
+
+    public PhysicalStore.Factory<ComplexNumber, ComplexDenseStore> physical() {
+        return FACTORY;
+    }
+
+    public final ElementsConsumer<ComplexNumber> regionByColumns(final int... columns) {
+        return new ElementsConsumer.ColumnsRegion<>(this, multiplyBoth, columns);
+    }
+
+    public final ElementsConsumer<ComplexNumber> regionByLimits(final int rowLimit, final int columnLimit) {
+        return new ElementsConsumer.LimitRegion<>(this, multiplyBoth, rowLimit, columnLimit);
+    }
+
+    public final ElementsConsumer<ComplexNumber> regionByOffsets(final int rowOffset, final int columnOffset) {
+        return new ElementsConsumer.OffsetRegion<>(this, multiplyBoth, rowOffset, columnOffset);
+    }
+
+    public final ElementsConsumer<ComplexNumber> regionByRows(final int... rows) {
+        return new ElementsConsumer.RowsRegion<>(this, multiplyBoth, rows);
+    }
+
+    public final ElementsConsumer<ComplexNumber> regionByTransposing() {
+        return new ElementsConsumer.TransposedRegion<>(this, multiplyBoth);
+    }
+
+    public void rotateRight(final int low, final int high, final double cos, final double sin) {
+        RotateRight.invoke(real, imaginary, myRowDim, low, high, cos, PrimitiveMath.ZERO, sin, PrimitiveMath.ZERO);
+    }
+
+    public void set(final long row, final long col, final double value) {
+        final int tmpIndex = (int) (row + (col * myRowDim));
+        real[tmpIndex] = value;
+        imaginary[tmpIndex] = PrimitiveMath.ZERO;
+    }
+
+    public void set(final long row, final long col, final Number value) {
+        this.set(row + (col * myRowDim), value);
+    }
+
+    public void setToIdentity(final int col) {
+        final int tmpIndex = col + (col * myRowDim);
+        real[tmpIndex] = PrimitiveMath.ONE;
+        imaginary[tmpIndex] = PrimitiveMath.ZERO;
+        for (int i = tmpIndex + 1, limit = (col + 1) * myRowDim; i < limit; i++) {
+            real[i] = PrimitiveMath.ZERO;
+            imaginary[i] = PrimitiveMath.ZERO;
+        }
+    }
+
+    public Array1D<ComplexNumber> sliceColumn(final long row, final long col) {
+        return myUtility.sliceColumn(row, col);
+    }
+
+    public Array1D<ComplexNumber> sliceDiagonal(final long row, final long col) {
+        return myUtility.sliceDiagonal(row, col);
+    }
+
+    public Array1D<ComplexNumber> sliceRange(final long first, final long limit) {
+        return myUtility.sliceRange(first, limit);
+    }
+
+    public Array1D<ComplexNumber> sliceRow(final long row, final long col) {
+        return myUtility.sliceRow(row, col);
+    }
+
+    public void substituteBackwards(final Access2D<ComplexNumber> body, final boolean unitDiagonal, final boolean conjugated, final boolean hermitian) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        if (tmpColDim > SubstituteBackwards.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int first, final int limit) {
+                    SubstituteBackwards.invoke(real, imaginary, tmpRowDim, first, limit, body, unitDiagonal, conjugated, hermitian);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, SubstituteBackwards.THRESHOLD);
+
+        } else {
+
+            SubstituteBackwards.invoke(real, imaginary, tmpRowDim, 0, tmpColDim, body, unitDiagonal, conjugated, hermitian);
+        }
+    }
+
+    public void substituteForwards(final Access2D<ComplexNumber> body, final boolean unitDiagonal, final boolean conjugated, final boolean identity) {
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        if (tmpColDim > SubstituteForwards.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int first, final int limit) {
+                    SubstituteForwards.invoke(real, imaginary, tmpRowDim, first, limit, body, unitDiagonal, conjugated, identity);
+                }
+
+            };
+
+            tmpConquerer.invoke(0, tmpColDim, SubstituteForwards.THRESHOLD);
+
+        } else {
+
+            SubstituteForwards.invoke(real, imaginary, tmpRowDim, 0, tmpColDim, body, unitDiagonal, conjugated, identity);
+        }
+    }
+
+    public void supplyTo(final ElementsConsumer<ComplexNumber> receiver) {
+        receiver.fillMatching(this);
+    }
+
+    public Scalar<ComplexNumber> toScalar(final long row, final long column) {
+        return this.get(row, column);
+    }
+
+    @Override
+    public final String toString() {
+        return Access2D.toString(this);
+    }
+
+    public void transformLeft(final Householder<ComplexNumber> transformation, final int firstColumn) {
+
+        final Householder.SplitComplex tmpTransf = ComplexDenseStore.cast(transformation);
+
+        final double[] tmpDataRe = real;
+        final double[] tmpDataIm = imaginary;
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        if ((tmpColDim - firstColumn) > HouseholderLeft.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int first, final int limit) {
+                    HouseholderLeft.invoke(tmpDataRe, tmpDataIm, tmpRowDim, first, limit, tmpTransf);
+                }
+
+            };
+
+            tmpConquerer.invoke(firstColumn, tmpColDim, HouseholderLeft.THRESHOLD);
+
+        } else {
+
+            HouseholderLeft.invoke(tmpDataRe, tmpDataIm, tmpRowDim, firstColumn, tmpColDim, tmpTransf);
+        }
+    }
+
+    public void transformLeft(final Rotation<ComplexNumber> transformation) {
+
+        final Rotation.Generic<ComplexNumber> tmpTransf = ComplexDenseStore.cast(transformation);
+
+        final int tmpLow = tmpTransf.low;
+        final int tmpHigh = tmpTransf.high;
+
+        if (tmpLow != tmpHigh) {
+            if ((tmpTransf.cos != null) && (tmpTransf.sin != null)) {
+                RotateLeft.invoke(real, imaginary, myRowDim, tmpLow, tmpHigh, tmpTransf.cos.doubleValue(), tmpTransf.cos.i, tmpTransf.sin.doubleValue(),
+                        tmpTransf.sin.i);
+            } else {
+                myUtility.exchangeRows(tmpLow, tmpHigh);
+            }
+        } else {
+            if (tmpTransf.cos != null) {
+                myUtility.modifyRow(tmpLow, 0, ComplexFunction.MULTIPLY.second(tmpTransf.cos));
+            } else if (tmpTransf.sin != null) {
+                myUtility.modifyRow(tmpLow, 0, ComplexFunction.DIVIDE.second(tmpTransf.sin));
+            } else {
+                myUtility.modifyRow(tmpLow, 0, ComplexFunction.NEGATE);
+            }
+        }
+    }
+
+    public void transformRight(final Householder<ComplexNumber> transformation, final int firstRow) {
+
+        final Householder.SplitComplex tmpTransf = ComplexDenseStore.cast(transformation);
+
+        final double[] tmpDataRe = real;
+        final double[] tmpDataIm = imaginary;
+
+        final int tmpRowDim = myRowDim;
+        final int tmpColDim = myColDim;
+
+        if ((tmpRowDim - firstRow) > HouseholderRight.THRESHOLD) {
+
+            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                @Override
+                public void conquer(final int first, final int limit) {
+                    HouseholderRight.invoke(tmpDataRe, tmpDataIm, first, limit, tmpColDim, tmpTransf);
+                }
+
+            };
+
+            tmpConquerer.invoke(firstRow, tmpRowDim, HouseholderRight.THRESHOLD);
+
+        } else {
+
+            HouseholderRight.invoke(tmpDataRe, tmpDataIm, firstRow, tmpRowDim, tmpColDim, tmpTransf);
+        }
+    }
+
+    public void transformRight(final Rotation<ComplexNumber> transformation) {
+
+        final Rotation.Generic<ComplexNumber> tmpTransf = ComplexDenseStore.cast(transformation);
+
+        final int tmpLow = tmpTransf.low;
+        final int tmpHigh = tmpTransf.high;
+
+        if (tmpLow != tmpHigh) {
+            if ((tmpTransf.cos != null) && (tmpTransf.sin != null)) {
+                RotateRight.invoke(real, imaginary, myRowDim, tmpLow, tmpHigh, tmpTransf.cos.doubleValue(), tmpTransf.cos.i, tmpTransf.sin.doubleValue(),
+                        tmpTransf.sin.i);
+            } else {
+                myUtility.exchangeColumns(tmpLow, tmpHigh);
+            }
+        } else {
+            if (tmpTransf.cos != null) {
+                myUtility.modifyColumn(0, tmpHigh, ComplexFunction.MULTIPLY.second(tmpTransf.cos));
+            } else if (tmpTransf.sin != null) {
+                myUtility.modifyColumn(0, tmpHigh, ComplexFunction.DIVIDE.second(tmpTransf.sin));
+            } else {
+                myUtility.modifyColumn(0, tmpHigh, ComplexFunction.NEGATE);
+            }
+        }
+    }
+
+    public void transformSymmetric(final Householder<ComplexNumber> transformation) {
+        final SplitComplexArray tmpWorker = this.getWorkerColumn();
+        HouseholderHermitian.invoke(real, imaginary, ComplexDenseStore.cast(transformation), tmpWorker.real, tmpWorker.imaginary);
+    }
+
+    public MatrixStore<ComplexNumber> transpose() {
+        return new TransposedStore<>(this);
+    }
+
+    public void tred2(final BasicArray<ComplexNumber> mainDiagonal, final BasicArray<ComplexNumber> offDiagonal, final boolean yesvecs) {
+        ProgrammingError.throwForUnsupportedOptionalOperation();
+    }
+
+    public void visitColumn(final long row, final long col, final ConsumerFunction<ComplexNumber> visitor) {
+        myUtility.visitColumn(row, col, visitor);
+    }
+
+    public void visitDiagonal(final long row, final long col, final ConsumerFunction<ComplexNumber> visitor) {
+        myUtility.visitDiagonal(row, col, visitor);
+    }
+
+    public void visitRow(final long row, final long col, final ConsumerFunction<ComplexNumber> visitor) {
+        myUtility.visitRow(row, col, visitor);
+    }
+
+    private SplitComplexArray cast(final BasicArray<ComplexNumber> multipliers) {
+        if (multipliers instanceof SplitComplexArray) {
+            return (SplitComplexArray) multipliers;
+        } else {
+            final SplitComplexArray retVal = SplitComplexArray.make((int) multipliers.count());
+            retVal.fillMatching(multipliers);
+            return retVal;
+        }
+    }
+
+    private void fill(final int first, final int limit, final UnaryFunction<ComplexNumber> function, final Access1D<ComplexNumber> arguments) {
+        for (int i = first; i < limit; i++) {
+            this.fillOne(i, function.invoke(arguments.get(i)));
+        }
+    }
+
+    private SplitComplexArray getWorkerColumn() {
+
+        if (myWorkerColumn == null) {
+            myWorkerColumn = SplitComplexArray.make(myRowDim);
+        } else {
+            myWorkerColumn.reset();
+        }
+
+        return myWorkerColumn;
+    }
+
+    /**
+     * Swaps two elements, optionally conjugating both of them.
+     */
+    private void swap(final int indexA, final int indexB, final boolean conjugate) {
+
+        final double tmpRe = real[indexA];
+        final double tmpIm = imaginary[indexA];
+
+        real[indexA] = real[indexB];
+        real[indexB] = tmpRe;
+
+        if (conjugate) {
+            imaginary[indexA] = -imaginary[indexB];
+            imaginary[indexB] = -tmpIm;
+        } else {
+            imaginary[indexA] = imaginary[indexB];
+            imaginary[indexB] = tmpIm;
+        }
+    }
+
+    int getColDim() {
+        return myColDim;
+    }
+
+    int getMaxDim() {
+        return Math.max(myRowDim, myColDim);
+    }
+
+    int getMinDim() {
+        return Math.min(myRowDim, myColDim);
+    }
+
+    int getRowDim() {
+        return myRowDim;
+    }
+
+}
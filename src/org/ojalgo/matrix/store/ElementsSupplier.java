@@ -48,16 +48,15 @@ public interface ElementsSupplier<N extends Number> extends Stream2D<N, MatrixSt
     }
 
     default ElementsSupplier<N> operateOnAll(final UnaryFunction<N> operator) {
-        return new MatrixPipeline.UnaryOperator<>(this, operator);
+        return MatrixPipeline.ElementWise.of(this, new MatrixPipeline.ElementWise.Unary<>(operator));
     }
 
     default ElementsSupplier<N> operateOnMatching(final BinaryFunction<N> operator, final MatrixStore<N> right) {
-        return new MatrixPipeline.BinaryOperatorRight<>(this, operator, right);
-
+        return MatrixPipeline.ElementWise.of(this, new MatrixPipeline.ElementWise.MatchingRight<>(this, operator, right));
     }
 
     default ElementsSupplier<N> operateOnMatching(final MatrixStore<N> left, final BinaryFunction<N> operator) {
-        return new MatrixPipeline.BinaryOperatorLeft<>(left, operator, this);
+        return MatrixPipeline.ElementWise.of(this, new MatrixPipeline.ElementWise.MatchingLeft<>(this, left, operator));
     }
 
     PhysicalStore.Factory<N, ?> physical();
@@ -0,0 +1,731 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.access.Access1D;
+import org.ojalgo.access.Access2D;
+import org.ojalgo.access.ElementView2D;
+
+/**
+ * A read-only matrix backed by a memory mapped file, in ojAlgo's binary matrix format. Loading is just
+ * mapping the file - nothing is read or copied until the elements are accessed, and then the OS page cache
+ * is used directly. Files of several GB load instantly and do not add to the Java heap.
+ * <p>
+ * The format is a 64 byte header followed by the payload:
+ * <table>
+ * <tr>
+ * <th>Offset</th>
+ * <th>Size</th>
+ * <th>Header field</th>
+ * </tr>
+ * <tr>
+ * <td>0</td>
+ * <td>4</td>
+ * <td>Magic number, {@link #MAGIC}</td>
+ * </tr>
+ * <tr>
+ * <td>4</td>
+ * <td>2</td>
+ * <td>Format version, {@link #VERSION}</td>
+ * </tr>
+ * <tr>
+ * <td>6</td>
+ * <td>1</td>
+ * <td>Element type, {@link #TYPE_FLOAT64} is the only one supported</td>
+ * </tr>
+ * <tr>
+ * <td>7</td>
+ * <td>1</td>
+ * <td>{@link Layout} ordinal</td>
+ * </tr>
+ * <tr>
+ * <td>8</td>
+ * <td>1</td>
+ * <td>Payload byte order, 0 big endian and 1 little endian</td>
+ * </tr>
+ * <tr>
+ * <td>16</td>
+ * <td>8</td>
+ * <td>Number of rows</td>
+ * </tr>
+ * <tr>
+ * <td>24</td>
+ * <td>8</td>
+ * <td>Number of columns</td>
+ * </tr>
+ * <tr>
+ * <td>32</td>
+ * <td>8</td>
+ * <td>Number of stored elements (rows * columns when dense)</td>
+ * </tr>
+ * </table>
+ * The header is always big endian. The payload is written in the native byte order of the machine that
+ * wrote it (files written with another byte order can still be read, just a bit slower). The payload of a
+ * dense matrix is simply all the elements, in column-major or row-major order. The payload of a sparse
+ * matrix is a CSR (compressed sparse row) structure: rows+1 long row pointers, then the int column indices
+ * (ascending within each row), padding to 8 bytes, and finally the values.
+ * <p>
+ * Write files using {@link #write(File, Access2D)}, {@link #write(File, SparseStore)} or, when the matrix
+ * is too large to (first) have in memory, with a {@link DenseWriter} or {@link SparseWriter} that streams
+ * the elements to file.
+ *
+ * @author apete
+ */
+public final class MappedStore extends FactoryStore<Double> {
+
+    /**
+     * Appends elements one at the time, in the order of the layout, streaming them to file.
+     */
+    public static final class DenseWriter implements AutoCloseable {
+
+        private final ByteBuffer myBuffer;
+        private final FileChannel myChannel;
+        private final long myCount;
+        private final RandomAccessFile myFile;
+        private long myWritten = 0L;
+
+        DenseWriter(final File file, final long rows, final long columns, final Layout layout) {
+
+            super();
+
+            if (layout == Layout.SPARSE_ROWS) {
+                throw new ProgrammingError("Use a SparseWriter!");
+            }
+
+            myCount = rows * columns;
+
+            try {
+                myFile = new RandomAccessFile(file, "rw");
+                myFile.setLength(0L);
+                myChannel = myFile.getChannel();
+                MappedStore.writeHeader(myChannel, layout, rows, columns, myCount);
+                myChannel.position(HEADER);
+            } catch (final IOException exception) {
+                throw new RuntimeException(exception);
+            }
+
+            myBuffer = ByteBuffer.allocateDirect(BUFFER).order(ByteOrder.nativeOrder());
+        }
+
+        public void close() {
+            try {
+                if (myWritten == myCount) {
+                    MappedStore.drain(myBuffer, myChannel);
+                    myChannel.force(false);
+                }
+            } catch (final IOException exception) {
+                throw new RuntimeException(exception);
+            } finally {
+                try {
+                    myFile.close();
+                } catch (final IOException exception) {
+                    throw new RuntimeException(exception);
+                }
+            }
+            if (myWritten != myCount) {
+                throw new IllegalStateException("Wrote " + myWritten + " of " + myCount + " elements!");
+            }
+        }
+
+        /**
+         * The next element
+         */
+        public void put(final double value) {
+            if (!myBuffer.hasRemaining()) {
+                MappedStore.drain(myBuffer, myChannel);
+            }
+            myBuffer.putDouble(value);
+            myWritten++;
+        }
+
+        /**
+         * The next values.count() elements
+         */
+        public void putAll(final Access1D<?> values) {
+            for (long i = 0L, tmpLimit = values.count(); i < tmpLimit; i++) {
+                this.put(values.doubleValue(i));
+            }
+        }
+
+    }
+
+    public enum Layout {
+
+        COLUMN_MAJOR, ROW_MAJOR, SPARSE_ROWS;
+
+    }
+
+    /**
+     * Appends the nonzero elements row by row, streaming them to file. The column indices are written directly
+     * to the target file, and the values to a temporary file that is appended when the writer is closed.
+     */
+    public static final class SparseWriter implements AutoCloseable {
+
+        private final FileChannel myChannel;
+        private final long myColumns;
+        private long myCurrentRow = 0L;
+        private final RandomAccessFile myFile;
+        private final ByteBuffer myIndices;
+        private long myLastColumn = -1L;
+        private long myNonzeros = 0L;
+        private final ByteBuffer[] myPointers;
+        private final long myRows;
+        private final File myTemporary;
+        private final RandomAccessFile myTemporaryFile;
+        private final ByteBuffer myValues;
+
+        SparseWriter(final File file, final long rows, final long columns) {
+
+            super();
+
+            if (columns > Integer.MAX_VALUE) {
+                throw new ProgrammingError("Too many columns!");
+            }
+
+            myRows = rows;
+            myColumns = columns;
+
+            try {
+
+                myFile = new RandomAccessFile(file, "rw");
+                myFile.setLength(0L);
+                myChannel = myFile.getChannel();
+                MappedStore.writeHeader(myChannel, Layout.SPARSE_ROWS, rows, columns, 0L);
+
+                myPointers = MappedStore.map(myChannel, HEADER, rows + 1L, LONG_SIZE, MapMode.READ_WRITE);
+                myChannel.position(HEADER + ((rows + 1L) * LONG_SIZE));
+
+                myTemporary = File.createTempFile("ojAlgo", ".csr", file.getAbsoluteFile().getParentFile());
+                myTemporary.deleteOnExit();
+                myTemporaryFile = new RandomAccessFile(myTemporary, "rw");
+
+            } catch (final IOException exception) {
+                throw new RuntimeException(exception);
+            }
+
+            myIndices = ByteBuffer.allocateDirect(BUFFER / 2).order(ByteOrder.nativeOrder());
+            myValues = ByteBuffer.allocateDirect(BUFFER).order(ByteOrder.nativeOrder());
+
+            this.pointer(0L, 0L);
+        }
+
+        public void close() {
+
+            while (myCurrentRow < myRows) {
+                this.nextRow();
+            }
+
+            try {
+
+                MappedStore.drain(myIndices, myChannel);
+                MappedStore.drain(myValues, myTemporaryFile.getChannel());
+
+                final long tmpValuesPosition = MappedStore.valuesPosition(myRows, myNonzeros);
+                final long tmpSize = myNonzeros * DOUBLE_SIZE;
+                myFile.setLength(tmpValuesPosition + tmpSize);
+
+                final FileChannel tmpValues = myTemporaryFile.getChannel().position(0L);
+                long tmpTransferred = 0L;
+                while (tmpTransferred < tmpSize) {
+                    tmpTransferred += myChannel.transferFrom(tmpValues, tmpValuesPosition + tmpTransferred, tmpSize - tmpTransferred);
+                }
+
+                MappedStore.writeHeader(myChannel, Layout.SPARSE_ROWS, myRows, myColumns, myNonzeros);
+
+                for (final ByteBuffer tmpBuffer : myPointers) {
+                    ((MappedByteBuffer) tmpBuffer).force();
+                }
+                myChannel.force(false);
+                myFile.close();
+                myTemporaryFile.close();
+                myTemporary.delete();
+
+            } catch (final IOException exception) {
+                throw new RuntimeException(exception);
+            }
+        }
+
+        /**
+         * Move on to the next row
+         */
+        public void nextRow() {
+            if (myCurrentRow >= myRows) {
+                throw new IllegalStateException("No more rows!");
+            }
+            myCurrentRow++;
+            this.pointer(myCurrentRow, myNonzeros);
+            myLastColumn = -1L;
+        }
+
+        /**
+         * The next nonzero element of the current row. Columns must be increasing within a row.
+         */
+        public void put(final long column, final double value) {
+            if ((column <= myLastColumn) || (column >= myColumns) || (myCurrentRow >= myRows)) {
+                throw new IllegalStateException("Rows must be written in order, with increasing column indices!");
+            }
+            if (!myIndices.hasRemaining()) {
+                MappedStore.drain(myIndices, myChannel);
+            }
+            if (!myValues.hasRemaining()) {
+                MappedStore.drain(myValues, myTemporaryFile.getChannel());
+            }
+            myIndices.putInt((int) column);
+            myValues.putDouble(value);
+            myLastColumn = column;
+            myNonzeros++;
+        }
+
+        private void pointer(final long row, final long value) {
+            myPointers[(int) (row / SEGMENT)].putLong((int) ((row % SEGMENT) * LONG_SIZE), value);
+        }
+
+    }
+
+    public static final int MAGIC = 0x6F6A4D58; // "ojMX"
+    public static final byte TYPE_FLOAT64 = 1;
+    public static final short VERSION = 1;
+
+    static final int BUFFER = 1 << 16;
+    static final long DOUBLE_SIZE = 8L;
+    static final long HEADER = 64L;
+    static final long INT_SIZE = 4L;
+    static final long LONG_SIZE = 8L;
+    /**
+     * Max number of elements per mapped segment (1GB of doubles)
+     */
+    static final int SEGMENT = 1 << 27;
+
+    /**
+     * Map a file, written in this format, as a read-only matrix.
+     */
+    public static MappedStore load(final File file) {
+
+        try (RandomAccessFile tmpFile = new RandomAccessFile(file, "r")) {
+
+            final FileChannel tmpChannel = tmpFile.getChannel();
+
+            final ByteBuffer tmpHeader = ByteBuffer.allocate((int) HEADER).order(ByteOrder.BIG_ENDIAN);
+            while (tmpHeader.hasRemaining()) {
+                if (tmpChannel.read(tmpHeader, tmpHeader.position()) < 0) {
+                    throw new ProgrammingError("Not an ojAlgo binary matrix file!");
+                }
+            }
+
+            if ((tmpHeader.getInt(0) != MAGIC) || (tmpHeader.getShort(4) > VERSION)) {
+                throw new ProgrammingError("Not an ojAlgo binary matrix file (or unsupported version)!");
+            }
+            if (tmpHeader.get(6) != TYPE_FLOAT64) {
+                throw new ProgrammingError("Unsupported element type!");
+            }
+
+            final byte tmpOrdinal = tmpHeader.get(7);
+            if ((tmpOrdinal < 0) || (tmpOrdinal >= Layout.values().length)) {
+                throw new IOException("Corrupt header, unknown layout " + tmpOrdinal + " in " + file + "!");
+            }
+            final Layout tmpLayout = Layout.values()[tmpOrdinal];
+            final ByteOrder tmpOrder = tmpHeader.get(8) == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+            final long tmpRows = tmpHeader.getLong(16);
+            final long tmpColumns = tmpHeader.getLong(24);
+            final long tmpCount = tmpHeader.getLong(32);
+
+            if ((tmpRows > Integer.MAX_VALUE) || (tmpColumns > Integer.MAX_VALUE)) {
+                throw new ProgrammingError("Too large to be a MatrixStore!");
+            }
+
+            // The mappings remain valid after the channel is closed
+            if (tmpLayout == Layout.SPARSE_ROWS) {
+
+                final ByteBuffer[] tmpPointers = MappedStore.map(tmpChannel, HEADER, tmpRows + 1L, LONG_SIZE, tmpOrder);
+                final ByteBuffer[] tmpIndices = MappedStore.map(tmpChannel, HEADER + ((tmpRows + 1L) * LONG_SIZE), tmpCount, INT_SIZE, tmpOrder);
+                final ByteBuffer[] tmpValues = MappedStore.map(tmpChannel, MappedStore.valuesPosition(tmpRows, tmpCount), tmpCount, DOUBLE_SIZE, tmpOrder);
+
+                final LongBuffer[] tmpRowPointers = new LongBuffer[tmpPointers.length];
+                for (int s = 0; s < tmpPointers.length; s++) {
+                    tmpRowPointers[s] = tmpPointers[s].asLongBuffer();
+                }
+                final IntBuffer[] tmpColumnIndices = new IntBuffer[tmpIndices.length];
+                for (int s = 0; s < tmpIndices.length; s++) {
+                    tmpColumnIndices[s] = tmpIndices[s].asIntBuffer();
+                }
+
+                return new MappedStore((int) tmpRows, (int) tmpColumns, tmpLayout, MappedStore.doubles(tmpValues), tmpRowPointers, tmpColumnIndices);
+
+            } else {
+
+                final ByteBuffer[] tmpValues = MappedStore.map(tmpChannel, HEADER, tmpCount, DOUBLE_SIZE, tmpOrder);
+
+                return new MappedStore((int) tmpRows, (int) tmpColumns, tmpLayout, MappedStore.doubles(tmpValues), null, null);
+            }
+
+        } catch (final IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    /**
+     * A streaming writer of a dense matrix. The elements are to be written in column-major order.
+     */
+    public static DenseWriter newDenseWriter(final File file, final long rows, final long columns) {
+        return new DenseWriter(file, rows, columns, Layout.COLUMN_MAJOR);
+    }
+
+    /**
+     * A streaming writer of a dense matrix. The elements are to be written in the order of the layout.
+     */
+    public static DenseWriter newDenseWriter(final File file, final long rows, final long columns, final Layout layout) {
+        return new DenseWriter(file, rows, columns, layout);
+    }
+
+    /**
+     * A streaming writer of a sparse (CSR) matrix.
+     */
+    public static SparseWriter newSparseWriter(final File file, final long rows, final long columns) {
+        return new SparseWriter(file, rows, columns);
+    }
+
+    /**
+     * Write any matrix, in the dense column-major format.
+     */
+    public static void write(final File file, final Access2D<?> matrix) {
+
+        try (DenseWriter tmpWriter = MappedStore.newDenseWriter(file, matrix.countRows(), matrix.countColumns())) {
+            if (matrix instanceof PrimitiveDenseStore) {
+                final double[] tmpData = ((PrimitiveDenseStore) matrix).data;
+                for (int i = 0; i < tmpData.length; i++) {
+                    tmpWriter.put(tmpData[i]);
+                }
+            } else {
+                tmpWriter.putAll(matrix);
+            }
+        }
+    }
+
+    /**
+     * Write a sparse matrix, in the sparse (CSR) format. The nonzeros are visited twice - first to count them
+     * per row, and then to scatter them to their final positions in the (memory mapped) file.
+     */
+    public static void write(final File file, final SparseStore<?> matrix) {
+
+        final long tmpRows = matrix.countRows();
+        final long tmpColumns = matrix.countColumns();
+
+        final long[] tmpPointers = new long[(int) tmpRows + 1];
+        long tmpNonzeros = 0L;
+        for (final ElementView2D<?, ?> tmpNonzero : matrix.nonzeros()) {
+            tmpPointers[(int) tmpNonzero.row() + 1]++;
+            tmpNonzeros++;
+        }
+        for (int i = 0; i < tmpRows; i++) {
+            tmpPointers[i + 1] += tmpPointers[i];
+        }
+
+        try (RandomAccessFile tmpFile = new RandomAccessFile(file, "rw")) {
+
+            tmpFile.setLength(0L);
+            final FileChannel tmpChannel = tmpFile.getChannel();
+            MappedStore.writeHeader(tmpChannel, Layout.SPARSE_ROWS, tmpRows, tmpColumns, tmpNonzeros);
+
+            final ByteBuffer[] tmpRowPointers = MappedStore.map(tmpChannel, HEADER, tmpRows + 1L, LONG_SIZE, MapMode.READ_WRITE);
+            for (int s = 0; s < tmpRowPointers.length; s++) {
+                final int tmpFirst = s * SEGMENT;
+                tmpRowPointers[s].asLongBuffer().put(tmpPointers, tmpFirst, Math.min(SEGMENT, tmpPointers.length - tmpFirst));
+            }
+
+            final ByteBuffer[] tmpIndices = MappedStore.map(tmpChannel, HEADER + ((tmpRows + 1L) * LONG_SIZE), tmpNonzeros, INT_SIZE, MapMode.READ_WRITE);
+            final ByteBuffer[] tmpValues = MappedStore.map(tmpChannel, MappedStore.valuesPosition(tmpRows, tmpNonzeros), tmpNonzeros, DOUBLE_SIZE,
+                    MapMode.READ_WRITE);
+
+            // The nonzeros are in column-major order, so each row gets its columns in increasing order
+            for (final ElementView2D<?, ?> tmpNonzero : matrix.nonzeros()) {
+                final long tmpIndex = tmpPointers[(int) tmpNonzero.row()]++;
+                tmpIndices[(int) (tmpIndex / SEGMENT)].putInt((int) ((tmpIndex % SEGMENT) * INT_SIZE), (int) tmpNonzero.column());
+                tmpValues[(int) (tmpIndex / SEGMENT)].putDouble((int) ((tmpIndex % SEGMENT) * DOUBLE_SIZE), tmpNonzero.doubleValue());
+            }
+
+            for (final ByteBuffer tmpBuffer : tmpIndices) {
+                ((MappedByteBuffer) tmpBuffer).force();
+            }
+            for (final ByteBuffer tmpBuffer : tmpValues) {
+                ((MappedByteBuffer) tmpBuffer).force();
+            }
+
+        } catch (final IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    static DoubleBuffer[] doubles(final ByteBuffer[] segments) {
+        final DoubleBuffer[] retVal = new DoubleBuffer[segments.length];
+        for (int s = 0; s < segments.length; s++) {
+            retVal[s] = segments[s].asDoubleBuffer();
+        }
+        return retVal;
+    }
+
+    /**
+     * Write the buffer's content to the channel, and clear it
+     */
+    static void drain(final ByteBuffer buffer, final FileChannel channel) {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (final IOException exception) {
+            throw new RuntimeException(exception);
+        }
+        buffer.clear();
+    }
+
+    static ByteBuffer[] map(final FileChannel channel, final long position, final long count, final long elementSize, final ByteOrder order)
+            throws IOException {
+        final ByteBuffer[] retVal = MappedStore.map(channel, position, count, elementSize, MapMode.READ_ONLY);
+        for (int s = 0; s < retVal.length; s++) {
+            retVal[s] = retVal[s].order(order);
+        }
+        return retVal;
+    }
+
+    /**
+     * Map count elements in segments of (at most) {@link #SEGMENT} elements each.
+     */
+    static ByteBuffer[] map(final FileChannel channel, final long position, final long count, final long elementSize, final MapMode mode)
+            throws IOException {
+        final int tmpSegments = (int) Math.max(1L, ((count - 1L) / SEGMENT) + 1L);
+        final ByteBuffer[] retVal = new ByteBuffer[tmpSegments];
+        for (int s = 0; s < tmpSegments; s++) {
+            final long tmpFirst = (long) s * SEGMENT;
+            final long tmpCount = Math.max(0L, Math.min(SEGMENT, count - tmpFirst));
+            retVal[s] = channel.map(mode, position + (tmpFirst * elementSize), tmpCount * elementSize).order(ByteOrder.nativeOrder());
+        }
+        return retVal;
+    }
+
+    static long valuesPosition(final long rows, final long nonzeros) {
+        final long tmpIndicesEnd = HEADER + ((rows + 1L) * LONG_SIZE) + (nonzeros * INT_SIZE);
+        return ((tmpIndicesEnd + (DOUBLE_SIZE - 1L)) / DOUBLE_SIZE) * DOUBLE_SIZE;
+    }
+
+    static void writeHeader(final FileChannel channel, final Layout layout, final long rows, final long columns, final long count) throws IOException {
+
+        final ByteBuffer tmpHeader = ByteBuffer.allocate((int) HEADER).order(ByteOrder.BIG_ENDIAN);
+        tmpHeader.putInt(0, MAGIC);
+        tmpHeader.putShort(4, VERSION);
+        tmpHeader.put(6, TYPE_FLOAT64);
+        tmpHeader.put(7, (byte) layout.ordinal());
+        tmpHeader.put(8, ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN ? (byte) 0 : (byte) 1);
+        tmpHeader.putLong(16, rows);
+        tmpHeader.putLong(24, columns);
+        tmpHeader.putLong(32, count);
+
+        long tmpPosition = 0L;
+        while (tmpHeader.hasRemaining()) {
+            tmpPosition += channel.write(tmpHeader, tmpPosition);
+        }
+    }
+
+    private final IntBuffer[] myColumnIndices;
+    private final Layout myLayout;
+    private final LongBuffer[] myRowPointers;
+    private final DoubleBuffer[] myValues;
+
+    MappedStore(final int rows, final int columns, final Layout layout, final DoubleBuffer[] values, final LongBuffer[] rowPointers,
+            final IntBuffer[] columnIndices) {
+
+        super(PrimitiveDenseStore.FACTORY, rows, columns);
+
+        myLayout = layout;
+        myValues = values;
+        myRowPointers = rowPointers;
+        myColumnIndices = columnIndices;
+    }
+
+    /**
+     * @return The number of stored elements (the number of nonzeros when sparse).
+     */
+    public long countStored() {
+        return myLayout == Layout.SPARSE_ROWS ? this.pointer(this.getRowDim()) : this.count();
+    }
+
+    public double doubleValue(final long row, final long col) {
+        switch (myLayout) {
+        case SPARSE_ROWS:
+            final long tmpIndex = this.find(row, col);
+            return tmpIndex >= 0L ? this.value(tmpIndex) : ZERO;
+        case ROW_MAJOR:
+            return this.value(col + (row * this.getColDim()));
+        default:
+            return this.value(row + (col * this.getRowDim()));
+        }
+    }
+
+    @Override
+    public int firstInRow(final int row) {
+        if (myLayout == Layout.SPARSE_ROWS) {
+            final long tmpFirst = this.pointer(row);
+            return tmpFirst < this.pointer(row + 1) ? this.column(tmpFirst) : this.getColDim();
+        } else {
+            return super.firstInRow(row);
+        }
+    }
+
+    public Double get(final long row, final long col) {
+        return this.doubleValue(row, col);
+    }
+
+    public Layout getLayout() {
+        return myLayout;
+    }
+
+    /**
+     * @return true if stored in the sparse (CSR) format
+     */
+    public boolean isSparse() {
+        return myLayout == Layout.SPARSE_ROWS;
+    }
+
+    @Override
+    public int limitOfRow(final int row) {
+        if (myLayout == Layout.SPARSE_ROWS) {
+            final long tmpLimit = this.pointer(row + 1);
+            return tmpLimit > this.pointer(row) ? this.column(tmpLimit - 1L) + 1 : 0;
+        } else {
+            return super.limitOfRow(row);
+        }
+    }
+
+    /**
+     * When sparse only the nonzero elements are visited (row by row).
+     */
+    @Override
+    public void multiply(final Access1D<Double> right, final ElementsConsumer<Double> target) {
+
+        if (myLayout == Layout.SPARSE_ROWS) {
+
+            final int tmpRowDim = this.getRowDim();
+            final int tmpComplexity = this.getColDim();
+            final int tmpColDim = (int) (right.count() / tmpComplexity);
+
+            final double[] tmpRow = new double[tmpColDim];
+
+            for (int i = 0; i < tmpRowDim; i++) {
+
+                for (int j = 0; j < tmpColDim; j++) {
+                    tmpRow[j] = ZERO;
+                }
+
+                for (long k = this.pointer(i), tmpLimit = this.pointer(i + 1); k < tmpLimit; k++) {
+                    final long tmpColumn = this.column(k);
+                    final double tmpValue = this.value(k);
+                    for (int j = 0; j < tmpColDim; j++) {
+                        tmpRow[j] += tmpValue * right.doubleValue(tmpColumn + ((long) j * tmpComplexity));
+                    }
+                }
+
+                for (int j = 0; j < tmpColDim; j++) {
+                    target.set(i, j, tmpRow[j]);
+                }
+            }
+
+        } else {
+
+            super.multiply(right, target);
+        }
+    }
+
+    /**
+     * Dense column-major data is bulk copied from the mapped buffers.
+     */
+    @Override
+    public void supplyTo(final ElementsConsumer<Double> receiver) {
+        if ((myLayout == Layout.COLUMN_MAJOR) && (receiver instanceof PrimitiveDenseStore) && (((PrimitiveDenseStore) receiver).countRows() == this.countRows())
+                && (((PrimitiveDenseStore) receiver).countColumns() == this.countColumns())) {
+            final double[] tmpData = ((PrimitiveDenseStore) receiver).data;
+            for (int s = 0, tmpFirst = 0; s < myValues.length; s++) {
+                final DoubleBuffer tmpSegment = myValues[s].duplicate();
+                final int tmpCount = tmpSegment.remaining();
+                tmpSegment.get(tmpData, tmpFirst, tmpCount);
+                tmpFirst += tmpCount;
+            }
+        } else if (myLayout == Layout.SPARSE_ROWS) {
+            receiver.reset();
+            for (int i = 0, tmpRowDim = this.getRowDim(); i < tmpRowDim; i++) {
+                for (long k = this.pointer(i), tmpLimit = this.pointer(i + 1); k < tmpLimit; k++) {
+                    receiver.set(i, this.column(k), this.value(k));
+                }
+            }
+        } else {
+            super.supplyTo(receiver);
+        }
+    }
+
+    private int column(final long index) {
+        return myColumnIndices[(int) (index / SEGMENT)].get((int) (index % SEGMENT));
+    }
+
+    /**
+     * Binary search among the column indices of the row
+     *
+     * @return The position in the value/index arrays or -1 if not stored
+     */
+    private long find(final long row, final long col) {
+        long tmpLow = this.pointer(row);
+        long tmpHigh = this.pointer(row + 1L) - 1L;
+        while (tmpLow <= tmpHigh) {
+            final long tmpMid = (tmpLow + tmpHigh) >>> 1;
+            final int tmpColumn = this.column(tmpMid);
+            if (tmpColumn < col) {
+                tmpLow = tmpMid + 1L;
+            } else if (tmpColumn > col) {
+                tmpHigh = tmpMid - 1L;
+            } else {
+                return tmpMid;
+            }
+        }
+        return -1L;
+    }
+
+    private long pointer(final long row) {
+        return myRowPointers[(int) (row / SEGMENT)].get((int) (row % SEGMENT));
+    }
+
+    private double value(final long index) {
+        return myValues[(int) (index / SEGMENT)].get((int) (index % SEGMENT));
+    }
+
+}
@@ -21,69 +21,278 @@
  */
 package org.ojalgo.matrix.store;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.ojalgo.ProgrammingError;
 import org.ojalgo.access.Access1D;
+import org.ojalgo.access.Structure2D;
+import org.ojalgo.concurrent.DivideAndConquer;
 import org.ojalgo.function.BinaryFunction;
 import org.ojalgo.function.UnaryFunction;
 import org.ojalgo.function.aggregator.Aggregator;
 import org.ojalgo.matrix.store.PhysicalStore.Factory;
+import org.ojalgo.matrix.store.operation.ModifyAll;
 
 abstract class MatrixPipeline<N extends Number> implements ElementsSupplier<N> {
 
-    static final class BinaryOperatorLeft<N extends Number> extends MatrixPipeline<N> {
+    static final class ColumnsReducer<N extends Number> extends MatrixPipeline<N> {
 
-        private final MatrixStore<N> myLeft;
-        private final BinaryFunction<N> myOperator;
+        private final Aggregator myAggregator;
+        private final MatrixStore<N> myBase;
 
-        BinaryOperatorLeft(final MatrixStore<N> left, final BinaryFunction<N> operator, final ElementsSupplier<N> right) {
-            super(right);
-            myLeft = left;
-            myOperator = operator;
+        ColumnsReducer(MatrixStore<N> base, Aggregator aggregator) {
+            super(base);
+            myBase = base;
+            myAggregator = aggregator;
         }
 
         @Override
-        public void supplyTo(final ElementsConsumer<N> receiver) {
-            this.getContext().supplyTo(receiver);
-            receiver.modifyMatching(myLeft, myOperator);
+        public long countRows() {
+            return 1L;
         }
+
+        @Override
+        public void supplyTo(ElementsConsumer<N> receiver) {
+            myBase.reduceColumns(myAggregator, receiver);
+        }
+
     }
 
-    static final class BinaryOperatorRight<N extends Number> extends MatrixPipeline<N> {
+    /**
+     * A chain of element-wise operations - any mix of {@link #operateOnAll(UnaryFunction)} and
+     * {@link #operateOnMatching(BinaryFunction, MatrixStore)}/{@link #operateOnMatching(MatrixStore, BinaryFunction)}
+     * - fused to be evaluated in one pass. Each element is read once from the (first) supplier, passed through all
+     * the operations, and written once to the receiver. Large matrices are processed in parallel.
+     */
+    static final class ElementWise<N extends Number> extends MatrixPipeline<N> {
 
-        private final BinaryFunction<N> myOperator;
-        private final MatrixStore<N> myRight;
+        static abstract class Step<N extends Number> {
+
+            /**
+             * The operand of a matching step must have the same shape as the pipeline's context.
+             */
+            static void validate(final Structure2D context, final Structure2D operand) {
+                if ((operand.countRows() != context.countRows()) || (operand.countColumns() != context.countColumns())) {
+                    throw new ProgrammingError("Matrix dimensions are not equal!");
+                }
+            }
+
+            abstract double invoke(double value, long index);
+
+            abstract N invoke(N value, long index);
+
+            /**
+             * Apply this step to an already filled receiver (when a fused pass is not possible)
+             */
+            abstract void modify(ElementsConsumer<N> receiver);
 
-        BinaryOperatorRight(final ElementsSupplier<N> left, final BinaryFunction<N> operator, final MatrixStore<N> right) {
-            super(left);
-            myRight = right;
-            myOperator = operator;
         }
 
-        @Override
-        public void supplyTo(final ElementsConsumer<N> receiver) {
-            this.getContext().supplyTo(receiver);
-            receiver.modifyMatching(myOperator, myRight);
+        static final class MatchingLeft<N extends Number> extends Step<N> {
+
+            private final MatrixStore<N> myLeft;
+            private final BinaryFunction<N> myOperator;
+
+            MatchingLeft(final Structure2D context, final MatrixStore<N> left, final BinaryFunction<N> operator) {
+                super();
+                Step.validate(context, left);
+                myLeft = left;
+                myOperator = operator;
+            }
+
+            @Override
+            double invoke(final double value, final long index) {
+                return myOperator.invoke(myLeft.doubleValue(index), value);
+            }
+
+            @Override
+            N invoke(final N value, final long index) {
+                return myOperator.invoke(myLeft.get(index), value);
+            }
+
+            @Override
+            void modify(final ElementsConsumer<N> receiver) {
+                receiver.modifyMatching(myLeft, myOperator);
+            }
+
         }
-    }
 
-    static final class ColumnsReducer<N extends Number> extends MatrixPipeline<N> {
+        static final class MatchingRight<N extends Number> extends Step<N> {
 
-        private final Aggregator myAggregator;
-        private final MatrixStore<N> myBase;
+            private final BinaryFunction<N> myOperator;
+            private final MatrixStore<N> myRight;
+
+            MatchingRight(final Structure2D context, final BinaryFunction<N> operator, final MatrixStore<N> right) {
+                super();
+                Step.validate(context, right);
+                myOperator = operator;
+                myRight = right;
+            }
+
+            @Override
+            double invoke(final double value, final long index) {
+                return myOperator.invoke(value, myRight.doubleValue(index));
+            }
+
+            @Override
+            N invoke(final N value, final long index) {
+                return myOperator.invoke(value, myRight.get(index));
+            }
+
+            @Override
+            void modify(final ElementsConsumer<N> receiver) {
+                receiver.modifyMatching(myOperator, myRight);
+            }
+
+        }
+
+        static final class Unary<N extends Number> extends Step<N> {
+
+            private final UnaryFunction<N> myOperator;
+
+            Unary(final UnaryFunction<N> operator) {
+                super();
+                myOperator = operator;
+            }
+
+            @Override
+            double invoke(final double value, final long index) {
+                return myOperator.invoke(value);
+            }
+
+            @Override
+            N invoke(final N value, final long index) {
+                return myOperator.invoke(value);
+            }
+
+            @Override
+            void modify(final ElementsConsumer<N> receiver) {
+                receiver.modifyAll(myOperator);
+            }
 
-        ColumnsReducer(MatrixStore<N> base, Aggregator aggregator) {
-            super(base);
-            myBase = base;
-            myAggregator = aggregator;
+        }
+
+        /**
+         * Unwraps (lazy) {@linkplain UnaryOperatoStore} instances so that their operators become part of the
+         * fused chain.
+         */
+        static <N extends Number> ElementWise<N> of(final ElementsSupplier<N> context, final Step<N> step) {
+
+            ElementsSupplier<N> tmpContext = context;
+            final List<Step<N>> tmpSteps = new ArrayList<>();
+
+            while (tmpContext instanceof UnaryOperatoStore) {
+                final UnaryOperatoStore<N> tmpStore = (UnaryOperatoStore<N>) tmpContext;
+                tmpSteps.add(0, new Unary<>(tmpStore.getOperator()));
+                tmpContext = tmpStore.getBase();
+            }
+            tmpSteps.add(step);
+
+            @SuppressWarnings("unchecked")
+            final Step<N>[] tmpArray = tmpSteps.toArray((Step<N>[]) new Step<?>[tmpSteps.size()]);
+
+            return new ElementWise<>(tmpContext, tmpArray);
+        }
+
+        private final Step<N>[] mySteps;
+
+        private ElementWise(final ElementsSupplier<N> context, final Step<N>[] steps) {
+            super(context);
+            mySteps = steps;
         }
 
         @Override
-        public long countRows() {
-            return 1L;
+        public ElementsSupplier<N> operateOnAll(final UnaryFunction<N> operator) {
+            return this.append(new Unary<>(operator));
         }
 
         @Override
-        public void supplyTo(ElementsConsumer<N> receiver) {
-            myBase.reduceColumns(myAggregator, receiver);
+        public ElementsSupplier<N> operateOnMatching(final BinaryFunction<N> operator, final MatrixStore<N> right) {
+            return this.append(new MatchingRight<>(this, operator, right));
+        }
+
+        @Override
+        public ElementsSupplier<N> operateOnMatching(final MatrixStore<N> left, final BinaryFunction<N> operator) {
+            return this.append(new MatchingLeft<>(this, left, operator));
+        }
+
+        @Override
+        public void supplyTo(final ElementsConsumer<N> receiver) {
+
+            final ElementsSupplier<N> tmpContext = this.getContext();
+
+            if ((receiver instanceof PhysicalStore) && (receiver.countRows() == tmpContext.countRows())
+                    && (receiver.countColumns() == tmpContext.countColumns())) {
+
+                final PhysicalStore<N> tmpReceiver = (PhysicalStore<N>) receiver;
+
+                final Access1D<N> tmpSource;
+                if (tmpContext instanceof MatrixStore) {
+                    tmpSource = (MatrixStore<N>) tmpContext;
+                } else {
+                    tmpContext.supplyTo(tmpReceiver);
+                    tmpSource = tmpReceiver;
+                }
+
+                final int tmpCount = (int) tmpReceiver.count();
+                final int tmpThreshold = ModifyAll.THRESHOLD * ModifyAll.THRESHOLD;
+
+                if (tmpCount > tmpThreshold) {
+
+                    final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                        @Override
+                        protected void conquer(final int first, final int limit) {
+                            ElementWise.this.evaluate(tmpSource, tmpReceiver, first, limit);
+                        }
+
+                    };
+
+                    tmpConquerer.invoke(0, tmpCount, tmpThreshold);
+
+                } else {
+
+                    this.evaluate(tmpSource, tmpReceiver, 0, tmpCount);
+                }
+
+            } else {
+
+                tmpContext.supplyTo(receiver);
+                for (final Step<N> tmpStep : mySteps) {
+                    tmpStep.modify(receiver);
+                }
+            }
+        }
+
+        private ElementWise<N> append(final Step<N> step) {
+            final Step<N>[] tmpSteps = Arrays.copyOf(mySteps, mySteps.length + 1);
+            tmpSteps[mySteps.length] = step;
+            return new ElementWise<>(this.getContext(), tmpSteps);
+        }
+
+        private void evaluate(final Access1D<N> source, final PhysicalStore<N> receiver, final int first, final int limit) {
+
+            final Step<N>[] tmpSteps = mySteps;
+
+            if (receiver instanceof PrimitiveDenseStore) {
+                for (int i = first; i < limit; i++) {
+                    double tmpValue = source.doubleValue(i);
+                    for (int s = 0; s < tmpSteps.length; s++) {
+                        tmpValue = tmpSteps[s].invoke(tmpValue, i);
+                    }
+                    receiver.set(i, tmpValue);
+                }
+            } else {
+                for (int i = first; i < limit; i++) {
+                    N tmpValue = source.get(i);
+                    for (int s = 0; s < tmpSteps.length; s++) {
+                        tmpValue = tmpSteps[s].invoke(tmpValue, i);
+                    }
+                    receiver.set(i, tmpValue);
+                }
+            }
         }
 
     }
@@ -188,22 +397,6 @@ abstract class MatrixPipeline<N extends Number> implements ElementsSupplier<N> {
         }
     }
 
-    static final class UnaryOperator<N extends Number> extends MatrixPipeline<N> {
-
-        private final UnaryFunction<N> myOperator;
-
-        UnaryOperator(final ElementsSupplier<N> context, final UnaryFunction<N> operator) {
-            super(context);
-            myOperator = operator;
-        }
-
-        @Override
-        public void supplyTo(final ElementsConsumer<N> receiver) {
-            this.getContext().supplyTo(receiver);
-            receiver.modifyAll(myOperator);
-        }
-    }
-
     private final ElementsSupplier<N> myContext;
 
     protected MatrixPipeline(final ElementsSupplier<N> context) {
@@ -486,12 +486,7 @@ public interface MatrixStore<N extends Number> extends ElementsSupplier<N>, Acce
     }
 
     default N aggregateAll(final Aggregator aggregator) {
-
-        final AggregatorFunction<N> tmpVisitor = this.physical().aggregator().get(aggregator);
-
-        this.visitAll(tmpVisitor);
-
-        return tmpVisitor.get();
+        return this.physical().aggregator().aggregate(aggregator, 0L, this.count(), (first, limit, aggr) -> this.visitRange(first, limit, aggr));
     }
 
     default N aggregateColumn(final long row, final long col, final Aggregator aggregator) {
@@ -0,0 +1,487 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+import org.ojalgo.access.Access1D;
+import org.ojalgo.access.Access2D;
+import org.ojalgo.array.Primitive64Array;
+import org.ojalgo.array.blas.AXPY;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.function.BinaryFunction;
+import org.ojalgo.function.NullaryFunction;
+import org.ojalgo.function.UnaryFunction;
+import org.ojalgo.machine.JavaType;
+import org.ojalgo.matrix.store.operation.MultiplyBoth;
+import org.ojalgo.type.Disposable;
+
+/**
+ * A dense matrix with its elements stored outside the Java heap, in native byte order direct buffers. Large
+ * matrices stored this way do not add to GC pauses.
+ * <p>
+ * Elements are stored column-major. Each column starts at a cache-line (64 byte) boundary, and the memory is
+ * page aligned when the JVM supports it (Java 9+). Since a single direct buffer is limited to 2GB the columns
+ * are split over several buffers (segments) when necessary.
+ * <p>
+ * Individual element access goes directly to the buffers, but the bulk operations - multiplication, copying
+ * to/from {@link PrimitiveDenseStore} (which is what the matrix decompositions do) and
+ * {@link #copyColumns(int, int, double[])}/{@link #fillColumns(int, int, double[])} - transfer blocks of
+ * columns to/from the heap and then run the ordinary heap kernels.
+ * <p>
+ * This is not a {@link PhysicalStore} (nor a {@link org.ojalgo.matrix.decomposition.DecompositionStore}),
+ * and the matrix decompositions can't work on the off-heap memory directly. Decomposing an OffHeapStore
+ * copies it, in full, to an on-heap {@link PrimitiveDenseStore} (via {@link #supplyTo(ElementsConsumer)}),
+ * and the decomposition's own storage is on the heap. The GC benefit is limited to storing the matrix and
+ * to multiplying with it.
+ * <p>
+ * The memory is released when {@link #dispose()} is called (or eventually when the instance is garbage
+ * collected). Any use of the store after it has been disposed fails.
+ *
+ * @author apete
+ */
+public final class OffHeapStore extends FactoryStore<Double> implements ElementsConsumer<Double>, Disposable {
+
+    /**
+     * The (approximate) number of elements transferred to the heap at the time
+     */
+    public static int BLOCK = 1 << 16;
+
+    public static final int CACHE_LINE = 64;
+
+    public static final int PAGE = 4096;
+
+    /**
+     * Product columns are calculated in parallel in chunks of (at least) this size
+     */
+    public static int THRESHOLD = 8;
+
+    static final long DOUBLE_ELEMENT_SIZE = JavaType.DOUBLE.memory();
+    static final long SEGMENT = 1L << 30;
+
+    private static final Method ALIGNED_SLICE;
+    private static final Method INVOKE_CLEANER;
+    private static final Object UNSAFE;
+
+    static {
+
+        Method tmpAlignedSlice = null;
+        try {
+            tmpAlignedSlice = ByteBuffer.class.getMethod("alignedSlice", int.class);
+        } catch (final Exception exception) {
+            // Before Java 9
+        }
+        ALIGNED_SLICE = tmpAlignedSlice;
+
+        Method tmpInvokeCleaner = null;
+        Object tmpUnsafe = null;
+        try {
+            final Class<?> tmpClass = Class.forName("sun.misc.Unsafe");
+            final Field tmpField = tmpClass.getDeclaredField("theUnsafe");
+            tmpField.setAccessible(true);
+            tmpUnsafe = tmpField.get(null);
+            tmpInvokeCleaner = tmpClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (final Exception exception) {
+            // Before Java 9, or not available
+        }
+        INVOKE_CLEANER = tmpInvokeCleaner;
+        UNSAFE = tmpUnsafe;
+    }
+
+    public static OffHeapStore copy(final Access2D<?> source) {
+        final OffHeapStore retVal = new OffHeapStore((int) source.countRows(), (int) source.countColumns());
+        retVal.fillMatching(source);
+        return retVal;
+    }
+
+    public static OffHeapStore make(final int rows, final int columns) {
+        return new OffHeapStore(rows, columns);
+    }
+
+    /**
+     * @return A page aligned, native byte order, view of the buffer (allocated as whole pages plus an extra
+     *         page) if possible.
+     */
+    private static ByteBuffer align(final ByteBuffer buffer) {
+
+        if (ALIGNED_SLICE != null) {
+            try {
+                return ((ByteBuffer) ALIGNED_SLICE.invoke(buffer, PAGE)).order(ByteOrder.nativeOrder());
+            } catch (final Exception exception) {
+                // Use the unaligned buffer
+            }
+        }
+
+        return buffer.order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Explicitly free the native memory of a direct buffer (not a slice or duplicate). If that's not possible it will be freed when the
+     * buffer is garbage collected.
+     */
+    private static void free(final ByteBuffer buffer) {
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } else {
+                final Method tmpCleaner = buffer.getClass().getMethod("cleaner");
+                tmpCleaner.setAccessible(true);
+                final Object tmpInstance = tmpCleaner.invoke(buffer);
+                if (tmpInstance != null) {
+                    tmpInstance.getClass().getMethod("clean").invoke(tmpInstance);
+                }
+            }
+        } catch (final Exception exception) {
+            // Leave it to the garbage collector
+        }
+    }
+
+    private ByteBuffer[] myBuffers;
+    private final int myColumnsPerSegment;
+    private final int myLeadingDimension;
+    private final ElementsConsumer.FillByMultiplying<Double> myMultiplyer;
+    private DoubleBuffer[] mySegments;
+
+    OffHeapStore(final int rows, final int columns) {
+
+        super(PrimitiveDenseStore.FACTORY, rows, columns);
+
+        final int tmpPerLine = (int) (CACHE_LINE / DOUBLE_ELEMENT_SIZE);
+        myLeadingDimension = (((rows - 1) / tmpPerLine) + 1) * tmpPerLine;
+
+        myColumnsPerSegment = (int) Math.max(1L, Math.min(columns, SEGMENT / (myLeadingDimension * DOUBLE_ELEMENT_SIZE)));
+        final int tmpSegments = ((columns - 1) / myColumnsPerSegment) + 1;
+
+        myBuffers = new ByteBuffer[tmpSegments];
+        mySegments = new DoubleBuffer[tmpSegments];
+        for (int s = 0; s < tmpSegments; s++) {
+            final int tmpColumns = Math.min(myColumnsPerSegment, columns - (s * myColumnsPerSegment));
+            // Whole pages, plus one to make alignment possible
+            final long tmpBytes = (((((tmpColumns * myLeadingDimension * DOUBLE_ELEMENT_SIZE) - 1L) / PAGE) + 1L) * PAGE);
+            myBuffers[s] = ByteBuffer.allocateDirect((int) (tmpBytes + (ALIGNED_SLICE != null ? PAGE : 0)));
+            mySegments[s] = OffHeapStore.align(myBuffers[s]).asDoubleBuffer();
+        }
+
+        myMultiplyer = MultiplyBoth.getPrimitive(rows, columns);
+    }
+
+    public void add(final long row, final long col, final double addend) {
+        final DoubleBuffer tmpSegment = this.segment(col);
+        final int tmpIndex = this.index(row, col);
+        tmpSegment.put(tmpIndex, tmpSegment.get(tmpIndex) + addend);
+    }
+
+    public void add(final long row, final long col, final Number addend) {
+        this.add(row, col, addend.doubleValue());
+    }
+
+    /**
+     * Bulk copy the columns [first, limit) to the destination array, column-major without any padding.
+     */
+    public void copyColumns(final int first, final int limit, final double[] destination) {
+        final int tmpRowDim = this.getRowDim();
+        for (int j = first; j < limit; j++) {
+            final DoubleBuffer tmpColumn = this.segment(j).duplicate();
+            tmpColumn.position(this.index(0, j));
+            tmpColumn.get(destination, (j - first) * tmpRowDim, tmpRowDim);
+        }
+    }
+
+    /**
+     * Releases the native memory. The store can not be used after this.
+     */
+    public void dispose() {
+        if (myBuffers != null) {
+            final ByteBuffer[] tmpBuffers = myBuffers;
+            myBuffers = null;
+            mySegments = null;
+            for (final ByteBuffer tmpBuffer : tmpBuffers) {
+                OffHeapStore.free(tmpBuffer);
+            }
+        }
+    }
+
+    public double doubleValue(final long row, final long col) {
+        return this.segment(col).get(this.index(row, col));
+    }
+
+    public void fillByMultiplying(final Access1D<Double> left, final Access1D<Double> right) {
+
+        final int tmpRowDim = this.getRowDim();
+        final int tmpComplexity = (int) (left.count() / tmpRowDim);
+
+        final double[] tmpLeft = left instanceof Primitive64Array ? ((Primitive64Array) left).data : null;
+        final double[] tmpColumn = new double[tmpRowDim];
+
+        for (int j = 0; j < this.getColDim(); j++) {
+            for (int i = 0; i < tmpRowDim; i++) {
+                tmpColumn[i] = ZERO;
+            }
+            for (int t = 0; t < tmpComplexity; t++) {
+                final double tmpValue = right.doubleValue(t + ((long) j * tmpComplexity));
+                if (tmpValue != ZERO) {
+                    if (tmpLeft != null) {
+                        AXPY.invoke(tmpColumn, 0, tmpValue, tmpLeft, t * tmpRowDim, 0, tmpRowDim);
+                    } else {
+                        for (int i = 0; i < tmpRowDim; i++) {
+                            tmpColumn[i] += tmpValue * left.doubleValue(i + ((long) t * tmpRowDim));
+                        }
+                    }
+                }
+            }
+            this.fillColumns(j, j + 1, tmpColumn);
+        }
+    }
+
+    /**
+     * Bulk copy from the source array, column-major without any padding, to the columns [first, limit).
+     */
+    public void fillColumns(final int first, final int limit, final double[] source) {
+        final int tmpRowDim = this.getRowDim();
+        for (int j = first; j < limit; j++) {
+            final DoubleBuffer tmpColumn = this.segment(j).duplicate();
+            tmpColumn.position(this.index(0, j));
+            tmpColumn.put(source, (j - first) * tmpRowDim, tmpRowDim);
+        }
+    }
+
+    @Override
+    public void fillMatching(final Access1D<?> values) {
+        if ((values instanceof PrimitiveDenseStore) && (values.count() == this.count())) {
+            this.fillColumns(0, this.getColDim(), ((PrimitiveDenseStore) values).data);
+        } else if (values instanceof OffHeapStore) {
+            final OffHeapStore tmpSource = (OffHeapStore) values;
+            final int tmpWidth = this.getBlockWidth();
+            final double[] tmpBlock = new double[this.getRowDim() * tmpWidth];
+            for (int j = 0; j < this.getColDim(); j += tmpWidth) {
+                final int tmpLimit = Math.min(j + tmpWidth, this.getColDim());
+                tmpSource.copyColumns(j, tmpLimit, tmpBlock);
+                this.fillColumns(j, tmpLimit, tmpBlock);
+            }
+        } else {
+            ElementsConsumer.super.fillMatching(values);
+        }
+    }
+
+    public void fillOne(final long row, final long col, final Access1D<?> values, final long valueIndex) {
+        this.set(row, col, values.doubleValue(valueIndex));
+    }
+
+    public void fillOne(final long row, final long col, final Double value) {
+        this.set(row, col, value.doubleValue());
+    }
+
+    public void fillOne(final long row, final long col, final NullaryFunction<Double> supplier) {
+        this.set(row, col, supplier.doubleValue());
+    }
+
+    public Double get(final long row, final long col) {
+        return this.doubleValue(row, col);
+    }
+
+    public void modifyAll(final UnaryFunction<Double> modifier) {
+        final int tmpRowDim = this.getRowDim();
+        for (int j = 0; j < this.getColDim(); j++) {
+            final DoubleBuffer tmpSegment = this.segment(j);
+            final int tmpFirst = this.index(0, j);
+            for (int i = tmpFirst, tmpLimit = tmpFirst + tmpRowDim; i < tmpLimit; i++) {
+                tmpSegment.put(i, modifier.invoke(tmpSegment.get(i)));
+            }
+        }
+    }
+
+    public void modifyMatching(final Access1D<Double> left, final BinaryFunction<Double> function) {
+        final int tmpRowDim = this.getRowDim();
+        for (int j = 0; j < this.getColDim(); j++) {
+            final DoubleBuffer tmpSegment = this.segment(j);
+            final int tmpFirst = this.index(0, j);
+            final long tmpBase = (long) j * tmpRowDim;
+            for (int i = 0; i < tmpRowDim; i++) {
+                tmpSegment.put(tmpFirst + i, function.invoke(left.doubleValue(tmpBase + i), tmpSegment.get(tmpFirst + i)));
+            }
+        }
+    }
+
+    public void modifyMatching(final BinaryFunction<Double> function, final Access1D<Double> right) {
+        final int tmpRowDim = this.getRowDim();
+        for (int j = 0; j < this.getColDim(); j++) {
+            final DoubleBuffer tmpSegment = this.segment(j);
+            final int tmpFirst = this.index(0, j);
+            final long tmpBase = (long) j * tmpRowDim;
+            for (int i = 0; i < tmpRowDim; i++) {
+                tmpSegment.put(tmpFirst + i, function.invoke(tmpSegment.get(tmpFirst + i), right.doubleValue(tmpBase + i)));
+            }
+        }
+    }
+
+    public void modifyOne(final long row, final long col, final UnaryFunction<Double> modifier) {
+        final DoubleBuffer tmpSegment = this.segment(col);
+        final int tmpIndex = this.index(row, col);
+        tmpSegment.put(tmpIndex, modifier.invoke(tmpSegment.get(tmpIndex)));
+    }
+
+    /**
+     * Column-block multiplication: blocks of columns of this matrix, and of the right hand side, are
+     * transferred to the heap where the product is accumulated (one block of product columns at the time)
+     * using AXPY.
+     */
+    @Override
+    public void multiply(final Access1D<Double> right, final ElementsConsumer<Double> target) {
+
+        final int tmpRowDim = this.getRowDim();
+        final int tmpComplexity = this.getColDim();
+        final int tmpColumns = (int) (right.count() / tmpComplexity);
+
+        final int tmpLeftWidth = this.getBlockWidth();
+        final int tmpRightWidth = (int) Math.max(1L, Math.min(tmpColumns, BLOCK / Math.max(tmpRowDim, tmpComplexity)));
+
+        final double[] tmpLeft = new double[tmpRowDim * tmpLeftWidth];
+        final double[] tmpRight = new double[tmpComplexity * tmpRightWidth];
+        final double[] tmpProduct = new double[tmpRowDim * tmpRightWidth];
+
+        for (int c0 = 0; c0 < tmpColumns; c0 += tmpRightWidth) {
+
+            final int tmpWidth = Math.min(tmpRightWidth, tmpColumns - c0);
+
+            if (right instanceof OffHeapStore) {
+                ((OffHeapStore) right).copyColumns(c0, c0 + tmpWidth, tmpRight);
+            } else if (right instanceof Primitive64Array) {
+                System.arraycopy(((Primitive64Array) right).data, c0 * tmpComplexity, tmpRight, 0, tmpWidth * tmpComplexity);
+            } else {
+                for (int i = 0, tmpLimit = tmpWidth * tmpComplexity; i < tmpLimit; i++) {
+                    tmpRight[i] = right.doubleValue(((long) c0 * tmpComplexity) + i);
+                }
+            }
+
+            for (int i = 0, tmpLimit = tmpWidth * tmpRowDim; i < tmpLimit; i++) {
+                tmpProduct[i] = ZERO;
+            }
+
+            for (int t0 = 0; t0 < tmpComplexity; t0 += tmpLeftWidth) {
+
+                final int tmpFirst = t0;
+                final int tmpLimit = Math.min(t0 + tmpLeftWidth, tmpComplexity);
+                this.copyColumns(tmpFirst, tmpLimit, tmpLeft);
+
+                final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                    @Override
+                    protected void conquer(final int first, final int limit) {
+                        for (int c = first; c < limit; c++) {
+                            for (int t = tmpFirst; t < tmpLimit; t++) {
+                                final double tmpValue = tmpRight[t + (c * tmpComplexity)];
+                                if (tmpValue != ZERO) {
+                                    AXPY.invoke(tmpProduct, c * tmpRowDim, tmpValue, tmpLeft, (t - tmpFirst) * tmpRowDim, 0, tmpRowDim);
+                                }
+                            }
+                        }
+                    }
+
+                };
+
+                tmpConquerer.invoke(0, tmpWidth, THRESHOLD);
+            }
+
+            if (target instanceof OffHeapStore) {
+                ((OffHeapStore) target).fillColumns(c0, c0 + tmpWidth, tmpProduct);
+            } else if ((target instanceof PrimitiveDenseStore) && (((PrimitiveDenseStore) target).countRows() == tmpRowDim)) {
+                System.arraycopy(tmpProduct, 0, ((PrimitiveDenseStore) target).data, c0 * tmpRowDim, tmpWidth * tmpRowDim);
+            } else {
+                for (int c = 0; c < tmpWidth; c++) {
+                    for (int i = 0; i < tmpRowDim; i++) {
+                        target.set(i, c0 + c, tmpProduct[i + (c * tmpRowDim)]);
+                    }
+                }
+            }
+        }
+    }
+
+    public ElementsConsumer<Double> regionByColumns(final int... columns) {
+        return new ElementsConsumer.ColumnsRegion<>(this, myMultiplyer, columns);
+    }
+
+    public ElementsConsumer<Double> regionByLimits(final int rowLimit, final int columnLimit) {
+        return new ElementsConsumer.LimitRegion<>(this, myMultiplyer, rowLimit, columnLimit);
+    }
+
+    public ElementsConsumer<Double> regionByOffsets(final int rowOffset, final int columnOffset) {
+        return new ElementsConsumer.OffsetRegion<>(this, myMultiplyer, rowOffset, columnOffset);
+    }
+
+    public ElementsConsumer<Double> regionByRows(final int... rows) {
+        return new ElementsConsumer.RowsRegion<>(this, myMultiplyer, rows);
+    }
+
+    public ElementsConsumer<Double> regionByTransposing() {
+        return new ElementsConsumer.TransposedRegion<>(this, myMultiplyer);
+    }
+
+    public void reset() {
+        for (final DoubleBuffer tmpSegment : mySegments) {
+            for (int i = 0, tmpLimit = tmpSegment.capacity(); i < tmpLimit; i++) {
+                tmpSegment.put(i, ZERO);
+            }
+        }
+    }
+
+    public void set(final long row, final long col, final double value) {
+        this.segment(col).put(this.index(row, col), value);
+    }
+
+    public void set(final long row, final long col, final Number value) {
+        this.set(row, col, value.doubleValue());
+    }
+
+    public void supplyTo(final ElementsConsumer<Double> receiver) {
+        if ((receiver instanceof PrimitiveDenseStore) && (receiver.count() == this.count())) {
+            this.copyColumns(0, this.getColDim(), ((PrimitiveDenseStore) receiver).data);
+        } else if (receiver instanceof OffHeapStore) {
+            ((OffHeapStore) receiver).fillMatching(this);
+        } else {
+            final int tmpRowDim = this.getRowDim();
+            for (int j = 0; j < this.getColDim(); j++) {
+                for (int i = 0; i < tmpRowDim; i++) {
+                    receiver.set(i, j, this.doubleValue(i, j));
+                }
+            }
+        }
+    }
+
+    private int getBlockWidth() {
+        return (int) Math.max(1L, Math.min(this.getColDim(), BLOCK / this.getRowDim()));
+    }
+
+    private int index(final long row, final long col) {
+        return (int) (row + ((col % myColumnsPerSegment) * myLeadingDimension));
+    }
+
+    private DoubleBuffer segment(final long col) {
+        return mySegments[(int) (col / myColumnsPerSegment)];
+    }
+
+}
@@ -0,0 +1,389 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.access.Access1D;
+import org.ojalgo.access.Access2D;
+import org.ojalgo.function.BinaryFunction;
+import org.ojalgo.function.NullaryFunction;
+import org.ojalgo.function.UnaryFunction;
+import org.ojalgo.matrix.store.operation.MultiplyBoth;
+
+/**
+ * A symmetric matrix with only the lower triangle stored, column by column, in a double[] of length
+ * n(n+1)/2 (LAPACK packed storage). Reading any element (row, col) returns the same value as (col, row).
+ * Writes to the strictly upper triangle are ignored - filling this store from a full symmetric matrix works
+ * as expected.
+ * <p>
+ * Apart from halving the memory of covariance matrices and the like, the store has its own symmetric
+ * multiplication and an in-place Cholesky decomposition. After {@link #decomposeCholesky()} has succeeded
+ * this store represents the lower triangular Cholesky factor L (the upper triangle reads as zeros), and
+ * {@link #solveCholesky(PhysicalStore)} can be used to solve equation systems.
+ *
+ * @author apete
+ */
+public final class PackedSymmetricStore extends FactoryStore<Double> implements ElementsConsumer<Double> {
+
+    public static PackedSymmetricStore copy(final Access2D<?> source) {
+        final PackedSymmetricStore retVal = new PackedSymmetricStore((int) source.countRows());
+        final int tmpDim = retVal.getRowDim();
+        for (int j = 0; j < tmpDim; j++) {
+            for (int i = j; i < tmpDim; i++) {
+                retVal.myData[retVal.index(i, j)] = source.doubleValue(i, j);
+            }
+        }
+        return retVal;
+    }
+
+    public static PackedSymmetricStore make(final int dim) {
+        return new PackedSymmetricStore(dim);
+    }
+
+    private boolean myCholesky = false;
+    private final double[] myData;
+    private final ElementsConsumer.FillByMultiplying<Double> myMultiplyer;
+
+    PackedSymmetricStore(final int dim) {
+
+        super(PrimitiveDenseStore.FACTORY, dim, dim);
+
+        final long tmpSize = ((long) dim * (dim + 1L)) / 2L;
+        if (tmpSize > Integer.MAX_VALUE) {
+            throw new ProgrammingError("Too large to be packed in a single array!");
+        }
+
+        myData = new double[(int) tmpSize];
+        myMultiplyer = MultiplyBoth.getPrimitive(dim, dim);
+    }
+
+    public void add(final long row, final long col, final double addend) {
+        if (row >= col) {
+            myData[this.index((int) row, (int) col)] += addend;
+        }
+    }
+
+    public void add(final long row, final long col, final Number addend) {
+        this.add(row, col, addend.doubleValue());
+    }
+
+    /**
+     * In-place Cholesky decomposition (LAPACK dpptrf). If successful this store will thereafter represent the
+     * lower triangular factor L, and no longer the symmetric matrix A=LL<sup>T</sup>.
+     *
+     * @return true if the matrix was positive definite and the decomposition succeeded. If not the contents
+     *         of this store is undefined.
+     */
+    public boolean decomposeCholesky() {
+
+        final int tmpDim = this.getRowDim();
+        final double[] tmpData = myData;
+
+        for (int j = 0; j < tmpDim; j++) {
+
+            final int tmpColJ = this.index(j, j);
+
+            final double tmpDiag = tmpData[tmpColJ];
+            if (!(tmpDiag > ZERO)) {
+                return false;
+            }
+
+            final double tmpSqrt = Math.sqrt(tmpDiag);
+            tmpData[tmpColJ] = tmpSqrt;
+
+            final int tmpLength = tmpDim - j;
+            for (int i = 1; i < tmpLength; i++) {
+                tmpData[tmpColJ + i] /= tmpSqrt;
+            }
+
+            // Symmetric rank-1 update of the trailing lower triangle
+            for (int k = j + 1; k < tmpDim; k++) {
+                final double tmpVal = tmpData[tmpColJ + (k - j)];
+                if (tmpVal != ZERO) {
+                    final int tmpColK = this.index(k, k);
+                    for (int i = k; i < tmpDim; i++) {
+                        tmpData[tmpColK + (i - k)] -= tmpData[tmpColJ + (i - j)] * tmpVal;
+                    }
+                }
+            }
+        }
+
+        myCholesky = true;
+        return true;
+    }
+
+    public double doubleValue(final long row, final long col) {
+        if (row >= col) {
+            return myData[this.index((int) row, (int) col)];
+        } else if (myCholesky) {
+            return ZERO;
+        } else {
+            return myData[this.index((int) col, (int) row)];
+        }
+    }
+
+    public void fillByMultiplying(final Access1D<Double> left, final Access1D<Double> right) {
+
+        final int tmpDim = this.getRowDim();
+        final int tmpComplexity = (int) (left.count() / tmpDim);
+
+        for (int j = 0; j < tmpDim; j++) {
+            for (int i = j; i < tmpDim; i++) {
+                double tmpVal = ZERO;
+                for (int c = 0; c < tmpComplexity; c++) {
+                    tmpVal += left.doubleValue(i + (c * tmpDim)) * right.doubleValue(c + (j * tmpComplexity));
+                }
+                myData[this.index(i, j)] = tmpVal;
+            }
+        }
+        myCholesky = false;
+    }
+
+    public void fillOne(final long row, final long col, final Access1D<?> values, final long valueIndex) {
+        this.set(row, col, values.doubleValue(valueIndex));
+    }
+
+    public void fillOne(final long row, final long col, final Double value) {
+        this.set(row, col, value.doubleValue());
+    }
+
+    public void fillOne(final long row, final long col, final NullaryFunction<Double> supplier) {
+        this.set(row, col, supplier.doubleValue());
+    }
+
+    @Override
+    public int firstInColumn(final int col) {
+        return myCholesky ? col : super.firstInColumn(col);
+    }
+
+    public Double get(final long row, final long col) {
+        return this.doubleValue(row, col);
+    }
+
+    @Override
+    public int limitOfRow(final int row) {
+        return myCholesky ? row + 1 : super.limitOfRow(row);
+    }
+
+    public void modifyAll(final UnaryFunction<Double> modifier) {
+        for (int i = 0; i < myData.length; i++) {
+            myData[i] = modifier.invoke(myData[i]);
+        }
+    }
+
+    /**
+     * Only the lower triangle is modified - the result is assumed to be symmetric.
+     */
+    public void modifyMatching(final Access1D<Double> left, final BinaryFunction<Double> function) {
+        final int tmpDim = this.getRowDim();
+        for (int j = 0; j < tmpDim; j++) {
+            for (int i = j; i < tmpDim; i++) {
+                final int tmpIndex = this.index(i, j);
+                myData[tmpIndex] = function.invoke(left.doubleValue(i + ((long) j * tmpDim)), myData[tmpIndex]);
+            }
+        }
+    }
+
+    /**
+     * Only the lower triangle is modified - the result is assumed to be symmetric.
+     */
+    public void modifyMatching(final BinaryFunction<Double> function, final Access1D<Double> right) {
+        final int tmpDim = this.getRowDim();
+        for (int j = 0; j < tmpDim; j++) {
+            for (int i = j; i < tmpDim; i++) {
+                final int tmpIndex = this.index(i, j);
+                myData[tmpIndex] = function.invoke(myData[tmpIndex], right.doubleValue(i + ((long) j * tmpDim)));
+            }
+        }
+    }
+
+    public void modifyOne(final long row, final long col, final UnaryFunction<Double> modifier) {
+        if (row >= col) {
+            final int tmpIndex = this.index((int) row, (int) col);
+            myData[tmpIndex] = modifier.invoke(myData[tmpIndex]);
+        }
+    }
+
+    /**
+     * Symmetric matrix multiplication (LAPACK dspmv for each column of right), reading each stored element
+     * only once.
+     */
+    @Override
+    public void multiply(final Access1D<Double> right, final ElementsConsumer<Double> target) {
+
+        if (myCholesky) {
+            super.multiply(right, target);
+            return;
+        }
+
+        final int tmpDim = this.getRowDim();
+        final int tmpColumns = (int) (right.count() / tmpDim);
+
+        final double[] tmpData = myData;
+        final double[] tmpX = new double[tmpDim];
+        final double[] tmpY = new double[tmpDim];
+
+        for (int c = 0; c < tmpColumns; c++) {
+
+            for (int i = 0; i < tmpDim; i++) {
+                tmpX[i] = right.doubleValue(i + ((long) c * tmpDim));
+            }
+            Arrays.fill(tmpY, ZERO);
+
+            for (int j = 0; j < tmpDim; j++) {
+                final int tmpColJ = this.index(j, j);
+                final double tmpXj = tmpX[j];
+                double tmpSum = tmpData[tmpColJ] * tmpXj;
+                for (int i = j + 1; i < tmpDim; i++) {
+                    final double tmpVal = tmpData[tmpColJ + (i - j)];
+                    tmpY[i] += tmpVal * tmpXj;
+                    tmpSum += tmpVal * tmpX[i];
+                }
+                tmpY[j] += tmpSum;
+            }
+
+            for (int i = 0; i < tmpDim; i++) {
+                target.set(i, c, tmpY[i]);
+            }
+        }
+    }
+
+    public MatrixStore<Double> multiply(final double scalar) {
+        final PackedSymmetricStore retVal = new PackedSymmetricStore(this.getRowDim());
+        for (int i = 0; i < myData.length; i++) {
+            retVal.myData[i] = scalar * myData[i];
+        }
+        retVal.myCholesky = myCholesky;
+        return retVal;
+    }
+
+    public MatrixStore<Double> multiply(final Double scalar) {
+        return this.multiply(scalar.doubleValue());
+    }
+
+    public ElementsConsumer<Double> regionByColumns(final int... columns) {
+        return new ElementsConsumer.ColumnsRegion<>(this, myMultiplyer, columns);
+    }
+
+    public ElementsConsumer<Double> regionByLimits(final int rowLimit, final int columnLimit) {
+        return new ElementsConsumer.LimitRegion<>(this, myMultiplyer, rowLimit, columnLimit);
+    }
+
+    public ElementsConsumer<Double> regionByOffsets(final int rowOffset, final int columnOffset) {
+        return new ElementsConsumer.OffsetRegion<>(this, myMultiplyer, rowOffset, columnOffset);
+    }
+
+    public ElementsConsumer<Double> regionByRows(final int... rows) {
+        return new ElementsConsumer.RowsRegion<>(this, myMultiplyer, rows);
+    }
+
+    public ElementsConsumer<Double> regionByTransposing() {
+        return new ElementsConsumer.TransposedRegion<>(this, myMultiplyer);
+    }
+
+    public void reset() {
+        Arrays.fill(myData, ZERO);
+        myCholesky = false;
+    }
+
+    public void set(final long row, final long col, final double value) {
+        if (row >= col) {
+            myData[this.index((int) row, (int) col)] = value;
+        }
+    }
+
+    public void set(final long row, final long col, final Number value) {
+        this.set(row, col, value.doubleValue());
+    }
+
+    /**
+     * Solves [A][X]=[B] using the factor from a previous (successful) call to {@link #decomposeCholesky()}.
+     *
+     * @param rhs [B] on input, [X] on output
+     */
+    public void solveCholesky(final PhysicalStore<Double> rhs) {
+
+        if (!myCholesky) {
+            throw new IllegalStateException("Not decomposed!");
+        }
+
+        final int tmpDim = this.getRowDim();
+        final int tmpColumns = (int) rhs.countColumns();
+        final double[] tmpData = myData;
+        final double[] tmpX = new double[tmpDim];
+
+        for (int c = 0; c < tmpColumns; c++) {
+
+            for (int i = 0; i < tmpDim; i++) {
+                tmpX[i] = rhs.doubleValue(i, c);
+            }
+
+            // L y = b (column oriented)
+            for (int j = 0; j < tmpDim; j++) {
+                final int tmpColJ = this.index(j, j);
+                final double tmpVal = tmpX[j] / tmpData[tmpColJ];
+                tmpX[j] = tmpVal;
+                for (int i = j + 1; i < tmpDim; i++) {
+                    tmpX[i] -= tmpData[tmpColJ + (i - j)] * tmpVal;
+                }
+            }
+
+            // L^T x = y (row oriented, along the stored columns)
+            for (int j = tmpDim - 1; j >= 0; j--) {
+                final int tmpColJ = this.index(j, j);
+                double tmpVal = tmpX[j];
+                for (int i = j + 1; i < tmpDim; i++) {
+                    tmpVal -= tmpData[tmpColJ + (i - j)] * tmpX[i];
+                }
+                tmpX[j] = tmpVal / tmpData[tmpColJ];
+            }
+
+            for (int i = 0; i < tmpDim; i++) {
+                rhs.set(i, c, tmpX[i]);
+            }
+        }
+    }
+
+    public void supplyTo(final ElementsConsumer<Double> receiver) {
+        final int tmpDim = this.getRowDim();
+        for (int j = 0; j < tmpDim; j++) {
+            for (int i = 0; i < tmpDim; i++) {
+                receiver.set(i, j, this.doubleValue(i, j));
+            }
+        }
+    }
+
+    @Override
+    public MatrixStore<Double> transpose() {
+        return myCholesky ? super.transpose() : this;
+    }
+
+    private int index(final int row, final int col) {
+        // The intermediate product does not fit in an int for large matrices, even when the index does
+        return (int) ((((long) col * ((2L * this.getRowDim()) - col - 1L)) / 2L) + row);
+    }
+
+}
@@ -26,9 +26,12 @@ import static org.ojalgo.function.PrimitiveFunction.*;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
 
 import org.ojalgo.access.Access1D;
 import org.ojalgo.access.Access2D;
+import org.ojalgo.access.Spliterator1D;
 import org.ojalgo.array.Array1D;
 import org.ojalgo.array.Array2D;
 import org.ojalgo.array.BasicArray;
@@ -45,7 +48,6 @@ import org.ojalgo.function.PrimitiveFunction;
 import org.ojalgo.function.UnaryFunction;
 import org.ojalgo.function.ConsumerFunction;
 import org.ojalgo.function.aggregator.Aggregator;
-import org.ojalgo.function.aggregator.AggregatorFunction;
 import org.ojalgo.function.aggregator.AggregatorSet;
 import org.ojalgo.function.aggregator.PrimitiveAggregator;
 import org.ojalgo.machine.JavaType;
@@ -459,37 +461,8 @@ public final class PrimitiveDenseStore extends Primitive64Array implements Physi
     }
 
     public Double aggregateAll(final Aggregator aggregator) {
-
-        final int tmpRowDim = myRowDim;
-        final int tmpColDim = myColDim;
-
-        final AggregatorFunction<Double> mainAggr = aggregator.getFunction(PrimitiveAggregator.getSet());
-
-        if (mainAggr.isMergeable() && (tmpColDim > AggregateAll.THRESHOLD)) {
-
-            final DivideAndConquer tmpConquerer = new DivideAndConquer() {
-
-                @Override
-                public void conquer(final int first, final int limit) {
-
-                    final AggregatorFunction<Double> tmpPartAggr = aggregator.getFunction(PrimitiveAggregator.getSet());
-
-                    PrimitiveDenseStore.this.visit(tmpRowDim * first, tmpRowDim * limit, 1, tmpPartAggr);
-
-                    synchronized (mainAggr) {
-                        mainAggr.merge(tmpPartAggr.get());
-                    }
-                }
-            };
-
-            tmpConquerer.invoke(0, tmpColDim, AggregateAll.THRESHOLD);
-
-        } else {
-
-            PrimitiveDenseStore.this.visit(0, this.size(), 1, mainAggr);
-        }
-
-        return mainAggr.get();
+        return PrimitiveAggregator.getSet().aggregate(aggregator, 0L, this.count(), AggregateAll.THRESHOLD * AggregateAll.THRESHOLD,
+                (first, limit, aggr) -> this.visit((int) first, (int) limit, 1, aggr));
     }
 
     public void applyCholesky(final int iterationPoint, final BasicArray<Double> multipliers) {
@@ -604,6 +577,11 @@ public final class PrimitiveDenseStore extends Primitive64Array implements Physi
         return Array1D.COMPLEX.wrap(retVal);
     }
 
+    @Override
+    public DoubleStream columnStream(final long col, final boolean parallel) {
+        return StreamSupport.doubleStream(Spliterator1D.of(data, (int) col * myRowDim, 1, myRowDim), parallel);
+    }
+
     public MatrixStore<Double> conjugate() {
         return this.transpose();
     }
@@ -992,6 +970,11 @@ public final class PrimitiveDenseStore extends Primitive64Array implements Physi
         RotateRight.invoke(data, myRowDim, low, high, cos, sin);
     }
 
+    @Override
+    public DoubleStream rowStream(final long row, final boolean parallel) {
+        return StreamSupport.doubleStream(Spliterator1D.of(data, (int) row, myRowDim, myColDim), parallel);
+    }
+
     public void set(final long row, final long col, final double value) {
         myUtility.set(row, col, value);
     }
@@ -0,0 +1,968 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.IntUnaryOperator;
+
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.access.Access1D;
+import org.ojalgo.array.blas.AXPY;
+import org.ojalgo.concurrent.DaemonPoolExecutor;
+import org.ojalgo.concurrent.DivideAndConquer;
+import org.ojalgo.function.BinaryFunction;
+import org.ojalgo.function.NullaryFunction;
+import org.ojalgo.function.UnaryFunction;
+import org.ojalgo.machine.JavaType;
+import org.ojalgo.matrix.store.operation.MultiplyBoth;
+
+/**
+ * An out-of-core matrix store - the elements are kept in a file rather than in memory. The file is tile-major:
+ * square tiles, each stored column-major, ordered tile-column by tile-column. A vertical strip of tiles (a
+ * panel) is therefore a contiguous region of the file.
+ * <p>
+ * Individual element access goes through a small LRU cache of tiles, written back to the file when evicted or
+ * when {@link #flush()} is called. The bulk operations - {@link #decomposeCholesky()}, {@link #decomposeLU()},
+ * the solve methods and multiplication - instead stream panels through memory, reading the next panel in the
+ * background while the current one is processed. At most a couple of panels (rows x tile size) are in memory
+ * at any time, which makes it possible to factor matrices much larger than the available RAM.
+ * <p>
+ * Instances are not thread safe, and must be {@link #close()}:d to make sure everything is written to the
+ * file. Reopening an existing file requires using the same dimensions and tile size.
+ *
+ * @author apete
+ */
+public final class TiledFileStore extends FactoryStore<Double> implements ElementsConsumer<Double>, AutoCloseable {
+
+    static final class Panel {
+
+        final double[] data;
+        final int first;
+        final int firstTile;
+        final int limitTile;
+        final int rows;
+        final int tileColumn;
+        final int width;
+
+        Panel(final int tileColumn, final int firstTile, final int limitTile, final int first, final int rows, final int width) {
+            super();
+            this.tileColumn = tileColumn;
+            this.firstTile = firstTile;
+            this.limitTile = limitTile;
+            this.first = first;
+            this.rows = rows;
+            this.width = width;
+            data = new double[rows * width];
+        }
+
+    }
+
+    static final class Tile {
+
+        final double[] data;
+        boolean dirty = false;
+
+        Tile(final int size) {
+            super();
+            data = new double[size];
+        }
+
+    }
+
+    public static final int DEFAULT_TILE_SIZE = 256;
+
+    /**
+     * The number of cached tiles used for individual element access
+     */
+    public static int CACHE = 16;
+
+    /**
+     * Panel columns are updated in parallel in chunks of (at least) this size
+     */
+    public static int THRESHOLD = 16;
+
+    static final long DOUBLE_ELEMENT_SIZE = JavaType.DOUBLE.memory();
+
+    /**
+     * Creates a new file, or opens an existing one, using the default tile size.
+     */
+    public static TiledFileStore make(final File file, final int rows, final int columns) {
+        return TiledFileStore.make(file, rows, columns, DEFAULT_TILE_SIZE);
+    }
+
+    public static TiledFileStore make(final File file, final int rows, final int columns, final int tileSize) {
+        try {
+            return new TiledFileStore(new RandomAccessFile(file, "rw"), rows, columns, tileSize);
+        } catch (final IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    private static Panel get(final Future<Panel> future) {
+        try {
+            return future.get();
+        } catch (final InterruptedException | ExecutionException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    private static void update(final Panel panel, final Panel factor, final int factorOffset, final int count, final boolean symmetric) {
+
+        final double[] tmpData = panel.data;
+        final int tmpRows = panel.rows;
+        final double[] tmpFactor = factor.data;
+        final int tmpFactorRows = factor.rows;
+
+        final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+            @Override
+            protected void conquer(final int first, final int limit) {
+                for (int c = first; c < limit; c++) {
+                    for (int t = 0; t < count; t++) {
+                        if (symmetric) {
+                            // A -= L L^T (Cholesky trailing update)
+                            final double tmpValue = tmpFactor[factorOffset + c + (t * tmpFactorRows)];
+                            if (tmpValue != ZERO) {
+                                AXPY.invoke(tmpData, c * tmpRows, -tmpValue, tmpFactor, factorOffset + (t * tmpFactorRows), 0, tmpRows);
+                            }
+                        } else {
+                            // Triangular solve with unit L for the top block and then A -= L U below (LU)
+                            final double tmpValue = tmpData[t + (c * tmpRows)];
+                            if (tmpValue != ZERO) {
+                                AXPY.invoke(tmpData, c * tmpRows, -tmpValue, tmpFactor, t * tmpFactorRows, t + 1, tmpRows);
+                            }
+                        }
+                    }
+                }
+            }
+
+        };
+
+        tmpConquerer.invoke(0, panel.width, THRESHOLD);
+    }
+
+    private final Map<Long, Tile> myCache;
+    private final FileChannel myChannel;
+    private boolean myCholesky = false;
+    private final RandomAccessFile myFile;
+    private final ElementsConsumer.FillByMultiplying<Double> myMultiplyer;
+    private int[] myPivots = null;
+    private final int myTileColumns;
+    private final int myTileRows;
+    private final int myTileSize;
+
+    TiledFileStore(final RandomAccessFile file, final int rows, final int columns, final int tileSize) throws IOException {
+
+        super(PrimitiveDenseStore.FACTORY, rows, columns);
+
+        if (tileSize < 1) {
+            throw new ProgrammingError("The tile size must be positive!");
+        }
+
+        myFile = file;
+        myChannel = file.getChannel();
+        myTileSize = tileSize;
+        myTileRows = ((rows - 1) / tileSize) + 1;
+        myTileColumns = ((columns - 1) / tileSize) + 1;
+
+        final long tmpLength = (long) myTileRows * myTileColumns * tileSize * tileSize * DOUBLE_ELEMENT_SIZE;
+        if (file.length() != tmpLength) {
+            file.setLength(tmpLength);
+        }
+
+        myMultiplyer = MultiplyBoth.getPrimitive(rows, columns);
+
+        myCache = new LinkedHashMap<Long, Tile>(CACHE, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Long, Tile> eldest) {
+                if (this.size() > CACHE) {
+                    final Tile tmpTile = eldest.getValue();
+                    if (tmpTile.dirty) {
+                        TiledFileStore.this.write(eldest.getKey(), tmpTile.data, TiledFileStore.this.buffer());
+                    }
+                    return true;
+                } else {
+                    return false;
+                }
+            }
+
+        };
+    }
+
+    public void add(final long row, final long col, final double addend) {
+        this.modified();
+        final Tile tmpTile = this.tile(row, col);
+        tmpTile.data[this.offset(row, col)] += addend;
+        tmpTile.dirty = true;
+    }
+
+    public void add(final long row, final long col, final Number addend) {
+        this.add(row, col, addend.doubleValue());
+    }
+
+    /**
+     * Writes any cached changes and closes the file.
+     */
+    public void close() {
+        this.flush();
+        try {
+            myFile.close();
+        } catch (final IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    /**
+     * Out-of-core, right-looking, panel Cholesky decomposition. If successful this store will thereafter
+     * represent the lower triangular factor L (the upper triangle reads as zeros).
+     *
+     * @return true if the matrix was positive definite and the decomposition succeeded. If not the contents
+     *         of this store is undefined.
+     */
+    public boolean decomposeCholesky() {
+
+        ProgrammingError.throwIfNotSquare(this);
+
+        this.sync();
+        myPivots = null;
+
+        final int tmpTiles = myTileColumns;
+
+        for (int k = 0; k < tmpTiles; k++) {
+
+            final Panel tmpPanel = this.read(k, k, tmpTiles);
+
+            final double[] tmpData = tmpPanel.data;
+            final int tmpRows = tmpPanel.rows;
+
+            for (int j = 0; j < tmpPanel.width; j++) {
+
+                final int tmpColJ = j * tmpRows;
+
+                for (int c = 0; c < j; c++) {
+                    final double tmpValue = tmpData[j + (c * tmpRows)];
+                    if (tmpValue != ZERO) {
+                        AXPY.invoke(tmpData, tmpColJ, -tmpValue, tmpData, c * tmpRows, j, tmpRows);
+                    }
+                }
+
+                final double tmpDiag = tmpData[j + tmpColJ];
+                if (!(tmpDiag > ZERO)) {
+                    return false;
+                }
+
+                final double tmpSqrt = Math.sqrt(tmpDiag);
+                tmpData[j + tmpColJ] = tmpSqrt;
+                for (int i = j + 1; i < tmpRows; i++) {
+                    tmpData[i + tmpColJ] /= tmpSqrt;
+                }
+            }
+
+            this.write(tmpPanel);
+
+            final int tmpStep = k;
+            this.stream(k + 1, tmpTiles, j -> j, j -> tmpTiles, true, p -> TiledFileStore.update(p, tmpPanel,
+                    (p.tileColumn - tmpStep) * myTileSize, tmpPanel.width, true));
+        }
+
+        myCholesky = true;
+        return true;
+    }
+
+    /**
+     * Out-of-core, right-looking, panel LU decomposition with partial (row) pivoting. If successful this store
+     * will thereafter contain L (unit diagonal not stored) and U, in the same way as LAPACK's dgetrf.
+     *
+     * @return false if the matrix is (exactly) singular
+     */
+    public boolean decomposeLU() {
+
+        this.sync();
+        myCholesky = false;
+
+        final int tmpRowDim = this.getRowDim();
+        final int tmpSteps = Math.min(myTileRows, myTileColumns);
+
+        final int[] tmpPivots = new int[Math.min(tmpRowDim, this.getColDim())];
+        boolean tmpSingular = false;
+
+        for (int k = 0; k < tmpSteps; k++) {
+
+            final Panel tmpPanel = this.read(k, k, myTileRows);
+
+            final double[] tmpData = tmpPanel.data;
+            final int tmpRows = tmpPanel.rows;
+            final int tmpCount = Math.min(tmpPanel.width, tmpRows);
+
+            for (int j = 0; j < tmpCount; j++) {
+
+                final int tmpColJ = j * tmpRows;
+
+                int tmpPivot = j;
+                double tmpLargest = Math.abs(tmpData[j + tmpColJ]);
+                for (int i = j + 1; i < tmpRows; i++) {
+                    final double tmpValue = Math.abs(tmpData[i + tmpColJ]);
+                    if (tmpValue > tmpLargest) {
+                        tmpLargest = tmpValue;
+                        tmpPivot = i;
+                    }
+                }
+                tmpPivots[tmpPanel.first + j] = tmpPanel.first + tmpPivot;
+
+                if (tmpLargest != ZERO) {
+                    if (tmpPivot != j) {
+                        this.exchange(tmpPanel, j, tmpPivot);
+                    }
+                    final double tmpDiag = tmpData[j + tmpColJ];
+                    for (int i = j + 1; i < tmpRows; i++) {
+                        tmpData[i + tmpColJ] /= tmpDiag;
+                    }
+                } else {
+                    tmpSingular = true;
+                }
+
+                for (int c = j + 1; c < tmpPanel.width; c++) {
+                    final double tmpValue = tmpData[j + (c * tmpRows)];
+                    if (tmpValue != ZERO) {
+                        AXPY.invoke(tmpData, c * tmpRows, -tmpValue, tmpData, tmpColJ, j + 1, tmpRows);
+                    }
+                }
+            }
+
+            this.write(tmpPanel);
+
+            final int tmpStep = k;
+            final Consumer<Panel> tmpExchanger = p -> {
+                for (int j = 0; j < tmpCount; j++) {
+                    final int tmpPivot = tmpPivots[tmpPanel.first + j] - tmpPanel.first;
+                    if (tmpPivot != j) {
+                        this.exchange(p, j, tmpPivot);
+                    }
+                }
+            };
+
+            this.stream(0, k, j -> tmpStep, j -> myTileRows, true, tmpExchanger);
+            this.stream(k + 1, myTileColumns, j -> tmpStep, j -> myTileRows, true,
+                    tmpExchanger.andThen(p -> TiledFileStore.update(p, tmpPanel, 0, tmpCount, false)));
+        }
+
+        myPivots = tmpPivots;
+        return !tmpSingular;
+    }
+
+    public double doubleValue(final long row, final long col) {
+        if (myCholesky && (row < col)) {
+            return ZERO;
+        } else {
+            return this.tile(row, col).data[this.offset(row, col)];
+        }
+    }
+
+    public void fillByMultiplying(final Access1D<Double> left, final Access1D<Double> right) {
+
+        if ((left == this) || (right == this)) {
+            throw new ProgrammingError("The target must not also be an input!");
+        }
+
+        this.sync();
+        this.modified();
+
+        final int tmpRowDim = this.getRowDim();
+        final int tmpComplexity = (int) (left.count() / tmpRowDim);
+
+        this.stream(0, myTileColumns, j -> 0, j -> myTileRows, true, p -> {
+            final double[] tmpColumn = new double[tmpComplexity];
+            for (int c = 0; c < p.width; c++) {
+                final long tmpCol = (long) (p.tileColumn * myTileSize) + c;
+                for (int t = 0; t < tmpComplexity; t++) {
+                    tmpColumn[t] = right.doubleValue(t + (tmpCol * tmpComplexity));
+                }
+                for (int i = 0; i < p.rows; i++) {
+                    double tmpValue = ZERO;
+                    for (int t = 0; t < tmpComplexity; t++) {
+                        tmpValue += left.doubleValue(p.first + i + ((long) t * tmpRowDim)) * tmpColumn[t];
+                    }
+                    p.data[i + (c * p.rows)] = tmpValue;
+                }
+            }
+        });
+    }
+
+    public void fillOne(final long row, final long col, final Access1D<?> values, final long valueIndex) {
+        this.set(row, col, values.doubleValue(valueIndex));
+    }
+
+    public void fillOne(final long row, final long col, final Double value) {
+        this.set(row, col, value.doubleValue());
+    }
+
+    public void fillOne(final long row, final long col, final NullaryFunction<Double> supplier) {
+        this.set(row, col, supplier.doubleValue());
+    }
+
+    @Override
+    public int firstInColumn(final int col) {
+        return myCholesky ? col : super.firstInColumn(col);
+    }
+
+    /**
+     * Write all modified cached tiles to the file
+     */
+    public void flush() {
+        final ByteBuffer tmpBuffer = this.buffer();
+        for (final Map.Entry<Long, Tile> tmpEntry : myCache.entrySet()) {
+            final Tile tmpTile = tmpEntry.getValue();
+            if (tmpTile.dirty) {
+                this.write(tmpEntry.getKey(), tmpTile.data, tmpBuffer);
+                tmpTile.dirty = false;
+            }
+        }
+    }
+
+    public Double get(final long row, final long col) {
+        return this.doubleValue(row, col);
+    }
+
+    /**
+     * @return The row pivots (LAPACK style - row i was exchanged with row pivots[i]) from the latest call to
+     *         {@link #decomposeLU()}, or null.
+     */
+    public int[] getPivots() {
+        return myPivots;
+    }
+
+    public int getTileSize() {
+        return myTileSize;
+    }
+
+    @Override
+    public int limitOfRow(final int row) {
+        return myCholesky ? row + 1 : super.limitOfRow(row);
+    }
+
+    public void modifyAll(final UnaryFunction<Double> modifier) {
+        this.sync();
+        this.modified();
+        this.stream(0, myTileColumns, j -> 0, j -> myTileRows, true, p -> {
+            for (int i = 0; i < p.data.length; i++) {
+                p.data[i] = modifier.invoke(p.data[i]);
+            }
+        });
+    }
+
+    public void modifyMatching(final Access1D<Double> left, final BinaryFunction<Double> function) {
+        final long tmpRowDim = this.getRowDim();
+        this.sync();
+        this.modified();
+        this.stream(0, myTileColumns, j -> 0, j -> myTileRows, true, p -> {
+            for (int c = 0; c < p.width; c++) {
+                final long tmpBase = ((long) (p.tileColumn * myTileSize) + c) * tmpRowDim;
+                for (int i = 0; i < p.rows; i++) {
+                    p.data[i + (c * p.rows)] = function.invoke(left.doubleValue(tmpBase + i), p.data[i + (c * p.rows)]);
+                }
+            }
+        });
+    }
+
+    public void modifyMatching(final BinaryFunction<Double> function, final Access1D<Double> right) {
+        final long tmpRowDim = this.getRowDim();
+        this.sync();
+        this.modified();
+        this.stream(0, myTileColumns, j -> 0, j -> myTileRows, true, p -> {
+            for (int c = 0; c < p.width; c++) {
+                final long tmpBase = ((long) (p.tileColumn * myTileSize) + c) * tmpRowDim;
+                for (int i = 0; i < p.rows; i++) {
+                    p.data[i + (c * p.rows)] = function.invoke(p.data[i + (c * p.rows)], right.doubleValue(tmpBase + i));
+                }
+            }
+        });
+    }
+
+    public void modifyOne(final long row, final long col, final UnaryFunction<Double> modifier) {
+        this.modified();
+        final Tile tmpTile = this.tile(row, col);
+        final int tmpOffset = this.offset(row, col);
+        tmpTile.data[tmpOffset] = modifier.invoke(tmpTile.data[tmpOffset]);
+        tmpTile.dirty = true;
+    }
+
+    /**
+     * Streams the panels of this matrix through memory, one at the time, accumulating the product in memory.
+     * The right hand side and the product are assumed to fit in memory. After {@link #decomposeCholesky()}
+     * this is the lower triangular factor.
+     */
+    @Override
+    public void multiply(final Access1D<Double> right, final ElementsConsumer<Double> target) {
+
+        if (target == this) {
+            throw new ProgrammingError("The target must not also be an input!");
+        }
+
+        this.sync();
+
+        final int tmpRowDim = this.getRowDim();
+        final int tmpComplexity = this.getColDim();
+        final int tmpColumns = (int) (right.count() / tmpComplexity);
+
+        final double[] tmpProduct = new double[tmpRowDim * tmpColumns];
+
+        this.stream(0, myTileColumns, j -> 0, j -> myTileRows, false, p -> {
+            final int tmpFirstColumn = p.tileColumn * myTileSize;
+            for (int c = 0; c < tmpColumns; c++) {
+                for (int t = 0; t < p.width; t++) {
+                    final double tmpValue = right.doubleValue(tmpFirstColumn + t + ((long) c * tmpComplexity));
+                    if (tmpValue != ZERO) {
+                        // The (stale) upper part of a Cholesky factor is skipped
+                        final int tmpFirstRow = myCholesky ? Math.min(tmpFirstColumn + t, tmpRowDim) : 0;
+                        AXPY.invoke(tmpProduct, c * tmpRowDim, tmpValue, p.data, t * p.rows, tmpFirstRow, tmpRowDim);
+                    }
+                }
+            }
+        });
+
+        for (int c = 0; c < tmpColumns; c++) {
+            for (int i = 0; i < tmpRowDim; i++) {
+                target.set(i, c, tmpProduct[i + (c * tmpRowDim)]);
+            }
+        }
+    }
+
+    /**
+     * Out-of-core matrix multiplication: [target] = [this][right]. For each panel of the target the
+     * corresponding panel of right is read and all the panels of this are streamed through memory. All three
+     * must have the same tile size, and the target must be a separate file. Inputs that hold a Cholesky
+     * factor (after {@link #decomposeCholesky()}) are treated as lower triangular.
+     */
+    public void multiply(final TiledFileStore right, final TiledFileStore target) {
+
+        ProgrammingError.throwIfMultiplicationNotPossible(this, right);
+        if ((target.getRowDim() != this.getRowDim()) || (target.getColDim() != right.getColDim())) {
+            throw new ProgrammingError("Wrong target dimensions!");
+        }
+        if ((right.getTileSize() != myTileSize) || (target.getTileSize() != myTileSize)) {
+            throw new ProgrammingError("Tile sizes must match!");
+        }
+        if ((target == this) || (target == right)) {
+            throw new ProgrammingError("The target must not also be an input!");
+        }
+
+        this.sync();
+        right.sync();
+        target.sync();
+        target.modified();
+
+        final int tmpRowDim = this.getRowDim();
+        final boolean tmpLowerLeft = myCholesky;
+        final boolean tmpLowerRight = right.myCholesky;
+
+        target.stream(0, target.myTileColumns, j -> 0, j -> target.myTileRows, true, p -> {
+
+            final Panel tmpRight = right.read(p.tileColumn, 0, right.myTileRows);
+            Arrays.fill(p.data, ZERO);
+
+            this.stream(0, myTileColumns, k -> 0, k -> myTileRows, false, a -> {
+
+                final int tmpFirst = a.tileColumn * myTileSize;
+                final int tmpTargetColumn = p.tileColumn * myTileSize;
+
+                final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                    @Override
+                    protected void conquer(final int first, final int limit) {
+                        for (int c = first; c < limit; c++) {
+                            // Only the lower triangular parts of Cholesky factors are used
+                            final int tmpFirstT = tmpLowerRight ? Math.max(0, (tmpTargetColumn + c) - tmpFirst) : 0;
+                            for (int t = tmpFirstT; t < a.width; t++) {
+                                final double tmpValue = tmpRight.data[tmpFirst + t + (c * tmpRight.rows)];
+                                if (tmpValue != ZERO) {
+                                    final int tmpFirstRow = tmpLowerLeft ? Math.min(tmpFirst + t, tmpRowDim) : 0;
+                                    AXPY.invoke(p.data, c * tmpRowDim, tmpValue, a.data, t * a.rows, tmpFirstRow, tmpRowDim);
+                                }
+                            }
+                        }
+                    }
+
+                };
+
+                tmpConquerer.invoke(0, p.width, THRESHOLD);
+            });
+        });
+    }
+
+    public ElementsConsumer<Double> regionByColumns(final int... columns) {
+        return new ElementsConsumer.ColumnsRegion<>(this, myMultiplyer, columns);
+    }
+
+    public ElementsConsumer<Double> regionByLimits(final int rowLimit, final int columnLimit) {
+        return new ElementsConsumer.LimitRegion<>(this, myMultiplyer, rowLimit, columnLimit);
+    }
+
+    public ElementsConsumer<Double> regionByOffsets(final int rowOffset, final int columnOffset) {
+        return new ElementsConsumer.OffsetRegion<>(this, myMultiplyer, rowOffset, columnOffset);
+    }
+
+    public ElementsConsumer<Double> regionByRows(final int... rows) {
+        return new ElementsConsumer.RowsRegion<>(this, myMultiplyer, rows);
+    }
+
+    public ElementsConsumer<Double> regionByTransposing() {
+        return new ElementsConsumer.TransposedRegion<>(this, myMultiplyer);
+    }
+
+    public void reset() {
+        myCache.clear();
+        this.modified();
+        try {
+            final long tmpLength = myFile.length();
+            myFile.setLength(0L);
+            myFile.setLength(tmpLength);
+        } catch (final IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    public void set(final long row, final long col, final double value) {
+        this.modified();
+        final Tile tmpTile = this.tile(row, col);
+        tmpTile.data[this.offset(row, col)] = value;
+        tmpTile.dirty = true;
+    }
+
+    public void set(final long row, final long col, final Number value) {
+        this.set(row, col, value.doubleValue());
+    }
+
+    /**
+     * Solves [A][X]=[B] using the factor from a previous (successful) call to {@link #decomposeCholesky()}.
+     * The panels of L are streamed through memory twice.
+     *
+     * @param rhs [B] on input, [X] on output
+     */
+    public void solveCholesky(final PhysicalStore<Double> rhs) {
+
+        if (!myCholesky) {
+            throw new IllegalStateException("Not decomposed!");
+        }
+
+        this.sync();
+
+        final int tmpDim = this.getRowDim();
+        final int tmpColumns = (int) rhs.countColumns();
+        final double[] tmpX = this.extract(rhs);
+
+        // L y = b
+        this.stream(0, myTileColumns, k -> k, k -> myTileRows, false, p -> {
+            for (int t = 0; t < p.width; t++) {
+                final int tmpRow = p.first + t;
+                final double tmpDiag = p.data[t + (t * p.rows)];
+                for (int c = 0; c < tmpColumns; c++) {
+                    final double tmpValue = tmpX[tmpRow + (c * tmpDim)] / tmpDiag;
+                    tmpX[tmpRow + (c * tmpDim)] = tmpValue;
+                    AXPY.invoke(tmpX, (c * tmpDim) + p.first, -tmpValue, p.data, t * p.rows, t + 1, p.rows);
+                }
+            }
+        });
+
+        // L^T x = y
+        this.stream(myTileColumns - 1, -1, k -> k, k -> myTileRows, false, p -> {
+            for (int t = p.width - 1; t >= 0; t--) {
+                final int tmpRow = p.first + t;
+                final double tmpDiag = p.data[t + (t * p.rows)];
+                for (int c = 0; c < tmpColumns; c++) {
+                    final int tmpBase = (c * tmpDim) + p.first;
+                    double tmpValue = tmpX[tmpRow + (c * tmpDim)];
+                    for (int i = t + 1; i < p.rows; i++) {
+                        tmpValue -= p.data[i + (t * p.rows)] * tmpX[tmpBase + i];
+                    }
+                    tmpX[tmpRow + (c * tmpDim)] = tmpValue / tmpDiag;
+                }
+            }
+        });
+
+        this.insert(tmpX, rhs);
+    }
+
+    /**
+     * Solves [A][X]=[B] using the factors from a previous call to {@link #decomposeLU()}. The panels of L
+     * and U are streamed through memory once each.
+     *
+     * @param rhs [B] on input, [X] on output
+     */
+    public void solveLU(final PhysicalStore<Double> rhs) {
+
+        if (myPivots == null) {
+            throw new IllegalStateException("Not decomposed!");
+        }
+        ProgrammingError.throwIfNotSquare(this);
+
+        this.sync();
+
+        final int tmpDim = this.getRowDim();
+        final int tmpColumns = (int) rhs.countColumns();
+        final double[] tmpX = this.extract(rhs);
+
+        for (int i = 0; i < myPivots.length; i++) {
+            final int tmpPivot = myPivots[i];
+            if (tmpPivot != i) {
+                for (int c = 0; c < tmpColumns; c++) {
+                    final double tmpValue = tmpX[i + (c * tmpDim)];
+                    tmpX[i + (c * tmpDim)] = tmpX[tmpPivot + (c * tmpDim)];
+                    tmpX[tmpPivot + (c * tmpDim)] = tmpValue;
+                }
+            }
+        }
+
+        // L y = Pb
+        this.stream(0, myTileColumns, k -> k, k -> myTileRows, false, p -> {
+            for (int t = 0; t < p.width; t++) {
+                for (int c = 0; c < tmpColumns; c++) {
+                    final double tmpValue = tmpX[p.first + t + (c * tmpDim)];
+                    if (tmpValue != ZERO) {
+                        AXPY.invoke(tmpX, (c * tmpDim) + p.first, -tmpValue, p.data, t * p.rows, t + 1, p.rows);
+                    }
+                }
+            }
+        });
+
+        // U x = y
+        this.stream(myTileColumns - 1, -1, k -> 0, k -> k + 1, false, p -> {
+            final int tmpFirstColumn = p.tileColumn * myTileSize;
+            for (int t = p.width - 1; t >= 0; t--) {
+                final int tmpRow = tmpFirstColumn + t;
+                final double tmpDiag = p.data[tmpRow + (t * p.rows)];
+                for (int c = 0; c < tmpColumns; c++) {
+                    final double tmpValue = tmpX[tmpRow + (c * tmpDim)] / tmpDiag;
+                    tmpX[tmpRow + (c * tmpDim)] = tmpValue;
+                    AXPY.invoke(tmpX, c * tmpDim, -tmpValue, p.data, t * p.rows, 0, tmpRow);
+                }
+            }
+        });
+
+        this.insert(tmpX, rhs);
+    }
+
+    public void supplyTo(final ElementsConsumer<Double> receiver) {
+        this.sync();
+        this.stream(0, myTileColumns, j -> 0, j -> myTileRows, false, p -> {
+            final int tmpFirstColumn = p.tileColumn * myTileSize;
+            for (int c = 0; c < p.width; c++) {
+                final int tmpColumn = tmpFirstColumn + c;
+                for (int i = 0; i < p.rows; i++) {
+                    receiver.set(i, tmpColumn, (myCholesky && (i < tmpColumn)) ? ZERO : p.data[i + (c * p.rows)]);
+                }
+            }
+        });
+    }
+
+    private ByteBuffer buffer() {
+        return ByteBuffer.allocate((int) (myTileSize * myTileSize * DOUBLE_ELEMENT_SIZE)).order(ByteOrder.nativeOrder());
+    }
+
+    private void exchange(final Panel panel, final int rowA, final int rowB) {
+        final double[] tmpData = panel.data;
+        for (int c = 0; c < panel.width; c++) {
+            final int tmpColumn = c * panel.rows;
+            final double tmpValue = tmpData[rowA + tmpColumn];
+            tmpData[rowA + tmpColumn] = tmpData[rowB + tmpColumn];
+            tmpData[rowB + tmpColumn] = tmpValue;
+        }
+    }
+
+    private double[] extract(final PhysicalStore<Double> rhs) {
+        final int tmpDim = this.getRowDim();
+        final int tmpColumns = (int) rhs.countColumns();
+        final double[] retVal = new double[tmpDim * tmpColumns];
+        for (int c = 0; c < tmpColumns; c++) {
+            for (int i = 0; i < tmpDim; i++) {
+                retVal[i + (c * tmpDim)] = rhs.doubleValue(i, c);
+            }
+        }
+        return retVal;
+    }
+
+    private void insert(final double[] solution, final PhysicalStore<Double> rhs) {
+        final int tmpDim = this.getRowDim();
+        final int tmpColumns = (int) rhs.countColumns();
+        for (int c = 0; c < tmpColumns; c++) {
+            for (int i = 0; i < tmpDim; i++) {
+                rhs.set(i, c, solution[i + (c * tmpDim)]);
+            }
+        }
+    }
+
+    /**
+     * The elements were changed - any previous decomposition is no longer valid.
+     */
+    private void modified() {
+        myCholesky = false;
+        myPivots = null;
+    }
+
+    private int offset(final long row, final long col) {
+        return (int) (row % myTileSize) + ((int) (col % myTileSize) * myTileSize);
+    }
+
+    private long position(final long tileIndex) {
+        return tileIndex * myTileSize * myTileSize * DOUBLE_ELEMENT_SIZE;
+    }
+
+    /**
+     * Reads the tiles [firstTile, limitTile) of a tile column.
+     */
+    private Panel read(final int tileColumn, final int firstTile, final int limitTile) {
+
+        final int tmpFirst = firstTile * myTileSize;
+        final int tmpRows = Math.min(limitTile * myTileSize, this.getRowDim()) - tmpFirst;
+        final int tmpWidth = Math.min(myTileSize, this.getColDim() - (tileColumn * myTileSize));
+
+        final Panel retVal = new Panel(tileColumn, firstTile, limitTile, tmpFirst, tmpRows, tmpWidth);
+
+        final ByteBuffer tmpBuffer = this.buffer();
+        final double[] tmpTile = new double[myTileSize * myTileSize];
+
+        for (int t = firstTile; t < limitTile; t++) {
+            this.read(this.tileIndex(t, tileColumn), tmpTile, tmpBuffer);
+            final int tmpOffset = (t - firstTile) * myTileSize;
+            final int tmpCount = Math.min(myTileSize, tmpRows - tmpOffset);
+            for (int c = 0; c < tmpWidth; c++) {
+                System.arraycopy(tmpTile, c * myTileSize, retVal.data, tmpOffset + (c * tmpRows), tmpCount);
+            }
+        }
+
+        return retVal;
+    }
+
+    private void read(final long tileIndex, final double[] tile, final ByteBuffer buffer) {
+        try {
+            final long tmpPosition = this.position(tileIndex);
+            buffer.clear();
+            while (buffer.hasRemaining()) {
+                if (myChannel.read(buffer, tmpPosition + buffer.position()) < 0) {
+                    while (buffer.hasRemaining()) {
+                        buffer.put((byte) 0);
+                    }
+                }
+            }
+            buffer.flip();
+            buffer.asDoubleBuffer().get(tile);
+        } catch (final IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    /**
+     * Processes tile columns [first, limit) - or (limit, first] if limit &lt; first - in that order. The
+     * next panel is read in the background while the current one is processed.
+     */
+    private void stream(final int first, final int limit, final IntUnaryOperator firstTile, final IntUnaryOperator limitTile,
+            final boolean writeBack, final Consumer<Panel> processor) {
+
+        final int tmpStep = limit >= first ? 1 : -1;
+
+        Future<Panel> tmpNext = null;
+        if (first != limit) {
+            tmpNext = DaemonPoolExecutor.invoke(() -> this.read(first, firstTile.applyAsInt(first), limitTile.applyAsInt(first)));
+        }
+
+        for (int j = first; j != limit; j += tmpStep) {
+
+            final Panel tmpPanel = TiledFileStore.get(tmpNext);
+
+            final int tmpNextColumn = j + tmpStep;
+            if (tmpNextColumn != limit) {
+                tmpNext = DaemonPoolExecutor.invoke(() -> this.read(tmpNextColumn, firstTile.applyAsInt(tmpNextColumn), limitTile.applyAsInt(tmpNextColumn)));
+            }
+
+            processor.accept(tmpPanel);
+
+            if (writeBack) {
+                this.write(tmpPanel);
+            }
+        }
+    }
+
+    /**
+     * Write cached changes and empty the cache, before operations that work directly with the file.
+     */
+    private void sync() {
+        this.flush();
+        myCache.clear();
+    }
+
+    private Tile tile(final long row, final long col) {
+        final Long tmpKey = this.tileIndex((int) (row / myTileSize), (int) (col / myTileSize));
+        Tile retVal = myCache.get(tmpKey);
+        if (retVal == null) {
+            retVal = new Tile(myTileSize * myTileSize);
+            this.read(tmpKey, retVal.data, this.buffer());
+            myCache.put(tmpKey, retVal);
+        }
+        return retVal;
+    }
+
+    private long tileIndex(final int tileRow, final int tileColumn) {
+        return ((long) tileColumn * myTileRows) + tileRow;
+    }
+
+    private void write(final long tileIndex, final double[] tile, final ByteBuffer buffer) {
+        try {
+            final long tmpPosition = this.position(tileIndex);
+            buffer.clear();
+            buffer.asDoubleBuffer().put(tile);
+            while (buffer.hasRemaining()) {
+                myChannel.write(buffer, tmpPosition + buffer.position());
+            }
+        } catch (final IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    private void write(final Panel panel) {
+
+        final ByteBuffer tmpBuffer = this.buffer();
+        final double[] tmpTile = new double[myTileSize * myTileSize];
+
+        for (int t = panel.firstTile; t < panel.limitTile; t++) {
+            final int tmpOffset = (t - panel.firstTile) * myTileSize;
+            final int tmpCount = Math.min(myTileSize, panel.rows - tmpOffset);
+            for (int c = 0; c < panel.width; c++) {
+                System.arraycopy(panel.data, tmpOffset + (c * panel.rows), tmpTile, c * myTileSize, tmpCount);
+            }
+            this.write(this.tileIndex(t, panel.tileColumn), tmpTile, tmpBuffer);
+        }
+    }
+
+}
@@ -42,4 +42,8 @@ final class UnaryOperatoStore<N extends Number> extends LogicalStore<N> {
         return myOperator.invoke(this.getBase().get(row, col));
     }
 
+    UnaryFunction<N> getOperator() {
+        return myOperator;
+    }
+
 }
@@ -36,6 +36,13 @@ public final class ApplyCholesky extends MatrixOperation {
         }
     }
 
+    public static void invoke(final double[] dataRe, final double[] dataIm, final int structure, final int firstColumn, final int columnLimit,
+            final double[] multipliersRe, final double[] multipliersIm) {
+        for (int j = firstColumn; j < columnLimit; j++) {
+            AXPY.invoke(dataRe, dataIm, j * structure, -multipliersRe[j], multipliersIm[j], multipliersRe, multipliersIm, 0, j, structure);
+        }
+    }
+
     public static <N extends Number & Scalar<N>> void invoke(final N[] data, final int structure, final int firstColumn, final int columnLimit,
             final N[] multipliers) {
         for (int j = firstColumn; j < columnLimit; j++) {
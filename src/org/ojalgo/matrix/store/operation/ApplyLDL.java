@@ -38,6 +38,17 @@ public final class ApplyLDL extends MatrixOperation {
         }
     }
 
+    public static void invoke(final double[] dataRe, final double[] dataIm, final int structure, final int firstColumn, final int columnLimit,
+            final double[] multipliersRe, final double[] multipliersIm, final int iterationPoint) {
+        final double tmpDiagRe = dataRe[iterationPoint + (iterationPoint * structure)];
+        final double tmpDiagIm = dataIm[iterationPoint + (iterationPoint * structure)];
+        for (int j = firstColumn; j < columnLimit; j++) {
+            // -(diagonal * conjugate(multipliers[j]))
+            AXPY.invoke(dataRe, dataIm, j * structure, -((tmpDiagRe * multipliersRe[j]) + (tmpDiagIm * multipliersIm[j])),
+                    -((tmpDiagIm * multipliersRe[j]) - (tmpDiagRe * multipliersIm[j])), multipliersRe, multipliersIm, 0, j, structure);
+        }
+    }
+
     public static <N extends Number & Scalar<N>> void invoke(final N[] data, final int structure, final int firstColumn, final int columnLimit,
             final N[] multipliers, final int iterationPoint) {
         final Scalar<N> tmpDiagVal = data[iterationPoint + (iterationPoint * structure)];
@@ -37,6 +37,16 @@ public final class ApplyLU extends MatrixOperation {
         }
     }
 
+    public static void invoke(final double[] dataRe, final double[] dataIm, final int structure, final int firstColumn, final int columnLimit,
+            final double[] multipliersRe, final double[] multipliersIm, final int iterationPoint) {
+        int tmpIndex;
+        for (int j = firstColumn; j < columnLimit; j++) {
+            tmpIndex = iterationPoint + (j * structure);
+            AXPY.invoke(dataRe, dataIm, j * structure, -dataRe[tmpIndex], -dataIm[tmpIndex], multipliersRe, multipliersIm, 0, iterationPoint + 1,
+                    structure);
+        }
+    }
+
     public static <N extends Number & Scalar<N>> void invoke(final N[] data, final int structure, final int firstColumn, final int columnLimit,
             final N[] multipliers, final int iterationPoint) {
         for (int j = firstColumn; j < columnLimit; j++) {
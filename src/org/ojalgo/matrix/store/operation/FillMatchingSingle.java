@@ -24,6 +24,9 @@ package org.ojalgo.matrix.store.operation;
 import java.math.BigDecimal;
 
 import org.ojalgo.access.Access2D;
+import org.ojalgo.array.SplitComplexArray;
+import org.ojalgo.constant.PrimitiveMath;
+import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.Scalar;
 import org.ojalgo.type.TypeUtils;
 
@@ -41,6 +44,11 @@ public final class FillMatchingSingle extends MatrixOperation {
         FillMatchingSingle.transpose(data, structure, firstColumn, limitColumn, source);
     }
 
+    public static void conjugate(final double[] dataRe, final double[] dataIm, final int structure, final int firstColumn, final int limitColumn,
+            final Access2D<?> source) {
+        FillMatchingSingle.fill(dataRe, dataIm, structure, firstColumn, limitColumn, source, true, true);
+    }
+
     public static <N extends Number & Scalar<N>> void conjugate(final N[] data, final int structure, final int firstColumn, final int limitColumn,
             final Access2D<?> source, final Scalar.Factory<N> scalar) {
         int index = structure * firstColumn;
@@ -70,6 +78,11 @@ public final class FillMatchingSingle extends MatrixOperation {
         }
     }
 
+    public static void copy(final double[] dataRe, final double[] dataIm, final int structure, final int firstColumn, final int limitColumn,
+            final Access2D<?> source) {
+        FillMatchingSingle.fill(dataRe, dataIm, structure, firstColumn, limitColumn, source, false, false);
+    }
+
     public static <N extends Number & Scalar<N>> void copy(final N[] data, final int structure, final int firstColumn, final int limitColumn,
             final Access2D<?> source, final Scalar.Factory<N> scalar) {
         int index = structure * firstColumn;
@@ -98,6 +111,11 @@ public final class FillMatchingSingle extends MatrixOperation {
         }
     }
 
+    public static void transpose(final double[] dataRe, final double[] dataIm, final int structure, final int firstColumn, final int limitColumn,
+            final Access2D<?> source) {
+        FillMatchingSingle.fill(dataRe, dataIm, structure, firstColumn, limitColumn, source, true, false);
+    }
+
     public static <N extends Number & Scalar<N>> void transpose(final N[] data, final int structure, final int firstColumn, final int limitColumn,
             final Access2D<?> source, final Scalar.Factory<N> scalar) {
         int index = structure * firstColumn;
@@ -108,6 +126,47 @@ public final class FillMatchingSingle extends MatrixOperation {
         }
     }
 
+    /**
+     * Complex numbers with separate arrays for the real and imaginary parts. Split complex sources are read
+     * without creating any intermediate {@link ComplexNumber} instances.
+     */
+    private static void fill(final double[] dataRe, final double[] dataIm, final int structure, final int firstColumn, final int limitColumn,
+            final Access2D<?> source, final boolean transpose, final boolean conjugate) {
+
+        int index = structure * firstColumn;
+
+        if (source instanceof SplitComplexArray) {
+
+            final double[] tmpSourceRe = ((SplitComplexArray) source).real;
+            final double[] tmpSourceIm = ((SplitComplexArray) source).imaginary;
+            final int tmpSourceStructure = (int) source.countRows();
+
+            int tmpSourceIndex;
+            for (int j = firstColumn; j < limitColumn; j++) {
+                for (int i = 0; i < structure; i++) {
+                    tmpSourceIndex = transpose ? j + (i * tmpSourceStructure) : i + (j * tmpSourceStructure);
+                    dataRe[index] = tmpSourceRe[tmpSourceIndex];
+                    dataIm[index++] = conjugate ? -tmpSourceIm[tmpSourceIndex] : tmpSourceIm[tmpSourceIndex];
+                }
+            }
+
+        } else {
+
+            Number tmpNumber;
+            for (int j = firstColumn; j < limitColumn; j++) {
+                for (int i = 0; i < structure; i++) {
+                    tmpNumber = transpose ? source.get(j, i) : source.get(i, j);
+                    dataRe[index] = tmpNumber.doubleValue();
+                    if (tmpNumber instanceof ComplexNumber) {
+                        dataIm[index++] = conjugate ? -((ComplexNumber) tmpNumber).i : ((ComplexNumber) tmpNumber).i;
+                    } else {
+                        dataIm[index++] = PrimitiveMath.ZERO;
+                    }
+                }
+            }
+        }
+    }
+
     private FillMatchingSingle() {
         super();
     }
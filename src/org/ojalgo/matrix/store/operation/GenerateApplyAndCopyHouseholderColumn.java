@@ -83,6 +83,76 @@ public final class GenerateApplyAndCopyHouseholderColumn extends MatrixOperation
         return retVal;
     }
 
+    public static boolean invoke(final double[] dataRe, final double[] dataIm, final int structure, final int row, final int col,
+            final Householder.SplitComplex destination) {
+
+        final int tmpColBase = col * structure;
+
+        final double[] tmpVectorRe = destination.real;
+        final double[] tmpVectorIm = destination.imaginary;
+        destination.first = row;
+
+        double tmpNormInf = PrimitiveMath.ZERO;
+        for (int i = row; i < structure; i++) {
+            tmpNormInf = PrimitiveFunction.MAX.invoke(tmpNormInf, PrimitiveFunction.HYPOT.invoke(dataRe[i + tmpColBase], dataIm[i + tmpColBase]));
+        }
+
+        boolean retVal = tmpNormInf != PrimitiveMath.ZERO;
+        double tmpValRe, tmpValIm;
+        double tmpNorm2 = PrimitiveMath.ZERO;
+
+        if (retVal) {
+            for (int i = row + 1; i < structure; i++) {
+                tmpValRe = dataRe[i + tmpColBase] / tmpNormInf;
+                tmpValIm = dataIm[i + tmpColBase] / tmpNormInf;
+                tmpNorm2 += (tmpValRe * tmpValRe) + (tmpValIm * tmpValIm);
+            }
+            retVal = !PrimitiveScalar.isSmall(PrimitiveMath.ONE, tmpNorm2);
+        }
+
+        if (retVal) {
+
+            double tmpScaleRe = dataRe[row + tmpColBase] / tmpNormInf;
+            double tmpScaleIm = dataIm[row + tmpColBase] / tmpNormInf;
+            double tmpScaleNorm = PrimitiveFunction.HYPOT.invoke(tmpScaleRe, tmpScaleIm);
+            tmpNorm2 += tmpScaleNorm * tmpScaleNorm;
+            tmpNorm2 = PrimitiveFunction.SQRT.invoke(tmpNorm2);
+
+            // signum(scale), defined as 1 when scale is (close to) 0
+            double tmpSignumRe = PrimitiveMath.ONE;
+            double tmpSignumIm = PrimitiveMath.ZERO;
+            if (!PrimitiveScalar.isSmall(PrimitiveMath.ONE, tmpScaleNorm)) {
+                tmpSignumRe = tmpScaleRe / tmpScaleNorm;
+                tmpSignumIm = tmpScaleIm / tmpScaleNorm;
+            }
+            dataRe[row + tmpColBase] = tmpSignumRe * tmpNorm2 * tmpNormInf;
+            dataIm[row + tmpColBase] = tmpSignumIm * tmpNorm2 * tmpNormInf;
+            tmpScaleRe -= tmpSignumRe * tmpNorm2;
+            tmpScaleIm -= tmpSignumIm * tmpNorm2;
+            tmpScaleNorm = PrimitiveFunction.HYPOT.invoke(tmpScaleRe, tmpScaleIm);
+
+            tmpVectorRe[row] = PrimitiveMath.ONE;
+            tmpVectorIm[row] = PrimitiveMath.ZERO;
+
+            tmpScaleRe *= tmpNormInf;
+            tmpScaleIm *= tmpNormInf;
+            final double tmpDenominator = (tmpScaleRe * tmpScaleRe) + (tmpScaleIm * tmpScaleIm);
+
+            for (int i = row + 1; i < structure; i++) {
+                tmpValRe = dataRe[i + tmpColBase];
+                tmpValIm = dataIm[i + tmpColBase];
+                dataRe[i + tmpColBase] = ((tmpValRe * tmpScaleRe) + (tmpValIm * tmpScaleIm)) / tmpDenominator;
+                dataIm[i + tmpColBase] = ((tmpValIm * tmpScaleRe) - (tmpValRe * tmpScaleIm)) / tmpDenominator;
+                tmpVectorRe[i] = dataRe[i + tmpColBase];
+                tmpVectorIm[i] = dataIm[i + tmpColBase];
+            }
+
+            destination.beta = tmpScaleNorm / tmpNorm2;
+        }
+
+        return retVal;
+    }
+
     public static <N extends Number & Scalar<N>> boolean invoke(final N[] data, final int structure, final int row, final int col,
             final Householder.Generic<N> destination, final Scalar.Factory<N> scalar) {
 
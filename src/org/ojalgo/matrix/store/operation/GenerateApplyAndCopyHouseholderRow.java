@@ -84,6 +84,81 @@ public final class GenerateApplyAndCopyHouseholderRow extends MatrixOperation {
         return retVal;
     }
 
+    public static boolean invoke(final double[] dataRe, final double[] dataIm, final int structure, final int row, final int col,
+            final Householder.SplitComplex destination) {
+
+        final int tmpColDim = dataRe.length / structure;
+
+        final double[] tmpVectorRe = destination.real;
+        final double[] tmpVectorIm = destination.imaginary;
+        destination.first = col;
+
+        double tmpNormInf = PrimitiveMath.ZERO;
+        for (int j = col; j < tmpColDim; j++) {
+            tmpNormInf = PrimitiveFunction.MAX.invoke(tmpNormInf, PrimitiveFunction.HYPOT.invoke(dataRe[row + (j * structure)], dataIm[row + (j * structure)]));
+        }
+
+        boolean retVal = tmpNormInf != PrimitiveMath.ZERO;
+        double tmpValRe, tmpValIm;
+        double tmpNorm2 = PrimitiveMath.ZERO;
+
+        if (retVal) {
+            for (int j = col + 1; j < tmpColDim; j++) {
+                tmpValRe = dataRe[row + (j * structure)] / tmpNormInf;
+                tmpValIm = dataIm[row + (j * structure)] / tmpNormInf;
+                tmpNorm2 += (tmpValRe * tmpValRe) + (tmpValIm * tmpValIm);
+            }
+            retVal = !PrimitiveScalar.isSmall(PrimitiveMath.ONE, tmpNorm2);
+        }
+
+        if (retVal) {
+
+            final int tmpIndex = row + (col * structure);
+
+            double tmpScaleRe = dataRe[tmpIndex] / tmpNormInf;
+            double tmpScaleIm = dataIm[tmpIndex] / tmpNormInf;
+            double tmpScaleNorm = PrimitiveFunction.HYPOT.invoke(tmpScaleRe, tmpScaleIm);
+            tmpNorm2 += tmpScaleNorm * tmpScaleNorm;
+            tmpNorm2 = PrimitiveFunction.SQRT.invoke(tmpNorm2);
+
+            // signum(scale), defined as 1 when scale is (close to) 0
+            double tmpSignumRe = PrimitiveMath.ONE;
+            double tmpSignumIm = PrimitiveMath.ZERO;
+            if (!PrimitiveScalar.isSmall(PrimitiveMath.ONE, tmpScaleNorm)) {
+                tmpSignumRe = tmpScaleRe / tmpScaleNorm;
+                tmpSignumIm = tmpScaleIm / tmpScaleNorm;
+            }
+            dataRe[tmpIndex] = tmpSignumRe * tmpNorm2 * tmpNormInf;
+            dataIm[tmpIndex] = tmpSignumIm * tmpNorm2 * tmpNormInf;
+            tmpScaleRe -= tmpSignumRe * tmpNorm2;
+            tmpScaleIm -= tmpSignumIm * tmpNorm2;
+            tmpScaleNorm = PrimitiveFunction.HYPOT.invoke(tmpScaleRe, tmpScaleIm);
+
+            tmpVectorRe[col] = PrimitiveMath.ONE;
+            tmpVectorIm[col] = PrimitiveMath.ZERO;
+
+            tmpScaleRe *= tmpNormInf;
+            tmpScaleIm *= tmpNormInf;
+            final double tmpDenominator = (tmpScaleRe * tmpScaleRe) + (tmpScaleIm * tmpScaleIm);
+
+            int tmpElementIndex;
+            for (int j = col + 1; j < tmpColDim; j++) {
+                tmpElementIndex = row + (j * structure);
+                tmpValRe = dataRe[tmpElementIndex];
+                tmpValIm = dataIm[tmpElementIndex];
+                // conjugate(value / scale)
+                dataRe[tmpElementIndex] = ((tmpValRe * tmpScaleRe) + (tmpValIm * tmpScaleIm)) / tmpDenominator;
+                dataIm[tmpElementIndex] = -((tmpValIm * tmpScaleRe) - (tmpValRe * tmpScaleIm)) / tmpDenominator;
+                tmpVectorRe[j] = dataRe[tmpElementIndex];
+                tmpVectorIm[j] = dataIm[tmpElementIndex];
+            }
+
+            destination.beta = tmpScaleNorm / tmpNorm2;
+        }
+
+        return retVal;
+    }
+
     public static <N extends Number & Scalar<N>> boolean invoke(final N[] data, final int structure, final int row, final int col,
             final Householder.Generic<N> destination, final Scalar.Factory<N> scalar) {
 
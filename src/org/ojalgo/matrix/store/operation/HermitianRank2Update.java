@@ -80,6 +80,31 @@ public final class HermitianRank2Update extends MatrixOperation {
         }
     }
 
+    public static void invoke(final double[] dataRe, final double[] dataIm, final int firstColumn, final int columnLimit, final double[] vector1Re,
+            final double[] vector1Im, final double[] vector2Re, final double[] vector2Im) {
+
+        final int structure = vector1Re.length;
+
+        double tmpVal1jRe, tmpVal1jIm;
+        double tmpVal2jRe, tmpVal2jIm;
+
+        int tmpIndex;
+        for (int j = firstColumn; j < columnLimit; j++) {
+
+            tmpVal1jRe = vector1Re[j];
+            tmpVal1jIm = -vector1Im[j];
+            tmpVal2jRe = vector2Re[j];
+            tmpVal2jIm = -vector2Im[j];
+
+            tmpIndex = j + (j * structure);
+            for (int i = j; i < structure; i++) {
+                dataRe[tmpIndex] -= ((vector2Re[i] * tmpVal1jRe) - (vector2Im[i] * tmpVal1jIm)) + ((vector1Re[i] * tmpVal2jRe) - (vector1Im[i] * tmpVal2jIm));
+                dataIm[tmpIndex] -= ((vector2Re[i] * tmpVal1jIm) + (vector2Im[i] * tmpVal1jRe)) + ((vector1Re[i] * tmpVal2jIm) + (vector1Im[i] * tmpVal2jRe));
+                tmpIndex++;
+            }
+        }
+    }
+
     public static <N extends Number & Scalar<N>> void invoke(final N[] data, final int firstColumn, final int columnLimit, final N[] vector1,
             final N[] vector2) {
 
@@ -96,6 +96,69 @@ public final class HouseholderHermitian extends MatrixOperation {
         }
     }
 
+    public static void invoke(final double[] dataRe, final double[] dataIm, final Householder.SplitComplex householder, final double[] workerRe,
+            final double[] workerIm) {
+
+        final double[] tmpVectorRe = householder.real;
+        final double[] tmpVectorIm = householder.imaginary;
+        final int tmpFirst = householder.first;
+        final int tmpLength = tmpVectorRe.length;
+        final double tmpBeta = householder.beta;
+        final int tmpCount = tmpLength - tmpFirst;
+
+        if (tmpCount > MultiplyHermitianAndVector.THRESHOLD) {
+
+            final DivideAndConquer tmpConqurer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    MultiplyHermitianAndVector.invoke(workerRe, workerIm, first, limit, dataRe, dataIm, tmpVectorRe, tmpVectorIm, tmpFirst);
+                }
+            };
+
+            tmpConqurer.invoke(tmpFirst, tmpLength, MultiplyHermitianAndVector.THRESHOLD);
+
+        } else {
+
+            MultiplyHermitianAndVector.invoke(workerRe, workerIm, tmpFirst, tmpLength, dataRe, dataIm, tmpVectorRe, tmpVectorIm, tmpFirst);
+        }
+
+        // conjugate(vector) * worker * beta / 2
+        double tmpSumRe = PrimitiveMath.ZERO;
+        double tmpSumIm = PrimitiveMath.ZERO;
+        for (int c = tmpFirst; c < tmpLength; c++) {
+            tmpSumRe += (tmpVectorRe[c] * workerRe[c]) + (tmpVectorIm[c] * workerIm[c]);
+            tmpSumIm += (tmpVectorRe[c] * workerIm[c]) - (tmpVectorIm[c] * workerRe[c]);
+        }
+        final double tmpValRe = (tmpSumRe * tmpBeta) / PrimitiveMath.TWO;
+        final double tmpValIm = (tmpSumIm * tmpBeta) / PrimitiveMath.TWO;
+
+        double tmpDiffRe, tmpDiffIm;
+        for (int c = tmpFirst; c < tmpLength; c++) {
+            tmpDiffRe = workerRe[c] - ((tmpValRe * tmpVectorRe[c]) - (tmpValIm * tmpVectorIm[c]));
+            tmpDiffIm = workerIm[c] - ((tmpValRe * tmpVectorIm[c]) + (tmpValIm * tmpVectorRe[c]));
+            workerRe[c] = tmpBeta * tmpDiffRe;
+            workerIm[c] = tmpBeta * tmpDiffIm;
+        }
+
+        if (tmpCount > HermitianRank2Update.THRESHOLD) {
+
+            final DivideAndConquer tmpConqurer = new DivideAndConquer() {
+
+                @Override
+                protected void conquer(final int first, final int limit) {
+                    HermitianRank2Update.invoke(dataRe, dataIm, first, limit, tmpVectorRe, tmpVectorIm, workerRe, workerIm);
+                }
+            };
+
+            tmpConqurer.invoke(tmpFirst, tmpLength, HermitianRank2Update.THRESHOLD);
+
+        } else {
+
+            HermitianRank2Update.invoke(dataRe, dataIm, tmpFirst, tmpLength, tmpVectorRe, tmpVectorIm, workerRe, workerIm);
+        }
+    }
+
     public static <N extends Number & Scalar<N>> void invoke(final N[] data, final Householder.Generic<N> householder, final N[] worker,
             final Scalar.Factory<N> scalar) {
 
@@ -23,6 +23,7 @@ package org.ojalgo.matrix.store.operation;
 
 import org.ojalgo.array.blas.AXPY;
 import org.ojalgo.array.blas.DOT;
+import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.matrix.transformation.Householder;
 import org.ojalgo.scalar.Scalar;
 
@@ -46,6 +47,41 @@ public final class HouseholderLeft extends MatrixOperation {
         }
     }
 
+    public static void invoke(final double[] dataRe, final double[] dataIm, final int structure, final int first, final int limit,
+            final Householder.SplitComplex householder) {
+
+        final double[] tmpVectorRe = householder.real;
+        final double[] tmpVectorIm = householder.imaginary;
+        final int tmpFirstNonZero = householder.first;
+        final double tmpBeta = householder.beta;
+
+        double tmpScaleRe, tmpScaleIm, tmpValRe, tmpValIm, tmpVecRe, tmpVecIm;
+        int tmpIndex;
+        for (int j = first; j < limit; j++) {
+            tmpValRe = PrimitiveMath.ZERO;
+            tmpValIm = PrimitiveMath.ZERO;
+            tmpIndex = tmpFirstNonZero + (j * structure);
+            for (int i = tmpFirstNonZero; i < structure; i++) {
+                tmpVecRe = tmpVectorRe[i];
+                tmpVecIm = tmpVectorIm[i];
+                // conjugate(vector[i]) * data[i,j]
+                tmpValRe += (tmpVecRe * dataRe[tmpIndex]) + (tmpVecIm * dataIm[tmpIndex]);
+                tmpValIm += (tmpVecRe * dataIm[tmpIndex]) - (tmpVecIm * dataRe[tmpIndex]);
+                tmpIndex++;
+            }
+            tmpScaleRe = tmpValRe * tmpBeta;
+            tmpScaleIm = tmpValIm * tmpBeta;
+            tmpIndex = tmpFirstNonZero + (j * structure);
+            for (int i = tmpFirstNonZero; i < structure; i++) {
+                tmpVecRe = tmpVectorRe[i];
+                tmpVecIm = tmpVectorIm[i];
+                dataRe[tmpIndex] -= (tmpScaleRe * tmpVecRe) - (tmpScaleIm * tmpVecIm);
+                dataIm[tmpIndex] -= (tmpScaleRe * tmpVecIm) + (tmpScaleIm * tmpVecRe);
+                tmpIndex++;
+            }
+        }
+    }
+
     public static <N extends Number & Scalar<N>> void invoke(final N[] data, final int structure, final int first, final int limit,
             final Householder.Generic<N> householder, final Scalar.Factory<N> scalar) {
 
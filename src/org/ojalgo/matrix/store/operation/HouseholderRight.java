@@ -47,6 +47,44 @@ public final class HouseholderRight extends MatrixOperation {
         }
     }
 
+    public static void invoke(final double[] dataRe, final double[] dataIm, final int first, final int limit, final int numberOfColumns,
+            final Householder.SplitComplex householder) {
+
+        final double[] tmpVectorRe = householder.real;
+        final double[] tmpVectorIm = householder.imaginary;
+        final int tmpFirstNonZero = householder.first;
+        final double tmpBeta = householder.beta;
+
+        final int tmpRowDim = dataRe.length / numberOfColumns;
+
+        double tmpScaleRe, tmpScaleIm, tmpValRe, tmpValIm, tmpVecRe, tmpVecIm;
+        int tmpIndex;
+        for (int i = first; i < limit; i++) {
+            tmpValRe = PrimitiveMath.ZERO;
+            tmpValIm = PrimitiveMath.ZERO;
+            tmpIndex = i + (tmpFirstNonZero * tmpRowDim);
+            for (int j = tmpFirstNonZero; j < numberOfColumns; j++) {
+                tmpVecRe = tmpVectorRe[j];
+                tmpVecIm = tmpVectorIm[j];
+                // conjugate(vector[j] * data[i,j])
+                tmpValRe += (tmpVecRe * dataRe[tmpIndex]) - (tmpVecIm * dataIm[tmpIndex]);
+                tmpValIm -= (tmpVecRe * dataIm[tmpIndex]) + (tmpVecIm * dataRe[tmpIndex]);
+                tmpIndex += tmpRowDim;
+            }
+            tmpScaleRe = tmpValRe * tmpBeta;
+            tmpScaleIm = tmpValIm * tmpBeta;
+            tmpIndex = i + (tmpFirstNonZero * tmpRowDim);
+            for (int j = tmpFirstNonZero; j < numberOfColumns; j++) {
+                tmpVecRe = tmpVectorRe[j];
+                tmpVecIm = tmpVectorIm[j];
+                // data[i,j] -= conjugate(scale * vector[j])
+                dataRe[tmpIndex] -= (tmpScaleRe * tmpVecRe) - (tmpScaleIm * tmpVecIm);
+                dataIm[tmpIndex] += (tmpScaleRe * tmpVecIm) + (tmpScaleIm * tmpVecRe);
+                tmpIndex += tmpRowDim;
+            }
+        }
+    }
+
     public static <N extends Number & Scalar<N>> void invoke(final N[] data, final int first, final int limit, final int tmpColDim,
             final Householder.Generic<N> householder, final Scalar.Factory<N> scalar) {
 
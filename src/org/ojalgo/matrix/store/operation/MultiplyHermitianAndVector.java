@@ -55,6 +55,35 @@ public final class MultiplyHermitianAndVector extends MatrixOperation {
         }
     }
 
+    public static void invoke(final double[] productRe, final double[] productIm, final int firstRow, final int rowLimit, final double[] hermitianRe,
+            final double[] hermitianIm, final double[] vectorRe, final double[] vectorIm, final int firstColumn) {
+
+        final int structure = vectorRe.length;
+
+        double tmpValRe, tmpValIm, tmpElemRe, tmpElemIm;
+        int tmpIndex;
+        for (int i = firstRow; i < rowLimit; i++) {
+            tmpValRe = ZERO;
+            tmpValIm = ZERO;
+            for (int c = firstColumn; c < i; c++) {
+                tmpIndex = i + (c * structure);
+                tmpElemRe = hermitianRe[tmpIndex];
+                tmpElemIm = hermitianIm[tmpIndex];
+                tmpValRe += (tmpElemRe * vectorRe[c]) - (tmpElemIm * vectorIm[c]);
+                tmpValIm += (tmpElemRe * vectorIm[c]) + (tmpElemIm * vectorRe[c]);
+            }
+            for (int c = i; c < structure; c++) {
+                tmpIndex = c + (i * structure);
+                tmpElemRe = hermitianRe[tmpIndex];
+                tmpElemIm = -hermitianIm[tmpIndex];
+                tmpValRe += (tmpElemRe * vectorRe[c]) - (tmpElemIm * vectorIm[c]);
+                tmpValIm += (tmpElemRe * vectorIm[c]) + (tmpElemIm * vectorRe[c]);
+            }
+            productRe[i] = tmpValRe;
+            productIm[i] = tmpValIm;
+        }
+    }
+
     public static <N extends Number & Scalar<N>> void invoke(final N[] productMatrix, final int firstRow, final int rowLimit, final N[] hermitianMatrix,
             final N[] rightVector, final int firstColumn, final Scalar.Factory<N> scalar) {
 
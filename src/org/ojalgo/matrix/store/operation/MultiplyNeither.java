@@ -24,10 +24,15 @@ package org.ojalgo.matrix.store.operation;
 import java.util.Arrays;
 
 import org.ojalgo.array.blas.AXPY;
+import org.ojalgo.array.blas.QuaternionAccumulator;
+import org.ojalgo.array.blas.RationalAccumulator;
 import org.ojalgo.concurrent.DivideAndConquer;
 import org.ojalgo.constant.PrimitiveMath;
+import org.ojalgo.matrix.store.ComplexDenseStore.ComplexMultiplyNeither;
 import org.ojalgo.matrix.store.GenericDenseStore.GenericMultiplyNeither;
 import org.ojalgo.matrix.store.PrimitiveDenseStore.PrimitiveMultiplyNeither;
+import org.ojalgo.scalar.Quaternion;
+import org.ojalgo.scalar.RationalNumber;
 import org.ojalgo.scalar.Scalar;
 
 public final class MultiplyNeither extends MatrixOperation {
@@ -550,6 +555,38 @@ public final class MultiplyNeither extends MatrixOperation {
         tmpConquerer.invoke(0, right.length / complexity, THRESHOLD);
     };
 
+    public static ComplexMultiplyNeither getComplex(final long rows, final long columns) {
+
+        if (rows > THRESHOLD) {
+
+            return (productRe, productIm, leftRe, leftIm, complexity, rightRe, rightIm) -> {
+
+                Arrays.fill(productRe, PrimitiveMath.ZERO);
+                Arrays.fill(productIm, PrimitiveMath.ZERO);
+
+                final DivideAndConquer tmpConquerer = new DivideAndConquer() {
+
+                    @Override
+                    public void conquer(final int first, final int limit) {
+                        MultiplyNeither.invoke(productRe, productIm, first, limit, leftRe, leftIm, complexity, rightRe, rightIm);
+                    }
+                };
+
+                tmpConquerer.invoke(0, rightRe.length / complexity, THRESHOLD);
+            };
+
+        } else {
+
+            return (productRe, productIm, leftRe, leftIm, complexity, rightRe, rightIm) -> {
+
+                Arrays.fill(productRe, PrimitiveMath.ZERO);
+                Arrays.fill(productIm, PrimitiveMath.ZERO);
+
+                MultiplyNeither.invoke(productRe, productIm, 0, rightRe.length / complexity, leftRe, leftIm, complexity, rightRe, rightIm);
+            };
+        }
+    }
+
     public static <N extends Number & Scalar<N>> GenericMultiplyNeither<N> getGeneric(final long rows, final long columns) {
 
         if (rows > THRESHOLD) {
@@ -622,9 +659,91 @@ public final class MultiplyNeither extends MatrixOperation {
         }
     }
 
+    static void invoke(final double[] productRe, final double[] productIm, final int firstColumn, final int columnLimit, final double[] leftRe,
+            final double[] leftIm, final int complexity, final double[] rightRe, final double[] rightIm) {
+
+        final int structure = leftRe.length / complexity;
+
+        final double[] leftColumnRe = new double[structure];
+        final double[] leftColumnIm = new double[structure];
+        int tmpIndex;
+        for (int c = 0; c < complexity; c++) {
+            System.arraycopy(leftRe, c * structure, leftColumnRe, 0, structure);
+            System.arraycopy(leftIm, c * structure, leftColumnIm, 0, structure);
+
+            for (int j = firstColumn; j < columnLimit; j++) {
+                tmpIndex = c + (j * complexity);
+                AXPY.invoke(productRe, productIm, j * structure, rightRe[tmpIndex], rightIm[tmpIndex], leftColumnRe, leftColumnIm, 0, 0, structure);
+            }
+        }
+    }
+
+    /**
+     * Each product element is accumulated in a {@linkplain QuaternionAccumulator} - one new instance per
+     * product element, and none per multiply-add.
+     */
+    static void invoke(final Quaternion[] product, final int firstColumn, final int columnLimit, final Quaternion[] left, final int complexity,
+            final Quaternion[] right) {
+
+        final int structure = left.length / complexity;
+
+        final QuaternionAccumulator tmpAccumulator = new QuaternionAccumulator();
+
+        final Quaternion[] leftRow = new Quaternion[complexity];
+        for (int i = 0; i < structure; i++) {
+            for (int c = 0; c < complexity; c++) {
+                leftRow[c] = left[i + (c * structure)];
+            }
+
+            for (int j = firstColumn; j < columnLimit; j++) {
+                tmpAccumulator.reset();
+                for (int c = 0, base = j * complexity; c < complexity; c++) {
+                    tmpAccumulator.addProduct(leftRow[c], right[base + c]);
+                }
+                product[i + (j * structure)] = tmpAccumulator.get();
+            }
+        }
+    }
+
+    /**
+     * Each product element is accumulated in a {@linkplain RationalAccumulator} - one new instance per
+     * product element, and (as long as there is no overflow) none per multiply-add.
+     */
+    static void invoke(final RationalNumber[] product, final int firstColumn, final int columnLimit, final RationalNumber[] left, final int complexity,
+            final RationalNumber[] right) {
+
+        final int structure = left.length / complexity;
+
+        final RationalAccumulator tmpAccumulator = new RationalAccumulator();
+
+        final RationalNumber[] leftRow = new RationalNumber[complexity];
+        for (int i = 0; i < structure; i++) {
+            for (int c = 0; c < complexity; c++) {
+                leftRow[c] = left[i + (c * structure)];
+            }
+
+            for (int j = firstColumn; j < columnLimit; j++) {
+                tmpAccumulator.reset();
+                for (int c = 0, base = j * complexity; c < complexity; c++) {
+                    tmpAccumulator.addProduct(leftRow[c], right[base + c]);
+                }
+                product[i + (j * structure)] = tmpAccumulator.get();
+            }
+        }
+    }
+
     static <N extends Number & Scalar<N>> void invoke(final N[] product, final int firstColumn, final int columnLimit, final N[] left, final int complexity,
             final N[] right, final Scalar.Factory<N> scalar) {
 
+        if (product instanceof RationalNumber[]) {
+            MultiplyNeither.invoke((RationalNumber[]) product, firstColumn, columnLimit, (RationalNumber[]) left, complexity, (RationalNumber[]) right);
+            return;
+        }
+        if (product instanceof Quaternion[]) {
+            MultiplyNeither.invoke((Quaternion[]) product, firstColumn, columnLimit, (Quaternion[]) left, complexity, (Quaternion[]) right);
+            return;
+        }
+
         final int structure = left.length / complexity;
 
         final N[] leftColumn = scalar.newArrayInstance(structure);
@@ -50,6 +50,34 @@ public final class RotateLeft extends MatrixOperation {
         }
     }
 
+    public static void invoke(final double[] dataRe, final double[] dataIm, final int structure, final int rowA, final int rowB, final double cosRe,
+            final double cosIm, final double sinRe, final double sinIm) {
+
+        double oldARe, oldAIm;
+        double oldBRe, oldBIm;
+
+        int indexA = rowA;
+        int indexB = rowB;
+
+        for (int j = 0, lim = dataRe.length / structure; j < lim; j++) {
+
+            oldARe = dataRe[indexA];
+            oldAIm = dataIm[indexA];
+            oldBRe = dataRe[indexB];
+            oldBIm = dataIm[indexB];
+
+            // cos * oldA + sin * oldB
+            dataRe[indexA] = ((cosRe * oldARe) - (cosIm * oldAIm)) + ((sinRe * oldBRe) - (sinIm * oldBIm));
+            dataIm[indexA] = ((cosRe * oldAIm) + (cosIm * oldARe)) + ((sinRe * oldBIm) + (sinIm * oldBRe));
+            // cos * oldB - sin * oldA
+            dataRe[indexB] = ((cosRe * oldBRe) - (cosIm * oldBIm)) - ((sinRe * oldARe) - (sinIm * oldAIm));
+            dataIm[indexB] = ((cosRe * oldBIm) + (cosIm * oldBRe)) - ((sinRe * oldAIm) + (sinIm * oldARe));
+
+            indexA += structure;
+            indexB += structure;
+        }
+    }
+
     public static <N extends Number & Scalar<N>> void invoke(final N[] data, final int structure, final int rowA, final int rowB, final N cos, final N sin) {
 
         N oldA;
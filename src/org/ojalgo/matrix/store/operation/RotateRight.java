@@ -50,6 +50,34 @@ public final class RotateRight extends MatrixOperation {
         }
     }
 
+    public static void invoke(final double[] dataRe, final double[] dataIm, final int structure, final int colA, final int colB, final double cosRe,
+            final double cosIm, final double sinRe, final double sinIm) {
+
+        double oldARe, oldAIm;
+        double oldBRe, oldBIm;
+
+        int indexA = colA * structure;
+        int indexB = colB * structure;
+
+        for (int i = 0; i < structure; i++) {
+
+            oldARe = dataRe[indexA];
+            oldAIm = dataIm[indexA];
+            oldBRe = dataRe[indexB];
+            oldBIm = dataIm[indexB];
+
+            // cos * oldA - sin * oldB
+            dataRe[indexA] = ((cosRe * oldARe) - (cosIm * oldAIm)) - ((sinRe * oldBRe) - (sinIm * oldBIm));
+            dataIm[indexA] = ((cosRe * oldAIm) + (cosIm * oldARe)) - ((sinRe * oldBIm) + (sinIm * oldBRe));
+            // cos * oldB + sin * oldA
+            dataRe[indexB] = ((cosRe * oldBRe) - (cosIm * oldBIm)) + ((sinRe * oldARe) - (sinIm * oldAIm));
+            dataIm[indexB] = ((cosRe * oldBIm) + (cosIm * oldBRe)) + ((sinRe * oldAIm) + (sinIm * oldARe));
+
+            indexA++;
+            indexB++;
+        }
+    }
+
     public static <N extends Number & Scalar<N>> void invoke(final N[] data, final int structure, final int colA, final int colB, final N cos, final N sin) {
 
         N oldA;
@@ -23,6 +23,7 @@ package org.ojalgo.matrix.store.operation;
 
 import org.ojalgo.access.Access2D;
 import org.ojalgo.constant.PrimitiveMath;
+import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.Scalar;
 
 public final class SubstituteForwards extends MatrixOperation {
@@ -67,6 +68,56 @@ public final class SubstituteForwards extends MatrixOperation {
         }
     }
 
+    public static void invoke(final double[] dataRe, final double[] dataIm, final int structure, final int first, final int limit,
+            final Access2D<ComplexNumber> body, final boolean unitDiagonal, final boolean conjugated, final boolean identity) {
+
+        final int tmpDiagDim = (int) Math.min(body.countRows(), body.countColumns());
+        final double[] tmpBodyRowRe = new double[tmpDiagDim];
+        final double[] tmpBodyRowIm = new double[tmpDiagDim];
+        ComplexNumber tmpBodyElement;
+        double tmpValRe, tmpValIm, tmpDiagRe, tmpDiagIm, tmpDenominator, tmpTempRe;
+        int tmpColBaseIndex;
+
+        for (int i = 0; i < tmpDiagDim; i++) {
+
+            for (int j = 0; j <= i; j++) {
+                tmpBodyElement = conjugated ? body.get(j, i) : body.get(i, j);
+                tmpBodyRowRe[j] = tmpBodyElement.doubleValue();
+                tmpBodyRowIm[j] = conjugated ? -tmpBodyElement.i : tmpBodyElement.i;
+            }
+
+            for (int s = first; s < limit; s++) {
+                tmpColBaseIndex = s * structure;
+
+                tmpValRe = PrimitiveMath.ZERO;
+                tmpValIm = PrimitiveMath.ZERO;
+                for (int j = identity ? s : 0; j < i; j++) {
+                    tmpValRe += (tmpBodyRowRe[j] * dataRe[j + tmpColBaseIndex]) - (tmpBodyRowIm[j] * dataIm[j + tmpColBaseIndex]);
+                    tmpValIm += (tmpBodyRowRe[j] * dataIm[j + tmpColBaseIndex]) + (tmpBodyRowIm[j] * dataRe[j + tmpColBaseIndex]);
+                }
+                if (identity) {
+                    tmpValRe = i == s ? PrimitiveMath.ONE - tmpValRe : -tmpValRe;
+                    tmpValIm = -tmpValIm;
+                } else {
+                    tmpValRe = dataRe[i + tmpColBaseIndex] - tmpValRe;
+                    tmpValIm = dataIm[i + tmpColBaseIndex] - tmpValIm;
+                }
+
+                if (!unitDiagonal) {
+                    tmpDiagRe = tmpBodyRowRe[i];
+                    tmpDiagIm = tmpBodyRowIm[i];
+                    tmpDenominator = (tmpDiagRe * tmpDiagRe) + (tmpDiagIm * tmpDiagIm);
+                    tmpTempRe = ((tmpValRe * tmpDiagRe) + (tmpValIm * tmpDiagIm)) / tmpDenominator;
+                    tmpValIm = ((tmpValIm * tmpDiagRe) - (tmpValRe * tmpDiagIm)) / tmpDenominator;
+                    tmpValRe = tmpTempRe;
+                }
+
+                dataRe[i + tmpColBaseIndex] = tmpValRe;
+                dataIm[i + tmpColBaseIndex] = tmpValIm;
+            }
+        }
+    }
+
     public static <N extends Number & Scalar<N>> void invoke(final N[] data, final int structure, final int first, final int limit, final Access2D<N> body,
             final boolean unitDiagonal, final boolean conjugated, final boolean identity, final Scalar.Factory<N> scalar) {
 
@@ -28,6 +28,7 @@ import java.util.List;
 import org.ojalgo.RecoverableCondition;
 import org.ojalgo.access.Access2D;
 import org.ojalgo.access.Structure1D;
+import org.ojalgo.array.blas.DOT;
 import org.ojalgo.function.PrimitiveFunction;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
@@ -41,6 +42,14 @@ import org.ojalgo.type.context.NumberContext;
  */
 public final class ConjugateGradientSolver extends KrylovSubspaceSolver implements IterativeSolverTask.SparseDelegate {
 
+    /**
+     * The unrolled kernel - the summation order is not sequential, but the iterations only need the dot
+     * products to within the accuracy context.
+     */
+    private static double dot(final PrimitiveDenseStore vector1, final PrimitiveDenseStore vector2) {
+        return DOT.invoke(vector1.data, 0, 1, vector2.data, 0, 1, (int) Math.min(vector1.count(), vector2.count()));
+    }
+
     private transient PrimitiveDenseStore myDirection = null;
     private transient PrimitiveDenseStore myPreconditioned = null;
     private transient PrimitiveDenseStore myResidual = null;
@@ -85,7 +94,7 @@ public final class ConjugateGradientSolver extends KrylovSubspaceSolver implemen
         final NumberContext tmpCntxt = this.getAccuracyContext();
 
         // zr1 = tmpPreconditioned.transpose().multiply(tmpResidual).doubleValue(0L);
-        zr1 = tmpPreconditioned.dot(tmpResidual);
+        zr1 = ConjugateGradientSolver.dot(tmpPreconditioned, tmpResidual);
 
         do {
 
@@ -98,7 +107,7 @@ public final class ConjugateGradientSolver extends KrylovSubspaceSolver implemen
             }
 
             // pAp0 = tmpVector.multiplyLeft(tmpDirection.transpose()).get().doubleValue(0L);
-            pAp0 = tmpDirection.dot(tmpVector);
+            pAp0 = ConjugateGradientSolver.dot(tmpDirection, tmpVector);
 
             tmpStepLength = zr0 / pAp0;
 
@@ -120,7 +129,7 @@ public final class ConjugateGradientSolver extends KrylovSubspaceSolver implemen
                 tmpPreconditioned.set(tmpRow.index, tmpValue / tmpRow.getPivot());
             }
 
-            zr1 = tmpPreconditioned.dot(tmpResidual);
+            zr1 = ConjugateGradientSolver.dot(tmpPreconditioned, tmpResidual);
             tmpGradientCorrectionFactor = zr1 / zr0;
 
             tmpDirection.modifyAll(PrimitiveFunction.MULTIPLY.second(tmpGradientCorrectionFactor));
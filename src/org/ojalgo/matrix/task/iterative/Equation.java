@@ -25,8 +25,7 @@ import static org.ojalgo.constant.PrimitiveMath.*;
 
 import org.ojalgo.access.Access1D;
 import org.ojalgo.access.Mutate1D;
-import org.ojalgo.array.Primitive64Array;
-import org.ojalgo.array.SparseArray;
+import org.ojalgo.array.SparseVector;
 import org.ojalgo.matrix.store.PhysicalStore;
 
 public final class Equation implements Comparable<Equation>, Access1D<Double>, Mutate1D {
@@ -38,21 +37,21 @@ public final class Equation implements Comparable<Equation>, Access1D<Double>, M
     /**
      * The nonzero elements of this equation/row
      */
-    private final SparseArray<Double> myElements;
+    private final SparseVector myElements;
     private double myPivot = ZERO;
     private final double myRHS;
 
     public Equation(final int row, final long numberOfColumns, final double rhs) {
         super();
         index = row;
-        myElements = SparseArray.factory(Primitive64Array.FACTORY, numberOfColumns).make();
+        myElements = new SparseVector(numberOfColumns);
         myRHS = rhs;
     }
 
     public Equation(final int row, final long numberOfColumns, final double rhs, final int numberOfNonzeros) {
         super();
         index = row;
-        myElements = SparseArray.factory(Primitive64Array.FACTORY, numberOfColumns).initial(numberOfNonzeros).make();
+        myElements = new SparseVector(numberOfColumns, numberOfNonzeros);
         myRHS = rhs;
     }
 
@@ -232,6 +232,109 @@ public interface Householder<N extends Number> extends TransformationMatrix<N, P
 
     }
 
+    /**
+     * A {@link ComplexNumber} Householder vector with the real and imaginary parts kept in separate
+     * double[] - the transformation vector of {@link org.ojalgo.matrix.store.ComplexDenseStore}. The beta
+     * value of a complex Householder transformation is always real.
+     */
+    public static final class SplitComplex extends Object implements Householder<ComplexNumber> {
+
+        public double beta;
+        public int first;
+        public final double[] imaginary;
+        public final double[] real;
+
+        public SplitComplex(final Householder<ComplexNumber> aTransf) {
+
+            this((int) aTransf.count());
+
+            this.copy(aTransf);
+        }
+
+        public SplitComplex(final int aDim) {
+
+            super();
+
+            real = new double[aDim];
+            imaginary = new double[aDim];
+            beta = PrimitiveMath.ZERO;
+            first = 0;
+        }
+
+        @SuppressWarnings("unused")
+        private SplitComplex() {
+            this(0);
+        }
+
+        public final Householder.SplitComplex copy(final Householder<ComplexNumber> source) {
+
+            first = source.first();
+
+            final double[] tmpReal = real;
+            final double[] tmpImaginary = imaginary;
+            double tmpVal2 = PrimitiveMath.ZERO;
+            final int tmpSize = (int) source.count();
+
+            if (source instanceof SplitComplex) {
+
+                final SplitComplex tmpSource = (SplitComplex) source;
+                for (int i = first; i < tmpSize; i++) {
+                    tmpReal[i] = tmpSource.real[i];
+                    tmpImaginary[i] = tmpSource.imaginary[i];
+                    tmpVal2 += (tmpReal[i] * tmpReal[i]) + (tmpImaginary[i] * tmpImaginary[i]);
+                }
+
+            } else {
+
+                ComplexNumber tmpVal;
+                for (int i = first; i < tmpSize; i++) {
+                    tmpVal = source.get(i);
+                    tmpReal[i] = tmpVal.doubleValue();
+                    tmpImaginary[i] = tmpVal.i;
+                    tmpVal2 += (tmpReal[i] * tmpReal[i]) + (tmpImaginary[i] * tmpImaginary[i]);
+                }
+            }
+
+            beta = PrimitiveMath.TWO / tmpVal2;
+
+            return this;
+        }
+
+        public long count() {
+            return real.length;
+        }
+
+        public double doubleValue(final long anInd) {
+            return real[(int) anInd];
+        }
+
+        public int first() {
+            return first;
+        }
+
+        public ComplexNumber get(final long index) {
+            return ComplexNumber.of(real[(int) index], imaginary[(int) index]);
+        }
+
+        @Override
+        public String toString() {
+
+            final StringBuilder retVal = new StringBuilder("{ ");
+
+            final int tmpLastIndex = real.length - 1;
+            for (int i = 0; i < tmpLastIndex; i++) {
+                retVal.append(this.get(i));
+                retVal.append(", ");
+            }
+            retVal.append(this.get(tmpLastIndex));
+
+            retVal.append(" }");
+
+            return retVal.toString();
+        }
+
+    }
+
     /**
      * Regardless of what is actually returned by {@linkplain #doubleValue(long)} and/or
      * {@linkplain #get(long)} vector elements with indeces less than 'first' should be assumed to be, and
@@ -36,9 +36,9 @@ import org.ojalgo.access.Mutate2D;
 import org.ojalgo.access.Structure1D.IntIndex;
 import org.ojalgo.array.Array1D;
 import org.ojalgo.array.LongToNumberMap;
+import org.ojalgo.array.LongToNumberMap.EntryView;
 import org.ojalgo.array.Primitive64Array;
 import org.ojalgo.array.SparseArray;
-import org.ojalgo.array.SparseArray.NonzeroView;
 import org.ojalgo.function.PrimitiveFunction;
 import org.ojalgo.function.aggregator.AggregatorFunction;
 import org.ojalgo.function.aggregator.PrimitiveAggregator;
@@ -546,7 +546,7 @@ public final class SimplexSolver extends LinearSolver {
         }
 
         if (myFixedVariables != null) {
-            for (NonzeroView<Double> entry : myFixedVariables.nonzeros()) {
+            for (EntryView<Double> entry : myFixedVariables.nonzeros()) {
                 solution.set(entry.index(), entry.doubleValue());
             }
         }
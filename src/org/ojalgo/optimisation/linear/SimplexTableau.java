@@ -35,8 +35,8 @@ import org.ojalgo.array.BasicArray;
 import org.ojalgo.array.DenseArray;
 import org.ojalgo.array.Primitive64Array;
 import org.ojalgo.array.Raw1D;
-import org.ojalgo.array.SparseArray;
-import org.ojalgo.array.SparseArray.NonzeroView;
+import org.ojalgo.array.SparseVector;
+import org.ojalgo.array.SparseVector.NonzeroView;
 import org.ojalgo.array.blas.AXPY;
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.function.NullaryFunction;
@@ -438,10 +438,9 @@ abstract class SimplexTableau implements AlgorithmStore, Access2D<Double> {
         private final Array1D<Double> myObjectiveWeights;
         private final DenseArray<Double> myPhase1Weights;
         private final Array1D<Double> myRHS;
-        private final SparseArray<Double>[] myRows;
+        private final SparseVector[] myRows;
         private double myValue = ZERO;
 
-        @SuppressWarnings("unchecked")
         SparseTableau(final int numberOfConstraints, final int numberOfProblemVariables, final int numberOfSlackVariables) {
 
             super(numberOfConstraints, numberOfProblemVariables, numberOfSlackVariables);
@@ -449,9 +448,9 @@ abstract class SimplexTableau implements AlgorithmStore, Access2D<Double> {
             // Including artificial variables
             final int totNumbVars = this.countVariablesTotally();
 
-            myRows = new SparseArray[numberOfConstraints];
+            myRows = new SparseVector[numberOfConstraints];
             for (int r = 0; r < numberOfConstraints; r++) {
-                myRows[r] = SPARSE_FACTORY.make(totNumbVars);
+                myRows[r] = new SparseVector(totNumbVars, INITIAL_ROW_CAPACITY);
             }
 
             myRHS = ARRAY1D_FACTORY.makeZero(numberOfConstraints);
@@ -532,13 +531,13 @@ abstract class SimplexTableau implements AlgorithmStore, Access2D<Double> {
             return this.doubleValue(row, col);
         }
 
-        private void doPivot(final int row, final int col, final SparseArray<Double> pivotedRow, final double pivotedRHS) {
+        private void doPivot(final int row, final int col, final SparseVector pivotedRow, final double pivotedRHS) {
 
             double colVal;
 
             for (int i = 0; i < myRows.length; i++) {
                 if (i != row) {
-                    final SparseArray<Double> rowY = myRows[i];
+                    final SparseVector rowY = myRows[i];
                     colVal = -rowY.doubleValue(col);
                     if (colVal != ZERO) {
                         pivotedRow.axpy(colVal, rowY);
@@ -560,7 +559,7 @@ abstract class SimplexTableau implements AlgorithmStore, Access2D<Double> {
             }
         }
 
-        private double scale(SparseArray<Double> pivotBody, int pivotCol, double pivotRHS) {
+        private double scale(SparseVector pivotBody, int pivotCol, double pivotRHS) {
 
             double pivotElement = pivotBody.doubleValue(pivotCol);
 
@@ -569,9 +568,9 @@ abstract class SimplexTableau implements AlgorithmStore, Access2D<Double> {
                 pivotBody.modifyAll(tmpModifier);
                 return tmpModifier.invoke(pivotRHS);
             } else if (pivotElement != ONE) {
-                final UnaryFunction<Double> tmpModifier = MULTIPLY.second(ONE / pivotElement);
-                pivotBody.modifyAll(tmpModifier);
-                return tmpModifier.invoke(pivotRHS);
+                final double tmpFactor = ONE / pivotElement;
+                pivotBody.multiply(tmpFactor);
+                return tmpFactor * pivotRHS;
             } else {
                 return pivotRHS;
             }
@@ -588,12 +587,12 @@ abstract class SimplexTableau implements AlgorithmStore, Access2D<Double> {
 
             // Diff begin
 
-            SparseArray<Double> currentRow = myRows[row];
+            SparseVector currentRow = myRows[row];
             double currentRHS = myRHS.doubleValue(row);
 
             final int totNumbVars = this.countVariablesTotally();
 
-            SparseArray<Double> auxiliaryRow = SPARSE_FACTORY.make(totNumbVars);
+            SparseVector auxiliaryRow = new SparseVector(totNumbVars, (int) currentRow.countNonzeros() + 1);
             double auxiliaryRHS = ZERO;
 
             if (currentRHS > value) {
@@ -661,7 +660,7 @@ abstract class SimplexTableau implements AlgorithmStore, Access2D<Double> {
             final int row = iterationPoint.row;
             final int col = iterationPoint.col;
 
-            final SparseArray<Double> pivotRow = myRows[row];
+            final SparseVector pivotRow = myRows[row];
             double pivotRHS = myRHS.doubleValue(row);
 
             pivotRHS = this.scale(pivotRow, col, pivotRHS);
@@ -839,7 +838,7 @@ abstract class SimplexTableau implements AlgorithmStore, Access2D<Double> {
             final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeZero(this.countColumns(), this.countRows());
 
             for (int i = 0; i < myRows.length; i++) {
-                for (final NonzeroView<Double> nz : myRows[i].nonzeros()) {
+                for (final NonzeroView nz : myRows[i].nonzeros()) {
                     retVal.set(nz.index(), i, nz.doubleValue());
                 }
             }
@@ -857,7 +856,7 @@ abstract class SimplexTableau implements AlgorithmStore, Access2D<Double> {
 
     static final Array1D.Factory<Double> ARRAY1D_FACTORY = Array1D.factory(Primitive64Array.FACTORY);
     static final DenseArray.Factory<Double> DENSE_FACTORY = Primitive64Array.FACTORY;
-    static final SparseArray.SparseFactory<Double> SPARSE_FACTORY = SparseArray.factory(Primitive64Array.FACTORY).initial(3);
+    static final int INITIAL_ROW_CAPACITY = 3;
 
     protected static SimplexTableau make(final int numberOfConstraints, final int numberOfProblemVariables, final int numberOfSlackVariables) {
 
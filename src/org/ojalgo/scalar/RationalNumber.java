@@ -533,6 +533,14 @@ public final class RationalNumber extends Number implements Scalar<RationalNumbe
         return this;
     }
 
+    public long getDenominator() {
+        return myDenominator;
+    }
+
+    public long getNumerator() {
+        return myNumerator;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
@@ -685,12 +693,4 @@ public final class RationalNumber extends Number implements Scalar<RationalNumbe
         }
     }
 
-    long getDenominator() {
-        return myDenominator;
-    }
-
-    long getNumerator() {
-        return myNumerator;
-    }
-
 }
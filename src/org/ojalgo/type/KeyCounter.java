@@ -24,6 +24,11 @@ package org.ojalgo.type;
 import java.util.HashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Counts per key. For high contention (concurrent) counting use {@link StripedKeyCounter} instead.
+ *
+ * @author apete
+ */
 public final class KeyCounter<K> {
 
     private static final int INT_ZERO = 0;
@@ -0,0 +1,108 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.type;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent counter per key, for high contention counting. Each key's count is a {@link LongAdder} – a
+ * striped counter where concurrently updating threads (usually) increment different cells, rather than
+ * competing for the same atomic variable. Looking up the counter of an existing key does not lock.
+ * <p>
+ * Use this rather than {@link KeyCounter} when many threads count concurrently. Updates are fast, but
+ * reading a count (summing the stripes) is relatively expensive, and the update methods therefore do not
+ * return the new count.
+ *
+ * @author apete
+ */
+public final class StripedKeyCounter<K> {
+
+    private final ConcurrentHashMap<K, LongAdder> myDelegate = new ConcurrentHashMap<>();
+
+    public StripedKeyCounter() {
+        super();
+    }
+
+    public void add(final K key, final long addend) {
+        this.getAdder(key).add(addend);
+    }
+
+    public void decrement(final K key) {
+        this.getAdder(key).decrement();
+    }
+
+    /**
+     * @return The current count of the key, 0 if it has never been counted
+     */
+    public long get(final K key) {
+        final LongAdder tmpAdder = myDelegate.get(key);
+        return tmpAdder != null ? tmpAdder.sum() : 0L;
+    }
+
+    public void increment(final K key) {
+        this.getAdder(key).increment();
+    }
+
+    /**
+     * @return The keys that have been counted
+     */
+    public Set<K> keys() {
+        return myDelegate.keySet();
+    }
+
+    /**
+     * Reset the count of the key to 0. Not atomic with respect to concurrent updates of the same key.
+     */
+    public void reset(final K key) {
+        final LongAdder tmpAdder = myDelegate.get(key);
+        if (tmpAdder != null) {
+            tmpAdder.reset();
+        }
+    }
+
+    /**
+     * @return The sum of all counts
+     */
+    public long total() {
+        long retVal = 0L;
+        for (final LongAdder tmpAdder : myDelegate.values()) {
+            retVal += tmpAdder.sum();
+        }
+        return retVal;
+    }
+
+    @Override
+    public String toString() {
+        return myDelegate.toString();
+    }
+
+    private LongAdder getAdder(final K key) {
+        LongAdder retVal = myDelegate.get(key);
+        if (retVal == null) {
+            retVal = myDelegate.computeIfAbsent(key, k -> new LongAdder());
+        }
+        return retVal;
+    }
+
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.type.keyvalue;
+
+import org.ojalgo.netio.ASCII;
+
+/**
+ * An open-addressing (linear probing) hash map from {@code int} keys to {@code int} values, with no
+ * boxing and no per-entry objects. Getting, or removing, a key that does not exist returns 0 - convenient
+ * for counting.
+ * <p>
+ * Not thread safe.
+ *
+ * @author apete
+ */
+public final class IntToIntMap extends OpenAddressingMap {
+
+    @FunctionalInterface
+    public interface EntryVisitor {
+
+        void visit(int key, int value);
+
+    }
+
+    private int[] myKeys;
+    private int[] myValues;
+
+    public IntToIntMap() {
+        this(MINIMUM_CAPACITY);
+    }
+
+    /**
+     * @param expected The expected number of entries - the map will not have to grow before that size is
+     *        reached
+     */
+    public IntToIntMap(final int expected) {
+
+        super(OpenAddressingMap.capacity(expected));
+
+        myKeys = new int[myUsed.length];
+        myValues = new int[myUsed.length];
+    }
+
+    /**
+     * Add to the value of the key (an entry is created if it doesn't already exist).
+     *
+     * @return The new value
+     */
+    public int add(final int key, final int addend) {
+        final int tmpSlot = this.find(key);
+        if (tmpSlot >= 0) {
+            return myValues[tmpSlot] += addend;
+        } else {
+            this.insert(-(tmpSlot + 1), key, addend);
+            return addend;
+        }
+    }
+
+    public boolean containsKey(final int key) {
+        return this.find(key) >= 0;
+    }
+
+    /**
+     * Visit all entries (in no particular order)
+     */
+    public void forEach(final EntryVisitor visitor) {
+        for (int i = 0; i < myUsed.length; i++) {
+            if (myUsed[i]) {
+                visitor.visit(myKeys[i], myValues[i]);
+            }
+        }
+    }
+
+    /**
+     * @return The value, or 0 if there is no such key
+     */
+    public int get(final int key) {
+        return this.get(key, 0);
+    }
+
+    /**
+     * @return The value, or the default value if there is no such key
+     */
+    public int get(final int key, final int defaultValue) {
+        final int tmpSlot = this.find(key);
+        return tmpSlot >= 0 ? myValues[tmpSlot] : defaultValue;
+    }
+
+    /**
+     * @return All the keys (in no particular order)
+     */
+    public int[] keys() {
+        final int[] retVal = new int[this.size()];
+        for (int i = 0, j = 0; i < myUsed.length; i++) {
+            if (myUsed[i]) {
+                retVal[j++] = myKeys[i];
+            }
+        }
+        return retVal;
+    }
+
+    /**
+     * @return The previous value, or 0 if there was no such key
+     */
+    public int put(final int key, final int value) {
+        final int tmpSlot = this.find(key);
+        if (tmpSlot >= 0) {
+            final int retVal = myValues[tmpSlot];
+            myValues[tmpSlot] = value;
+            return retVal;
+        } else {
+            this.insert(-(tmpSlot + 1), key, value);
+            return 0;
+        }
+    }
+
+    /**
+     * @return The removed value, or 0 if there was no such key
+     */
+    public int remove(final int key) {
+        final int tmpSlot = this.find(key);
+        if (tmpSlot >= 0) {
+            final int retVal = myValues[tmpSlot];
+            this.delete(tmpSlot);
+            return retVal;
+        } else {
+            return 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder retVal = new StringBuilder();
+        retVal.append(ASCII.LCB);
+        this.forEach((key, value) -> {
+            if (retVal.length() > 1) {
+                retVal.append(ASCII.COMMA).append(ASCII.SP);
+            }
+            retVal.append(key).append(ASCII.EQUALS).append(value);
+        });
+        retVal.append(ASCII.RCB);
+        return retVal.toString();
+    }
+
+    /**
+     * @return All the values, in the same order as the {@link #keys()}
+     */
+    public int[] values() {
+        final int[] retVal = new int[this.size()];
+        for (int i = 0, j = 0; i < myUsed.length; i++) {
+            if (myUsed[i]) {
+                retVal[j++] = myValues[i];
+            }
+        }
+        return retVal;
+    }
+
+    /**
+     * @return The slot of the key if it exists, otherwise -(slot + 1) where slot is where it should be
+     *         inserted
+     */
+    private int find(final int key) {
+        final int tmpMask = myMask;
+        int i = OpenAddressingMap.mix(key) & tmpMask;
+        while (myUsed[i]) {
+            if (myKeys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & tmpMask;
+        }
+        return -(i + 1);
+    }
+
+    private void insert(final int slot, final int key, final int value) {
+        myUsed[slot] = true;
+        myKeys[slot] = key;
+        myValues[slot] = value;
+        this.added();
+    }
+
+    @Override
+    int hash(final int slot) {
+        return OpenAddressingMap.mix(myKeys[slot]);
+    }
+
+    @Override
+    void move(final int from, final int to) {
+        myKeys[to] = myKeys[from];
+        myValues[to] = myValues[from];
+    }
+
+    @Override
+    void rehash(final int capacity) {
+
+        final int[] tmpKeys = myKeys;
+        final int[] tmpValues = myValues;
+        final boolean[] tmpUsed = this.reset(capacity);
+
+        myKeys = new int[capacity];
+        myValues = new int[capacity];
+
+        final int tmpMask = myMask;
+        for (int i = 0; i < tmpUsed.length; i++) {
+            if (tmpUsed[i]) {
+                int j = OpenAddressingMap.mix(tmpKeys[i]) & tmpMask;
+                while (myUsed[j]) {
+                    j = (j + 1) & tmpMask;
+                }
+                myUsed[j] = true;
+                myKeys[j] = tmpKeys[i];
+                myValues[j] = tmpValues[i];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.type.keyvalue;
+
+import java.util.Arrays;
+
+/**
+ * Common (key type independent) parts of the open-addressing, linear probing, hash maps. Keys and values
+ * are stored in parallel primitive arrays, and which slots are occupied is recorded in a boolean array - no
+ * per-entry objects. Removing an entry shifts the following entries of the same probe sequence backwards,
+ * so there are never any tombstones.
+ *
+ * @author apete
+ */
+abstract class OpenAddressingMap {
+
+    static final double LOAD_FACTOR = 0.5;
+    static final int MINIMUM_CAPACITY = 8;
+
+    /**
+     * @return A power of 2 large enough to hold the expected number of entries without growing
+     */
+    static int capacity(final int expected) {
+        final long tmpRequired = Math.max(MINIMUM_CAPACITY, (long) Math.ceil(expected / LOAD_FACTOR));
+        return (int) Math.min(1L << 30, Long.highestOneBit(tmpRequired - 1L) << 1);
+    }
+
+    /**
+     * The MurmurHash3 finaliser - spreads the key bits over the whole int.
+     */
+    static int mix(final int key) {
+        int retVal = key;
+        retVal ^= retVal >>> 16;
+        retVal *= 0x85ebca6b;
+        retVal ^= retVal >>> 13;
+        retVal *= 0xc2b2ae35;
+        retVal ^= retVal >>> 16;
+        return retVal;
+    }
+
+    static int mix(final long key) {
+        long retVal = key;
+        retVal ^= retVal >>> 33;
+        retVal *= 0xff51afd7ed558ccdL;
+        retVal ^= retVal >>> 33;
+        retVal *= 0xc4ceb9fe1a85ec53L;
+        retVal ^= retVal >>> 33;
+        return (int) retVal;
+    }
+
+    private int myGrowAt;
+    private int mySize = 0;
+
+    int myMask;
+    boolean[] myUsed;
+
+    OpenAddressingMap(final int capacity) {
+
+        super();
+
+        this.reset(capacity);
+    }
+
+    public void clear() {
+        Arrays.fill(myUsed, false);
+        mySize = 0;
+    }
+
+    public final boolean isEmpty() {
+        return mySize == 0;
+    }
+
+    public final int size() {
+        return mySize;
+    }
+
+    /**
+     * Call after a new entry was inserted
+     */
+    final void added() {
+        if (++mySize > myGrowAt) {
+            this.rehash((myMask + 1) * 2);
+        }
+    }
+
+    /**
+     * Remove the entry at slot, shifting later entries of the same probe sequence back into the hole.
+     */
+    final void delete(final int slot) {
+
+        final int tmpMask = myMask;
+        final boolean[] tmpUsed = myUsed;
+
+        int tmpHole = slot;
+        int i = slot;
+        while (tmpUsed[i = (i + 1) & tmpMask]) {
+            final int tmpIdeal = this.hash(i) & tmpMask;
+            // Move if the hole is in the (cyclic) range [ideal, i)
+            if (((i - tmpIdeal) & tmpMask) >= ((i - tmpHole) & tmpMask)) {
+                this.move(i, tmpHole);
+                tmpHole = i;
+            }
+        }
+
+        tmpUsed[tmpHole] = false;
+        this.release(tmpHole);
+        mySize--;
+    }
+
+    /**
+     * @return The (mixed) hash of the key stored at slot
+     */
+    abstract int hash(int slot);
+
+    /**
+     * Copy the key and value at slot from to slot to
+     */
+    abstract void move(int from, int to);
+
+    /**
+     * Allocate new arrays of the given capacity, and reinsert all entries. Implementations call
+     * {@link #reset(int)} and then reinsert the entries of the old arrays.
+     */
+    abstract void rehash(int capacity);
+
+    /**
+     * Called when the slot is no longer used (allows reference keys to be released)
+     */
+    void release(final int slot) {
+    }
+
+    /**
+     * Set a new capacity (all slots unused)
+     *
+     * @return The old used-array
+     */
+    final boolean[] reset(final int capacity) {
+        final boolean[] retVal = myUsed;
+        myMask = capacity - 1;
+        myGrowAt = (int) (capacity * LOAD_FACTOR);
+        myUsed = new boolean[capacity];
+        return retVal;
+    }
+
+}
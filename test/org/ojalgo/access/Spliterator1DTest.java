@@ -0,0 +1,117 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.access;
+
+import java.util.Spliterator;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.array.Primitive64Array;
+import org.ojalgo.array.SparseArray;
+import org.ojalgo.function.aggregator.Aggregator;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.random.Uniform;
+
+public class Spliterator1DTest {
+
+    static double sum(final Access1D<?> access) {
+        return StreamSupport.doubleStream(Spliterator1D.of(access), true).sum();
+    }
+
+    public Spliterator1DTest() {
+        super();
+    }
+
+    @Test
+    public void testRowsAndColumns() {
+
+        final PrimitiveDenseStore tmpMatrix = PrimitiveDenseStore.FACTORY.makeFilled(37, 23, new Uniform());
+        final MatrixStore<Double> tmpTransposed = tmpMatrix.transpose();
+
+        for (int i = 0; i < 37; i++) {
+            double tmpExpected = 0.0;
+            for (int j = 0; j < 23; j++) {
+                tmpExpected += tmpMatrix.doubleValue(i, j);
+            }
+            TestUtils.assertEquals(tmpExpected, tmpMatrix.rowStream(i, true).sum(), 1E-12);
+            TestUtils.assertEquals(tmpExpected, tmpTransposed.columnStream(i, false).sum(), 1E-12);
+        }
+
+        for (int j = 0; j < 23; j++) {
+            double tmpExpected = 0.0;
+            for (int i = 0; i < 37; i++) {
+                tmpExpected += tmpMatrix.doubleValue(i, j);
+            }
+            TestUtils.assertEquals(tmpExpected, tmpMatrix.columnStream(j, true).sum(), 1E-12);
+            TestUtils.assertEquals(tmpExpected, tmpTransposed.rowStream(j, false).sum(), 1E-12);
+        }
+
+        TestUtils.assertEquals(tmpMatrix.aggregateAll(Aggregator.SUM).doubleValue(),
+                tmpMatrix.doubleStream(true).sum(), 1E-10);
+    }
+
+    @Test
+    public void testSparseNonzeros() {
+
+        final SparseArray<Double> tmpSparse = SparseArray.factory(Primitive64Array.FACTORY, 1_000_000L).make();
+        double tmpExpected = 0.0;
+        for (long i = 7L; i < 1_000_000L; i += 997L) {
+            tmpSparse.set(i, (double) i);
+            tmpExpected += i;
+        }
+
+        TestUtils.assertEquals(tmpExpected, tmpSparse.nonzeroStream(true).sum(), 1E-6);
+        TestUtils.assertEquals(1_000_000L / 997L + 1L, tmpSparse.nonzeroStream(false).count());
+    }
+
+    @Test
+    public void testSplitting() {
+
+        final double[] tmpData = new double[1003];
+        for (int i = 0; i < tmpData.length; i++) {
+            tmpData[i] = i;
+        }
+
+        final Spliterator1D tmpRoot = Spliterator1D.of(tmpData, 3, 1, 1000);
+        TestUtils.assertTrue(tmpRoot.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+
+        final Spliterator1D tmpPrefix = tmpRoot.trySplit();
+        final long tmpPrefixSize = tmpPrefix.estimateSize();
+        TestUtils.assertEquals(1000L, tmpPrefixSize + tmpRoot.estimateSize());
+        // The split point is on a cache line boundary of the underlying array
+        TestUtils.assertEquals(0L, (3L + tmpPrefixSize) % Spliterator1D.LINE);
+
+        final double[] tmpFirst = new double[1];
+        tmpRoot.tryAdvance((double value) -> tmpFirst[0] = value);
+        TestUtils.assertEquals(3.0 + tmpPrefixSize, tmpFirst[0]);
+
+        final Spliterator1D tmpSmall = Spliterator1D.of(tmpData, 0, 1, 15);
+        TestUtils.assertTrue(tmpSmall.trySplit() == null);
+
+        final Primitive64Array tmpArray = Primitive64Array.wrap(tmpData);
+        TestUtils.assertEquals((1002.0 * 1003.0) / 2.0, tmpArray.doubleStream(true).sum(), 1E-9);
+        TestUtils.assertEquals((1002.0 * 1003.0) / 2.0, Spliterator1DTest.sum(tmpArray), 1E-9);
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.function.aggregator.Aggregator;
+import org.ojalgo.series.primitive.PrimitiveSeries;
+
+/**
+ * ChunkedPrimitiveArrayTest
+ *
+ * @author apete
+ */
+public class ChunkedPrimitiveArrayTest {
+
+    @Test
+    public void testAppendAndRead() {
+
+        final ChunkedPrimitiveArray tmpArray = ChunkedPrimitiveArray.make(100);
+        TestUtils.assertEquals(128, tmpArray.chunkSize());
+        TestUtils.assertEquals(0L, tmpArray.capacity());
+
+        final Array1D<Double> tmpExpected = Array1D.PRIMITIVE64.makeZero(1_000);
+        for (int i = 0; i < 300; i++) {
+            tmpExpected.set(i, i);
+            tmpArray.append(i);
+        }
+        final double[] tmpBulk = new double[700];
+        for (int i = 0; i < tmpBulk.length; i++) {
+            tmpBulk[i] = 300 + i;
+            tmpExpected.set(300 + i, 300 + i);
+        }
+        tmpArray.appendAll(tmpBulk, 0, 350);
+        tmpArray.appendAll(Array1D.PRIMITIVE64.copy(tmpBulk).sliceRange(350, 700));
+
+        TestUtils.assertEquals(1_000L, tmpArray.count());
+        TestUtils.assertEquals(1_024L, tmpArray.capacity());
+        TestUtils.assertEquals(tmpExpected, tmpArray);
+
+        final double[] tmpRange = new double[500];
+        tmpArray.copyRange(250, 750, tmpRange, 0);
+        for (int i = 0; i < tmpRange.length; i++) {
+            TestUtils.assertEquals(250 + i, tmpRange[i]);
+        }
+
+        TestUtils.assertEquals(tmpExpected.aggregateAll(Aggregator.SUM), tmpArray.aggregateAll(Aggregator.SUM));
+        TestUtils.assertEquals(tmpExpected.aggregateRange(123, 876, Aggregator.MAXIMUM), tmpArray.aggregateRange(123, 876, Aggregator.MAXIMUM));
+        TestUtils.assertEquals(tmpExpected.doubleStream(false).sum(), tmpArray.doubleStream(true).sum());
+
+        TestUtils.assertEquals(tmpExpected, PrimitiveSeries.wrap(tmpArray));
+
+        tmpArray.reset();
+        TestUtils.assertEquals(0L, tmpArray.count());
+        TestUtils.assertEquals(128L, tmpArray.capacity());
+        tmpArray.append(1.0);
+        TestUtils.assertEquals(1.0, tmpArray.doubleValue(0));
+    }
+
+    @Test
+    public void testConcurrentReader() throws InterruptedException {
+
+        final int tmpCount = 1_000_000;
+
+        final ChunkedPrimitiveArray tmpArray = ChunkedPrimitiveArray.make(1_024);
+        final AtomicBoolean tmpFailed = new AtomicBoolean(false);
+
+        final Thread tmpReader = new Thread(() -> {
+            long tmpRead = 0L;
+            while (tmpRead < tmpCount) {
+                final long tmpAvailable = tmpArray.count();
+                for (long i = tmpRead; i < tmpAvailable; i++) {
+                    if (tmpArray.doubleValue(i) != i) {
+                        tmpFailed.set(true);
+                    }
+                }
+                tmpRead = tmpAvailable;
+            }
+        });
+        tmpReader.start();
+
+        for (int i = 0; i < tmpCount; i++) {
+            tmpArray.append(i);
+        }
+
+        tmpReader.join();
+
+        TestUtils.assertFalse(tmpFailed.get());
+    }
+
+}
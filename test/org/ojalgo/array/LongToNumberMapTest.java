@@ -28,6 +28,7 @@ import java.util.TreeMap;
 
 import org.junit.jupiter.api.Test;
 import org.ojalgo.TestUtils;
+import org.ojalgo.array.LongToNumberMap.EntryView;
 import org.ojalgo.constant.PrimitiveMath;
 import org.ojalgo.type.context.NumberContext;
 
@@ -104,6 +105,68 @@ public class LongToNumberMapTest {
 
     }
 
+    /**
+     * Enough randomly ordered put/remove operations to force chunks to be split and merged.
+     */
+    @Test
+    public void testChunking() {
+
+        final LongToNumberMap<Double> tmpMap = LongToNumberMap.factory(Primitive64Array.FACTORY).make();
+        final TreeMap<Long, Double> tmpExpected = new TreeMap<>();
+
+        for (int c = 0; c < 20 * LongToNumberMap.CHUNK; c++) {
+            final long tmpKey = RANDOM.nextInt(40 * LongToNumberMap.CHUNK);
+            final double tmpValue = RANDOM.nextDouble();
+            tmpMap.put(tmpKey, tmpValue);
+            tmpExpected.put(tmpKey, tmpValue);
+        }
+
+        for (int c = 0; c < 30 * LongToNumberMap.CHUNK; c++) {
+            final long tmpKey = RANDOM.nextInt(40 * LongToNumberMap.CHUNK);
+            TestUtils.assertEquals(tmpExpected.remove(tmpKey) != null, tmpMap.remove(tmpKey) != null);
+        }
+
+        TestUtils.assertEquals(tmpExpected.size(), tmpMap.size());
+        TestUtils.assertEquals(tmpExpected.firstKey().longValue(), tmpMap.firstKey().longValue());
+        TestUtils.assertEquals(tmpExpected.lastKey().longValue(), tmpMap.lastKey().longValue());
+
+        final NumberList<Double> tmpValues = tmpMap.values();
+        int i = 0;
+        for (final Entry<Long, Double> tmpEntry : tmpMap.entrySet()) {
+            final Entry<Long, Double> tmpExpectedEntry = tmpExpected.ceilingEntry(tmpEntry.getKey());
+            TestUtils.assertEquals(tmpExpectedEntry.getKey().longValue(), tmpEntry.getKey().longValue());
+            TestUtils.assertEquals(tmpExpectedEntry.getValue().doubleValue(), tmpEntry.getValue().doubleValue());
+            TestUtils.assertEquals(tmpExpectedEntry.getValue().doubleValue(), tmpValues.doubleValue(i++));
+        }
+        TestUtils.assertEquals(tmpExpected.size(), i);
+
+        long tmpPrevious = Long.MIN_VALUE;
+        int tmpNonzeros = 0;
+        for (final EntryView<Double> tmpNonzero : tmpMap.nonzeros()) {
+            TestUtils.assertTrue(tmpNonzero.index() > tmpPrevious);
+            TestUtils.assertEquals(tmpExpected.get(tmpNonzero.index()).doubleValue(), tmpNonzero.doubleValue());
+            tmpPrevious = tmpNonzero.index();
+            tmpNonzeros++;
+        }
+        TestUtils.assertEquals(tmpExpected.size(), tmpNonzeros);
+
+        final long tmpFrom = 10 * LongToNumberMap.CHUNK;
+        final long tmpTo = 30 * LongToNumberMap.CHUNK;
+        final LongToNumberMap<Double> tmpView = tmpMap.subMap(tmpFrom, tmpTo);
+        TestUtils.assertEquals(tmpExpected.subMap(tmpFrom, tmpTo).size(), tmpView.size());
+        TestUtils.assertEquals(tmpView.values(), tmpMap.values(tmpFrom, tmpTo));
+
+        // The view is backed by the map
+        tmpMap.put(tmpFrom, 1.0);
+        TestUtils.assertEquals(1.0, tmpView.doubleValue(tmpFrom));
+        TestUtils.assertEquals(tmpFrom, tmpView.firstKey().longValue());
+        TestUtils.assertFalse(tmpView.containsKey(tmpTo));
+
+        tmpView.clear();
+        TestUtils.assertTrue(tmpView.isEmpty());
+        TestUtils.assertEquals(tmpExpected.headMap(tmpFrom).size() + tmpExpected.tailMap(tmpTo).size(), tmpMap.size());
+    }
+
     @Test
     public void testSubmap() {
 
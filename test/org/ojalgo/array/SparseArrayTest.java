@@ -0,0 +1,138 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * SparseArrayTest
+ *
+ * @author apete
+ */
+public class SparseArrayTest {
+
+    private static final NumberContext CONTEXT = NumberContext.getGeneral(12, 14);
+    private static final Random RANDOM = new Random();
+
+    @Test
+    public void testAxpyAndDot() {
+
+        final int count = 1_000;
+
+        final SparseArray<Double> x = SparseArray.factory(Primitive64Array.FACTORY, count).make();
+        final SparseArray<Double> y = SparseArray.factory(Primitive64Array.FACTORY, count).make();
+
+        final Primitive64Array expectedX = Primitive64Array.make(count);
+        final Primitive64Array expectedY = Primitive64Array.make(count);
+
+        for (int i = 0; i < 100; i++) {
+            final int indexX = RANDOM.nextInt(count);
+            final int indexY = RANDOM.nextInt(count);
+            final double valueX = RANDOM.nextDouble();
+            final double valueY = RANDOM.nextDouble();
+            x.set(indexX, valueX);
+            expectedX.set(indexX, valueX);
+            y.set(indexY, valueY);
+            expectedY.set(indexY, valueY);
+        }
+
+        TestUtils.assertEquals(expectedX.dot(expectedY), x.dot(y), CONTEXT);
+        TestUtils.assertEquals(expectedX.dot(expectedY), x.dot(expectedY), CONTEXT);
+
+        x.axpy(-2.5, y);
+        for (int i = 0; i < count; i++) {
+            expectedY.add(i, -2.5 * expectedX.doubleValue(i));
+        }
+        TestUtils.assertEquals(expectedY, y, CONTEXT);
+
+        y.axpy(0.5, x);
+        for (int i = 0; i < count; i++) {
+            expectedX.add(i, 0.5 * expectedY.doubleValue(i));
+        }
+        TestUtils.assertEquals(expectedX, x, CONTEXT);
+
+        final long[] indices = y.indices().toArray();
+        for (int i = 1; i < indices.length; i++) {
+            TestUtils.assertTrue(indices[i - 1] < indices[i]);
+        }
+    }
+
+    @Test
+    public void testBuilder() {
+
+        final int count = 10_000;
+
+        final SparseArray.Builder<Double> builder = SparseArray.factory(Primitive64Array.FACTORY).builder(count);
+        final SparseArray<Double> expected = SparseArray.factory(Primitive64Array.FACTORY, count).make();
+
+        for (int i = 0; i < 2_000; i++) {
+            final int index = RANDOM.nextInt(count);
+            final double value = RANDOM.nextDouble();
+            builder.add(index, value);
+            expected.add(index, value);
+        }
+
+        final SparseArray<Double> actual = builder.build();
+
+        TestUtils.assertEquals(count, actual.count());
+        TestUtils.assertEquals(expected.countNonzeros(), actual.countNonzeros());
+        TestUtils.assertEquals(expected, actual, CONTEXT);
+
+        final long[] indices = actual.indices().toArray();
+        for (int i = 1; i < indices.length; i++) {
+            TestUtils.assertTrue(indices[i - 1] < indices[i]);
+        }
+
+        // Still a fully functional SparseArray
+        actual.set(count - 1, 1.0);
+        actual.set(0, 1.0);
+        TestUtils.assertEquals(1.0, actual.doubleValue(count - 1));
+        TestUtils.assertEquals(1.0, actual.doubleValue(0));
+    }
+
+    @Test
+    public void testSplitReleasesCapacity() {
+
+        final int count = 1_000;
+
+        final SparseArray<Double> first = SparseArray.factory(Primitive64Array.FACTORY, count).make();
+        for (int i = 0; i < count; i++) {
+            first.set(i, i + 1.0);
+        }
+        final long capacity = first.capacity();
+
+        final SparseArray<Double> second = first.split(count / 2);
+
+        TestUtils.assertEquals(count / 2, first.getActualLength());
+        TestUtils.assertEquals(count / 2, second.getActualLength());
+        TestUtils.assertTrue(first.capacity() < capacity);
+
+        for (int i = 0; i < count; i++) {
+            TestUtils.assertEquals(i + 1.0, (i < (count / 2) ? first : second).doubleValue(i));
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.function.PrimitiveFunction;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * SparseVectorTest
+ *
+ * @author apete
+ */
+public class SparseVectorTest {
+
+    private static final NumberContext CONTEXT = NumberContext.getGeneral(12, 14);
+    private static final Random RANDOM = new Random();
+
+    @Test
+    public void testAxpyAndDot() {
+
+        final int count = 1_000;
+
+        final SparseVector x = new SparseVector(count);
+        final SparseVector y = new SparseVector(count);
+
+        final Primitive64Array expectedX = Primitive64Array.make(count);
+        final Primitive64Array expectedY = Primitive64Array.make(count);
+
+        for (int i = 0; i < 100; i++) {
+            final int indexX = RANDOM.nextInt(count);
+            final int indexY = RANDOM.nextInt(count);
+            final double valueX = RANDOM.nextDouble();
+            final double valueY = RANDOM.nextDouble();
+            x.set(indexX, valueX);
+            expectedX.set(indexX, valueX);
+            y.add(indexY, valueY);
+            expectedY.add(indexY, valueY);
+        }
+
+        TestUtils.assertEquals(expectedX.dot(expectedY), x.dot(y), CONTEXT);
+        TestUtils.assertEquals(expectedX.dot(expectedY), x.dot(expectedY), CONTEXT);
+
+        x.axpy(-2.5, y);
+        for (int i = 0; i < count; i++) {
+            expectedY.add(i, -2.5 * expectedX.doubleValue(i));
+        }
+        TestUtils.assertEquals(expectedY, y, CONTEXT);
+
+        final Primitive64Array dense = Primitive64Array.make(count);
+        y.axpy(1.0, dense);
+        TestUtils.assertEquals(expectedY, dense, CONTEXT);
+
+        y.multiply(0.5);
+        expectedY.modifyAll(PrimitiveFunction.MULTIPLY.second(0.5));
+        TestUtils.assertEquals(expectedY, y, CONTEXT);
+
+        long previous = -1L;
+        long nonzeros = 0L;
+        for (final SparseVector.NonzeroView nz : y.nonzeros()) {
+            TestUtils.assertTrue(previous < nz.index());
+            TestUtils.assertEquals(expectedY.doubleValue(nz.index()), nz.doubleValue());
+            previous = nz.index();
+            nonzeros++;
+        }
+        TestUtils.assertEquals(y.countNonzeros(), nonzeros);
+        TestUtils.assertEquals(count, y.countNonzeros() + y.countZeros());
+    }
+
+    @Test
+    public void testSetZeroAndOutOfRange() {
+
+        final SparseVector vector = new SparseVector(10);
+
+        vector.set(3, 1.0);
+        vector.set(7, 2.0);
+        vector.set(5, 0.0);
+        TestUtils.assertEquals(2L, vector.countNonzeros());
+
+        vector.set(3, 0.0);
+        TestUtils.assertEquals(1L, vector.countNonzeros());
+        TestUtils.assertEquals(0.0, vector.doubleValue(3));
+        TestUtils.assertEquals(2.0, vector.doubleValue(7));
+
+        boolean rejected = false;
+        try {
+            vector.set(10, 1.0);
+        } catch (final ArrayIndexOutOfBoundsException exception) {
+            rejected = true;
+        }
+        TestUtils.assertTrue(rejected);
+
+        rejected = false;
+        try {
+            vector.add(-1, 1.0);
+        } catch (final ArrayIndexOutOfBoundsException exception) {
+            rejected = true;
+        }
+        TestUtils.assertTrue(rejected);
+        TestUtils.assertEquals(1L, vector.countNonzeros());
+
+        rejected = false;
+        try {
+            vector.doubleValue(10);
+        } catch (final ArrayIndexOutOfBoundsException exception) {
+            rejected = true;
+        }
+        TestUtils.assertTrue(rejected);
+
+        vector.add(4, 0.0);
+        vector.add(7, -2.0);
+        TestUtils.assertEquals(0L, vector.countNonzeros());
+
+        final SparseVector other = new SparseVector(10);
+        other.set(2, 1.0);
+        other.set(7, 3.0);
+        vector.set(7, 6.0);
+        other.axpy(-2.0, vector);
+        TestUtils.assertEquals(1L, vector.countNonzeros());
+        TestUtils.assertEquals(-2.0, vector.doubleValue(2));
+    }
+
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.function.aggregator.Aggregator;
+import org.ojalgo.random.Normal;
+import org.ojalgo.type.context.NumberContext;
+
+public class StridedAnyDTest {
+
+    private static final NumberContext PRECISION = new NumberContext(12, 12);
+
+    public StridedAnyDTest() {
+        super();
+    }
+
+    /**
+     * Contracting a time x asset x factor cube with a factor x scenario matrix, and with itself over time and
+     * factor (asset x asset covariance like), compared with plain loops.
+     */
+    @Test
+    public void testContract() {
+
+        final int tmpTime = 7, tmpAssets = 5, tmpFactors = 3, tmpScenarios = 4;
+
+        final ArrayAnyD<Double> tmpCube = ArrayAnyD.PRIMITIVE64.makeFilled(new long[] { tmpTime, tmpAssets, tmpFactors }, new Normal());
+        final ArrayAnyD<Double> tmpMatrix = ArrayAnyD.PRIMITIVE64.makeFilled(new long[] { tmpFactors, tmpScenarios }, new Normal());
+
+        final ArrayAnyD<Double> tmpProduct = tmpCube.contract(tmpMatrix, new int[] { 2 }, new int[] { 0 });
+        TestUtils.assertEquals(3, tmpProduct.rank());
+        for (long t = 0; t < tmpTime; t++) {
+            for (long a = 0; a < tmpAssets; a++) {
+                for (long s = 0; s < tmpScenarios; s++) {
+                    double tmpExpected = 0.0;
+                    for (long f = 0; f < tmpFactors; f++) {
+                        tmpExpected += tmpCube.doubleValue(new long[] { t, a, f }) * tmpMatrix.doubleValue(new long[] { f, s });
+                    }
+                    TestUtils.assertEquals(tmpExpected, tmpProduct.doubleValue(new long[] { t, a, s }), PRECISION);
+                }
+            }
+        }
+
+        final ArrayAnyD<Double> tmpCovariance = tmpCube.contract(tmpCube, new int[] { 0, 2 }, new int[] { 0, 2 });
+        TestUtils.assertEquals(2, tmpCovariance.rank());
+        for (long i = 0; i < tmpAssets; i++) {
+            for (long j = 0; j < tmpAssets; j++) {
+                double tmpExpected = 0.0;
+                for (long t = 0; t < tmpTime; t++) {
+                    for (long f = 0; f < tmpFactors; f++) {
+                        tmpExpected += tmpCube.doubleValue(new long[] { t, i, f }) * tmpCube.doubleValue(new long[] { t, j, f });
+                    }
+                }
+                TestUtils.assertEquals(tmpExpected, tmpCovariance.doubleValue(new long[] { i, j }), PRECISION);
+            }
+        }
+
+        // Large enough to be done in parallel
+        final ArrayAnyD<Double> tmpLeft = ArrayAnyD.PRIMITIVE64.makeFilled(new long[] { 200, 50 }, new Normal());
+        final ArrayAnyD<Double> tmpRight = ArrayAnyD.PRIMITIVE64.makeFilled(new long[] { 50, 100 }, new Normal());
+        final ArrayAnyD<Double> tmpLarge = tmpLeft.contract(tmpRight, new int[] { 1 }, new int[] { 0 });
+        for (long i = 0; i < 200; i += 13) {
+            for (long j = 0; j < 100; j += 7) {
+                double tmpExpected = 0.0;
+                for (long c = 0; c < 50; c++) {
+                    tmpExpected += tmpLeft.doubleValue(new long[] { i, c }) * tmpRight.doubleValue(new long[] { c, j });
+                }
+                TestUtils.assertEquals(tmpExpected, tmpLarge.doubleValue(new long[] { i, j }), PRECISION);
+            }
+        }
+
+        // Not primitive
+        final ArrayAnyD<BigDecimal> tmpBigLeft = ArrayAnyD.BIG.copy(tmpLeft);
+        final ArrayAnyD<BigDecimal> tmpBigRight = ArrayAnyD.BIG.copy(tmpRight);
+        final ArrayAnyD<BigDecimal> tmpBigProduct = tmpBigLeft.contract(tmpBigRight, new int[] { 1 }, new int[] { 0 });
+        TestUtils.assertEquals(tmpLarge.doubleValue(new long[] { 17, 42 }), tmpBigProduct.doubleValue(new long[] { 17, 42 }), PRECISION);
+
+        final ArrayAnyD<Double> tmpBigCube = ArrayAnyD.DIRECT64.makeFilled(new long[] { tmpTime, tmpAssets, tmpFactors }, new Normal());
+        tmpBigCube.fillMatching(tmpCube);
+        TestUtils.assertEquals(tmpCovariance.doubleValue(new long[] { 1, 2 }),
+                tmpBigCube.contract(tmpBigCube, new int[] { 0, 2 }, new int[] { 0, 2 }).doubleValue(new long[] { 1, 2 }), PRECISION);
+    }
+
+    @Test
+    public void testCollapse() {
+
+        final ArrayAnyD<Double> tmpCube = ArrayAnyD.PRIMITIVE64.makeFilled(new long[] { 6, 5, 4 }, new Normal());
+
+        for (int d = 0; d < 3; d++) {
+
+            final ArrayAnyD<Double> tmpCollapsed = tmpCube.collapse(d, Aggregator.SUM);
+            TestUtils.assertEquals(2, tmpCollapsed.rank());
+
+            final long[] tmpReference = new long[3];
+            for (long i = 0; i < tmpCollapsed.count(0); i++) {
+                for (long j = 0; j < tmpCollapsed.count(1); j++) {
+                    double tmpExpected = 0.0;
+                    for (long k = 0; k < tmpCube.count(d); k++) {
+                        tmpReference[d] = k;
+                        tmpReference[d == 0 ? 1 : 0] = i;
+                        tmpReference[d == 2 ? 1 : 2] = j;
+                        tmpExpected += tmpCube.doubleValue(tmpReference);
+                    }
+                    TestUtils.assertEquals(tmpExpected, tmpCollapsed.doubleValue(new long[] { i, j }), PRECISION);
+                }
+            }
+        }
+
+        // Large enough to be done in parallel
+        final ArrayAnyD<Double> tmpLarge = ArrayAnyD.PRIMITIVE64.makeFilled(new long[] { 64, 64, 16 }, new Normal());
+        final double tmpTotal = tmpLarge.aggregateAll(Aggregator.SUM).doubleValue();
+        for (int d = 0; d < 3; d++) {
+            TestUtils.assertEquals(tmpTotal, tmpLarge.collapse(d, Aggregator.SUM).aggregateAll(Aggregator.SUM).doubleValue(), PRECISION);
+        }
+
+        final ArrayAnyD<Double> tmpVector = ArrayAnyD.PRIMITIVE64.makeFilled(new long[] { 10 }, new Normal());
+        TestUtils.assertEquals(tmpVector.aggregateAll(Aggregator.SUM).doubleValue(), tmpVector.collapse(0, Aggregator.SUM).doubleValue(0), PRECISION);
+    }
+
+    @Test
+    public void testViews() {
+
+        final ArrayAnyD<Double> tmpCube = ArrayAnyD.PRIMITIVE64.makeFilled(new long[] { 4, 3, 2 }, new Normal());
+
+        final StridedAnyD<Double> tmpPermuted = tmpCube.permute(2, 0, 1);
+        TestUtils.assertEquals(new long[] { 2, 4, 3 }, tmpPermuted.shape());
+        TestUtils.assertFalse(tmpPermuted.isContiguous());
+        TestUtils.assertTrue(tmpPermuted.permute(1, 2, 0).isContiguous());
+
+        final StridedAnyD<Double> tmpTransposed = tmpCube.transpose();
+        final StridedAnyD<Double> tmpSlice = tmpCube.strided().slice(1, 2L);
+        final StridedAnyD<Double> tmpRange = tmpCube.strided().range(0, 1L, 3L);
+
+        for (long i = 0; i < 4; i++) {
+            for (long j = 0; j < 3; j++) {
+                for (long k = 0; k < 2; k++) {
+                    final double tmpExpected = tmpCube.doubleValue(new long[] { i, j, k });
+                    TestUtils.assertEquals(tmpExpected, tmpPermuted.doubleValue(new long[] { k, i, j }));
+                    TestUtils.assertEquals(tmpExpected, tmpTransposed.doubleValue(new long[] { k, j, i }));
+                    if (j == 2L) {
+                        TestUtils.assertEquals(tmpExpected, tmpSlice.doubleValue(new long[] { i, k }));
+                    }
+                    if ((i >= 1L) && (i < 3L)) {
+                        TestUtils.assertEquals(tmpExpected, tmpRange.doubleValue(new long[] { i - 1L, j, k }));
+                    }
+                }
+            }
+        }
+
+        // Linear (column-major) order of the view
+        final double[] tmpCopy = tmpPermuted.toRawCopy1D();
+        final ArrayAnyD<Double> tmpContiguous = tmpPermuted.copy();
+        for (int i = 0; i < tmpCopy.length; i++) {
+            TestUtils.assertEquals(tmpPermuted.doubleValue(i), tmpCopy[i]);
+            TestUtils.assertEquals(tmpCopy[i], tmpContiguous.doubleValue(i));
+        }
+
+        // No copying
+        tmpTransposed.set(new long[] { 1, 2, 3 }, 100.0);
+        TestUtils.assertEquals(100.0, tmpCube.doubleValue(new long[] { 3, 2, 1 }));
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array.blas;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.store.GenericDenseStore;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.random.Uniform;
+import org.ojalgo.scalar.Quaternion;
+import org.ojalgo.scalar.RationalNumber;
+import org.ojalgo.type.context.NumberContext;
+
+public class AccumulatorTest {
+
+    private static final NumberContext PRECISION = new NumberContext(12, 14);
+
+    static Quaternion[] makeQuaternions(final int length) {
+        final Uniform tmpRandom = new Uniform();
+        final Quaternion[] retVal = new Quaternion[length];
+        for (int i = 0; i < length; i++) {
+            retVal[i] = Quaternion.of(tmpRandom.doubleValue(), tmpRandom.doubleValue(), tmpRandom.doubleValue(), tmpRandom.doubleValue());
+        }
+        return retVal;
+    }
+
+    static RationalNumber[] makeRationals(final int length) {
+        final RationalNumber[] retVal = new RationalNumber[length];
+        for (int i = 0; i < length; i++) {
+            retVal[i] = RationalNumber.of(Uniform.randomInteger(-100, 100), 1 + Uniform.randomInteger(100));
+        }
+        return retVal;
+    }
+
+    public AccumulatorTest() {
+        super();
+    }
+
+    @Test
+    public void testQuaternionAXPY() {
+
+        final Quaternion[] tmpX = AccumulatorTest.makeQuaternions(17);
+        final Quaternion[] tmpY = AccumulatorTest.makeQuaternions(17);
+        final Quaternion tmpA = AccumulatorTest.makeQuaternions(1)[0];
+
+        final Quaternion[] tmpExpected = new Quaternion[tmpY.length];
+        for (int i = 0; i < tmpY.length; i++) {
+            tmpExpected[i] = tmpY[i].add(tmpA.multiply(tmpX[i]));
+        }
+
+        AXPY.invoke(tmpY, 0, tmpA, tmpX, 0, 0, tmpY.length);
+
+        for (int i = 0; i < tmpY.length; i++) {
+            TestUtils.assertEquals(tmpExpected[i], tmpY[i], PRECISION);
+        }
+    }
+
+    @Test
+    public void testQuaternionDOT() {
+
+        final Quaternion[] tmpArray1 = AccumulatorTest.makeQuaternions(23);
+        final Quaternion[] tmpArray2 = AccumulatorTest.makeQuaternions(23);
+
+        Quaternion tmpExpected = Quaternion.ZERO;
+        for (int i = 0; i < tmpArray1.length; i++) {
+            tmpExpected = tmpExpected.add(tmpArray1[i].multiply(tmpArray2[i]));
+        }
+
+        TestUtils.assertEquals(tmpExpected, DOT.invoke(tmpArray1, 0, tmpArray2, 0, 0, tmpArray1.length), PRECISION);
+    }
+
+    @Test
+    public void testQuaternionMultiply() {
+
+        final MatrixStore<Quaternion> tmpLeft = GenericDenseStore.QUATERNION.columns(AccumulatorTest.makeQuaternions(35), AccumulatorTest.makeQuaternions(35),
+                AccumulatorTest.makeQuaternions(35));
+        final MatrixStore<Quaternion> tmpRight = GenericDenseStore.QUATERNION.rows(AccumulatorTest.makeQuaternions(5), AccumulatorTest.makeQuaternions(5),
+                AccumulatorTest.makeQuaternions(5));
+
+        final MatrixStore<Quaternion> tmpActual = tmpLeft.multiply(tmpRight);
+
+        for (int i = 0; i < tmpLeft.countRows(); i++) {
+            for (int j = 0; j < tmpRight.countColumns(); j++) {
+                Quaternion tmpExpected = Quaternion.ZERO;
+                for (int c = 0; c < tmpLeft.countColumns(); c++) {
+                    tmpExpected = tmpExpected.add(tmpLeft.get(i, c).multiply(tmpRight.get(c, j)));
+                }
+                TestUtils.assertEquals(tmpExpected, tmpActual.get(i, j), PRECISION);
+            }
+        }
+    }
+
+    @Test
+    public void testRationalAXPY() {
+
+        final RationalNumber[] tmpX = AccumulatorTest.makeRationals(17);
+        final RationalNumber[] tmpY = AccumulatorTest.makeRationals(17);
+        final RationalNumber tmpA = RationalNumber.of(-7L, 3L);
+
+        final RationalNumber[] tmpExpected = new RationalNumber[tmpY.length];
+        for (int i = 0; i < tmpY.length; i++) {
+            tmpExpected[i] = tmpY[i].add(tmpA.multiply(tmpX[i]));
+        }
+
+        AXPY.invoke(tmpY, 0, tmpA, tmpX, 0, 0, tmpY.length);
+
+        for (int i = 0; i < tmpY.length; i++) {
+            TestUtils.assertEquals(tmpExpected[i], tmpY[i]);
+        }
+    }
+
+    @Test
+    public void testRationalDOT() {
+
+        final RationalNumber[] tmpArray1 = AccumulatorTest.makeRationals(23);
+        final RationalNumber[] tmpArray2 = AccumulatorTest.makeRationals(23);
+
+        RationalNumber tmpExpected = RationalNumber.ZERO;
+        for (int i = 0; i < tmpArray1.length; i++) {
+            tmpExpected = tmpExpected.add(tmpArray1[i].multiply(tmpArray2[i]));
+        }
+
+        TestUtils.assertEquals(tmpExpected, DOT.invoke(tmpArray1, 0, tmpArray2, 0, 0, tmpArray1.length));
+    }
+
+    @Test
+    public void testRationalMultiply() {
+
+        final MatrixStore<RationalNumber> tmpLeft = GenericDenseStore.RATIONAL.columns(AccumulatorTest.makeRationals(35), AccumulatorTest.makeRationals(35),
+                AccumulatorTest.makeRationals(35));
+        final MatrixStore<RationalNumber> tmpRight = GenericDenseStore.RATIONAL.rows(AccumulatorTest.makeRationals(5), AccumulatorTest.makeRationals(5),
+                AccumulatorTest.makeRationals(5));
+
+        final MatrixStore<RationalNumber> tmpActual = tmpLeft.multiply(tmpRight);
+
+        for (int i = 0; i < tmpLeft.countRows(); i++) {
+            for (int j = 0; j < tmpRight.countColumns(); j++) {
+                RationalNumber tmpExpected = RationalNumber.ZERO;
+                for (int c = 0; c < tmpLeft.countColumns(); c++) {
+                    tmpExpected = tmpExpected.add(tmpLeft.get(i, c).multiply(tmpRight.get(c, j)));
+                }
+                TestUtils.assertEquals(tmpExpected, tmpActual.get(i, j));
+            }
+        }
+    }
+
+    @Test
+    public void testRationalOverflow() {
+
+        final RationalNumber tmpLarge = RationalNumber.of(Long.MAX_VALUE / 3L, 7L);
+        final RationalNumber tmpSmall = RationalNumber.of(1L, Long.MAX_VALUE / 5L);
+
+        final RationalAccumulator tmpAccumulator = new RationalAccumulator();
+        tmpAccumulator.addProduct(tmpLarge, tmpLarge).add(tmpSmall).addProduct(tmpSmall, tmpLarge);
+
+        final RationalNumber tmpExpected = tmpLarge.multiply(tmpLarge).add(tmpSmall).add(tmpSmall.multiply(tmpLarge));
+
+        TestUtils.assertEquals(tmpExpected.doubleValue(), tmpAccumulator.get().doubleValue(), PRECISION);
+    }
+
+}
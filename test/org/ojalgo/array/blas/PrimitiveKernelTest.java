@@ -0,0 +1,101 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.array.blas;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.random.Uniform;
+import org.ojalgo.type.context.NumberContext;
+
+public class PrimitiveKernelTest {
+
+    private static final NumberContext PRECISION = new NumberContext(12, 14);
+
+    static double[] makeArray(final int length) {
+        final Uniform tmpRandom = new Uniform(0.5, 1.0);
+        final double[] retVal = new double[length];
+        for (int i = 0; i < length; i++) {
+            retVal[i] = tmpRandom.doubleValue();
+        }
+        return retVal;
+    }
+
+    public PrimitiveKernelTest() {
+        super();
+    }
+
+    /**
+     * Compare with the obvious single accumulator loops, for all remainders of the unrolled loops and with
+     * different offsets and strides.
+     */
+    @Test
+    public void testCompareWithSimpleLoops() {
+
+        for (int count = 0; count <= 19; count++) {
+            for (int stride = 1; stride <= 3; stride++) {
+                for (int offset = 0; offset <= 2; offset++) {
+
+                    final double[] x = PrimitiveKernelTest.makeArray(offset + (count * stride) + 1);
+                    final double[] y = PrimitiveKernelTest.makeArray(offset + (count * stride) + 1);
+                    final double[] z = y.clone();
+
+                    double tmpDot = 0.0;
+                    double tmpAbs = 0.0;
+                    for (int i = 0, ix = offset; i < count; i++, ix += stride) {
+                        tmpDot += x[ix] * y[ix];
+                        tmpAbs += Math.abs(x[ix]);
+                    }
+
+                    TestUtils.assertEquals(tmpDot, DOT.invoke(x, offset, stride, y, offset, stride, count), PRECISION);
+                    TestUtils.assertEquals(tmpAbs, BLAS1.DASUM.invoke(x, offset, offset + (count * stride), stride), PRECISION);
+                    TestUtils.assertEquals(Math.sqrt(DOT.invoke(x, offset, stride, x, offset, stride, count)),
+                            BLAS1.DNRM2.invoke(x, offset, offset + (count * stride), stride), PRECISION);
+                    if (stride == 1) {
+                        TestUtils.assertEquals(tmpDot, DOT.invoke(x, offset, y, offset, 0, count), PRECISION);
+                    }
+
+                    AXPY.invoke(y, offset, stride, 0.5, x, offset, stride, count);
+                    SCAL.invoke(z, offset, offset + (count * stride), stride, 2.0);
+                    for (int i = 0; i < z.length; i++) {
+                        final boolean tmpIncluded = (i >= offset) && (((i - offset) % stride) == 0) && (((i - offset) / stride) < count);
+                        final double tmpOriginal = tmpIncluded ? z[i] / 2.0 : z[i];
+                        TestUtils.assertEquals(tmpIncluded ? tmpOriginal + (0.5 * x[i]) : tmpOriginal, y[i], PRECISION);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNorm2WithoutOverflowOrUnderflow() {
+
+        final double[] tmpHuge = { 3.0E200, 4.0E200, 0.0 };
+        TestUtils.assertEquals(5.0E200, NRM2.invoke(tmpHuge, 0, tmpHuge.length, 1), PRECISION);
+
+        final double[] tmpTiny = { 3.0E-200, 0.0, 4.0E-200 };
+        TestUtils.assertEquals(5.0E-200, NRM2.invoke(tmpTiny, 0, tmpTiny.length, 1), PRECISION);
+
+        TestUtils.assertEquals(5.0, NRM2.invoke(new double[] { 3.0, 4.0 }, 0, 2, 1), PRECISION);
+        TestUtils.assertTrue(Double.isNaN(NRM2.invoke(new double[] { Double.NaN, 4.0 }, 0, 2, 1)));
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.function.aggregator;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.array.Array1D;
+import org.ojalgo.constant.PrimitiveMath;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.random.Uniform;
+
+/**
+ * @author apete
+ */
+public class AggregatorCase {
+
+    /**
+     * Parallel (chunked) aggregation should give the same result as sequential aggregation
+     */
+    @Test
+    public void testParallelMatchesSequential() {
+
+        final int tmpDim = 257;
+
+        final PrimitiveDenseStore tmpMatrix = PrimitiveDenseStore.FACTORY.makeFilled(tmpDim, tmpDim, new Uniform(-1, 2));
+
+        final Aggregator[] tmpAggregators = { Aggregator.SUM, Aggregator.SUM2, Aggregator.NORM2, Aggregator.NORM1, Aggregator.LARGEST,
+                Aggregator.SMALLEST, Aggregator.MAXIMUM, Aggregator.MINIMUM, Aggregator.CARDINALITY, Aggregator.AVERAGE };
+
+        for (final Aggregator tmpAggregator : tmpAggregators) {
+
+            final AggregatorFunction<Double> tmpSequential = tmpAggregator.getFunction(PrimitiveAggregator.getSet());
+            tmpMatrix.visitAll(tmpSequential);
+            final double tmpExpected = tmpSequential.doubleValue();
+
+            TestUtils.assertEquals(tmpAggregator.name(), tmpExpected, tmpMatrix.aggregateAll(tmpAggregator), 1E-10 * (1.0 + Math.abs(tmpExpected)));
+
+            final Double tmpActual = PrimitiveAggregator.getSet().aggregate(tmpAggregator, 0L, tmpMatrix.count(), 1L,
+                    (first, limit, aggr) -> tmpMatrix.visitRange(first, limit, aggr));
+            TestUtils.assertEquals(tmpAggregator.name(), tmpExpected, tmpActual, 1E-10 * (1.0 + Math.abs(tmpExpected)));
+        }
+    }
+
+    /**
+     * Many small values added to a large one - plain summation loses all of them.
+     */
+    @Test
+    public void testCompensatedSum() {
+
+        final int tmpCount = 100_000;
+
+        final Array1D<Double> tmpArray = Array1D.PRIMITIVE64.makeZero(tmpCount + 1);
+        tmpArray.set(0L, PrimitiveMath.ONE);
+        for (int i = 1; i <= tmpCount; i++) {
+            tmpArray.set(i, 1E-16);
+        }
+
+        final double tmpExpected = 1.0 + (tmpCount * 1E-16);
+
+        final AggregatorFunction<Double> tmpSum = PrimitiveAggregator.getSet().sum();
+        tmpArray.visitAll(tmpSum);
+        TestUtils.assertEquals(tmpExpected, tmpSum.doubleValue(), PrimitiveMath.MACHINE_EPSILON);
+
+        TestUtils.assertEquals(tmpExpected, tmpArray.aggregateRange(0L, tmpArray.count(), Aggregator.SUM).doubleValue(), PrimitiveMath.MACHINE_EPSILON);
+
+        final AggregatorFunction<Double> tmpNorm = PrimitiveAggregator.getSet().norm2();
+        tmpArray.visitAll(tmpNorm);
+        TestUtils.assertEquals(PrimitiveMath.ONE, tmpNorm.doubleValue(), PrimitiveMath.MACHINE_EPSILON);
+    }
+
+}
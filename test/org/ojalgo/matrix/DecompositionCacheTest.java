@@ -0,0 +1,152 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.decomposition.Cholesky;
+import org.ojalgo.matrix.decomposition.LU;
+import org.ojalgo.matrix.decomposition.MatrixDecomposition;
+import org.ojalgo.matrix.decomposition.QR;
+import org.ojalgo.matrix.decomposition.SingularValue;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.random.Normal;
+import org.ojalgo.type.context.NumberContext;
+
+/**
+ * @author apete
+ */
+public class DecompositionCacheTest {
+
+    private static final NumberContext PRECISION = new NumberContext(7, 9);
+
+    @SafeVarargs
+    static DecompositionCache<Double> makeComputed(final MatrixStore<Double> matrix, final long limit, final MatrixDecomposition<Double>... decompositions) {
+        final DecompositionCache<Double> retVal = new DecompositionCache<>(matrix, limit);
+        for (final MatrixDecomposition<Double> tmpDecomposition : decompositions) {
+            tmpDecomposition.decompose(matrix);
+            retVal.put(tmpDecomposition);
+        }
+        return retVal;
+    }
+
+    @Test
+    public void testCachedResults() {
+
+        final PrimitiveMatrix tmpMatrix = PrimitiveMatrix.FACTORY.makeFilled(20, 20, new Normal());
+        final PrimitiveMatrix tmpRHS = PrimitiveMatrix.FACTORY.makeFilled(20, 3, new Normal());
+
+        final PrimitiveMatrix tmpFresh = PrimitiveMatrix.FACTORY.copy(tmpMatrix);
+        final BasicMatrix tmpExpectedSolution = tmpFresh.solve(tmpRHS);
+        tmpFresh.flushCache();
+        final double tmpExpectedDeterminant = tmpFresh.getDeterminant().doubleValue();
+        tmpFresh.flushCache();
+        final int tmpExpectedRank = tmpFresh.getRank();
+
+        TestUtils.assertEquals(tmpExpectedSolution, tmpMatrix.solve(tmpRHS), PRECISION);
+        TestUtils.assertEquals(tmpExpectedDeterminant, tmpMatrix.getDeterminant().doubleValue(), PRECISION);
+        TestUtils.assertEquals(tmpExpectedRank, tmpMatrix.getRank());
+
+        final LU<Double> tmpLU = tmpMatrix.getDecompositions().get(LU.class);
+        final SingularValue<Double> tmpSVD = tmpMatrix.getDecompositions().get(SingularValue.class);
+        TestUtils.assertTrue(tmpLU != null);
+        TestUtils.assertTrue(tmpSVD != null);
+
+        // Repeated calls reuse the cached decompositions - nothing is recomputed or replaced
+        for (int r = 0; r < 2; r++) {
+            TestUtils.assertEquals(tmpExpectedSolution, tmpMatrix.solve(tmpRHS), PRECISION);
+            TestUtils.assertEquals(tmpExpectedDeterminant, tmpMatrix.getDeterminant().doubleValue(), PRECISION);
+            TestUtils.assertEquals(tmpExpectedRank, tmpMatrix.getRank());
+            TestUtils.assertTrue(tmpLU == tmpMatrix.getDecompositions().get(LU.class));
+            TestUtils.assertTrue(tmpSVD == tmpMatrix.getDecompositions().get(SingularValue.class));
+        }
+    }
+
+    @Test
+    public void testEviction() {
+
+        final PrimitiveDenseStore tmpMatrix = PrimitiveDenseStore.FACTORY.makeFilled(10, 10, new Normal());
+
+        // Room for 2 matrix sized blocks
+        final long tmpLimit = 2L * 8L * tmpMatrix.count();
+
+        final DecompositionCache<Double> tmpCache = DecompositionCacheTest.makeComputed(tmpMatrix, tmpLimit, LU.PRIMITIVE.make(tmpMatrix),
+                QR.PRIMITIVE.make(tmpMatrix));
+        TestUtils.assertTrue(tmpCache.get(LU.class) != null);
+        TestUtils.assertTrue(tmpCache.get(QR.class) != null);
+
+        // SVD is 3 blocks - evicts both LU and QR, but is itself kept
+        final SingularValue<Double> tmpSVD = SingularValue.PRIMITIVE.make(tmpMatrix);
+        tmpSVD.decompose(tmpMatrix);
+        tmpCache.put(tmpSVD);
+        TestUtils.assertTrue(tmpCache.get(LU.class) == null);
+        TestUtils.assertTrue(tmpCache.get(QR.class) == null);
+        TestUtils.assertEquals(tmpSVD, tmpCache.get(SingularValue.class));
+    }
+
+    @Test
+    public void testSeveralKinds() {
+
+        final PrimitiveDenseStore tmpRandom = PrimitiveDenseStore.FACTORY.makeFilled(10, 10, new Normal());
+        final MatrixStore<Double> tmpMatrix = tmpRandom.multiply(tmpRandom.transpose());
+
+        final LU<Double> tmpLU = LU.PRIMITIVE.make(tmpMatrix);
+        final QR<Double> tmpQR = QR.PRIMITIVE.make(tmpMatrix);
+        final Cholesky<Double> tmpCholesky = Cholesky.PRIMITIVE.make(tmpMatrix);
+
+        final DecompositionCache<Double> tmpCache = DecompositionCacheTest.makeComputed(tmpMatrix, DecompositionCache.LIMIT, tmpLU, tmpQR, tmpCholesky);
+
+        TestUtils.assertEquals(tmpLU, tmpCache.get(LU.class));
+        TestUtils.assertEquals(tmpQR, tmpCache.get(QR.class));
+        TestUtils.assertEquals(tmpCholesky, tmpCache.get(Cholesky.class));
+
+        // The most recently used solver
+        TestUtils.assertEquals(tmpCholesky, tmpCache.get(MatrixDecomposition.Solver.class));
+        tmpCache.get(LU.class);
+        TestUtils.assertEquals(tmpLU, tmpCache.get(MatrixDecomposition.Solver.class));
+
+        tmpCache.clear();
+        TestUtils.assertTrue(tmpCache.get(MatrixDecomposition.Solver.class) == null);
+    }
+
+    @Test
+    public void testRetained() {
+
+        final PrimitiveDenseStore tmpMatrix = PrimitiveDenseStore.FACTORY.makeFilled(10, 10, new Normal());
+
+        final DecompositionCache<Double> tmpCache = new DecompositionCache<>(tmpMatrix, 2L * 8L * tmpMatrix.count());
+        tmpCache.retain(LU.class);
+
+        final LU<Double> tmpLU = LU.PRIMITIVE.make(tmpMatrix);
+        tmpLU.decompose(tmpMatrix);
+        tmpCache.put(tmpLU);
+
+        final SingularValue<Double> tmpSVD = SingularValue.PRIMITIVE.make(tmpMatrix);
+        tmpSVD.decompose(tmpMatrix);
+        tmpCache.put(tmpSVD);
+
+        TestUtils.assertEquals(tmpLU, tmpCache.get(LU.class));
+        TestUtils.assertEquals(tmpSVD, tmpCache.get(SingularValue.class));
+    }
+
+}
@@ -25,6 +25,7 @@ import static org.ojalgo.constant.PrimitiveMath.*;
 import static org.ojalgo.function.PrimitiveFunction.*;
 
 import java.math.MathContext;
+import java.util.Arrays;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,7 +40,9 @@ import org.ojalgo.matrix.store.GenericDenseStore;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.SparseStore;
 import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.random.Uniform;
 import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.type.context.NumberContext;
 
@@ -56,11 +59,70 @@ public class EigenvalueTest {
 
     }
 
+    private static double[] sortedModuli(final Array1D<ComplexNumber> values) {
+        final double[] retVal = new double[(int) values.count()];
+        for (int i = 0; i < retVal.length; i++) {
+            retVal[i] = -values.get(i).norm();
+        }
+        Arrays.sort(retVal);
+        for (int i = 0; i < retVal.length; i++) {
+            retVal[i] = -retVal[i];
+        }
+        return retVal;
+    }
+
     @BeforeEach
     public void minimiseAllBranchLimits() {
         TestUtils.minimiseAllBranchLimits();
     }
 
+    @Test
+    public void testDivideAndConquer() {
+
+        final int dim = 300;
+
+        final Uniform tmpUniform = new Uniform(-1.0, 2.0);
+
+        // Covariance-like
+
+        final PhysicalStore<Double> tmpSamples = PrimitiveDenseStore.FACTORY.makeFilled(dim + dim, dim, tmpUniform);
+        final MatrixStore<Double> tmpCovariance = tmpSamples.transpose().multiply(tmpSamples);
+
+        // Identity plus rank 2 - most eigenvalues equal, exercises the deflation
+
+        final PhysicalStore<Double> tmpVectors = PrimitiveDenseStore.FACTORY.makeFilled(dim, 2, tmpUniform);
+        final MatrixStore<Double> tmpClustered = tmpVectors.multiply(tmpVectors.transpose()).add(MatrixStore.PRIMITIVE.makeIdentity(dim).get());
+
+        for (final MatrixStore<Double> tmpMatrix : Arrays.asList(tmpCovariance, tmpClustered)) {
+
+            final Eigenvalue<Double> tmpDC = Eigenvalue.PRIMITIVE_DIVIDE_AND_CONQUER.make(tmpMatrix);
+            TestUtils.assertTrue(tmpDC instanceof HermitianEvD.DivideAndConquerPrimitive);
+            TestUtils.assertTrue(tmpDC.decompose(tmpMatrix));
+
+            final MatrixStore<Double> tmpD = tmpDC.getD();
+            final MatrixStore<Double> tmpV = tmpDC.getV();
+
+            TestUtils.assertEquals(tmpMatrix.multiply(tmpV), tmpV.multiply(tmpD), NumberContext.getGeneral(8, 10));
+            TestUtils.assertEquals(MatrixStore.PRIMITIVE.makeIdentity(dim).get(), tmpV.transpose().multiply(tmpV), NumberContext.getGeneral(8, 10));
+
+            final RawEigenvalue.Symmetric tmpRaw = new RawEigenvalue.Symmetric();
+            tmpRaw.decompose(tmpMatrix);
+
+            final double[] tmpExpected = EigenvalueTest.sortedModuli(tmpRaw.getEigenvalues());
+            final double[] tmpActual = EigenvalueTest.sortedModuli(tmpDC.getEigenvalues());
+            for (int i = 0; i < dim; i++) {
+                TestUtils.assertEquals(tmpExpected[i], tmpActual[i], NumberContext.getGeneral(8, 10));
+            }
+
+            final Eigenvalue<Double> tmpValuesOnly = Eigenvalue.PRIMITIVE_DIVIDE_AND_CONQUER.make(tmpMatrix);
+            TestUtils.assertTrue(tmpValuesOnly.computeValuesOnly(tmpMatrix));
+            final double[] tmpValues = EigenvalueTest.sortedModuli(tmpValuesOnly.getEigenvalues());
+            for (int i = 0; i < dim; i++) {
+                TestUtils.assertEquals(tmpExpected[i], tmpValues[i], NumberContext.getGeneral(8, 10));
+            }
+        }
+    }
+
     @Test
     public void testP20050125Case() {
 
@@ -141,6 +203,89 @@ public class EigenvalueTest {
         TestUtils.assertEquals(tmpExpectedDiagonal, tmpEigenvaluesOnly, accuracyContext);
     }
 
+    @Test
+    public void testPartialGeneral() {
+
+        final int dim = 200;
+        final int k = 5;
+
+        final Uniform tmpUniform = new Uniform(-1.0, 2.0);
+        final SparseStore<Double> tmpMatrix = SparseStore.PRIMITIVE.make(dim, dim);
+        for (int i = 0; i < dim; i++) {
+            tmpMatrix.set(i, i, tmpUniform.doubleValue());
+            tmpMatrix.set(i, (7 * i + 3) % dim, tmpUniform.doubleValue());
+            tmpMatrix.set((11 * i + 5) % dim, i, tmpUniform.doubleValue());
+        }
+
+        final Eigenvalue.Partial tmpPartial = Eigenvalue.makePartial(k, false);
+        TestUtils.assertTrue(tmpPartial.decompose(tmpMatrix));
+
+        final MatrixStore<Double> tmpD = tmpPartial.getD();
+        final MatrixStore<Double> tmpV = tmpPartial.getV();
+        final int tmpCount = (int) tmpD.countColumns();
+
+        // One more than requested if that would split a complex conjugate pair
+        TestUtils.assertTrue((tmpCount == k) || (tmpCount == (k + 1)));
+        TestUtils.assertEquals(dim, tmpV.countRows());
+        TestUtils.assertEquals(tmpMatrix.multiply(tmpV), tmpV.multiply(tmpD), NumberContext.getGeneral(8, 10));
+
+        final Eigenvalue<Double> tmpFull = Eigenvalue.PRIMITIVE.make(false);
+        tmpFull.decompose(PrimitiveDenseStore.FACTORY.copy(tmpMatrix));
+
+        final double[] tmpExpected = EigenvalueTest.sortedModuli(tmpFull.getEigenvalues());
+        final double[] tmpActual = EigenvalueTest.sortedModuli(tmpPartial.getEigenvalues());
+        for (int i = 0; i < tmpCount; i++) {
+            TestUtils.assertEquals(tmpExpected[i], tmpActual[i], NumberContext.getGeneral(8, 10));
+        }
+    }
+
+    @Test
+    public void testPartialSymmetric() {
+
+        final int dim = 300;
+        final int k = 8;
+
+        final Uniform tmpUniform = new Uniform(-1.0, 2.0);
+        final SparseStore<Double> tmpMatrix = SparseStore.PRIMITIVE.make(dim, dim);
+        for (int i = 0; i < dim; i++) {
+            tmpMatrix.set(i, i, ONE + (i % 17));
+            final int j = ((7 * i) + 3) % dim;
+            final double tmpValue = tmpUniform.doubleValue();
+            tmpMatrix.set(i, j, tmpValue);
+            tmpMatrix.set(j, i, tmpValue);
+        }
+
+        final Eigenvalue.Partial tmpPartial = Eigenvalue.makePartial(k, true);
+        TestUtils.assertTrue(tmpPartial.decompose(tmpMatrix));
+        TestUtils.assertTrue(tmpPartial.isHermitian());
+
+        final MatrixStore<Double> tmpD = tmpPartial.getD();
+        final MatrixStore<Double> tmpV = tmpPartial.getV();
+
+        TestUtils.assertEquals(k, tmpD.countColumns());
+        TestUtils.assertEquals(tmpMatrix.multiply(tmpV), tmpV.multiply(tmpD), NumberContext.getGeneral(8, 10));
+        TestUtils.assertEquals(MatrixStore.PRIMITIVE.makeIdentity(k).get(), tmpV.transpose().multiply(tmpV), NumberContext.getGeneral(8, 10));
+
+        final Eigenvalue<Double> tmpFull = Eigenvalue.PRIMITIVE.make(true);
+        tmpFull.decompose(PrimitiveDenseStore.FACTORY.copy(tmpMatrix));
+
+        final double[] tmpExpected = EigenvalueTest.sortedModuli(tmpFull.getEigenvalues());
+        for (int i = 0; i < k; i++) {
+            TestUtils.assertEquals(tmpExpected[i], tmpPartial.getEigenvalues().get(i).norm(), NumberContext.getGeneral(8, 10));
+        }
+
+        // The same thing matrix-free
+
+        final Eigenvalue.Partial tmpMatrixFree = Eigenvalue.makePartial(k, true);
+        TestUtils.assertTrue(tmpMatrixFree.compute(dim, (x, y) -> {
+            final MatrixStore<Double> tmpProduct = tmpMatrix.multiply(PrimitiveDenseStore.FACTORY.columns(x));
+            for (int i = 0; i < dim; i++) {
+                y[i] = tmpProduct.doubleValue(i);
+            }
+        }));
+        TestUtils.assertEquals(tmpPartial.getEigenvalues(), tmpMatrixFree.getEigenvalues(), NumberContext.getGeneral(8, 10));
+    }
+
     @Test
     public void testPaulsMathNote() {
 
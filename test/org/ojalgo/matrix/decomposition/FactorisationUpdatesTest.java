@@ -0,0 +1,226 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import static org.ojalgo.constant.PrimitiveMath.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.store.GenericDenseStore;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.random.Normal;
+import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.type.context.NumberContext;
+
+public class FactorisationUpdatesTest {
+
+    private static final NumberContext PRECISION = new NumberContext(8, 10);
+
+    static PrimitiveDenseStore makeSPD(final int dim) {
+        final PrimitiveDenseStore tmpRandom = PrimitiveDenseStore.FACTORY.makeFilled(dim, dim, new Normal());
+        final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeZero(dim, dim);
+        retVal.fillByMultiplying(tmpRandom, tmpRandom.transpose());
+        retVal.modifyDiagonal(0L, 0L, PrimitiveDenseStore.FACTORY.function().add().second(dim));
+        return retVal;
+    }
+
+    static void assertQR(final MatrixStore<Double> expected, final QR<Double> decomposition) {
+
+        TestUtils.assertTrue(decomposition.isComputed());
+
+        final MatrixStore<Double> tmpQ = decomposition.getQ();
+        final MatrixStore<Double> tmpR = decomposition.getR();
+
+        TestUtils.assertEquals(expected, tmpQ.multiply(tmpR), PRECISION);
+        TestUtils.assertEquals(PrimitiveDenseStore.FACTORY.makeEye(tmpQ.countColumns(), tmpQ.countColumns()), tmpQ.transpose().multiply(tmpQ),
+                PRECISION);
+        TestUtils.assertEquals(tmpR.logical().triangular(true, false).get(), tmpR, PRECISION);
+    }
+
+    public FactorisationUpdatesTest() {
+        super();
+    }
+
+    @Test
+    public void testCholeskyDowndateNotPositiveDefinite() {
+
+        final PrimitiveDenseStore tmpMatrix = FactorisationUpdatesTest.makeSPD(5);
+        final PrimitiveDenseStore tmpVector = PrimitiveDenseStore.FACTORY.makeZero(5, 1);
+        tmpVector.set(2, 0, Math.sqrt(tmpMatrix.doubleValue(2, 2)) * 1.01);
+
+        for (final Cholesky<Double> tmpDecomposition : Arrays.<Cholesky<Double>> asList(new RawCholesky(), new CholeskyDecomposition.Primitive())) {
+
+            tmpDecomposition.decompose(tmpMatrix);
+            final MatrixStore<Double> tmpBefore = tmpDecomposition.getL().copy();
+
+            TestUtils.assertFalse(tmpDecomposition.downdate(tmpVector));
+            TestUtils.assertEquals(tmpBefore, tmpDecomposition.getL());
+            TestUtils.assertTrue(tmpDecomposition.isSolvable());
+        }
+    }
+
+    @Test
+    public void testCholeskyUpdateAndDowndate() {
+
+        for (final int tmpDim : new int[] { 1, 6, 40 }) {
+
+            final PrimitiveDenseStore tmpMatrix = FactorisationUpdatesTest.makeSPD(tmpDim);
+            final PrimitiveDenseStore tmpVector = PrimitiveDenseStore.FACTORY.makeFilled(tmpDim, 1, new Normal());
+            final MatrixStore<Double> tmpOuter = tmpVector.multiply(tmpVector.transpose());
+
+            final Cholesky<Double> tmpDecomposition = Cholesky.PRIMITIVE.make(tmpMatrix);
+            tmpDecomposition.decompose(tmpMatrix);
+
+            TestUtils.assertTrue(tmpDecomposition.update(tmpVector));
+            TestUtils.assertEquals(tmpMatrix.add(tmpOuter), tmpDecomposition.reconstruct(), PRECISION);
+            TestUtils.assertTrue(tmpDecomposition.isSolvable());
+
+            TestUtils.assertTrue(tmpDecomposition.downdate(tmpVector));
+            TestUtils.assertEquals(tmpMatrix, tmpDecomposition.reconstruct(), PRECISION);
+
+            final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeFilled(tmpDim, 2, new Normal());
+            TestUtils.assertEquals(tmpRHS, tmpMatrix.multiply(tmpDecomposition.getSolution(tmpRHS)), PRECISION);
+        }
+    }
+
+    @Test
+    public void testCholeskyUpdateDefault() {
+
+        final PrimitiveDenseStore tmpMatrix = FactorisationUpdatesTest.makeSPD(4);
+        final PrimitiveDenseStore tmpVector = PrimitiveDenseStore.FACTORY.makeFilled(4, 1, new Normal());
+
+        final GenericDenseStore<ComplexNumber> tmpComplexMatrix = GenericDenseStore.COMPLEX.copy(tmpMatrix);
+        final GenericDenseStore<ComplexNumber> tmpComplexVector = GenericDenseStore.COMPLEX.copy(tmpVector);
+
+        final Cholesky<ComplexNumber> tmpDecomposition = Cholesky.COMPLEX.make(tmpComplexMatrix);
+        tmpDecomposition.decompose(tmpComplexMatrix);
+
+        TestUtils.assertTrue(tmpDecomposition.update(tmpComplexVector));
+        TestUtils.assertEquals(tmpComplexMatrix.add(tmpComplexVector.multiply(tmpComplexVector.conjugate())), tmpDecomposition.reconstruct(),
+                PRECISION);
+
+        TestUtils.assertTrue(tmpDecomposition.downdate(tmpComplexVector));
+        TestUtils.assertEquals(tmpComplexMatrix, tmpDecomposition.reconstruct(), PRECISION);
+
+        TestUtils.assertFalse(tmpDecomposition.downdate(tmpComplexVector.multiply(TEN * TEN)));
+        TestUtils.assertEquals(tmpComplexMatrix, tmpDecomposition.reconstruct(), PRECISION);
+    }
+
+    @Test
+    public void testQRColumns() {
+
+        for (final QR.Factory<Double> tmpFactory : FactorisationUpdatesTest.factories()) {
+
+            final PrimitiveDenseStore tmpMatrix = PrimitiveDenseStore.FACTORY.makeFilled(9, 5, new Normal());
+            final PrimitiveDenseStore tmpColumn = PrimitiveDenseStore.FACTORY.makeFilled(9, 1, new Normal());
+
+            final QR<Double> tmpDecomposition = tmpFactory.make(tmpMatrix);
+            tmpDecomposition.decompose(tmpMatrix);
+
+            TestUtils.assertTrue(tmpDecomposition.addColumn(2, tmpColumn));
+            final MatrixStore<Double> tmpAdded = FactorisationUpdates.insertColumn(tmpMatrix, 2, tmpColumn);
+            TestUtils.assertEquals(tmpColumn, tmpAdded.logical().column(2).get());
+            FactorisationUpdatesTest.assertQR(tmpAdded, tmpDecomposition);
+
+            TestUtils.assertTrue(tmpDecomposition.removeColumn(0));
+            final MatrixStore<Double> tmpRemoved = FactorisationUpdates.removeColumn(tmpAdded, 0);
+            FactorisationUpdatesTest.assertQR(tmpRemoved, tmpDecomposition);
+
+            TestUtils.assertTrue(tmpDecomposition.removeColumn(4));
+            FactorisationUpdatesTest.assertQR(FactorisationUpdates.removeColumn(tmpRemoved, 4), tmpDecomposition);
+        }
+    }
+
+    @Test
+    public void testQRRows() {
+
+        for (final QR.Factory<Double> tmpFactory : FactorisationUpdatesTest.factories()) {
+
+            final PrimitiveDenseStore tmpMatrix = PrimitiveDenseStore.FACTORY.makeFilled(7, 4, new Normal());
+            final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeFilled(8, 1, new Normal());
+
+            final QR<Double> tmpDecomposition = tmpFactory.make(tmpMatrix);
+            tmpDecomposition.decompose(tmpMatrix);
+
+            // A rolling window - add a row at the end and remove the first
+            MatrixStore<Double> tmpExpected = tmpMatrix;
+            for (int r = 0; r < 5; r++) {
+
+                final PrimitiveDenseStore tmpRow = PrimitiveDenseStore.FACTORY.makeFilled(1, 4, new Normal());
+
+                TestUtils.assertTrue(tmpDecomposition.addRow(7, tmpRow));
+                tmpExpected = FactorisationUpdates.insertRow(tmpExpected, 7, tmpRow);
+                FactorisationUpdatesTest.assertQR(tmpExpected, tmpDecomposition);
+
+                final QR<Double> tmpFresh = QR.PRIMITIVE.make(tmpExpected);
+                tmpFresh.decompose(tmpExpected);
+                TestUtils.assertEquals(tmpFresh.getSolution(tmpRHS), tmpDecomposition.getSolution(tmpRHS), PRECISION);
+
+                TestUtils.assertTrue(tmpDecomposition.removeRow(0));
+                tmpExpected = FactorisationUpdates.removeRow(tmpExpected, 0);
+                FactorisationUpdatesTest.assertQR(tmpExpected, tmpDecomposition);
+            }
+
+            TestUtils.assertTrue(tmpDecomposition.addRow(3, PrimitiveDenseStore.FACTORY.makeFilled(1, 4, new Normal())));
+            TestUtils.assertTrue(tmpDecomposition.removeRow(5));
+            TestUtils.assertEquals(7, tmpDecomposition.reconstruct().countRows());
+        }
+    }
+
+    @Test
+    public void testQRUpdateAndDeterminant() {
+
+        for (final QR.Factory<Double> tmpFactory : FactorisationUpdatesTest.factories()) {
+
+            final PrimitiveDenseStore tmpMatrix = PrimitiveDenseStore.FACTORY.makeFilled(6, 6, new Normal());
+            final PrimitiveDenseStore tmpU = PrimitiveDenseStore.FACTORY.makeFilled(6, 1, new Normal());
+            final PrimitiveDenseStore tmpV = PrimitiveDenseStore.FACTORY.makeFilled(6, 1, new Normal());
+
+            final QR<Double> tmpDecomposition = tmpFactory.make(tmpMatrix);
+            tmpDecomposition.decompose(tmpMatrix);
+
+            TestUtils.assertTrue(tmpDecomposition.update(tmpU, tmpV));
+            final MatrixStore<Double> tmpExpected = tmpMatrix.add(tmpU.multiply(tmpV.transpose()));
+            FactorisationUpdatesTest.assertQR(tmpExpected, tmpDecomposition);
+
+            final LU<Double> tmpLU = LU.PRIMITIVE.make(tmpExpected);
+            tmpLU.decompose(tmpExpected);
+            TestUtils.assertEquals(tmpLU.getDeterminant(), tmpDecomposition.getDeterminant(), PRECISION);
+
+            // Changes the sign of the determinant
+            TestUtils.assertTrue(tmpDecomposition.addRow(1, tmpV.transpose()));
+            TestUtils.assertTrue(tmpDecomposition.removeRow(4));
+            final MatrixStore<Double> tmpSwapped = FactorisationUpdates.removeRow(FactorisationUpdates.insertRow(tmpExpected, 1, tmpV.transpose()), 4);
+            tmpLU.decompose(tmpSwapped);
+            TestUtils.assertEquals(tmpLU.getDeterminant(), tmpDecomposition.getDeterminant(), PRECISION);
+        }
+    }
+
+    static List<QR.Factory<Double>> factories() {
+        return Arrays.asList(QR.UPDATABLE, QR.PRIMITIVE);
+    }
+
+}
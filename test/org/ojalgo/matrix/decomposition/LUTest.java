@@ -27,8 +27,11 @@ import org.ojalgo.TestUtils;
 import org.ojalgo.matrix.P20061119Case;
 import org.ojalgo.matrix.RationalMatrix;
 import org.ojalgo.matrix.store.GenericDenseStore;
+import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.SparseStore;
 import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.random.Uniform;
 import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.RationalNumber;
 import org.ojalgo.type.context.NumberContext;
@@ -86,4 +89,65 @@ public class LUTest {
 
     }
 
+    @Test
+    public void testSparseLU() {
+
+        final int dim = 100;
+
+        final Uniform tmpUniform = new Uniform(-1.0, 2.0);
+        final SparseStore<Double> tmpSparse = SparseStore.PRIMITIVE.make(dim, dim);
+        for (int i = 0; i < dim; i++) {
+            tmpSparse.set(i, i, 4.0);
+            tmpSparse.set(i, (7 * i + 3) % dim, tmpUniform.doubleValue());
+            tmpSparse.set((11 * i + 5) % dim, i, tmpUniform.doubleValue());
+        }
+        final PrimitiveDenseStore tmpDense = PrimitiveDenseStore.FACTORY.copy(tmpSparse);
+        final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeFilled(dim, 1, tmpUniform);
+
+        final LU<Double> tmpExpected = new RawLU();
+        tmpExpected.decompose(tmpDense);
+
+        final SparseLU tmpActual = (SparseLU) LU.SPARSE.make(tmpSparse);
+        TestUtils.assertTrue(tmpActual.compute(tmpSparse));
+
+        final NumberContext tmpPrecision = NumberContext.getGeneral(8, 10);
+
+        TestUtils.assertEquals(tmpDense, tmpActual.reconstruct(), tmpPrecision);
+        TestUtils.assertEquals(dim, tmpActual.getRank());
+        TestUtils.assertEquals(tmpExpected.getDeterminant(), tmpActual.getDeterminant(), tmpPrecision);
+        TestUtils.assertEquals(tmpExpected.getSolution(tmpRHS), tmpActual.getSolution(tmpRHS), tmpPrecision);
+        TestUtils.assertEquals(tmpExpected.getInverse(), tmpActual.getInverse(), tmpPrecision);
+
+        // Same pattern, new values - reuses the symbolic analysis
+
+        final int[] tmpRowOrder = tmpActual.getPivotOrder().clone();
+        final int[] tmpColOrder = tmpActual.getColumnOrder().clone();
+
+        final SparseStore<Double> tmpScaled = SparseStore.PRIMITIVE.make(dim, dim);
+        tmpSparse.nonzeros().forEach(nz -> tmpScaled.set(nz.row(), nz.column(), 1.1 * nz.doubleValue()));
+
+        TestUtils.assertTrue(tmpActual.compute(tmpScaled));
+        TestUtils.assertEquals(tmpRowOrder, tmpActual.getPivotOrder());
+        TestUtils.assertEquals(tmpColOrder, tmpActual.getColumnOrder());
+
+        final MatrixStore<Double> tmpScaledSolution = tmpActual.getSolution(tmpRHS);
+        TestUtils.assertEquals(tmpExpected.getSolution(tmpRHS).multiply(1.0 / 1.1), tmpScaledSolution, tmpPrecision);
+        TestUtils.assertEquals(tmpScaled, tmpActual.reconstruct(), tmpPrecision);
+    }
+
+    @Test
+    public void testSparseLUSingular() {
+
+        final PrimitiveDenseStore tmpMatrix = PrimitiveDenseStore.FACTORY
+                .rows(new double[][] { { 1.0, 2.0, 0.0, 3.0 }, { 0.0, 1.0, 0.0, 1.0 }, { 2.0, 5.0, 0.0, 7.0 }, { 0.0, 0.0, 0.0, 4.0 } });
+
+        final SparseLU tmpDecomposition = new SparseLU();
+        tmpDecomposition.decompose(tmpMatrix);
+
+        TestUtils.assertEquals(3, tmpDecomposition.getRank());
+        TestUtils.assertFalse(tmpDecomposition.isSolvable());
+        TestUtils.assertEquals(0.0, tmpDecomposition.getDeterminant().doubleValue(), NumberContext.getGeneral(8));
+        TestUtils.assertEquals(tmpMatrix, tmpDecomposition.reconstruct(), NumberContext.getGeneral(8));
+    }
+
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.decomposition;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.array.Array1D;
+import org.ojalgo.matrix.store.MatrixStore;
+import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.random.Normal;
+import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.type.context.NumberContext;
+
+public class MatrixBatchTest {
+
+    private static final int COUNT = 600;
+    private static final NumberContext PRECISION = new NumberContext(7, 10);
+
+    static MatrixBatch makeRandom(final int rows, final int columns) {
+        final MatrixBatch retVal = MatrixBatch.make(COUNT, rows, columns);
+        final Normal tmpRandom = new Normal();
+        for (int i = 0; i < retVal.data.length; i++) {
+            retVal.data[i] = tmpRandom.doubleValue();
+        }
+        return retVal;
+    }
+
+    static MatrixBatch makeSPD(final int dim) {
+        final MatrixBatch tmpRandom = MatrixBatchTest.makeRandom(dim, dim);
+        final MatrixBatch retVal = MatrixBatch.make(COUNT, dim, dim);
+        for (int m = 0; m < COUNT; m++) {
+            final PrimitiveDenseStore tmpMtrx = tmpRandom.extract(m);
+            retVal.fill(m, tmpMtrx.multiply(tmpMtrx.transpose()).add(PrimitiveDenseStore.FACTORY.makeEye(dim, dim)));
+        }
+        return retVal;
+    }
+
+    public MatrixBatchTest() {
+        super();
+    }
+
+    @Test
+    public void testCholesky() {
+
+        for (int dim = 1; dim <= 8; dim++) {
+
+            final MatrixBatch tmpOriginal = MatrixBatchTest.makeSPD(dim);
+            final MatrixBatch tmpRHS = MatrixBatchTest.makeRandom(dim, 2);
+
+            final MatrixBatch tmpFactors = tmpOriginal.copy();
+            final boolean[] tmpOK = tmpFactors.decomposeCholesky();
+
+            final MatrixBatch tmpSolution = tmpRHS.copy();
+            tmpFactors.solveCholesky(tmpSolution);
+
+            for (int m = 0; m < COUNT; m++) {
+
+                TestUtils.assertTrue(tmpOK[m]);
+
+                final MatrixStore<Double> tmpExpected = tmpOriginal.extract(m);
+
+                final Cholesky<Double> tmpCholesky = Cholesky.PRIMITIVE.make(tmpExpected);
+                tmpCholesky.decompose(tmpExpected);
+                TestUtils.assertEquals(tmpCholesky.getL(), tmpFactors.extract(m).logical().triangular(false, false).get(), PRECISION);
+
+                TestUtils.assertEquals(tmpRHS.extract(m), tmpExpected.multiply(tmpSolution.extract(m)), PRECISION);
+            }
+        }
+    }
+
+    @Test
+    public void testCholeskyNotPositiveDefinite() {
+
+        final MatrixBatch tmpBatch = MatrixBatchTest.makeSPD(3);
+        tmpBatch.set(7, 2, 2, -1.0);
+
+        final boolean[] tmpOK = tmpBatch.decomposeCholesky();
+
+        for (int m = 0; m < COUNT; m++) {
+            TestUtils.assertEquals(m != 7, tmpOK[m]);
+        }
+    }
+
+    @Test
+    public void testLU() {
+
+        for (int dim = 1; dim <= 8; dim++) {
+
+            final MatrixBatch tmpOriginal = MatrixBatchTest.makeRandom(dim, dim);
+            final MatrixBatch tmpRHS = MatrixBatchTest.makeRandom(dim, 3);
+
+            final MatrixBatch tmpFactors = tmpOriginal.copy();
+            final int[] tmpPivots = new int[COUNT * dim];
+            final boolean[] tmpOK = tmpFactors.decomposeLU(tmpPivots);
+
+            final MatrixBatch tmpSolution = tmpRHS.copy();
+            tmpFactors.solveLU(tmpPivots, tmpSolution);
+
+            for (int m = 0; m < COUNT; m++) {
+
+                TestUtils.assertTrue(tmpOK[m]);
+
+                final MatrixStore<Double> tmpExpected = tmpOriginal.extract(m);
+
+                final LU<Double> tmpLU = LU.PRIMITIVE.make(tmpExpected);
+                tmpLU.decompose(tmpExpected);
+                TestUtils.assertEquals(tmpLU.getU(), tmpFactors.extract(m).logical().triangular(true, false).get(), PRECISION);
+
+                TestUtils.assertEquals(tmpRHS.extract(m), tmpExpected.multiply(tmpSolution.extract(m)), PRECISION);
+            }
+        }
+    }
+
+    @Test
+    public void testQR() {
+
+        for (int dim = 1; dim <= 6; dim++) {
+
+            final int tmpRows = dim + 2;
+
+            final MatrixBatch tmpOriginal = MatrixBatchTest.makeRandom(tmpRows, dim);
+            final MatrixBatch tmpRHS = MatrixBatchTest.makeRandom(tmpRows, 2);
+
+            final MatrixBatch tmpFactors = tmpOriginal.copy();
+            final double[] tmpTau = new double[COUNT * dim];
+            final boolean[] tmpOK = tmpFactors.decomposeQR(tmpTau);
+
+            final MatrixBatch tmpSolution = tmpRHS.copy();
+            tmpFactors.solveQR(tmpTau, tmpSolution);
+
+            for (int m = 0; m < COUNT; m++) {
+
+                TestUtils.assertTrue(tmpOK[m]);
+
+                final MatrixStore<Double> tmpBody = tmpOriginal.extract(m);
+                final MatrixStore<Double> tmpRHSm = tmpRHS.extract(m);
+
+                final QR<Double> tmpQR = QR.PRIMITIVE.make(tmpBody);
+                tmpQR.decompose(tmpBody);
+                final MatrixStore<Double> tmpExpected = tmpQR.getSolution(tmpRHSm);
+
+                TestUtils.assertEquals(tmpExpected, tmpSolution.extract(m).logical().limits(dim, 2).get(), PRECISION);
+            }
+        }
+    }
+
+    @Test
+    public void testSymmetricEigen() {
+
+        for (int dim = 1; dim <= 8; dim++) {
+
+            final MatrixBatch tmpOriginal = MatrixBatchTest.makeSPD(dim);
+
+            final MatrixBatch tmpWork = tmpOriginal.copy();
+            final MatrixBatch tmpVectors = MatrixBatch.make(COUNT, dim, dim);
+            final double[] tmpValues = new double[COUNT * dim];
+            tmpWork.decomposeSymmetricEigen(tmpValues, tmpVectors);
+
+            for (int m = 0; m < COUNT; m++) {
+
+                final MatrixStore<Double> tmpMtrx = tmpOriginal.extract(m);
+
+                final Eigenvalue<Double> tmpEvD = Eigenvalue.PRIMITIVE.make(tmpMtrx, true);
+                tmpEvD.decompose(tmpMtrx);
+                final Array1D<ComplexNumber> tmpExpected = tmpEvD.getEigenvalues();
+
+                final PrimitiveDenseStore tmpD = PrimitiveDenseStore.FACTORY.makeZero(dim, dim);
+                for (int i = 0; i < dim; i++) {
+                    TestUtils.assertEquals(tmpExpected.get(i).doubleValue(), tmpValues[(m * dim) + i], PRECISION);
+                    tmpD.set(i, i, tmpValues[(m * dim) + i]);
+                }
+
+                final PrimitiveDenseStore tmpV = tmpVectors.extract(m);
+                TestUtils.assertEquals(tmpMtrx, tmpV.multiply(tmpD).multiply(tmpV.transpose()), PRECISION);
+            }
+        }
+    }
+
+}
@@ -161,7 +161,7 @@ public abstract class MatrixDecompositionTests {
     public static final SingularValue<Double>[] getSingularValuePrimitive() {
         return (SingularValue<Double>[]) new SingularValue<?>[] { /*
                                                                    * new SVDold30.Primitive (),
-                                                                   */new SingularValueDecomposition.Primitive(), new RawSingularValue() };
+                                                                   */new SingularValueDecomposition.Primitive(), new RawSingularValue(), new JacobiSingularValue() };
     }
 
     public static final Tridiagonal<?>[] getTridiagonalAll() {
@@ -21,6 +21,9 @@
  */
 package org.ojalgo.matrix.decomposition;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.ojalgo.RecoverableCondition;
@@ -32,9 +35,11 @@ import org.ojalgo.matrix.store.GenericDenseStore;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.SparseStore;
 import org.ojalgo.matrix.store.operation.MatrixOperation;
 import org.ojalgo.matrix.transformation.Householder;
 import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.random.Uniform;
 import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.RationalNumber;
 import org.ojalgo.type.context.NumberContext;
@@ -105,7 +110,7 @@ public class QRTest {
 
         final DecompositionStore<ComplexNumber> tmpReverseQ = GenericDenseStore.COMPLEX.makeEye(DIMENSION, DIMENSION);
 
-        final Householder.Generic<ComplexNumber>[] tmpHouseholders = new Householder.Generic[tmpLim];
+        final List<Householder.Generic<ComplexNumber>> tmpHouseholders = new ArrayList<>(tmpLim);
 
         for (int ij = 0; ij < tmpLim; ij++) {
 
@@ -117,20 +122,20 @@ public class QRTest {
                 tmpNowR.transformLeft(tmpVector, ij);
             }
 
-            tmpHouseholders[ij] = tmpVector;
+            tmpHouseholders.add(tmpVector);
         }
 
-        for (int h = 0; h < tmpHouseholders.length; h++) {
+        for (int h = 0; h < tmpHouseholders.size(); h++) {
 
-            final Householder.Generic<ComplexNumber> tmpVector = tmpHouseholders[h];
+            final Householder.Generic<ComplexNumber> tmpVector = tmpHouseholders.get(h);
 
             tmpForwardQ.transformRight(tmpVector, 0);
             tmpForwardR.transformLeft(tmpVector, h);
         }
 
-        for (int h = tmpHouseholders.length - 1; h >= 0; h--) {
+        for (int h = tmpHouseholders.size() - 1; h >= 0; h--) {
 
-            final Householder.Generic<ComplexNumber> tmpVector = tmpHouseholders[h];
+            final Householder.Generic<ComplexNumber> tmpVector = tmpHouseholders.get(h);
 
             tmpReverseQ.transformLeft(tmpVector, 0);
         }
@@ -227,4 +232,80 @@ public class QRTest {
         TestUtils.assertEquals(PrimitiveDenseStore.FACTORY.copy(tmpOriginal), tmpPrimitiveDecomp, new NumberContext(7, 14));
     }
 
+    @Test
+    public void testSparseQR() {
+
+        final int rows = 150;
+        final int cols = 100;
+
+        final Uniform tmpUniform = new Uniform(-1.0, 2.0);
+        final SparseStore<Double> tmpSparse = SparseStore.PRIMITIVE.make(rows, cols);
+        for (int j = 0; j < cols; j++) {
+            tmpSparse.set(j, j, 4.0);
+            tmpSparse.set((7 * j + 3) % rows, j, tmpUniform.doubleValue());
+            tmpSparse.set(cols + (j % (rows - cols)), j, tmpUniform.doubleValue());
+        }
+        final PrimitiveDenseStore tmpDense = PrimitiveDenseStore.FACTORY.copy(tmpSparse);
+        final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeFilled(rows, 1, tmpUniform);
+
+        final QR<Double> tmpExpected = new RawQR();
+        tmpExpected.decompose(tmpDense);
+
+        final SparseQR tmpActual = (SparseQR) QR.SPARSE.make(tmpSparse);
+        TestUtils.assertTrue(tmpActual.compute(tmpSparse));
+
+        final NumberContext tmpPrecision = NumberContext.getGeneral(8, 10);
+
+        TestUtils.assertEquals(cols, tmpActual.getRank());
+        TestUtils.assertTrue(tmpActual.isSolvable());
+        TestUtils.assertEquals(tmpExpected.getSolution(tmpRHS), tmpActual.getSolution(tmpRHS), tmpPrecision);
+
+        // [Q] is derived from [A] and [R], so check that it is orthonormal and that [Q][R] is the (column permuted) input
+        final MatrixStore<Double> tmpQ = tmpActual.getQ();
+        final MatrixStore<Double> tmpR = tmpActual.getR();
+        TestUtils.assertEquals(PrimitiveDenseStore.FACTORY.makeEye(cols, cols), tmpQ.transpose().multiply(tmpQ), tmpPrecision);
+        TestUtils.assertEquals(tmpDense.logical().column(tmpActual.getColumnOrder()).get(), tmpQ.multiply(tmpR), tmpPrecision);
+
+        TestUtils.assertEquals(cols, tmpR.countRows());
+        for (int j = 0; j < cols; j++) {
+            for (int i = j + 1; i < cols; i++) {
+                TestUtils.assertEquals(0.0, tmpR.doubleValue(i, j));
+            }
+        }
+
+        // Square - the determinant should match that of LU
+
+        final SparseStore<Double> tmpSquare = SparseStore.PRIMITIVE.make(cols, cols);
+        tmpSparse.nonzeros().forEach(nz -> {
+            if (nz.row() < cols) {
+                tmpSquare.set(nz.row(), nz.column(), nz.doubleValue());
+            }
+        });
+
+        final LU<Double> tmpLU = new RawLU();
+        tmpLU.decompose(PrimitiveDenseStore.FACTORY.copy(tmpSquare));
+
+        TestUtils.assertTrue(tmpActual.compute(tmpSquare));
+        TestUtils.assertEquals(tmpLU.getDeterminant(), tmpActual.getDeterminant(), tmpPrecision);
+    }
+
+    @Test
+    public void testSparseQRRankDeficient() {
+
+        final PrimitiveDenseStore tmpMatrix = PrimitiveDenseStore.FACTORY.rows(
+                new double[][] { { 1.0, 2.0, 3.0 }, { 0.0, 1.0, 1.0 }, { 2.0, 5.0, 7.0 }, { 1.0, 0.0, 1.0 }, { 0.0, 0.0, 0.0 } });
+
+        final SparseQR tmpDecomposition = new SparseQR();
+        tmpDecomposition.decompose(tmpMatrix);
+
+        TestUtils.assertEquals(2, tmpDecomposition.getRank());
+        TestUtils.assertFalse(tmpDecomposition.isFullRank());
+        TestUtils.assertFalse(tmpDecomposition.isSolvable());
+
+        // [R]^T[R] = [P]^T[A]^T[A][P] does not involve [Q] (which is derived from [A] and [R])
+        final MatrixStore<Double> tmpPermuted = tmpMatrix.logical().column(tmpDecomposition.getColumnOrder()).get();
+        final MatrixStore<Double> tmpR = tmpDecomposition.getR();
+        TestUtils.assertEquals(tmpPermuted.transpose().multiply(tmpPermuted), tmpR.transpose().multiply(tmpR), NumberContext.getGeneral(8));
+    }
+
 }
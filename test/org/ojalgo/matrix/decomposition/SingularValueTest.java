@@ -21,6 +21,8 @@
  */
 package org.ojalgo.matrix.decomposition;
 
+import static org.ojalgo.constant.PrimitiveMath.*;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.ojalgo.TestUtils;
@@ -34,7 +36,10 @@ import org.ojalgo.matrix.store.GenericDenseStore;
 import org.ojalgo.matrix.store.MatrixStore;
 import org.ojalgo.matrix.store.PhysicalStore;
 import org.ojalgo.matrix.store.PrimitiveDenseStore;
+import org.ojalgo.matrix.store.SparseStore;
 import org.ojalgo.netio.BasicLogger;
+import org.ojalgo.random.Normal;
+import org.ojalgo.random.Uniform;
 import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.scalar.RationalNumber;
 import org.ojalgo.type.context.NumberContext;
@@ -55,6 +60,23 @@ public class SingularValueTest {
     static final NumberContext CNTXT_REAL_DECOMP = new NumberContext(3, 2);
     static final NumberContext CNTXT_REAL_VALUES = new NumberContext(7, 10);
 
+    /**
+     * Rank r with geometrically decaying singular values
+     */
+    private static PrimitiveDenseStore makeLowRank(final int rows, final int columns, final int rank) {
+
+        final PrimitiveDenseStore tmpLeft = PrimitiveDenseStore.FACTORY.makeFilled(rows, rank, new Normal());
+        final PrimitiveDenseStore tmpRight = PrimitiveDenseStore.FACTORY.makeFilled(rank, columns, new Normal());
+        for (int i = 0; i < rank; i++) {
+            final double tmpFactor = Math.pow(0.7, i);
+            for (int j = 0; j < columns; j++) {
+                tmpRight.set(i, j, tmpFactor * tmpRight.doubleValue(i, j));
+            }
+        }
+
+        return PrimitiveDenseStore.FACTORY.copy(tmpLeft.multiply(tmpRight));
+    }
+
     @BeforeEach
     public void minimiseAllBranchLimits() {
         TestUtils.minimiseAllBranchLimits();
@@ -167,6 +189,75 @@ public class SingularValueTest {
 
     }
 
+    /**
+     * Columns scaled from 1 down to 1E-15. The singular values are known (to full relative precision) and
+     * one-sided Jacobi should find them all with high relative accuracy.
+     */
+    @Test
+    public void testJacobiGraded() {
+
+        final int rows = 40;
+        final int columns = 16;
+
+        final MatrixStore<Double> tmpRandom = PrimitiveDenseStore.FACTORY.makeFilled(rows, columns, new Normal());
+        final QR<Double> tmpQR = QR.PRIMITIVE.make(tmpRandom);
+        tmpQR.decompose(tmpRandom);
+        final PrimitiveDenseStore tmpOriginal = PrimitiveDenseStore.FACTORY.copy(tmpQR.getQ());
+
+        final double[] tmpExpected = new double[columns];
+        for (int j = 0; j < columns; j++) {
+            tmpExpected[j] = Math.pow(10.0, -j);
+            for (int i = 0; i < rows; i++) {
+                tmpOriginal.set(i, j, tmpExpected[j] * tmpOriginal.doubleValue(i, j));
+            }
+        }
+
+        final SingularValue<Double> tmpJacobi = SingularValue.PRIMITIVE_JACOBI.make(tmpOriginal);
+        TestUtils.assertTrue(tmpJacobi.decompose(tmpOriginal));
+
+        final Array1D<Double> tmpActual = tmpJacobi.getSingularValues();
+        for (int j = 0; j < columns; j++) {
+            TestUtils.assertEquals(ONE, tmpActual.doubleValue(j) / tmpExpected[j], NumberContext.getGeneral(10, 10));
+        }
+
+        TestUtils.assertEquals(tmpOriginal, tmpJacobi.reconstruct(), NumberContext.getGeneral(12, 14));
+        TestUtils.assertEquals(MatrixStore.PRIMITIVE.makeIdentity(columns).get(), tmpJacobi.getQ1().transpose().multiply(tmpJacobi.getQ1()),
+                NumberContext.getGeneral(12, 14));
+        TestUtils.assertEquals(MatrixStore.PRIMITIVE.makeIdentity(columns).get(), tmpJacobi.getQ2().transpose().multiply(tmpJacobi.getQ2()),
+                NumberContext.getGeneral(12, 14));
+    }
+
+    @Test
+    public void testJacobiShapes() {
+
+        final NumberContext tmpPrecision = NumberContext.getGeneral(8, 10);
+
+        final Normal tmpNormal = new Normal();
+
+        for (final PrimitiveDenseStore tmpOriginal : new PrimitiveDenseStore[] { PrimitiveDenseStore.FACTORY.makeFilled(60, 25, tmpNormal),
+                PrimitiveDenseStore.FACTORY.makeFilled(25, 60, tmpNormal), PrimitiveDenseStore.FACTORY.makeFilled(45, 45, tmpNormal),
+                SingularValueTest.makeLowRank(50, 30, 7) }) {
+
+            final SingularValue<Double> tmpExpected = new RawSingularValue();
+            tmpExpected.decompose(tmpOriginal);
+
+            final SingularValue<Double> tmpJacobi = SingularValue.PRIMITIVE_JACOBI.make(tmpOriginal);
+            TestUtils.assertTrue(tmpJacobi.decompose(tmpOriginal));
+
+            final int tmpMinDim = (int) Math.min(tmpOriginal.countRows(), tmpOriginal.countColumns());
+            TestUtils.assertEquals(tmpExpected.getSingularValues().sliceRange(0, tmpMinDim), tmpJacobi.getSingularValues(), tmpPrecision);
+            TestUtils.assertEquals(tmpExpected.getRank(), tmpJacobi.getRank());
+            TestUtils.assertTrue(SingularValue.equals(tmpOriginal, tmpJacobi, tmpPrecision));
+
+            final MatrixStore<Double> tmpQ1 = tmpJacobi.getQ1();
+            TestUtils.assertEquals(MatrixStore.PRIMITIVE.makeIdentity(tmpMinDim).get(), tmpQ1.transpose().multiply(tmpQ1), tmpPrecision);
+
+            final SingularValue<Double> tmpValuesOnly = SingularValue.PRIMITIVE_JACOBI.make(tmpOriginal);
+            TestUtils.assertTrue(tmpValuesOnly.computeValuesOnly(tmpOriginal));
+            TestUtils.assertEquals(tmpJacobi.getSingularValues(), tmpValuesOnly.getSingularValues(), tmpPrecision);
+        }
+    }
+
     @Test
     public void testRandomActuallyComplexCase() {
 
@@ -218,6 +309,64 @@ public class SingularValueTest {
         this.doTestTypes(MTRX_TALL);
     }
 
+    @Test
+    public void testRandomisedFixedRank() {
+
+        final int rank = 6;
+        final PrimitiveDenseStore tmpOriginal = SingularValueTest.makeLowRank(300, 80, rank);
+
+        final SingularValue<Double> tmpExpected = new RawSingularValue();
+        tmpExpected.decompose(tmpOriginal);
+
+        final SingularValue<Double> tmpRandomised = SingularValue.makeRandomised(rank);
+        tmpRandomised.decompose(tmpOriginal);
+
+        final NumberContext tmpPrecision = NumberContext.getGeneral(8, 10);
+
+        TestUtils.assertEquals(tmpExpected.getSingularValues().sliceRange(0, rank), tmpRandomised.getSingularValues(), tmpPrecision);
+        TestUtils.assertEquals(tmpOriginal, tmpRandomised.reconstruct(), tmpPrecision);
+        TestUtils.assertEquals(rank, tmpRandomised.getRank());
+        TestUtils.assertEquals(tmpExpected.getOperatorNorm(), tmpRandomised.getOperatorNorm(), tmpPrecision);
+        TestUtils.assertFalse(tmpRandomised.isFullRank());
+        TestUtils.assertFalse(tmpRandomised.isSolvable());
+    }
+
+    @Test
+    public void testRandomisedSparse() {
+
+        final Uniform tmpUniform = new Uniform(-1.0, 2.0);
+
+        // Only 8 nonzero columns - rank 8
+        final SparseStore<Double> tmpOriginal = SparseStore.PRIMITIVE.make(400, 100);
+        for (int i = 0; i < 400; i++) {
+            tmpOriginal.set(i, (i * 37) % 8, tmpUniform.doubleValue());
+            tmpOriginal.set(i, (i * 11) % 8, tmpUniform.doubleValue());
+        }
+
+        final SingularValue<Double> tmpExpected = new RawSingularValue();
+        tmpExpected.decompose(PrimitiveDenseStore.FACTORY.copy(tmpOriginal));
+
+        final SingularValue<Double> tmpRandomised = SingularValue.makeRandomised(8, 4, 1);
+        tmpRandomised.decompose(tmpOriginal);
+
+        final NumberContext tmpPrecision = NumberContext.getGeneral(8, 10);
+
+        TestUtils.assertEquals(tmpExpected.getSingularValues().sliceRange(0, 8), tmpRandomised.getSingularValues(), tmpPrecision);
+        TestUtils.assertEquals(tmpOriginal, tmpRandomised.reconstruct(), tmpPrecision);
+    }
+
+    @Test
+    public void testRandomisedTolerance() {
+
+        final PrimitiveDenseStore tmpOriginal = SingularValueTest.makeLowRank(200, 150, 23);
+
+        final SingularValue<Double> tmpRandomised = SingularValue.makeRandomised(1E-10, 5, 1);
+        tmpRandomised.decompose(tmpOriginal);
+
+        TestUtils.assertEquals(23, tmpRandomised.getRank());
+        TestUtils.assertEquals(tmpOriginal, tmpRandomised.reconstruct(), NumberContext.getGeneral(8, 10));
+    }
+
     @Test
     public void testRecreationFat() {
 
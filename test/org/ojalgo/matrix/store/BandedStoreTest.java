@@ -0,0 +1,127 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.decomposition.LU;
+import org.ojalgo.random.Normal;
+import org.ojalgo.type.context.NumberContext;
+
+public class BandedStoreTest {
+
+    private static final NumberContext PRECISION = new NumberContext(8, 12);
+
+    static PrimitiveDenseStore makeBanded(final int rows, final int columns, final int lower, final int upper) {
+        final Normal tmpRandom = new Normal();
+        final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeZero(rows, columns);
+        for (int j = 0; j < columns; j++) {
+            for (int i = Math.max(0, j - upper); i < Math.min(rows, j + lower + 1); i++) {
+                retVal.set(i, j, tmpRandom.doubleValue());
+            }
+        }
+        return retVal;
+    }
+
+    public BandedStoreTest() {
+        super();
+    }
+
+    @Test
+    public void testCholesky() {
+
+        final int tmpDim = 40;
+
+        for (int tmpBand = 0; tmpBand <= 4; tmpBand++) {
+
+            final PrimitiveDenseStore tmpRandom = BandedStoreTest.makeBanded(tmpDim, tmpDim, tmpBand, 0);
+            final PrimitiveDenseStore tmpOriginal = PrimitiveDenseStore.FACTORY.makeZero(tmpDim, tmpDim);
+            tmpOriginal.fillByMultiplying(tmpRandom, tmpRandom.transpose());
+            tmpOriginal.modifyDiagonal(0L, 0L, PrimitiveDenseStore.FACTORY.function().add().second(1.0));
+
+            final BandedStore tmpBanded = BandedStore.copy(tmpOriginal, tmpBand, tmpBand);
+            TestUtils.assertEquals(tmpOriginal, tmpBanded);
+
+            TestUtils.assertTrue(tmpBanded.decomposeCholesky());
+            TestUtils.assertEquals(tmpOriginal, tmpBanded.multiply(tmpBanded.transpose()), PRECISION);
+
+            final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeFilled(tmpDim, 2, new Normal());
+            final PrimitiveDenseStore tmpSolution = tmpRHS.copy();
+            tmpBanded.solveCholesky(tmpSolution);
+            TestUtils.assertEquals(tmpRHS, tmpOriginal.multiply(tmpSolution), PRECISION);
+        }
+    }
+
+    @Test
+    public void testLU() {
+
+        final int tmpDim = 40;
+
+        for (int tmpLower = 0; tmpLower <= 3; tmpLower++) {
+            for (int tmpUpper = 0; tmpUpper <= 3; tmpUpper++) {
+
+                final PrimitiveDenseStore tmpOriginal = BandedStoreTest.makeBanded(tmpDim, tmpDim, tmpLower, tmpUpper);
+                tmpOriginal.modifyDiagonal(0L, 0L, PrimitiveDenseStore.FACTORY.function().add().second(0.5));
+
+                final BandedStore tmpBanded = BandedStore.copy(tmpOriginal, tmpLower, tmpUpper);
+                TestUtils.assertTrue(tmpBanded.decomposeLU());
+                TestUtils.assertEquals(tmpLower + tmpUpper, tmpBanded.getUpperBandwidth());
+
+                final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeFilled(tmpDim, 3, new Normal());
+                final PrimitiveDenseStore tmpSolution = tmpRHS.copy();
+                tmpBanded.solveLU(tmpSolution);
+
+                final LU<Double> tmpLU = LU.PRIMITIVE.make(tmpOriginal);
+                tmpLU.decompose(tmpOriginal);
+                TestUtils.assertEquals(tmpLU.getSolution(tmpRHS), tmpSolution, PRECISION);
+            }
+        }
+    }
+
+    @Test
+    public void testMultiplyAndStructure() {
+
+        final PrimitiveDenseStore tmpOriginal = BandedStoreTest.makeBanded(12, 9, 2, 1);
+        final PrimitiveDenseStore tmpRight = PrimitiveDenseStore.FACTORY.makeFilled(9, 5, new Normal());
+
+        final BandedStore tmpBanded = BandedStore.make(12, 9, 2, 1);
+        tmpOriginal.supplyTo(tmpBanded);
+
+        TestUtils.assertEquals(tmpOriginal, tmpBanded);
+        TestUtils.assertEquals(tmpOriginal.multiply(tmpRight), tmpBanded.multiply(tmpRight), PRECISION);
+        TestUtils.assertEquals(tmpOriginal.transpose().multiply(tmpOriginal), tmpBanded.transpose().multiply(tmpBanded), PRECISION);
+
+        TestUtils.assertEquals(3, tmpBanded.firstInRow(5));
+        TestUtils.assertEquals(7, tmpBanded.limitOfRow(5));
+        TestUtils.assertEquals(4, tmpBanded.firstInColumn(5));
+        TestUtils.assertEquals(8, tmpBanded.limitOfColumn(5));
+
+        try {
+            tmpBanded.set(0, 5, 1.0);
+            TestUtils.fail();
+        } catch (final ProgrammingError expected) {
+            // Outside the band
+        }
+    }
+
+}
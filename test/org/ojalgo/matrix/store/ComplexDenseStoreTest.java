@@ -0,0 +1,150 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.matrix.decomposition.Cholesky;
+import org.ojalgo.matrix.decomposition.Eigenvalue;
+import org.ojalgo.matrix.decomposition.LU;
+import org.ojalgo.matrix.decomposition.QR;
+import org.ojalgo.random.Normal;
+import org.ojalgo.scalar.ComplexNumber;
+import org.ojalgo.type.context.NumberContext;
+
+public class ComplexDenseStoreTest {
+
+    private static final NumberContext PRECISION = new NumberContext(7, 9);
+
+    static ComplexDenseStore makeRandom(final int rows, final int columns) {
+
+        final Normal tmpRandom = new Normal();
+
+        final ComplexDenseStore retVal = ComplexDenseStore.FACTORY.makeZero(rows, columns);
+        for (int j = 0; j < columns; j++) {
+            for (int i = 0; i < rows; i++) {
+                retVal.set(i, j, ComplexNumber.of(tmpRandom.doubleValue(), tmpRandom.doubleValue()));
+            }
+        }
+        return retVal;
+    }
+
+    public ComplexDenseStoreTest() {
+        super();
+    }
+
+    @Test
+    public void testCholesky() {
+
+        final ComplexDenseStore tmpRandom = ComplexDenseStoreTest.makeRandom(9, 9);
+        final ComplexDenseStore tmpMatrix = ComplexDenseStore.FACTORY.makeZero(9, 9);
+        tmpMatrix.fillByMultiplying(tmpRandom.conjugate(), tmpRandom);
+
+        final Cholesky<ComplexNumber> tmpDecomposition = Cholesky.COMPLEX.make(tmpMatrix);
+        TestUtils.assertTrue(tmpDecomposition.decompose(tmpMatrix));
+        TestUtils.assertTrue(tmpDecomposition.isSolvable());
+
+        TestUtils.assertEquals(tmpMatrix, tmpDecomposition.reconstruct(), PRECISION);
+    }
+
+    @Test
+    public void testCopyConjugateTranspose() {
+
+        final ComplexDenseStore tmpMatrix = ComplexDenseStoreTest.makeRandom(7, 5);
+        final GenericDenseStore<ComplexNumber> tmpExpected = GenericDenseStore.COMPLEX.copy(tmpMatrix);
+
+        TestUtils.assertEquals(tmpExpected, ComplexDenseStore.FACTORY.copy(tmpExpected), PRECISION);
+        TestUtils.assertEquals(tmpExpected.conjugate(), ComplexDenseStore.FACTORY.conjugate(tmpMatrix), PRECISION);
+        TestUtils.assertEquals(tmpExpected.transpose(), ComplexDenseStore.FACTORY.transpose(tmpMatrix), PRECISION);
+
+        final ComplexDenseStore tmpConjugated = ComplexDenseStore.FACTORY.makeZero(5, 7);
+        tmpConjugated.fillMatching(tmpMatrix.conjugate());
+        TestUtils.assertEquals(tmpExpected.conjugate(), tmpConjugated, PRECISION);
+    }
+
+    @Test
+    public void testHermitianEigenvalue() {
+
+        final ComplexDenseStore tmpRandom = ComplexDenseStoreTest.makeRandom(8, 8);
+        final MatrixStore<ComplexNumber> tmpMatrix = tmpRandom.add(tmpRandom.conjugate()).copy();
+
+        final Eigenvalue<ComplexNumber> tmpDecomposition = Eigenvalue.COMPLEX.make(tmpMatrix, true);
+        TestUtils.assertTrue(tmpDecomposition.decompose(tmpMatrix));
+
+        TestUtils.assertEquals(tmpMatrix, tmpDecomposition.reconstruct(), PRECISION);
+    }
+
+    @Test
+    public void testLU() {
+
+        final ComplexDenseStore tmpMatrix = ComplexDenseStoreTest.makeRandom(9, 9);
+
+        final LU<ComplexNumber> tmpDecomposition = LU.COMPLEX.make(tmpMatrix);
+        TestUtils.assertTrue(tmpDecomposition.decompose(tmpMatrix));
+
+        final MatrixStore<ComplexNumber> tmpPermuted = tmpMatrix.logical().row(tmpDecomposition.getPivotOrder()).get();
+        TestUtils.assertEquals(tmpPermuted, tmpDecomposition.getL().multiply(tmpDecomposition.getU()), PRECISION);
+    }
+
+    @Test
+    public void testMultiply() {
+
+        final int[] tmpSizes = new int[] { 1, 2, 3, 5, 10, 50, 200 };
+
+        for (int s = 0; s < tmpSizes.length; s++) {
+            final int tmpDim = tmpSizes[s];
+
+            final ComplexDenseStore tmpLeft = ComplexDenseStoreTest.makeRandom(tmpDim, tmpDim + 1);
+            final ComplexDenseStore tmpRight = ComplexDenseStoreTest.makeRandom(tmpDim + 1, tmpDim);
+
+            final GenericDenseStore<ComplexNumber> tmpExpected = GenericDenseStore.COMPLEX.makeZero(tmpDim, tmpDim);
+            tmpExpected.fillByMultiplying(GenericDenseStore.COMPLEX.copy(tmpLeft), GenericDenseStore.COMPLEX.copy(tmpRight));
+
+            TestUtils.assertEquals(tmpExpected, tmpLeft.multiply(tmpRight), PRECISION);
+
+            final ComplexDenseStore tmpActual = ComplexDenseStore.FACTORY.makeZero(tmpDim, tmpDim);
+            tmpActual.fillByMultiplying(tmpLeft, tmpRight);
+            TestUtils.assertEquals(tmpExpected, tmpActual, PRECISION);
+
+            tmpActual.fillByMultiplying(tmpLeft, GenericDenseStore.COMPLEX.copy(tmpRight));
+            TestUtils.assertEquals(tmpExpected, tmpActual, PRECISION);
+        }
+    }
+
+    @Test
+    public void testQR() {
+
+        final ComplexDenseStore tmpMatrix = ComplexDenseStoreTest.makeRandom(11, 7);
+
+        final QR<ComplexNumber> tmpDecomposition = QR.COMPLEX.make(tmpMatrix);
+        TestUtils.assertTrue(tmpDecomposition.decompose(tmpMatrix));
+
+        TestUtils.assertEquals(tmpMatrix, tmpDecomposition.reconstruct(), PRECISION);
+
+        final ComplexDenseStore tmpSquare = ComplexDenseStoreTest.makeRandom(6, 6);
+        final ComplexDenseStore tmpRHS = ComplexDenseStoreTest.makeRandom(6, 2);
+        TestUtils.assertTrue(tmpDecomposition.decompose(tmpSquare));
+        final MatrixStore<ComplexNumber> tmpSolution = tmpDecomposition.getSolution(tmpRHS);
+        TestUtils.assertEquals(tmpRHS, tmpSquare.multiply(tmpSolution), PRECISION);
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.random.Normal;
+import org.ojalgo.random.Uniform;
+
+public class MappedStoreTest {
+
+    static File file() throws IOException {
+        final File retVal = File.createTempFile("ojAlgo", ".matrix");
+        retVal.deleteOnExit();
+        return retVal;
+    }
+
+    public MappedStoreTest() {
+        super();
+    }
+
+    @Test
+    public void testCorrupt() throws IOException {
+
+        final PrimitiveDenseStore tmpOriginal = PrimitiveDenseStore.FACTORY.makeFilled(7, 5, new Normal());
+
+        final File tmpIncomplete = MappedStoreTest.file();
+        boolean tmpRejected = false;
+        try (MappedStore.DenseWriter tmpWriter = MappedStore.newDenseWriter(tmpIncomplete, 7, 5)) {
+            tmpWriter.putAll(tmpOriginal.sliceColumn(0, 0));
+        } catch (final IllegalStateException exception) {
+            tmpRejected = true;
+        }
+        TestUtils.assertTrue(tmpRejected);
+
+        final File tmpFile = MappedStoreTest.file();
+        MappedStore.write(tmpFile, tmpOriginal);
+        try (RandomAccessFile tmpRaw = new RandomAccessFile(tmpFile, "rw")) {
+            tmpRaw.seek(7L);
+            tmpRaw.write(MappedStore.Layout.values().length);
+        }
+        tmpRejected = false;
+        try {
+            MappedStore.load(tmpFile);
+        } catch (final RuntimeException exception) {
+            tmpRejected = exception.getCause() instanceof IOException;
+        }
+        TestUtils.assertTrue(tmpRejected);
+    }
+
+    @Test
+    public void testDense() throws IOException {
+
+        final PrimitiveDenseStore tmpOriginal = PrimitiveDenseStore.FACTORY.makeFilled(23, 17, new Normal());
+
+        final File tmpFile = MappedStoreTest.file();
+        MappedStore.write(tmpFile, tmpOriginal);
+
+        final MappedStore tmpMapped = MappedStore.load(tmpFile);
+        TestUtils.assertEquals(MappedStore.Layout.COLUMN_MAJOR, tmpMapped.getLayout());
+        TestUtils.assertEquals(tmpOriginal, tmpMapped);
+        TestUtils.assertEquals(tmpOriginal, tmpMapped.copy());
+
+        final PrimitiveDenseStore tmpRight = PrimitiveDenseStore.FACTORY.makeFilled(17, 5, new Normal());
+        TestUtils.assertEquals(tmpOriginal.multiply(tmpRight), tmpMapped.multiply(tmpRight));
+
+        // Streamed, in row-major order
+        final File tmpRowMajor = MappedStoreTest.file();
+        try (MappedStore.DenseWriter tmpWriter = MappedStore.newDenseWriter(tmpRowMajor, 23, 17, MappedStore.Layout.ROW_MAJOR)) {
+            for (int i = 0; i < 23; i++) {
+                tmpWriter.putAll(tmpOriginal.sliceRow(i, 0));
+            }
+        }
+        TestUtils.assertEquals(tmpOriginal, MappedStore.load(tmpRowMajor));
+    }
+
+    @Test
+    public void testSparse() throws IOException {
+
+        final int tmpDim = 50;
+
+        final SparseStore<Double> tmpOriginal = SparseStore.PRIMITIVE.make(tmpDim, tmpDim + 3);
+        final Uniform tmpRandom = new Uniform();
+        for (int i = 0; i < tmpDim; i++) {
+            tmpOriginal.set(i, i, 1.0 + i);
+            tmpOriginal.set(i, (i * 7) % (tmpDim + 3), tmpRandom.doubleValue());
+        }
+        // One empty row
+        tmpOriginal.set(13, 13, 0.0);
+        tmpOriginal.set(13, (13 * 7) % (tmpDim + 3), 0.0);
+
+        final File tmpFile = MappedStoreTest.file();
+        MappedStore.write(tmpFile, tmpOriginal);
+
+        final MappedStore tmpMapped = MappedStore.load(tmpFile);
+        TestUtils.assertTrue(tmpMapped.isSparse());
+        TestUtils.assertEquals(tmpOriginal.nonzeros().estimateSize(), tmpMapped.countStored());
+        TestUtils.assertEquals(tmpOriginal, tmpMapped);
+        TestUtils.assertEquals(tmpOriginal, tmpMapped.copy());
+
+        final PrimitiveDenseStore tmpRight = PrimitiveDenseStore.FACTORY.makeFilled(tmpDim + 3, 4, new Normal());
+        TestUtils.assertEquals(tmpOriginal.multiply(tmpRight), tmpMapped.multiply(tmpRight));
+
+        for (int i = 0; i < tmpDim; i++) {
+            TestUtils.assertEquals(tmpOriginal.firstInRow(i), tmpMapped.firstInRow(i));
+        }
+
+        // Streamed, row by row
+        final File tmpStreamed = MappedStoreTest.file();
+        try (MappedStore.SparseWriter tmpWriter = MappedStore.newSparseWriter(tmpStreamed, tmpDim, tmpDim + 3)) {
+            for (int i = 0; i < tmpDim; i++) {
+                for (int j = 0; j < (tmpDim + 3); j++) {
+                    final double tmpValue = tmpOriginal.doubleValue(i, j);
+                    if (tmpValue != 0.0) {
+                        tmpWriter.put(j, tmpValue);
+                    }
+                }
+                tmpWriter.nextRow();
+            }
+        }
+        TestUtils.assertEquals(tmpOriginal, MappedStore.load(tmpStreamed));
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.function.PrimitiveFunction;
+import org.ojalgo.matrix.decomposition.LU;
+import org.ojalgo.random.Normal;
+import org.ojalgo.type.context.NumberContext;
+
+public class OffHeapStoreTest {
+
+    private static final NumberContext PRECISION = new NumberContext(8, 12);
+
+    static long getDirectMemoryUsed() {
+        for (final BufferPoolMXBean tmpPool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(tmpPool.getName())) {
+                return tmpPool.getMemoryUsed();
+            }
+        }
+        return 0L;
+    }
+
+    public OffHeapStoreTest() {
+        super();
+    }
+
+    @Test
+    public void testBulkTransferAndDecomposition() {
+
+        final PrimitiveDenseStore tmpOriginal = PrimitiveDenseStore.FACTORY.makeFilled(21, 21, new Normal());
+
+        final OffHeapStore tmpOffHeap = OffHeapStore.copy(tmpOriginal);
+        TestUtils.assertEquals(tmpOriginal, tmpOffHeap);
+
+        final double[] tmpColumns = new double[21 * 3];
+        tmpOffHeap.copyColumns(5, 8, tmpColumns);
+        for (int j = 0; j < 3; j++) {
+            for (int i = 0; i < 21; i++) {
+                TestUtils.assertEquals(tmpOriginal.doubleValue(i, 5 + j), tmpColumns[i + (j * 21)]);
+            }
+        }
+
+        tmpOffHeap.modifyAll(PrimitiveFunction.NEGATE);
+        tmpOffHeap.fillColumns(5, 8, tmpColumns);
+        TestUtils.assertEquals(-tmpOriginal.doubleValue(3, 2), tmpOffHeap.doubleValue(3, 2));
+        TestUtils.assertEquals(tmpOriginal.doubleValue(3, 6), tmpOffHeap.doubleValue(3, 6));
+        tmpOffHeap.fillMatching(tmpOriginal);
+
+        final LU<Double> tmpExpected = LU.PRIMITIVE.make(tmpOriginal);
+        tmpExpected.decompose(tmpOriginal);
+        final LU<Double> tmpActual = LU.PRIMITIVE.make(tmpOffHeap);
+        tmpActual.decompose(tmpOffHeap);
+        TestUtils.assertEquals(tmpExpected.getU(), tmpActual.getU(), PRECISION);
+
+        tmpOffHeap.dispose();
+    }
+
+    @Test
+    public void testDispose() {
+
+        final long tmpBefore = OffHeapStoreTest.getDirectMemoryUsed();
+
+        final OffHeapStore tmpOffHeap = OffHeapStore.make(500, 500);
+        tmpOffHeap.set(499, 499, 1.0);
+        TestUtils.assertEquals(1.0, tmpOffHeap.doubleValue(499, 499));
+        TestUtils.assertTrue(OffHeapStoreTest.getDirectMemoryUsed() >= (tmpBefore + (500L * 504L * 8L)));
+
+        tmpOffHeap.dispose();
+        TestUtils.assertTrue(OffHeapStoreTest.getDirectMemoryUsed() < (tmpBefore + (500L * 504L * 8L)));
+
+        try {
+            tmpOffHeap.doubleValue(0, 0);
+            TestUtils.fail();
+        } catch (final NullPointerException expected) {
+            // Disposed
+        }
+    }
+
+    @Test
+    public void testMultiply() {
+
+        final int tmpBlock = OffHeapStore.BLOCK;
+        OffHeapStore.BLOCK = 50;
+
+        try {
+
+            final PrimitiveDenseStore tmpLeft = PrimitiveDenseStore.FACTORY.makeFilled(17, 13, new Normal());
+            final PrimitiveDenseStore tmpRight = PrimitiveDenseStore.FACTORY.makeFilled(13, 9, new Normal());
+            final MatrixStore<Double> tmpExpected = tmpLeft.multiply(tmpRight);
+
+            final OffHeapStore tmpOffLeft = OffHeapStore.copy(tmpLeft);
+            final OffHeapStore tmpOffRight = OffHeapStore.copy(tmpRight);
+            final OffHeapStore tmpOffProduct = OffHeapStore.make(17, 9);
+
+            TestUtils.assertEquals(tmpExpected, tmpOffLeft.multiply(tmpRight), PRECISION);
+            TestUtils.assertEquals(tmpExpected, tmpOffLeft.multiply(tmpOffRight), PRECISION);
+
+            tmpOffLeft.multiply(tmpOffRight, tmpOffProduct);
+            TestUtils.assertEquals(tmpExpected, tmpOffProduct, PRECISION);
+
+            tmpOffProduct.reset();
+            tmpOffProduct.fillByMultiplying(tmpLeft, tmpRight);
+            TestUtils.assertEquals(tmpExpected, tmpOffProduct, PRECISION);
+
+            tmpOffLeft.dispose();
+            tmpOffRight.dispose();
+            tmpOffProduct.dispose();
+
+        } finally {
+            OffHeapStore.BLOCK = tmpBlock;
+        }
+    }
+
+}
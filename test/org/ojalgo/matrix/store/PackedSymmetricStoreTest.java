@@ -0,0 +1,108 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.function.aggregator.Aggregator;
+import org.ojalgo.matrix.decomposition.Cholesky;
+import org.ojalgo.random.Normal;
+import org.ojalgo.type.context.NumberContext;
+
+public class PackedSymmetricStoreTest {
+
+    private static final NumberContext PRECISION = new NumberContext(8, 12);
+
+    static PrimitiveDenseStore makeSPD(final int dim) {
+        final PrimitiveDenseStore tmpRandom = PrimitiveDenseStore.FACTORY.makeFilled(dim, dim, new Normal());
+        final PrimitiveDenseStore retVal = PrimitiveDenseStore.FACTORY.makeEye(dim, dim);
+        retVal.fillByMultiplying(tmpRandom, tmpRandom.transpose());
+        retVal.modifyDiagonal(0L, 0L, PrimitiveDenseStore.FACTORY.function().add().second(dim));
+        return retVal;
+    }
+
+    public PackedSymmetricStoreTest() {
+        super();
+    }
+
+    @Test
+    public void testCholesky() {
+
+        for (int dim = 1; dim <= 20; dim += 3) {
+
+            final PrimitiveDenseStore tmpOriginal = PackedSymmetricStoreTest.makeSPD(dim);
+            final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeFilled(dim, 3, new Normal());
+
+            final PackedSymmetricStore tmpPacked = PackedSymmetricStore.copy(tmpOriginal);
+            TestUtils.assertTrue(tmpPacked.decomposeCholesky());
+
+            final Cholesky<Double> tmpCholesky = Cholesky.PRIMITIVE.make(tmpOriginal);
+            tmpCholesky.decompose(tmpOriginal);
+            TestUtils.assertEquals(tmpCholesky.getL(), tmpPacked, PRECISION);
+
+            final PrimitiveDenseStore tmpSolution = tmpRHS.copy();
+            tmpPacked.solveCholesky(tmpSolution);
+            TestUtils.assertEquals(tmpRHS, tmpOriginal.multiply(tmpSolution), PRECISION);
+        }
+    }
+
+    @Test
+    public void testFillAndModify() {
+
+        final int tmpDim = 7;
+        final PrimitiveDenseStore tmpOriginal = PackedSymmetricStoreTest.makeSPD(tmpDim);
+
+        final PackedSymmetricStore tmpPacked = PackedSymmetricStore.make(tmpDim);
+        tmpOriginal.supplyTo(tmpPacked);
+        TestUtils.assertEquals(tmpOriginal, tmpPacked);
+        TestUtils.assertEquals(tmpOriginal, tmpPacked.transpose());
+
+        tmpPacked.modifyAll(PrimitiveDenseStore.FACTORY.function().multiply().second(2.0));
+        TestUtils.assertEquals(tmpOriginal.multiply(2.0), tmpPacked, PRECISION);
+        TestUtils.assertEquals(tmpOriginal.multiply(3.0), tmpPacked.multiply(1.5), PRECISION);
+
+        tmpPacked.reset();
+        TestUtils.assertEquals(0.0, tmpPacked.aggregateAll(Aggregator.LARGEST).doubleValue(), PRECISION);
+    }
+
+    @Test
+    public void testMultiply() {
+
+        final int tmpDim = 9;
+        final PrimitiveDenseStore tmpOriginal = PackedSymmetricStoreTest.makeSPD(tmpDim);
+        final PrimitiveDenseStore tmpRight = PrimitiveDenseStore.FACTORY.makeFilled(tmpDim, 4, new Normal());
+
+        final PackedSymmetricStore tmpPacked = PackedSymmetricStore.copy(tmpOriginal);
+
+        TestUtils.assertEquals(tmpOriginal.multiply(tmpRight), tmpPacked.multiply(tmpRight), PRECISION);
+    }
+
+    @Test
+    public void testNotPositiveDefinite() {
+
+        final PrimitiveDenseStore tmpOriginal = PackedSymmetricStoreTest.makeSPD(5);
+        tmpOriginal.set(3, 3, -1.0);
+
+        TestUtils.assertFalse(PackedSymmetricStore.copy(tmpOriginal).decomposeCholesky());
+    }
+
+}
@@ -22,10 +22,70 @@
 package org.ojalgo.matrix.store;
 
 import org.junit.jupiter.api.Test;
+import org.ojalgo.ProgrammingError;
 import org.ojalgo.TestUtils;
+import org.ojalgo.function.PrimitiveFunction;
+import org.ojalgo.function.RationalFunction;
+import org.ojalgo.random.Uniform;
+import org.ojalgo.scalar.RationalNumber;
 
 public class SuppliersAndConsumers extends AbstractMatrixStoreTest {
 
+    @Test
+    public void testFusedElementWise() {
+
+        final Uniform tmpUniform = new Uniform();
+
+        for (final int tmpDim : new int[] { 3, 97 }) {
+
+            final PrimitiveDenseStore tmpA = PrimitiveDenseStore.FACTORY.makeFilled(tmpDim, tmpDim, tmpUniform);
+            final PrimitiveDenseStore tmpB = PrimitiveDenseStore.FACTORY.makeFilled(tmpDim, tmpDim, tmpUniform);
+            final PrimitiveDenseStore tmpC = PrimitiveDenseStore.FACTORY.makeFilled(tmpDim, tmpDim, tmpUniform);
+
+            final PrimitiveDenseStore tmpExpected = tmpA.copy();
+            tmpExpected.modifyAll(PrimitiveFunction.SQRT);
+            tmpExpected.modifyMatching(PrimitiveFunction.MULTIPLY, tmpB);
+            tmpExpected.modifyMatching(tmpC, PrimitiveFunction.SUBTRACT);
+            tmpExpected.modifyAll(PrimitiveFunction.NEGATE);
+
+            final ElementsSupplier<Double> tmpChain = tmpA.operateOnAll(PrimitiveFunction.SQRT).operateOnMatching(PrimitiveFunction.MULTIPLY, tmpB)
+                    .operateOnMatching(tmpC, PrimitiveFunction.SUBTRACT).operateOnAll(PrimitiveFunction.NEGATE);
+
+            final PrimitiveDenseStore tmpActual = PrimitiveDenseStore.FACTORY.makeZero(tmpDim, tmpDim);
+            tmpChain.supplyTo(tmpActual);
+            TestUtils.assertEquals(tmpExpected, tmpActual);
+
+            final GenericDenseStore<RationalNumber> tmpGeneric = GenericDenseStore.RATIONAL.makeZero(tmpDim, tmpDim);
+            GenericDenseStore.RATIONAL.copy(tmpA).operateOnAll(RationalFunction.NEGATE)
+                    .operateOnMatching(RationalFunction.ADD, GenericDenseStore.RATIONAL.copy(tmpB)).supplyTo(tmpGeneric);
+            final PrimitiveDenseStore tmpExpectedGeneric = tmpB.copy();
+            tmpExpectedGeneric.modifyMatching(PrimitiveFunction.SUBTRACT, tmpA);
+            TestUtils.assertEquals(tmpExpectedGeneric, tmpGeneric);
+
+            final PrimitiveDenseStore tmpProductExpected = PrimitiveDenseStore.FACTORY.makeZero(tmpDim, tmpDim);
+            tmpB.premultiply(tmpA).supplyTo(tmpProductExpected);
+            tmpProductExpected.modifyAll(PrimitiveFunction.NEGATE);
+            final PrimitiveDenseStore tmpProductActual = PrimitiveDenseStore.FACTORY.makeZero(tmpDim, tmpDim);
+            tmpB.premultiply(tmpA).operateOnAll(PrimitiveFunction.NEGATE).supplyTo(tmpProductActual);
+            TestUtils.assertEquals(tmpProductExpected, tmpProductActual);
+
+            final PrimitiveDenseStore tmpInPlace = tmpA.copy();
+            tmpInPlace.operateOnAll(PrimitiveFunction.SQRT).operateOnMatching(PrimitiveFunction.MULTIPLY, tmpB).supplyTo(tmpInPlace);
+            final PrimitiveDenseStore tmpProduct = PrimitiveDenseStore.FACTORY.makeZero(tmpDim, tmpDim);
+            tmpA.transpose().operateOnAll(PrimitiveFunction.SQRT).operateOnMatching(PrimitiveFunction.MULTIPLY, tmpB.transpose()).supplyTo(tmpProduct);
+            TestUtils.assertEquals(tmpInPlace.transpose(), tmpProduct);
+
+            // A mismatched operand is rejected when the step is created, not deep inside the evaluation
+            boolean tmpRejected = false;
+            try {
+                tmpA.operateOnAll(PrimitiveFunction.SQRT).operateOnMatching(PrimitiveFunction.MULTIPLY, tmpB.logical().column(0).get());
+            } catch (final ProgrammingError exception) {
+                tmpRejected = true;
+            }
+            TestUtils.assertTrue(tmpRejected);
+        }
+    }
+
     @Test
     public void testMultiplyingAndTransposing() {
 
@@ -0,0 +1,199 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.matrix.store;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.ProgrammingError;
+import org.ojalgo.TestUtils;
+import org.ojalgo.function.PrimitiveFunction;
+import org.ojalgo.matrix.decomposition.LU;
+import org.ojalgo.random.Normal;
+import org.ojalgo.type.context.NumberContext;
+
+public class TiledFileStoreTest {
+
+    private static final NumberContext PRECISION = new NumberContext(8, 10);
+
+    static TiledFileStore make(final int rows, final int columns, final int tileSize) {
+        try {
+            final File tmpFile = File.createTempFile("ojAlgo", ".tiles");
+            tmpFile.deleteOnExit();
+            return TiledFileStore.make(tmpFile, rows, columns, tileSize);
+        } catch (final IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    public TiledFileStoreTest() {
+        super();
+    }
+
+    @Test
+    public void testCholesky() {
+
+        final int tmpDim = 31;
+
+        final PrimitiveDenseStore tmpRandom = PrimitiveDenseStore.FACTORY.makeFilled(tmpDim, tmpDim, new Normal());
+        final PrimitiveDenseStore tmpOriginal = PrimitiveDenseStore.FACTORY.makeZero(tmpDim, tmpDim);
+        tmpOriginal.fillByMultiplying(tmpRandom, tmpRandom.transpose());
+
+        try (final TiledFileStore tmpTiled = TiledFileStoreTest.make(tmpDim, tmpDim, 7)) {
+
+            tmpOriginal.supplyTo(tmpTiled);
+            TestUtils.assertEquals(tmpOriginal, tmpTiled);
+
+            TestUtils.assertTrue(tmpTiled.decomposeCholesky());
+            TestUtils.assertEquals(tmpOriginal, tmpTiled.multiply(tmpTiled.transpose()), PRECISION);
+
+            final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeFilled(tmpDim, 3, new Normal());
+            final PrimitiveDenseStore tmpSolution = tmpRHS.copy();
+            tmpTiled.solveCholesky(tmpSolution);
+            TestUtils.assertEquals(tmpRHS, tmpOriginal.multiply(tmpSolution), PRECISION);
+
+            // Out-of-core products with the (lower triangular) factor, from both sides
+            final PrimitiveDenseStore tmpL = PrimitiveDenseStore.FACTORY.copy(tmpTiled);
+            final PrimitiveDenseStore tmpDenseRight = PrimitiveDenseStore.FACTORY.makeFilled(tmpDim, 5, new Normal());
+            final PrimitiveDenseStore tmpDenseLeft = PrimitiveDenseStore.FACTORY.makeFilled(5, tmpDim, new Normal());
+            try (TiledFileStore tmpRight = TiledFileStoreTest.make(tmpDim, 5, 7);
+                    TiledFileStore tmpLeft = TiledFileStoreTest.make(5, tmpDim, 7);
+                    TiledFileStore tmpProductRight = TiledFileStoreTest.make(tmpDim, 5, 7);
+                    TiledFileStore tmpProductLeft = TiledFileStoreTest.make(5, tmpDim, 7)) {
+
+                tmpDenseRight.supplyTo(tmpRight);
+                tmpDenseLeft.supplyTo(tmpLeft);
+
+                tmpTiled.multiply(tmpRight, tmpProductRight);
+                TestUtils.assertEquals(tmpL.multiply(tmpDenseRight), tmpProductRight, PRECISION);
+
+                tmpLeft.multiply(tmpTiled, tmpProductLeft);
+                TestUtils.assertEquals(tmpDenseLeft.multiply(tmpL), tmpProductLeft, PRECISION);
+            }
+
+            boolean tmpRejected = false;
+            try {
+                tmpTiled.multiply(tmpTiled, tmpTiled);
+            } catch (final ProgrammingError exception) {
+                tmpRejected = true;
+            }
+            TestUtils.assertTrue(tmpRejected);
+
+            // Modifying an element invalidates the factorisation
+            tmpTiled.set(0, 1, 1.5);
+            TestUtils.assertEquals(1.5, tmpTiled.doubleValue(0, 1));
+        }
+    }
+
+    @Test
+    public void testElementsAndPersistence() throws IOException {
+
+        final PrimitiveDenseStore tmpOriginal = PrimitiveDenseStore.FACTORY.makeFilled(23, 17, new Normal());
+
+        final File tmpFile = File.createTempFile("ojAlgo", ".tiles");
+        tmpFile.deleteOnExit();
+
+        try (final TiledFileStore tmpTiled = TiledFileStore.make(tmpFile, 23, 17, 5)) {
+            // More tiles than the cache holds
+            for (int j = 0; j < 17; j++) {
+                for (int i = 0; i < 23; i++) {
+                    tmpTiled.set(i, j, tmpOriginal.doubleValue(i, j));
+                }
+            }
+            TestUtils.assertEquals(tmpOriginal, tmpTiled);
+        }
+
+        try (final TiledFileStore tmpTiled = TiledFileStore.make(tmpFile, 23, 17, 5)) {
+
+            TestUtils.assertEquals(tmpOriginal, tmpTiled);
+
+            tmpTiled.modifyAll(PrimitiveFunction.NEGATE);
+            tmpTiled.modifyMatching(PrimitiveFunction.ADD, tmpOriginal);
+            TestUtils.assertEquals(PrimitiveDenseStore.FACTORY.makeZero(23, 17), tmpTiled);
+
+            tmpTiled.add(3, 4, 1.5);
+            TestUtils.assertEquals(1.5, tmpTiled.doubleValue(3, 4));
+
+            tmpTiled.reset();
+            TestUtils.assertEquals(PrimitiveDenseStore.FACTORY.makeZero(23, 17), tmpTiled);
+        }
+    }
+
+    @Test
+    public void testLU() {
+
+        final int tmpDim = 29;
+
+        final PrimitiveDenseStore tmpOriginal = PrimitiveDenseStore.FACTORY.makeFilled(tmpDim, tmpDim, new Normal());
+
+        try (final TiledFileStore tmpTiled = TiledFileStoreTest.make(tmpDim, tmpDim, 6)) {
+
+            tmpOriginal.supplyTo(tmpTiled);
+            TestUtils.assertTrue(tmpTiled.decomposeLU());
+
+            // [P][A] = [L][U] with the row exchanges applied in order (LAPACK style pivots)
+            final PrimitiveDenseStore tmpPermuted = tmpOriginal.copy();
+            final int[] tmpPivots = tmpTiled.getPivots();
+            for (int i = 0; i < tmpPivots.length; i++) {
+                tmpPermuted.exchangeRows(i, tmpPivots[i]);
+            }
+            final MatrixStore<Double> tmpL = tmpTiled.logical().triangular(false, true).get();
+            final MatrixStore<Double> tmpU = tmpTiled.logical().triangular(true, false).get();
+            TestUtils.assertEquals(tmpPermuted, tmpL.multiply(tmpU), PRECISION);
+
+            final LU<Double> tmpLU = LU.PRIMITIVE.make(tmpOriginal);
+            tmpLU.decompose(tmpOriginal);
+            TestUtils.assertEquals(tmpLU.getU(), tmpU, PRECISION);
+
+            final PrimitiveDenseStore tmpRHS = PrimitiveDenseStore.FACTORY.makeFilled(tmpDim, 2, new Normal());
+            final PrimitiveDenseStore tmpSolution = tmpRHS.copy();
+            tmpTiled.solveLU(tmpSolution);
+            TestUtils.assertEquals(tmpLU.getSolution(tmpRHS), tmpSolution, PRECISION);
+        }
+    }
+
+    @Test
+    public void testMultiply() {
+
+        final PrimitiveDenseStore tmpLeft = PrimitiveDenseStore.FACTORY.makeFilled(19, 13, new Normal());
+        final PrimitiveDenseStore tmpRight = PrimitiveDenseStore.FACTORY.makeFilled(13, 11, new Normal());
+        final MatrixStore<Double> tmpExpected = tmpLeft.multiply(tmpRight);
+
+        try (TiledFileStore tmpA = TiledFileStoreTest.make(19, 13, 4);
+                TiledFileStore tmpB = TiledFileStoreTest.make(13, 11, 4);
+                TiledFileStore tmpC = TiledFileStoreTest.make(19, 11, 4)) {
+
+            tmpLeft.supplyTo(tmpA);
+            tmpRight.supplyTo(tmpB);
+
+            tmpA.multiply(tmpB, tmpC);
+            TestUtils.assertEquals(tmpExpected, tmpC, PRECISION);
+
+            TestUtils.assertEquals(tmpExpected, tmpA.multiply(tmpRight), PRECISION);
+
+            tmpC.fillByMultiplying(tmpLeft, tmpRight);
+            TestUtils.assertEquals(tmpExpected, tmpC, PRECISION);
+        }
+    }
+
+}
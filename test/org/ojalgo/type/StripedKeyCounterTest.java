@@ -0,0 +1,70 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.type;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+import org.ojalgo.concurrent.DaemonPoolExecutor;
+
+/**
+ * @author apete
+ */
+public class StripedKeyCounterTest {
+
+    @Test
+    public void testConcurrentCounting() throws InterruptedException, ExecutionException {
+
+        final int tmpThreads = 8;
+        final int tmpIncrements = 100_000;
+
+        final StripedKeyCounter<String> tmpCounter = new StripedKeyCounter<>();
+
+        final List<Future<?>> tmpFutures = new ArrayList<>();
+        for (int t = 0; t < tmpThreads; t++) {
+            tmpFutures.add(DaemonPoolExecutor.invoke(() -> {
+                for (int i = 0; i < tmpIncrements; i++) {
+                    tmpCounter.increment("A");
+                    tmpCounter.add(i % 2 == 0 ? "B" : "C", 2L);
+                }
+            }));
+        }
+        for (final Future<?> tmpFuture : tmpFutures) {
+            tmpFuture.get();
+        }
+
+        TestUtils.assertEquals((long) tmpThreads * tmpIncrements, tmpCounter.get("A"));
+        TestUtils.assertEquals((long) tmpThreads * tmpIncrements, tmpCounter.get("B"));
+        TestUtils.assertEquals((long) tmpThreads * tmpIncrements, tmpCounter.get("C"));
+        TestUtils.assertEquals(3L * tmpThreads * tmpIncrements, tmpCounter.total());
+        TestUtils.assertEquals(0L, tmpCounter.get("D"));
+
+        tmpCounter.reset("A");
+        tmpCounter.decrement("A");
+        TestUtils.assertEquals(-1L, tmpCounter.get("A"));
+    }
+
+}
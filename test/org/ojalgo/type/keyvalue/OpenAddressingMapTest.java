@@ -0,0 +1,163 @@
+/*
+ * Copyright 1997-2018 Optimatika
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.ojalgo.type.keyvalue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.ojalgo.TestUtils;
+
+/**
+ * Compares the open-addressing maps with {@link HashMap} given the same random sequence of operations. Few
+ * distinct keys and many removals makes sure the backward shifting deletes are exercised.
+ *
+ * @author apete
+ */
+public class OpenAddressingMapTest {
+
+    private static final int KEYS = 500;
+    private static final int OPERATIONS = 20_000;
+
+    @Test
+    public void testIntToDoubleMap() {
+
+        final Random tmpRandom = new Random(123L);
+        final IntToDoubleMap tmpMap = new IntToDoubleMap();
+        final Map<Integer, Double> tmpExpected = new HashMap<>();
+
+        for (int o = 0; o < OPERATIONS; o++) {
+            final int tmpKey = tmpRandom.nextInt(KEYS) * 1_024;
+            final double tmpValue = tmpRandom.nextDouble();
+            switch (tmpRandom.nextInt(4)) {
+            case 0:
+                TestUtils.assertEquals(tmpExpected.getOrDefault(tmpKey, Double.NaN).doubleValue(), tmpMap.remove(tmpKey));
+                tmpExpected.remove(tmpKey);
+                break;
+            case 1:
+                tmpExpected.merge(tmpKey, tmpValue, Double::sum);
+                TestUtils.assertEquals(tmpExpected.get(tmpKey), tmpMap.add(tmpKey, tmpValue), 1E-12);
+                break;
+            default:
+                TestUtils.assertEquals(tmpExpected.getOrDefault(tmpKey, Double.NaN).doubleValue(), tmpMap.put(tmpKey, tmpValue));
+                tmpExpected.put(tmpKey, tmpValue);
+                break;
+            }
+        }
+
+        TestUtils.assertEquals(tmpExpected.size(), tmpMap.size());
+        for (int k = 0; k < KEYS; k++) {
+            final int tmpKey = k * 1_024;
+            TestUtils.assertEquals(tmpExpected.containsKey(tmpKey), tmpMap.containsKey(tmpKey));
+            TestUtils.assertEquals(tmpExpected.getOrDefault(tmpKey, Double.NaN).doubleValue(), tmpMap.get(tmpKey), 1E-12);
+        }
+        tmpMap.forEach((key, value) -> TestUtils.assertEquals(tmpExpected.get(key), value, 1E-12));
+
+        tmpMap.clear();
+        TestUtils.assertTrue(tmpMap.isEmpty());
+        TestUtils.assertEquals(Double.NaN, tmpMap.get(0));
+    }
+
+    @Test
+    public void testIntToIntMap() {
+
+        final Random tmpRandom = new Random(456L);
+        final IntToIntMap tmpMap = new IntToIntMap(10);
+        final Map<Integer, Integer> tmpExpected = new HashMap<>();
+
+        for (int o = 0; o < OPERATIONS; o++) {
+            final int tmpKey = tmpRandom.nextInt(KEYS) - (KEYS / 2);
+            if (tmpRandom.nextInt(3) == 0) {
+                TestUtils.assertEquals(tmpExpected.getOrDefault(tmpKey, 0).intValue(), tmpMap.remove(tmpKey));
+                tmpExpected.remove(tmpKey);
+            } else {
+                tmpExpected.merge(tmpKey, 1, Integer::sum);
+                TestUtils.assertEquals(tmpExpected.get(tmpKey).intValue(), tmpMap.add(tmpKey, 1));
+            }
+        }
+
+        TestUtils.assertEquals(tmpExpected.size(), tmpMap.size());
+        final int[] tmpKeys = tmpMap.keys();
+        final int[] tmpValues = tmpMap.values();
+        for (int i = 0; i < tmpKeys.length; i++) {
+            TestUtils.assertEquals(tmpExpected.get(tmpKeys[i]).intValue(), tmpValues[i]);
+        }
+    }
+
+    @Test
+    public void testLongToDoubleMap() {
+
+        final Random tmpRandom = new Random(789L);
+        final LongToDoubleMap tmpMap = new LongToDoubleMap();
+        final Map<Long, Double> tmpExpected = new HashMap<>();
+
+        for (int o = 0; o < OPERATIONS; o++) {
+            final long tmpKey = (tmpRandom.nextInt(KEYS) + 1L) << 32;
+            final double tmpValue = tmpRandom.nextDouble();
+            if (tmpRandom.nextInt(3) == 0) {
+                TestUtils.assertEquals(tmpExpected.getOrDefault(tmpKey, Double.NaN).doubleValue(), tmpMap.remove(tmpKey));
+                tmpExpected.remove(tmpKey);
+            } else {
+                TestUtils.assertEquals(tmpExpected.getOrDefault(tmpKey, Double.NaN).doubleValue(), tmpMap.put(tmpKey, tmpValue));
+                tmpExpected.put(tmpKey, tmpValue);
+            }
+        }
+
+        TestUtils.assertEquals(tmpExpected.size(), tmpMap.size());
+        tmpExpected.forEach((key, value) -> TestUtils.assertEquals(value.doubleValue(), tmpMap.get(key)));
+    }
+
+    @Test
+    public void testObjectToIntMap() {
+
+        final Random tmpRandom = new Random(321L);
+        final ObjectToIntMap<String> tmpMap = new ObjectToIntMap<>();
+        final Map<String, Integer> tmpExpected = new HashMap<>();
+
+        for (int o = 0; o < OPERATIONS; o++) {
+            final String tmpKey = "key" + tmpRandom.nextInt(KEYS);
+            if (tmpRandom.nextInt(3) == 0) {
+                TestUtils.assertEquals(tmpExpected.getOrDefault(tmpKey, 0).intValue(), tmpMap.remove(tmpKey));
+                tmpExpected.remove(tmpKey);
+            } else {
+                tmpExpected.merge(tmpKey, 2, Integer::sum);
+                TestUtils.assertEquals(tmpExpected.get(tmpKey).intValue(), tmpMap.add(tmpKey, 2));
+            }
+        }
+
+        TestUtils.assertEquals(tmpExpected.size(), tmpMap.size());
+        for (final String tmpKey : tmpMap.keys()) {
+            TestUtils.assertEquals(tmpExpected.get(tmpKey).intValue(), tmpMap.get(tmpKey));
+        }
+
+        boolean tmpRejected = false;
+        try {
+            tmpMap.put(null, 1);
+        } catch (final NullPointerException exception) {
+            tmpRejected = true;
+        }
+        TestUtils.assertTrue(tmpRejected);
+        TestUtils.assertEquals(tmpExpected.size(), tmpMap.size());
+    }
+
+}